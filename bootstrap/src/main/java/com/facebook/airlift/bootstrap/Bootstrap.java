@@ -15,6 +15,7 @@
  */
 package com.facebook.airlift.bootstrap;
 
+import com.facebook.airlift.bootstrap.StartupProfile.Phase;
 import com.facebook.airlift.configuration.ConfigurationFactory;
 import com.facebook.airlift.configuration.ConfigurationInspector;
 import com.facebook.airlift.configuration.ConfigurationInspector.ConfigAttribute;
@@ -25,6 +26,7 @@ import com.facebook.airlift.configuration.WarningsMonitor;
 import com.facebook.airlift.log.Logger;
 import com.facebook.airlift.log.Logging;
 import com.facebook.airlift.log.LoggingConfiguration;
+import com.facebook.airlift.tracetoken.TraceTokenManager;
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -35,6 +37,7 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.inject.Binder;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Module;
 import com.google.inject.Stage;
 import com.google.inject.spi.Message;
@@ -52,9 +55,17 @@ import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.facebook.airlift.bootstrap.StartupProfile.Phase.CREATE_INJECTOR;
+import static com.facebook.airlift.bootstrap.StartupProfile.Phase.LOAD_CONFIGURATION;
+import static com.facebook.airlift.bootstrap.StartupProfile.Phase.LOG_CONFIGURATION;
+import static com.facebook.airlift.bootstrap.StartupProfile.Phase.REGISTER_CONFIGURATION;
+import static com.facebook.airlift.bootstrap.StartupProfile.Phase.START_LIFE_CYCLE;
+import static com.facebook.airlift.bootstrap.StartupProfile.Phase.VALIDATE_CONFIGURATION;
 import static com.facebook.airlift.configuration.ConfigurationLoader.getSystemProperties;
 import static com.facebook.airlift.configuration.ConfigurationLoader.loadPropertiesFrom;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.lang.Boolean.parseBoolean;
+import static java.lang.String.format;
 
 /**
  * Entry point for an application built using the platform codebase.
@@ -78,6 +89,7 @@ public class Bootstrap
     private boolean quiet = getDefaultFromProperties("bootstrap.quiet", false);
     private boolean strictConfig = getDefaultFromProperties("bootstrap.strict-config", true);
     private boolean requireExplicitBindings = getDefaultFromProperties("bootstrap.require-explicit-bindings", true);
+    private int lifeCycleThreads = 1;
     private static final Pattern ENV_PATTERN = Pattern.compile("\\$\\{ENV:([a-zA-Z][a-zA-Z0-9_]*)}");
 
     private boolean initialized;
@@ -163,6 +175,20 @@ public class Bootstrap
         return this;
     }
 
+    /**
+     * Run the {@link jakarta.annotation.PostConstruct} and {@link jakarta.annotation.PreDestroy}
+     * methods of independent instances concurrently, on up to the given number of threads.
+     * PostConstruct methods then run after the injector is created, so constructors must not
+     * rely on their dependencies having been started.
+     */
+    @Beta
+    public Bootstrap parallelLifeCycle(int maxThreads)
+    {
+        Preconditions.checkArgument(maxThreads >= 1, "maxThreads must be at least 1");
+        this.lifeCycleThreads = maxThreads;
+        return this;
+    }
+
     public Injector initialize()
     {
         Preconditions.checkState(!initialized, "Already initialized");
@@ -175,6 +201,9 @@ public class Bootstrap
 
         Thread.currentThread().setUncaughtExceptionHandler((thread, throwable) -> log.error(throwable, "Uncaught exception in thread %s", thread.getName()));
 
+        StartupProfile profile = new StartupProfile();
+        long phaseStart = System.nanoTime();
+
         Map<String, String> requiredProperties;
         ConfigurationFactory configurationFactory;
         if (requiredConfigurationProperties == null) {
@@ -214,11 +243,17 @@ public class Bootstrap
             logging.configure(configuration);
         }
 
+        profile.record(LOAD_CONFIGURATION, phaseStart);
+
         // Register configuration classes defined in the modules
+        phaseStart = System.nanoTime();
         configurationFactory.registerConfigurationClasses(modules);
+        profile.record(REGISTER_CONFIGURATION, phaseStart);
 
         // Validate configuration classes
+        phaseStart = System.nanoTime();
         List<Message> messages = configurationFactory.validateRegisteredConfigurationProvider();
+        profile.record(VALIDATE_CONFIGURATION, phaseStart);
 
         // at this point all config file properties should be used
         // so we can calculate the unused properties
@@ -226,18 +261,21 @@ public class Bootstrap
         unusedProperties.keySet().removeAll(configurationFactory.getUsedProperties());
 
         // Log effective configuration
+        phaseStart = System.nanoTime();
         if (!quiet) {
             logConfiguration(configurationFactory, unusedProperties);
         }
+        profile.record(LOG_CONFIGURATION, phaseStart);
 
         // system modules
         Builder<Module> moduleList = ImmutableList.builder();
-        moduleList.add(new LifeCycleModule());
+        moduleList.add(new LifeCycleModule(lifeCycleThreads));
         moduleList.add(new ConfigurationModule(configurationFactory));
         if (!messages.isEmpty()) {
             moduleList.add(new ValidationErrorModule(messages));
         }
         moduleList.add(binder -> binder.bind(WarningsMonitor.class).toInstance(log::warn));
+        moduleList.add(binder -> binder.bind(StartupProfile.class).toInstance(profile));
 
         // disable broken Guice "features"
         moduleList.add(Binder::disableCircularProxies);
@@ -260,19 +298,66 @@ public class Bootstrap
         moduleList.addAll(modules);
 
         // create the injector
+        phaseStart = System.nanoTime();
         Injector injector = Guice.createInjector(Stage.PRODUCTION, moduleList.build());
+        profile.record(CREATE_INJECTOR, phaseStart);
+
+        // include the request trace token in structured log files
+        if (logging != null) {
+            if (injector.getExistingBinding(Key.get(TraceTokenManager.class)) != null) {
+                logging.setTraceTokenManager(injector.getInstance(TraceTokenManager.class));
+            }
+        }
 
         // Create the life-cycle manager
+        phaseStart = System.nanoTime();
         LifeCycleManager lifeCycleManager = injector.getInstance(LifeCycleManager.class);
 
         // Start services
         if (lifeCycleManager.size() > 0) {
             lifeCycleManager.start();
         }
+        profile.record(START_LIFE_CYCLE, phaseStart);
+
+        if (!quiet) {
+            logStartupProfile(profile, lifeCycleManager);
+        }
 
         return injector;
     }
 
+    private void logStartupProfile(StartupProfile profile, LifeCycleManager lifeCycleManager)
+    {
+        ColumnPrinter phasePrinter = new ColumnPrinter("STARTUP PHASE", "TIME");
+        for (Phase phase : Phase.values()) {
+            phasePrinter.addValues(phase.getDescription(), format("%.2fms", profile.getMillis(phase)));
+        }
+        phasePrinter.addValues("total", format("%.2fms", profile.getTotalMillis()));
+        try (PrintWriter out = new PrintWriter(new LoggingWriter(log))) {
+            phasePrinter.print(out);
+        }
+
+        // the per-instance table can be long, so it is only for debugging slow startups
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+
+        List<Entry<Class<?>, Long>> startupTimes = lifeCycleManager.getStartupTimes().stream()
+                .sorted(Entry.<Class<?>, Long>comparingByValue().reversed())
+                .collect(toImmutableList());
+        if (startupTimes.isEmpty()) {
+            return;
+        }
+
+        ColumnPrinter instancePrinter = new ColumnPrinter("INSTANCE", "POST CONSTRUCT TIME");
+        for (Entry<Class<?>, Long> startupTime : startupTimes) {
+            instancePrinter.addValues(startupTime.getKey().getName(), format("%.2fms", startupTime.getValue() / 1_000_000.0));
+        }
+        try (PrintWriter out = new PrintWriter(new LoggingWriter(log::debug))) {
+            instancePrinter.print(out);
+        }
+    }
+
     private void logConfiguration(ConfigurationFactory configurationFactory, Map<String, String> unusedProperties)
     {
         ColumnPrinter columnPrinter = makePrinterForConfiguration(configurationFactory);
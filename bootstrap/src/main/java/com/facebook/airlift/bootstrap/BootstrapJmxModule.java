@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.bootstrap;
+
+import com.google.common.annotations.Beta;
+import com.google.inject.Binder;
+import com.google.inject.Module;
+
+import static org.weakref.jmx.guice.ExportBinder.newExporter;
+
+/**
+ * Exports the {@link StartupProfile} bound by {@link Bootstrap}.
+ */
+@Beta
+public class BootstrapJmxModule
+        implements Module
+{
+    @Override
+    public void configure(Binder binder)
+    {
+        newExporter(binder).export(StartupProfile.class).as("com.facebook.airlift.bootstrap:name=StartupProfile");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.bootstrap;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.HasDependencies;
+import com.google.inject.spi.ProvisionListener.ProvisionInvocation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static com.google.common.collect.Sets.newIdentityHashSet;
+
+/**
+ * Records the life cycle instances provisioned by an injector, and resolves which of
+ * them each instance depends on. An instance depends on the life cycle instances
+ * provisioned while it was provisioned, and on those bound to the keys its binding
+ * depends on, directly or through bindings of other keys.
+ */
+final class LifeCycleDependencies
+{
+    private final ThreadLocal<Deque<Set<Object>>> provisioning = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Map<Object, Set<Object>> provisionedDependencies = new IdentityHashMap<>();
+    private final Map<Object, Binding<?>> bindings = new IdentityHashMap<>();
+    private final ListMultimap<Key<?>, Object> instancesByKey = ArrayListMultimap.create();
+    private volatile boolean resolved;
+
+    public Object provision(ProvisionInvocation<?> provision, Predicate<Object> isLifeCycleInstance)
+    {
+        if (resolved) {
+            return provision.provision();
+        }
+
+        Deque<Set<Object>> stack = provisioning.get();
+        Set<Object> nested = newIdentityHashSet();
+        stack.push(nested);
+        Object instance;
+        try {
+            instance = provision.provision();
+        }
+        finally {
+            stack.pop();
+        }
+
+        Set<Object> parent = stack.peek();
+        if ((instance != null) && isLifeCycleInstance.test(instance)) {
+            synchronized (this) {
+                provisionedDependencies.put(instance, nested);
+                bindings.put(instance, provision.getBinding());
+                instancesByKey.put(provision.getBinding().getKey(), instance);
+            }
+            if (parent != null) {
+                parent.add(instance);
+            }
+        }
+        else if (parent != null) {
+            // dependencies of an instance without life cycle methods are dependencies of the instance that needed it
+            parent.addAll(nested);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the life cycle instances each of the given instances depends on. Instances
+     * provisioned afterwards are no longer recorded.
+     */
+    public synchronized Map<Object, Set<Object>> resolve(Injector injector, List<Object> instances)
+    {
+        Map<Object, Set<Object>> dependencies = new IdentityHashMap<>();
+        for (Object instance : instances) {
+            Set<Object> found = newIdentityHashSet();
+            found.addAll(provisionedDependencies.getOrDefault(instance, ImmutableSet.of()));
+            Binding<?> binding = bindings.get(instance);
+            if (binding != null) {
+                collect(injector, binding, found, new HashSet<>());
+            }
+            found.remove(instance);
+            dependencies.put(instance, found);
+        }
+
+        resolved = true;
+        provisionedDependencies.clear();
+        bindings.clear();
+        instancesByKey.clear();
+        return dependencies;
+    }
+
+    private void collect(Injector injector, Binding<?> binding, Set<Object> found, Set<Key<?>> visited)
+    {
+        if (!(binding instanceof HasDependencies)) {
+            return;
+        }
+        for (Dependency<?> dependency : ((HasDependencies) binding).getDependencies()) {
+            Key<?> key = dependency.getKey();
+            if (!visited.add(key)) {
+                continue;
+            }
+            List<Object> keyInstances = instancesByKey.get(key);
+            if (!keyInstances.isEmpty()) {
+                found.addAll(keyInstances);
+                continue;
+            }
+            Binding<?> keyBinding = injector.getExistingBinding(key);
+            if (keyBinding != null) {
+                collect(injector, keyBinding, found, visited);
+            }
+        }
+    }
+}
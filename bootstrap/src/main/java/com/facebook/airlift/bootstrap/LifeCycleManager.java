@@ -16,6 +16,10 @@
 package com.facebook.airlift.bootstrap;
 
 import com.facebook.airlift.log.Logger;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
@@ -23,14 +27,27 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Maps.immutableEntry;
+import static com.google.common.collect.Sets.newIdentityHashSet;
 import static java.lang.String.format;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 
 /**
  * Manages PostConstruct and PreDestroy life cycles
@@ -42,6 +59,11 @@ public final class LifeCycleManager
     private final Queue<Object> managedInstances = new ConcurrentLinkedQueue<>();
     private final LifeCycleMethodsMap methodsMap;
     private final AtomicReference<Thread> shutdownHook = new AtomicReference<>();
+    private final int maxThreads;
+    private final Function<List<Object>, Map<Object, Set<Object>>> dependencyResolver;
+    private final Queue<Entry<Class<?>, Long>> startupTimes = new ConcurrentLinkedQueue<>();
+    // for each instance started in parallel that has PreDestroy methods, the instances it depends on that have them too
+    private volatile Map<Object, Set<Object>> stopDependencies = ImmutableMap.of();
 
     /**
      * Provides a mechanism to handle exceptions raised from {@link PreDestroy} methods in
@@ -70,7 +92,25 @@ public final class LifeCycleManager
     public LifeCycleManager(List<Object> managedInstances, LifeCycleMethodsMap methodsMap)
             throws LifeCycleStartException
     {
+        this(managedInstances, methodsMap, 1, instances -> ImmutableMap.of());
+    }
+
+    /**
+     * With more than one thread, {@link PostConstruct} methods of instances added before
+     * {@link #start()} are deferred until then, and run concurrently on up to {@code maxThreads}
+     * threads, each after those of the instances it depends on. {@link PreDestroy} methods of
+     * those instances run concurrently, each after those of the instances that depend on it.
+     *
+     * @param maxThreads number of threads to run life cycle methods on
+     * @param dependencyResolver returns the managed instances each of the given instances depends on
+     */
+    LifeCycleManager(List<Object> managedInstances, LifeCycleMethodsMap methodsMap, int maxThreads, Function<List<Object>, Map<Object, Set<Object>>> dependencyResolver)
+            throws LifeCycleStartException
+    {
+        checkArgument(maxThreads >= 1, "maxThreads must be at least 1");
         this.methodsMap = (methodsMap != null) ? methodsMap : new LifeCycleMethodsMap();
+        this.maxThreads = maxThreads;
+        this.dependencyResolver = dependencyResolver;
         for (Object instance : managedInstances) {
             addInstance(instance);
         }
@@ -92,11 +132,17 @@ public final class LifeCycleManager
     public void start()
             throws LifeCycleStartException
     {
-        if (!state.compareAndSet(State.LATENT, State.STARTING)) {
-            throw new LifeCycleStartException("System already starting");
+        synchronized (state) {
+            if (!state.compareAndSet(State.LATENT, State.STARTING)) {
+                throw new LifeCycleStartException("System already starting");
+            }
         }
         log.info("Life cycle starting...");
 
+        if (maxThreads > 1) {
+            startInParallel(ImmutableList.copyOf(managedInstances));
+        }
+
         for (Object obj : managedInstances) {
             LifeCycleMethods methods = methodsMap.get(obj.getClass());
             if (!methods.hasFor(PreDestroy.class)) {
@@ -187,8 +233,13 @@ public final class LifeCycleManager
         List<Object> reversedInstances = new ArrayList<>(managedInstances);
         Collections.reverse(reversedInstances);
 
-        for (Object obj : reversedInstances) {
-            stopInstance(obj, handler);
+        if (maxThreads > 1) {
+            stopInParallel(reversedInstances, handler);
+        }
+        else {
+            for (Object obj : reversedInstances) {
+                stopInstance(obj, handler);
+            }
         }
 
         state.set(State.STOPPED);
@@ -207,6 +258,13 @@ public final class LifeCycleManager
     {
         State currentState = state.get();
         checkState((currentState != State.STOPPING) && (currentState != State.STOPPED), "life cycle is stopped");
+        synchronized (state) {
+            if ((maxThreads > 1) && (state.get() == State.LATENT)) {
+                // started by start(), together with the other instances
+                managedInstances.add(instance);
+                return;
+            }
+        }
         startInstance(instance);
         if (methodsMap.get(instance.getClass()).hasFor(PreDestroy.class)) {
             managedInstances.add(instance);
@@ -233,6 +291,10 @@ public final class LifeCycleManager
     {
         log.debug("Starting %s", obj.getClass().getName());
         LifeCycleMethods methods = methodsMap.get(obj.getClass());
+        if (!methods.hasFor(PostConstruct.class)) {
+            return;
+        }
+        long start = System.nanoTime();
         for (Method postConstruct : methods.methodsFor(PostConstruct.class)) {
             log.debug("\t%s()", postConstruct.getName());
             try {
@@ -249,6 +311,140 @@ public final class LifeCycleManager
                 throw failure;
             }
         }
+        // instances provisioned after startup are not part of the startup profile, and are not kept
+        State currentState = state.get();
+        if ((currentState == State.LATENT) || (currentState == State.STARTING)) {
+            startupTimes.add(immutableEntry(obj.getClass(), System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Returns the time spent in the {@link PostConstruct} methods of each instance started
+     * before the life cycle startup completed, in nanoseconds.
+     */
+    List<Entry<Class<?>, Long>> getStartupTimes()
+    {
+        return ImmutableList.copyOf(startupTimes);
+    }
+
+    private void startInParallel(List<Object> instances)
+            throws LifeCycleStartException
+    {
+        // instances are added after the instances they were provisioned with, so only keeping
+        // dependencies on earlier instances drops edges a provider could introduce, and any cycle
+        Map<Object, Set<Object>> resolved = dependencyResolver.apply(instances);
+        Map<Object, List<Object>> dependencies = new IdentityHashMap<>();
+        Set<Object> earlier = newIdentityHashSet();
+        for (Object instance : instances) {
+            dependencies.put(instance, resolved.getOrDefault(instance, ImmutableSet.of()).stream()
+                    .filter(earlier::contains)
+                    .collect(toImmutableList()));
+            earlier.add(instance);
+        }
+
+        Map<Object, CompletableFuture<?>> futures = new IdentityHashMap<>();
+        ExecutorService executor = newExecutor("life-cycle-start-%s");
+        try {
+            for (Object instance : instances) {
+                CompletableFuture<?>[] started = dependencies.get(instance).stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+                futures.put(instance, CompletableFuture.allOf(started).thenRunAsync(() -> startInstance(instance), executor));
+            }
+
+            // wait for all instances, so no PostConstruct method is still running after a failure is reported
+            List<Throwable> failures = new ArrayList<>();
+            for (Object instance : instances) {
+                try {
+                    futures.get(instance).join();
+                }
+                catch (CompletionException e) {
+                    // instances that depend on a failed instance fail with the same exception
+                    Throwable cause = e.getCause();
+                    if (failures.stream().noneMatch(failure -> failure == cause)) {
+                        failures.add(cause);
+                    }
+                }
+            }
+            if (!failures.isEmpty()) {
+                LifeCycleStartException exception = (failures.get(0) instanceof LifeCycleStartException) ?
+                        (LifeCycleStartException) failures.get(0) :
+                        new LifeCycleStartException("Exception starting life cycle instances", failures.get(0));
+                failures.stream().skip(1).forEach(exception::addSuppressed);
+                throw exception;
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        Map<Object, Set<Object>> stopDependencies = new IdentityHashMap<>();
+        for (Object instance : instances) {
+            if (methodsMap.get(instance.getClass()).hasFor(PreDestroy.class)) {
+                Set<Object> found = newIdentityHashSet();
+                collectStopDependencies(instance, dependencies, found, newIdentityHashSet());
+                stopDependencies.put(instance, found);
+            }
+        }
+        this.stopDependencies = stopDependencies;
+    }
+
+    private void collectStopDependencies(Object instance, Map<Object, List<Object>> dependencies, Set<Object> found, Set<Object> visited)
+    {
+        for (Object dependency : dependencies.get(instance)) {
+            if (!visited.add(dependency)) {
+                continue;
+            }
+            if (methodsMap.get(dependency.getClass()).hasFor(PreDestroy.class)) {
+                found.add(dependency);
+            }
+            else {
+                // stopping does not wait for instances without PreDestroy methods, but for their dependencies
+                collectStopDependencies(dependency, dependencies, found, visited);
+            }
+        }
+    }
+
+    private void stopInParallel(List<Object> reversedInstances, LifeCycleStopFailureHandler handler)
+    {
+        LifeCycleStopFailureHandler synchronizedHandler = (klass, method, exception) -> {
+            synchronized (handler) {
+                handler.handlePreDestroyException(klass, method, exception);
+            }
+        };
+
+        Map<Object, List<CompletableFuture<?>>> dependentStops = new IdentityHashMap<>();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        ExecutorService executor = newExecutor("life-cycle-stop-%s");
+        try {
+            for (Object instance : reversedInstances) {
+                Set<Object> dependencies = stopDependencies.get(instance);
+                if (dependencies == null) {
+                    // added after the life cycle started, so nothing started in parallel depends on it
+                    stopInstance(instance, synchronizedHandler);
+                    continue;
+                }
+                CompletableFuture<?>[] dependents = dependentStops.getOrDefault(instance, ImmutableList.of()).toArray(new CompletableFuture<?>[0]);
+                CompletableFuture<?> future = CompletableFuture.allOf(dependents).thenRunAsync(() -> stopInstance(instance, synchronizedHandler), executor);
+                futures.add(future);
+                for (Object dependency : dependencies) {
+                    dependentStops.computeIfAbsent(dependency, ignored -> new ArrayList<>()).add(future);
+                }
+            }
+            futures.forEach(CompletableFuture::join);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        stopDependencies = ImmutableMap.of();
+    }
+
+    private ExecutorService newExecutor(String nameFormat)
+    {
+        return newFixedThreadPool(maxThreads, new ThreadFactoryBuilder()
+                .setNameFormat(nameFormat)
+                .setDaemon(true)
+                .build());
     }
 
     /**
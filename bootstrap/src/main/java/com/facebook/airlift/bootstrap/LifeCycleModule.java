@@ -16,6 +16,7 @@
 package com.facebook.airlift.bootstrap;
 
 import com.google.inject.Binder;
+import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
@@ -27,6 +28,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.inject.matcher.Matchers.any;
 
@@ -39,6 +41,23 @@ public class LifeCycleModule
     private final List<Object> injectedInstances = new ArrayList<>();
     private final LifeCycleMethodsMap lifeCycleMethodsMap = new LifeCycleMethodsMap();
     private final AtomicReference<LifeCycleManager> lifeCycleManager = new AtomicReference<>(null);
+    private final LifeCycleDependencies dependencies = new LifeCycleDependencies();
+    private final int lifeCycleThreads;
+
+    public LifeCycleModule()
+    {
+        this(1);
+    }
+
+    /**
+     * @param lifeCycleThreads number of threads the life cycle manager runs life cycle methods on.
+     * With more than one, {@link PostConstruct} methods are deferred until the manager is started.
+     */
+    public LifeCycleModule(int lifeCycleThreads)
+    {
+        checkArgument(lifeCycleThreads >= 1, "lifeCycleThreads must be at least 1");
+        this.lifeCycleThreads = lifeCycleThreads;
+    }
 
     @Override
     public void configure(Binder binder)
@@ -50,7 +69,13 @@ public class LifeCycleModule
 
     private <T> void provision(ProvisionInvocation<T> provision)
     {
-        Object obj = provision.provision();
+        Object obj;
+        if (lifeCycleThreads > 1) {
+            obj = dependencies.provision(provision, instance -> isLifeCycleClass(instance.getClass()));
+        }
+        else {
+            obj = provision.provision();
+        }
         if ((obj == null) || !isLifeCycleClass(obj.getClass())) {
             return;
         }
@@ -72,10 +97,14 @@ public class LifeCycleModule
 
     @Provides
     @Singleton
-    public LifeCycleManager getServerManager()
+    public LifeCycleManager getServerManager(Injector injector)
             throws Exception
     {
-        LifeCycleManager lifeCycleManager = new LifeCycleManager(injectedInstances, lifeCycleMethodsMap);
+        LifeCycleManager lifeCycleManager = new LifeCycleManager(
+                injectedInstances,
+                lifeCycleMethodsMap,
+                lifeCycleThreads,
+                instances -> dependencies.resolve(injector, instances));
         this.lifeCycleManager.set(lifeCycleManager);
         return lifeCycleManager;
     }
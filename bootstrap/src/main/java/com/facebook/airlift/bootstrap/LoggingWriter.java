@@ -21,15 +21,23 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
 
 class LoggingWriter
         extends StringWriter
 {
-    private final Logger logger;
+    private final Consumer<String> lineLogger;
 
     public LoggingWriter(Logger logger)
     {
-        this.logger = logger;
+        this(logger::info);
+    }
+
+    public LoggingWriter(Consumer<String> lineLogger)
+    {
+        this.lineLogger = requireNonNull(lineLogger, "lineLogger is null");
     }
 
     @Override
@@ -50,7 +58,7 @@ class LoggingWriter
                 if (line == null) {
                     break;
                 }
-                logger.info(line);
+                lineLogger.accept(line);
             }
             catch (IOException e) {
                 throw new Error(e); // should never get here
@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.bootstrap;
+
+import org.weakref.jmx.Managed;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time spent in each phase of {@link Bootstrap#initialize()}. It is bound in the
+ * injector, and can be exported with {@link BootstrapJmxModule}.
+ */
+public class StartupProfile
+{
+    public enum Phase
+    {
+        LOAD_CONFIGURATION("load configuration"),
+        REGISTER_CONFIGURATION("register configuration classes"),
+        VALIDATE_CONFIGURATION("build and validate configuration"),
+        LOG_CONFIGURATION("log configuration"),
+        CREATE_INJECTOR("create injector"),
+        START_LIFE_CYCLE("start life cycle");
+
+        private final String description;
+
+        Phase(String description)
+        {
+            this.description = description;
+        }
+
+        public String getDescription()
+        {
+            return description;
+        }
+    }
+
+    private final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+
+    void record(Phase phase, long startNanos)
+    {
+        nanos.set(phase.ordinal(), System.nanoTime() - startNanos);
+    }
+
+    public double getMillis(Phase phase)
+    {
+        return nanos.get(phase.ordinal()) / 1_000_000.0;
+    }
+
+    @Managed
+    public double getLoadConfigurationMillis()
+    {
+        return getMillis(Phase.LOAD_CONFIGURATION);
+    }
+
+    @Managed
+    public double getRegisterConfigurationMillis()
+    {
+        return getMillis(Phase.REGISTER_CONFIGURATION);
+    }
+
+    @Managed
+    public double getValidateConfigurationMillis()
+    {
+        return getMillis(Phase.VALIDATE_CONFIGURATION);
+    }
+
+    @Managed
+    public double getLogConfigurationMillis()
+    {
+        return getMillis(Phase.LOG_CONFIGURATION);
+    }
+
+    @Managed
+    public double getCreateInjectorMillis()
+    {
+        return getMillis(Phase.CREATE_INJECTOR);
+    }
+
+    @Managed
+    public double getStartLifeCycleMillis()
+    {
+        return getMillis(Phase.START_LIFE_CYCLE);
+    }
+
+    @Managed
+    public double getTotalMillis()
+    {
+        double total = 0;
+        for (Phase phase : Phase.values()) {
+            total += getMillis(phase);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.bootstrap;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class ConcurrentStartInstance
+{
+    static final CountDownLatch STARTED = new CountDownLatch(2);
+
+    @PostConstruct
+    public void start()
+            throws InterruptedException
+    {
+        STARTED.countDown();
+        if (!STARTED.await(10, SECONDS)) {
+            throw new IllegalStateException("other instance was not started concurrently");
+        }
+        TestLifeCycleManager.note("postConcurrentStartInstance");
+    }
+}
@@ -31,6 +31,7 @@ import java.util.Map;
 import static com.facebook.airlift.configuration.ConfigBinder.configBinder;
 import static com.facebook.airlift.testing.Assertions.assertContains;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 @Test(singleThreaded = true)
@@ -50,6 +51,17 @@ public class TestBootstrap
         }
     }
 
+    @Test
+    public void testStartupProfile()
+    {
+        StartupProfile profile = new Bootstrap(binder -> binder.bind(Instance.class))
+                .quiet()
+                .initialize()
+                .getInstance(StartupProfile.class);
+        assertTrue(profile.getCreateInjectorMillis() > 0);
+        assertTrue(profile.getTotalMillis() >= profile.getCreateInjectorMillis());
+    }
+
     @Test
     public void testDoesNotAllowCircularDependencies()
             throws Exception
@@ -27,6 +27,7 @@ import com.google.inject.PrivateModule;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.Stage;
+import com.google.inject.name.Names;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -39,6 +40,7 @@ import java.util.stream.Collectors;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 @Test(singleThreaded = true)
@@ -99,6 +101,25 @@ public class TestLifeCycleManager
         assertEquals(stateLog, ImmutableList.of("postSimpleBaseImpl", "preSimpleBaseImpl"));
     }
 
+    @Test
+    public void testStartupTimesOnlyDuringStartup()
+    {
+        Injector injector = Guice.createInjector(
+                Stage.PRODUCTION,
+                new LifeCycleModule(),
+                binder -> binder.bind(SimpleBase.class).to(SimpleBaseImpl.class).in(Scopes.SINGLETON));
+
+        LifeCycleManager lifeCycleManager = injector.getInstance(LifeCycleManager.class);
+        lifeCycleManager.start();
+        assertEquals(lifeCycleManager.getStartupTimes().size(), 1);
+
+        lifeCycleManager.addInstance(new SimpleBaseImpl());
+        assertEquals(stateLog, ImmutableList.of("postSimpleBaseImpl", "postSimpleBaseImpl"));
+        assertEquals(lifeCycleManager.getStartupTimes().size(), 1);
+
+        lifeCycleManager.stop();
+    }
+
     @Test
     public void testSubClassAnnotated()
     {
@@ -348,6 +369,91 @@ public class TestLifeCycleManager
                         "preDependentBoundInstance"));
     }
 
+    @Test
+    public void testParallelModule()
+    {
+        Injector injector = Guice.createInjector(
+                Stage.PRODUCTION,
+                new LifeCycleModule(4),
+                binder -> {
+                    binder.bind(DependentBoundInstance.class).to(DependentInstanceImpl.class).in(Scopes.SINGLETON);
+
+                    binder.bind(DependentInstance.class).in(Scopes.SINGLETON);
+                    binder.bind(InstanceOne.class).in(Scopes.SINGLETON);
+                    binder.bind(InstanceTwo.class).in(Scopes.SINGLETON);
+                });
+
+        LifeCycleManager lifeCycleManager = injector.getInstance(LifeCycleManager.class);
+        assertEquals(stateLog, ImmutableList.of());
+
+        lifeCycleManager.start();
+        assertEquals(ImmutableSet.copyOf(stateLog), ImmutableSet.of("postDependentBoundInstance", "postDependentInstance", "postMakeOne", "postMakeTwo"));
+        assertTrue(stateLog.indexOf("postDependentInstance") < stateLog.indexOf("postMakeOne"));
+        assertTrue(stateLog.indexOf("postDependentBoundInstance") < stateLog.indexOf("postMakeTwo"));
+        assertEquals(lifeCycleManager.getStartupTimes().size(), 4);
+
+        stateLog.clear();
+        lifeCycleManager.stop();
+        assertEquals(ImmutableSet.copyOf(stateLog), ImmutableSet.of("preDependentBoundInstance", "preDependentInstance", "preDestroyOne", "preDestroyTwo"));
+        assertTrue(stateLog.indexOf("preDestroyOne") < stateLog.indexOf("preDependentInstance"));
+        assertTrue(stateLog.indexOf("preDestroyTwo") < stateLog.indexOf("preDependentBoundInstance"));
+    }
+
+    @Test
+    public void testParallelProvider()
+    {
+        Injector injector = Guice.createInjector(
+                Stage.PRODUCTION,
+                new LifeCycleModule(4),
+                binder -> binder.bind(BarInstance.class).toProvider(BarProvider.class).in(Scopes.SINGLETON));
+
+        LifeCycleManager lifeCycleManager = injector.getInstance(LifeCycleManager.class);
+
+        lifeCycleManager.start();
+        assertEquals(stateLog, ImmutableList.of("postBarProvider", "postBarInstance"));
+
+        lifeCycleManager.stop();
+        assertEquals(stateLog, ImmutableList.of("postBarProvider", "postBarInstance", "preBarInstance", "preBarProvider"));
+    }
+
+    @Test
+    public void testParallelStartIsConcurrent()
+    {
+        Injector injector = Guice.createInjector(
+                Stage.PRODUCTION,
+                new LifeCycleModule(2),
+                binder -> {
+                    binder.bind(ConcurrentStartInstance.class).annotatedWith(Names.named("first")).to(ConcurrentStartInstance.class).in(Scopes.SINGLETON);
+                    binder.bind(ConcurrentStartInstance.class).annotatedWith(Names.named("second")).to(ConcurrentStartInstance.class).in(Scopes.SINGLETON);
+                });
+
+        injector.getInstance(LifeCycleManager.class).start();
+        assertEquals(stateLog, ImmutableList.of("postConcurrentStartInstance", "postConcurrentStartInstance"));
+    }
+
+    @Test
+    public void testParallelPostConstructException()
+    {
+        Injector injector = Guice.createInjector(
+                Stage.PRODUCTION,
+                new LifeCycleModule(4),
+                binder -> {
+                    binder.bind(PostConstructExceptionInstance.class).in(Scopes.SINGLETON);
+                    binder.bind(DependentInstance.class).in(Scopes.SINGLETON);
+                });
+
+        LifeCycleManager lifeCycleManager = injector.getInstance(LifeCycleManager.class);
+        try {
+            lifeCycleManager.start();
+            fail("Expected start to fail with an exception");
+        }
+        catch (LifeCycleStartException e) {
+            assertEquals(e.getSuppressed().length, 2, "Expected two suppressed exceptions");
+            assertTrue(stateLog.contains("postConstructFailure"));
+            assertTrue(stateLog.contains("postDependentInstance"));
+        }
+    }
+
     @Test
     public void testProvider()
     {
@@ -56,11 +56,26 @@ public class ConfigurationMetadata<T>
         return getConfigurationMetadata(configClass, Problems.NULL_MONITOR);
     }
 
+    @SuppressWarnings("unchecked")
     static <T> ConfigurationMetadata<T> getConfigurationMetadata(Class<T> configClass, Problems.Monitor monitor)
     {
+        if (monitor == Problems.NULL_MONITOR) {
+            return (ConfigurationMetadata<T>) METADATA.get(configClass);
+        }
+        // problems are reported to the monitor while the metadata is built
         return new ConfigurationMetadata<>(configClass, monitor);
     }
 
+    // metadata is immutable, so it is built once per class and shared by all factories and inspectors
+    private static final ClassValue<ConfigurationMetadata<?>> METADATA = new ClassValue<ConfigurationMetadata<?>>()
+    {
+        @Override
+        protected ConfigurationMetadata<?> computeValue(Class<?> configClass)
+        {
+            return new ConfigurationMetadata<>(configClass, Problems.NULL_MONITOR);
+        }
+    };
+
     private final Class<T> configClass;
     private final Problems problems;
     private final Constructor<T> constructor;
@@ -27,6 +27,8 @@ import java.util.Set;
 
 import static com.facebook.airlift.testing.EquivalenceTester.equivalenceTester;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.fail;
 
 public class ConfigurationMetadataTest
@@ -125,6 +127,14 @@ public class ConfigurationMetadataTest
         }
     }
 
+    @Test
+    public void testMetadataIsShared()
+    {
+        assertSame(ConfigurationMetadata.getConfigurationMetadata(SetterConfigClass.class), ConfigurationMetadata.getConfigurationMetadata(SetterConfigClass.class));
+        // metadata reporting to a monitor is built for that monitor
+        assertNotSame(ConfigurationMetadata.getConfigurationMetadata(SetterConfigClass.class, new TestMonitor()), ConfigurationMetadata.getConfigurationMetadata(SetterConfigClass.class));
+    }
+
     @Test(expectedExceptions = NullPointerException.class)
     public void testNull()
     {
@@ -15,7 +15,12 @@
  */
 package com.facebook.airlift.dbpool;
 
+import com.facebook.airlift.log.Logger;
 import com.facebook.airlift.units.Duration;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PreDestroy;
 import org.weakref.jmx.Flatten;
 import org.weakref.jmx.Managed;
 
@@ -28,23 +33,85 @@ import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.logging.Logger;
 
 import static com.facebook.airlift.units.Duration.nanosSince;
 import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
-
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Data source that limits the number of concurrent connections and, unless the
+ * maximum number of idle connections is zero, keeps returned connections for reuse.
+ * <p>
+ * A background thread keeps the minimum number of idle connections open, closes
+ * idle connections that are unused or have reached their maximum lifetime,
+ * validates connections that have been idle for the validation interval, and
+ * reports connections that are checked out longer than the leak detection threshold.
+ */
 public abstract class ManagedDataSource
         implements DataSource
 {
+    private static final Logger log = Logger.get(ManagedDataSource.class);
+    private static final long MAINTENANCE_INTERVAL_MILLIS = 1000;
+
     private final ManagedSemaphore semaphore;
     private final AtomicInteger maxConnectionWaitMillis = new AtomicInteger(100);
     private final ManagedDataSourceStats stats = new ManagedDataSourceStats();
 
+    private final int minIdleConnections;
+    private final int maxIdleConnections;
+    private final long maxIdleTimeNanos;
+    private final long maxConnectionLifetimeNanos;
+    private final long validationIntervalNanos;
+    private final long leakDetectionThresholdNanos;
+
+    // most recently returned connections first
+    private final BlockingDeque<IdleConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<ManagedConnectionEventListener> checkedOutConnections = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService maintenanceExecutor;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Creates a data source that does not pool connections.
+     */
     protected ManagedDataSource(int maxConnections, Duration maxConnectionWait)
+    {
+        this(maxConnections, maxConnectionWait, 0, 0, null, null, null, null);
+    }
+
+    protected ManagedDataSource(ManagedDataSourceConfig<?> config)
+    {
+        this(config.getMaxConnections(),
+                config.getMaxConnectionWait(),
+                config.getMinIdleConnections(),
+                config.getMaxIdleConnections(),
+                config.getMaxIdleTime(),
+                config.getMaxConnectionLifetime(),
+                config.getValidationInterval(),
+                config.getLeakDetectionThreshold());
+    }
+
+    private ManagedDataSource(
+            int maxConnections,
+            Duration maxConnectionWait,
+            int minIdleConnections,
+            int maxIdleConnections,
+            Duration maxIdleTime,
+            Duration maxConnectionLifetime,
+            Duration validationInterval,
+            Duration leakDetectionThreshold)
     {
         if (maxConnections < 1) {
             throw new IllegalArgumentException("maxConnections must be at least 1: maxConnections=" + maxConnections);
@@ -52,8 +119,32 @@ public abstract class ManagedDataSource
         if (maxConnectionWait == null) {
             throw new NullPointerException("maxConnectionWait is null");
         }
+        if (minIdleConnections < 0) {
+            throw new IllegalArgumentException("minIdleConnections is negative: minIdleConnections=" + minIdleConnections);
+        }
+        if (maxIdleConnections < 0) {
+            throw new IllegalArgumentException("maxIdleConnections is negative: maxIdleConnections=" + maxIdleConnections);
+        }
         semaphore = new ManagedSemaphore(maxConnections);
         maxConnectionWaitMillis.set(toIntExact(maxConnectionWait.toMillis()));
+
+        this.minIdleConnections = min(minIdleConnections, maxIdleConnections);
+        this.maxIdleConnections = maxIdleConnections;
+        this.maxIdleTimeNanos = toNanos(maxIdleTime);
+        this.maxConnectionLifetimeNanos = toNanos(maxConnectionLifetime);
+        this.validationIntervalNanos = toNanos(validationInterval);
+        this.leakDetectionThresholdNanos = (leakDetectionThreshold == null) ? 0 : leakDetectionThreshold.roundTo(NANOSECONDS);
+
+        if (maxIdleConnections > 0 || leakDetectionThresholdNanos > 0) {
+            maintenanceExecutor = newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("dbpool-" + getClass().getSimpleName() + "-%s")
+                    .setDaemon(true)
+                    .build());
+            maintenanceExecutor.scheduleWithFixedDelay(this::maintain, MAINTENANCE_INTERVAL_MILLIS, MAINTENANCE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        else {
+            maintenanceExecutor = null;
+        }
     }
 
     @Override
@@ -84,12 +175,36 @@ public abstract class ManagedDataSource
     protected Connection createConnection()
             throws SQLException
     {
+        if (closed.get()) {
+            throw new SQLException(getClass().getSimpleName() + " has been closed");
+        }
+
+        // reuse the most recently returned connection, so surplus connections become idle long enough to be evicted
+        for (IdleConnection idleConnection = idleConnections.pollFirst(); idleConnection != null; idleConnection = idleConnections.pollFirst()) {
+            if (isExpired(idleConnection.getCreateTime(), System.nanoTime())) {
+                stats.connectionExpired();
+                closeInBackground(idleConnection.getPooledConnection());
+                continue;
+            }
+            try {
+                Connection connection = prepareConnection(idleConnection.getPooledConnection(), idleConnection.getCreateTime());
+                stats.poolHit();
+                return connection;
+            }
+            catch (SQLException e) {
+                stats.connectionErrorOccurred();
+                closeInBackground(idleConnection.getPooledConnection());
+            }
+        }
+        if (maxIdleConnections > 0) {
+            stats.poolMiss();
+        }
+
         boolean success = false;
         try {
-            // todo do not create on caller's thread
             long start = System.nanoTime();
             PooledConnection pooledConnection = createConnectionInternal();
-            Connection connection = prepareConnection(pooledConnection);
+            Connection connection = prepareConnection(pooledConnection, start);
             stats.connectionCreated(nanosSince(start));
 
             success = true;
@@ -106,18 +221,186 @@ public abstract class ManagedDataSource
     protected abstract PooledConnection createConnectionInternal()
             throws SQLException;
 
-    protected Connection prepareConnection(PooledConnection pooledConnection)
+    private Connection prepareConnection(PooledConnection pooledConnection, long createTime)
             throws SQLException
     {
         Connection connection = pooledConnection.getConnection();
-        pooledConnection.addConnectionEventListener(new NoPoolConnectionEventListener());
+        ManagedConnectionEventListener listener = new ManagedConnectionEventListener(createTime, leakDetectionThresholdNanos > 0);
+        pooledConnection.addConnectionEventListener(listener);
+        if (leakDetectionThresholdNanos > 0) {
+            checkedOutConnections.add(listener);
+        }
         return connection;
     }
 
-    protected void connectionReturned(PooledConnection pooledConnection, long checkoutTime)
+    private void connectionReturned(PooledConnection pooledConnection, long createTime)
+    {
+        long now = System.nanoTime();
+        // the permit has already been released, so the active count no longer includes this connection
+        if (closed.get() ||
+                isExpired(createTime, now) ||
+                idleConnections.size() >= maxIdleConnections ||
+                getConnectionsActive() + idleConnections.size() >= getMaxConnections()) {
+            closeInBackground(pooledConnection);
+            return;
+        }
+
+        idleConnections.offerFirst(new IdleConnection(pooledConnection, createTime, now));
+
+        // the data source may have been closed while the connection was being returned
+        if (closed.get()) {
+            closeIdleConnections();
+        }
+    }
+
+    private void connectionDestroyed(PooledConnection pooledConnection)
+    {
+        closeInBackground(pooledConnection);
+    }
+
+    private boolean isExpired(long createTime, long now)
+    {
+        return maxConnectionLifetimeNanos > 0 && now - createTime >= maxConnectionLifetimeNanos;
+    }
+
+    @VisibleForTesting
+    void maintain()
+    {
+        try {
+            evictIdleConnections();
+            detectLeaks();
+            fillIdleConnections();
+        }
+        catch (RuntimeException e) {
+            log.error(e, "Error maintaining connection pool");
+        }
+    }
+
+    private void evictIdleConnections()
+    {
+        // visit the least recently used connections first
+        for (IdleConnection idleConnection : ImmutableList.copyOf(idleConnections.descendingIterator())) {
+            if (closed.get()) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            boolean expired = isExpired(idleConnection.getCreateTime(), now);
+            boolean unused = maxIdleTimeNanos > 0 && now - idleConnection.getReturnTime() >= maxIdleTimeNanos && idleConnections.size() > minIdleConnections;
+            boolean validationRequired = now - idleConnection.getValidationTime() >= validationIntervalNanos;
+            if (!expired && !unused && !validationRequired) {
+                continue;
+            }
+
+            // the connection may have been checked out since the copy was made
+            if (!idleConnections.remove(idleConnection)) {
+                continue;
+            }
+
+            if (expired) {
+                stats.connectionExpired();
+                closeQuietly(idleConnection.getPooledConnection());
+            }
+            else if (unused) {
+                stats.idleConnectionEvicted();
+                closeQuietly(idleConnection.getPooledConnection());
+            }
+            else if (!isValid(idleConnection.getPooledConnection())) {
+                stats.validationFailed();
+                closeQuietly(idleConnection.getPooledConnection());
+            }
+            else {
+                // keep validated connections behind the recently returned ones
+                idleConnections.offerLast(idleConnection.withValidationTime(System.nanoTime()));
+            }
+        }
+    }
+
+    private boolean isValid(PooledConnection pooledConnection)
+    {
+        try {
+            int timeoutSeconds = max(1, getLoginTimeout());
+            Connection connection = pooledConnection.getConnection();
+            try {
+                return connection.isValid(timeoutSeconds);
+            }
+            finally {
+                connection.close();
+            }
+        }
+        catch (SQLException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void detectLeaks()
+    {
+        if (leakDetectionThresholdNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (ManagedConnectionEventListener listener : checkedOutConnections) {
+            if (now - listener.checkoutTime >= leakDetectionThresholdNanos && listener.leakReported.compareAndSet(false, true)) {
+                stats.leakDetected();
+                log.warn(listener.checkoutLocation, "Connection has been checked out for %s and may have been leaked", nanosSince(listener.checkoutTime));
+            }
+        }
+    }
+
+    private void fillIdleConnections()
+    {
+        while (!closed.get() && idleConnections.size() < minIdleConnections) {
+            // reserve a permit while the connection is created, so the pool never exceeds the maximum
+            if (!semaphore.tryAcquire()) {
+                return;
+            }
+            try {
+                if (getConnectionsActive() + idleConnections.size() > getMaxConnections()) {
+                    return;
+                }
+                long start = System.nanoTime();
+                PooledConnection pooledConnection;
+                try {
+                    pooledConnection = createConnectionInternal();
+                }
+                catch (SQLException e) {
+                    stats.creationErrorOccurred();
+                    log.warn(e, "Error creating idle connection");
+                    return;
+                }
+                stats.connectionCreated(nanosSince(start));
+                idleConnections.offerLast(new IdleConnection(pooledConnection, start, System.nanoTime()));
+            }
+            finally {
+                semaphore.release();
+            }
+        }
+    }
+
+    private void closeInBackground(PooledConnection pooledConnection)
+    {
+        if (maintenanceExecutor != null) {
+            try {
+                maintenanceExecutor.execute(() -> closeQuietly(pooledConnection));
+                return;
+            }
+            catch (RejectedExecutionException ignored) {
+                // the data source has been closed
+            }
+        }
+        closeQuietly(pooledConnection);
+    }
+
+    private void closeIdleConnections()
+    {
+        for (IdleConnection idleConnection = idleConnections.pollFirst(); idleConnection != null; idleConnection = idleConnections.pollFirst()) {
+            closeQuietly(idleConnection.getPooledConnection());
+        }
+    }
+
+    private static void closeQuietly(PooledConnection pooledConnection)
     {
         try {
-            // todo do not close on caller's thread
             pooledConnection.close();
         }
         catch (SQLException ignored) {
@@ -125,8 +408,21 @@ public abstract class ManagedDataSource
         }
     }
 
-    protected void connectionDestroyed(PooledConnection pooledConnection, long checkoutTime)
+    /**
+     * Closes the idle connections and stops the background maintenance.  Connections
+     * that are checked out are closed when they are returned.
+     */
+    @PreDestroy
+    public void close()
     {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (maintenanceExecutor != null) {
+            // pending background closes still run
+            maintenanceExecutor.shutdown();
+        }
+        closeIdleConnections();
     }
 
     @Managed
@@ -156,6 +452,24 @@ public abstract class ManagedDataSource
         return semaphore.getActivePermits();
     }
 
+    @Managed
+    public int getConnectionsIdle()
+    {
+        return idleConnections.size();
+    }
+
+    @Managed
+    public int getMinIdleConnections()
+    {
+        return minIdleConnections;
+    }
+
+    @Managed
+    public int getMaxIdleConnections()
+    {
+        return maxIdleConnections;
+    }
+
     @Managed
     public int getMaxConnections()
     {
@@ -192,7 +506,7 @@ public abstract class ManagedDataSource
     }
 
     @Override
-    public Logger getParentLogger()
+    public java.util.logging.Logger getParentLogger()
             throws SQLFeatureNotSupportedException
     {
         throw new SQLFeatureNotSupportedException("java.util.logging not supported");
@@ -263,11 +577,20 @@ public abstract class ManagedDataSource
         }
     }
 
-    protected class NoPoolConnectionEventListener
+    private class ManagedConnectionEventListener
             implements ConnectionEventListener
     {
+        private final long createTime;
         private final long checkoutTime = System.nanoTime();
+        private final Exception checkoutLocation;
         private final AtomicBoolean returned = new AtomicBoolean();
+        private final AtomicBoolean leakReported = new AtomicBoolean();
+
+        private ManagedConnectionEventListener(long createTime, boolean recordCheckoutLocation)
+        {
+            this.createTime = createTime;
+            this.checkoutLocation = recordCheckoutLocation ? new Exception("Connection checked out here") : null;
+        }
 
         @Override
         public void connectionClosed(ConnectionEvent event)
@@ -285,10 +608,11 @@ public abstract class ManagedDataSource
                 stats.connectionReturned(nanosSince(checkoutTime));
             }
             finally {
+                checkedOutConnections.remove(this);
                 semaphore.release();
 
                 if (pooledConnection != null) {
-                    connectionReturned(pooledConnection, checkoutTime);
+                    connectionReturned(pooledConnection, createTime);
                 }
             }
         }
@@ -309,12 +633,64 @@ public abstract class ManagedDataSource
                 stats.connectionErrorOccurred();
             }
             finally {
+                checkedOutConnections.remove(this);
                 semaphore.release();
 
                 if (pooledConnection != null) {
-                    connectionDestroyed(pooledConnection, checkoutTime);
+                    connectionDestroyed(pooledConnection);
                 }
             }
         }
     }
+
+    private static class IdleConnection
+    {
+        private final PooledConnection pooledConnection;
+        private final long createTime;
+        private final long returnTime;
+        private final long validationTime;
+
+        private IdleConnection(PooledConnection pooledConnection, long createTime, long returnTime)
+        {
+            this(pooledConnection, createTime, returnTime, returnTime);
+        }
+
+        private IdleConnection(PooledConnection pooledConnection, long createTime, long returnTime, long validationTime)
+        {
+            this.pooledConnection = pooledConnection;
+            this.createTime = createTime;
+            this.returnTime = returnTime;
+            this.validationTime = validationTime;
+        }
+
+        public PooledConnection getPooledConnection()
+        {
+            return pooledConnection;
+        }
+
+        public long getCreateTime()
+        {
+            return createTime;
+        }
+
+        public long getReturnTime()
+        {
+            return returnTime;
+        }
+
+        public long getValidationTime()
+        {
+            return validationTime;
+        }
+
+        public IdleConnection withValidationTime(long validationTime)
+        {
+            return new IdleConnection(pooledConnection, createTime, returnTime, validationTime);
+        }
+    }
+
+    private static long toNanos(Duration duration)
+    {
+        return (duration == null) ? 0 : duration.roundTo(NANOSECONDS);
+    }
 }
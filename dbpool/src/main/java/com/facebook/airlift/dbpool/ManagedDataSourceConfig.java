@@ -18,6 +18,9 @@ package com.facebook.airlift.dbpool;
 import com.facebook.airlift.configuration.Config;
 import com.facebook.airlift.configuration.DefunctConfig;
 import com.facebook.airlift.units.Duration;
+import com.facebook.airlift.units.MinDuration;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 
 import java.util.concurrent.TimeUnit;
 
@@ -45,6 +48,12 @@ public class ManagedDataSourceConfig<T extends ManagedDataSourceConfig<T>>
 {
     private int maxConnections = 10;
     private Duration maxConnectionWait = new Duration(500, TimeUnit.MILLISECONDS);
+    private int minIdleConnections;
+    private int maxIdleConnections = 10;
+    private Duration maxIdleTime = new Duration(10, TimeUnit.MINUTES);
+    private Duration maxConnectionLifetime = new Duration(30, TimeUnit.MINUTES);
+    private Duration validationInterval = new Duration(30, TimeUnit.SECONDS);
+    private Duration leakDetectionThreshold;
 
     /**
      * Gets the maximum number of concurrent connections allowed by the data
@@ -94,6 +103,138 @@ public class ManagedDataSourceConfig<T extends ManagedDataSourceConfig<T>>
         return self();
     }
 
+    /**
+     * Gets the number of idle connections the data source keeps open in the
+     * background, so checkouts do not wait for a new connection to be created.
+     */
+    @Min(0)
+    public int getMinIdleConnections()
+    {
+        return minIdleConnections;
+    }
+
+    /**
+     * Sets the number of idle connections the data source keeps open in the
+     * background, so checkouts do not wait for a new connection to be created.
+     */
+    @Config("db.connections.min-idle")
+    public T setMinIdleConnections(int minIdleConnections)
+    {
+        this.minIdleConnections = minIdleConnections;
+        return self();
+    }
+
+    /**
+     * Gets the maximum number of idle connections kept for reuse.  Returned
+     * connections beyond this limit are closed.  Setting this to zero disables
+     * pooling, and every checkout creates a new connection.
+     */
+    @Min(0)
+    public int getMaxIdleConnections()
+    {
+        return maxIdleConnections;
+    }
+
+    /**
+     * Sets the maximum number of idle connections kept for reuse.  Returned
+     * connections beyond this limit are closed.  Setting this to zero disables
+     * pooling, and every checkout creates a new connection.
+     */
+    @Config("db.connections.max-idle")
+    public T setMaxIdleConnections(int maxIdleConnections)
+    {
+        this.maxIdleConnections = maxIdleConnections;
+        return self();
+    }
+
+    /**
+     * Gets the time after which an unused connection is closed, unless it is
+     * needed to keep the minimum number of idle connections.
+     */
+    @NotNull
+    public Duration getMaxIdleTime()
+    {
+        return maxIdleTime;
+    }
+
+    /**
+     * Sets the time after which an unused connection is closed, unless it is
+     * needed to keep the minimum number of idle connections.
+     */
+    @Config("db.connections.max-idle-time")
+    public T setMaxIdleTime(Duration maxIdleTime)
+    {
+        this.maxIdleTime = maxIdleTime;
+        return self();
+    }
+
+    /**
+     * Gets the maximum time a connection is used before it is closed and
+     * replaced.  Connections checked out when they expire are closed when
+     * returned.
+     */
+    @NotNull
+    public Duration getMaxConnectionLifetime()
+    {
+        return maxConnectionLifetime;
+    }
+
+    /**
+     * Sets the maximum time a connection is used before it is closed and
+     * replaced.  Connections checked out when they expire are closed when
+     * returned.
+     */
+    @Config("db.connections.max-lifetime")
+    public T setMaxConnectionLifetime(Duration maxConnectionLifetime)
+    {
+        this.maxConnectionLifetime = maxConnectionLifetime;
+        return self();
+    }
+
+    /**
+     * Gets the time an idle connection can remain unused before it is
+     * validated in the background.
+     */
+    @NotNull
+    @MinDuration("1ms")
+    public Duration getValidationInterval()
+    {
+        return validationInterval;
+    }
+
+    /**
+     * Sets the time an idle connection can remain unused before it is
+     * validated in the background.
+     */
+    @Config("db.connections.validation-interval")
+    public T setValidationInterval(Duration validationInterval)
+    {
+        this.validationInterval = validationInterval;
+        return self();
+    }
+
+    /**
+     * Gets the time a connection can be checked out before a possible leak is
+     * logged with the stack trace of the checkout.  Leak detection is disabled
+     * when not set.
+     */
+    public Duration getLeakDetectionThreshold()
+    {
+        return leakDetectionThreshold;
+    }
+
+    /**
+     * Sets the time a connection can be checked out before a possible leak is
+     * logged with the stack trace of the checkout.  Leak detection is disabled
+     * when not set.
+     */
+    @Config("db.connections.leak-detection-threshold")
+    public T setLeakDetectionThreshold(Duration leakDetectionThreshold)
+    {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        return self();
+    }
+
     @SuppressWarnings("unchecked")
     private T self()
     {
@@ -29,6 +29,12 @@ public final class ManagedDataSourceStats
     private final TimeStat held = new TimeStat();
     private final AtomicLong connectionErrorCount = new AtomicLong();
     private final AtomicLong creationErrorCount = new AtomicLong();
+    private final AtomicLong poolHitCount = new AtomicLong();
+    private final AtomicLong poolMissCount = new AtomicLong();
+    private final AtomicLong idleEvictionCount = new AtomicLong();
+    private final AtomicLong expirationCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
 
     @Managed
     @Nested
@@ -63,6 +69,53 @@ public final class ManagedDataSourceStats
         return creationErrorCount.get();
     }
 
+    @Managed
+    public long getPoolHitCount()
+    {
+        return poolHitCount.get();
+    }
+
+    @Managed
+    public long getPoolMissCount()
+    {
+        return poolMissCount.get();
+    }
+
+    @Managed
+    public double getPoolHitRate()
+    {
+        long hits = poolHitCount.get();
+        long total = hits + poolMissCount.get();
+        if (total == 0) {
+            return 0.0;
+        }
+        return (double) hits / total;
+    }
+
+    @Managed
+    public long getIdleEvictionCount()
+    {
+        return idleEvictionCount.get();
+    }
+
+    @Managed
+    public long getExpirationCount()
+    {
+        return expirationCount.get();
+    }
+
+    @Managed
+    public long getValidationFailureCount()
+    {
+        return validationFailureCount.get();
+    }
+
+    @Managed
+    public long getLeakCount()
+    {
+        return leakCount.get();
+    }
+
     void connectionCheckedOut(Duration elapsedTime)
     {
         checkout.add(elapsedTime);
@@ -87,4 +140,34 @@ public final class ManagedDataSourceStats
     {
         connectionErrorCount.incrementAndGet();
     }
+
+    void poolHit()
+    {
+        poolHitCount.incrementAndGet();
+    }
+
+    void poolMiss()
+    {
+        poolMissCount.incrementAndGet();
+    }
+
+    void idleConnectionEvicted()
+    {
+        idleEvictionCount.incrementAndGet();
+    }
+
+    void connectionExpired()
+    {
+        expirationCount.incrementAndGet();
+    }
+
+    void validationFailed()
+    {
+        validationFailureCount.incrementAndGet();
+    }
+
+    void leakDetected()
+    {
+        leakCount.incrementAndGet();
+    }
 }
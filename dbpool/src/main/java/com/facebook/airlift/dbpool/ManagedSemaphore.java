@@ -29,7 +29,8 @@ class ManagedSemaphore
 
     public ManagedSemaphore(int permits)
     {
-        super(permits);
+        // fair, so a waiter cannot be starved by threads that arrive after it
+        super(permits, true);
         this.permits = permits;
     }
 
@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.dbpool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.airlift.units.Duration.succinctDuration;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Threads(4)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class BenchmarkManagedDataSource
+{
+    @State(Scope.Benchmark)
+    public static class Data
+    {
+        @Param({"0", "10"})
+        private int maxIdleConnections;
+
+        private Path directory;
+        private H2EmbeddedDataSource dataSource;
+
+        @Setup
+        public void setup()
+                throws Exception
+        {
+            directory = Files.createTempDirectory("dbpool-benchmark");
+            H2EmbeddedDataSourceConfig config = new H2EmbeddedDataSourceConfig()
+                    .setFilename(directory.resolve("db").toAbsolutePath().toString())
+                    .setMaxConnections(10)
+                    .setMaxConnectionWait(succinctDuration(10, TimeUnit.SECONDS))
+                    .setMaxIdleConnections(maxIdleConnections);
+            dataSource = new H2EmbeddedDataSource(config);
+        }
+
+        @TearDown
+        public void tearDown()
+                throws Exception
+        {
+            dataSource.close();
+            deleteRecursively(directory, ALLOW_INSECURE);
+        }
+    }
+
+    @Benchmark
+    public int benchmarkQuery(Data data)
+            throws SQLException
+    {
+        try (Connection connection = data.dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkManagedDataSource.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -16,11 +16,13 @@
 package com.facebook.airlift.dbpool;
 
 import com.facebook.airlift.dbpool.MockConnectionPoolDataSource.MockConnection;
+import com.facebook.airlift.dbpool.MockManagedDataSource.MockDataSourceConfig;
 import com.facebook.airlift.units.Duration;
 import org.testng.annotations.Test;
 
 import javax.sql.ConnectionPoolDataSource;
 import javax.sql.DataSource;
+import javax.sql.PooledConnection;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -43,6 +45,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
@@ -490,4 +493,228 @@ public class ManagedDataSourceTest
         catch (UnsupportedOperationException expected) {
         }
     }
+
+    @Test
+    public void testPooledConnectionReuse()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig()
+                .setMaxConnections(2)
+                .setMaxIdleConnections(2));
+        try {
+            MockConnection connection = (MockConnection) dataSource.getConnection();
+            connection.close();
+            assertEquals(dataSource.getConnectionsActive(), 0);
+            assertEquals(dataSource.getConnectionsIdle(), 1);
+
+            MockConnection reused = (MockConnection) dataSource.getConnection();
+            assertSame(reused.getPooledConnection(), connection.getPooledConnection());
+            assertEquals(dataSource.getConnectionsIdle(), 0);
+            reused.close();
+
+            assertEquals(dataSource.getStats().getCreate().getAllTime().getCount(), 1.0);
+            assertEquals(dataSource.getStats().getPoolHitCount(), 1);
+            assertEquals(dataSource.getStats().getPoolMissCount(), 1);
+            assertEquals(dataSource.getStats().getPoolHitRate(), 0.5);
+        }
+        finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testPoolingDisabled()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig()
+                .setMaxIdleConnections(0));
+        try {
+            MockConnection connection = (MockConnection) dataSource.getConnection();
+            connection.close();
+            assertEquals(dataSource.getConnectionsIdle(), 0);
+            assertClosed(connection.getPooledConnection());
+
+            MockConnection other = (MockConnection) dataSource.getConnection();
+            assertNotSame(other.getPooledConnection(), connection.getPooledConnection());
+            other.close();
+
+            assertEquals(dataSource.getStats().getPoolHitCount(), 0);
+            assertEquals(dataSource.getStats().getPoolMissCount(), 0);
+        }
+        finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testMaxIdleConnections()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig()
+                .setMaxConnections(3)
+                .setMaxIdleConnections(1));
+        try {
+            Connection first = dataSource.getConnection();
+            Connection second = dataSource.getConnection();
+            first.close();
+            second.close();
+            assertEquals(dataSource.getConnectionsIdle(), 1);
+        }
+        finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testMaxConnectionLifetime()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig()
+                .setMaxConnectionLifetime(new Duration(1, MILLISECONDS)));
+        try {
+            MockConnection connection = (MockConnection) dataSource.getConnection();
+            Thread.sleep(10);
+            connection.close();
+            assertEquals(dataSource.getConnectionsIdle(), 0);
+            assertEquals(dataSource.getStats().getPoolHitCount(), 0);
+        }
+        finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testMaintenance()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig()
+                .setMaxConnections(5)
+                .setMinIdleConnections(2)
+                .setMaxIdleConnections(4)
+                .setMaxIdleTime(new Duration(1, MILLISECONDS)));
+        try {
+            // fill to the minimum
+            dataSource.maintain();
+            assertEquals(dataSource.getConnectionsIdle(), 2);
+
+            List<Connection> connections = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                connections.add(dataSource.getConnection());
+            }
+            for (Connection connection : connections) {
+                connection.close();
+            }
+            assertEquals(dataSource.getConnectionsIdle(), 4);
+
+            // evict unused connections down to the minimum
+            Thread.sleep(10);
+            dataSource.maintain();
+            assertEquals(dataSource.getConnectionsIdle(), 2);
+            assertEquals(dataSource.getStats().getIdleEvictionCount(), 2);
+        }
+        finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testMaintenanceRespectsMaxConnections()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig()
+                .setMaxConnections(2)
+                .setMinIdleConnections(2)
+                .setMaxIdleConnections(2));
+        try {
+            Connection first = dataSource.getConnection();
+            dataSource.maintain();
+            assertEquals(dataSource.getConnectionsIdle(), 1);
+
+            Connection second = dataSource.getConnection();
+            assertEquals(dataSource.getConnectionsIdle(), 0);
+            dataSource.maintain();
+            assertEquals(dataSource.getConnectionsIdle(), 0);
+
+            first.close();
+            second.close();
+            assertEquals(dataSource.getConnectionsIdle(), 2);
+        }
+        finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testValidation()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig()
+                .setValidationInterval(new Duration(0, MILLISECONDS)));
+        try {
+            MockConnection connection = (MockConnection) dataSource.getConnection();
+            connection.close();
+            connection.getPooledConnection().close();
+
+            dataSource.maintain();
+            assertEquals(dataSource.getConnectionsIdle(), 0);
+            assertEquals(dataSource.getStats().getValidationFailureCount(), 1);
+        }
+        finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testLeakDetection()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig()
+                .setLeakDetectionThreshold(new Duration(1, MILLISECONDS)));
+        try {
+            Connection connection = dataSource.getConnection();
+            Thread.sleep(10);
+            dataSource.maintain();
+            dataSource.maintain();
+            assertEquals(dataSource.getStats().getLeakCount(), 1);
+            connection.close();
+        }
+        finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testCloseDataSource()
+            throws Exception
+    {
+        MockManagedDataSource dataSource = new MockManagedDataSource(new MockConnectionPoolDataSource(), new MockDataSourceConfig());
+        MockConnection idle = (MockConnection) dataSource.getConnection();
+        MockConnection active = (MockConnection) dataSource.getConnection();
+        idle.close();
+
+        dataSource.close();
+        assertEquals(dataSource.getConnectionsIdle(), 0);
+        assertClosed(idle.getPooledConnection());
+
+        active.close();
+        assertEquals(dataSource.getConnectionsIdle(), 0);
+        assertClosed(active.getPooledConnection());
+
+        try {
+            dataSource.getConnection();
+            fail("expected SQLException");
+        }
+        catch (SQLException expected) {
+        }
+    }
+
+    private static void assertClosed(PooledConnection pooledConnection)
+    {
+        try {
+            pooledConnection.getConnection();
+            fail("expected pooled connection to be closed");
+        }
+        catch (SQLException expected) {
+        }
+    }
 }
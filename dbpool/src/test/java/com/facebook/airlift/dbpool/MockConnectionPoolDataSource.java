@@ -197,6 +197,11 @@ public class MockConnectionPoolDataSource
             this.mockPooledConnection = mockPooledConnection;
         }
 
+        public MockPooledConnection getPooledConnection()
+        {
+            return mockPooledConnection;
+        }
+
         @Override
         public void close()
                 throws SQLException
@@ -530,7 +535,7 @@ public class MockConnectionPoolDataSource
         public boolean isValid(int timeout)
                 throws SQLException
         {
-            throw new UnsupportedOperationException();
+            return !closed;
         }
 
         @Override
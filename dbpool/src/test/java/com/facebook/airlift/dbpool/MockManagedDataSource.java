@@ -37,10 +37,21 @@ public class MockManagedDataSource
         this.poolDataSource = poolDataSource;
     }
 
+    public MockManagedDataSource(MockConnectionPoolDataSource poolDataSource, MockDataSourceConfig config)
+    {
+        super(config);
+        this.poolDataSource = poolDataSource;
+    }
+
     @Override
     protected PooledConnection createConnectionInternal()
             throws SQLException
     {
         return poolDataSource.getPooledConnection();
     }
+
+    public static class MockDataSourceConfig
+            extends ManagedDataSourceConfig<MockDataSourceConfig>
+    {
+    }
 }
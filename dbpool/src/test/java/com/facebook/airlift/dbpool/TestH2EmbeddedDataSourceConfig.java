@@ -2,6 +2,7 @@ package com.facebook.airlift.dbpool;
 
 import com.facebook.airlift.configuration.testing.ConfigAssertions;
 import com.facebook.airlift.units.Duration;
+import com.facebook.airlift.units.MinDuration;
 import com.google.common.collect.ImmutableMap;
 import jakarta.validation.constraints.NotNull;
 import org.testng.annotations.Test;
@@ -31,7 +32,13 @@ public class TestH2EmbeddedDataSourceConfig
                 .setMaxMemoryRows(10000)
                 .setMvccEnabled(true)
                 .setMaxConnections(10)
-                .setMaxConnectionWait(new Duration(500, TimeUnit.MILLISECONDS)));
+                .setMaxConnectionWait(new Duration(500, TimeUnit.MILLISECONDS))
+                .setMinIdleConnections(0)
+                .setMaxIdleConnections(10)
+                .setMaxIdleTime(new Duration(10, TimeUnit.MINUTES))
+                .setMaxConnectionLifetime(new Duration(30, TimeUnit.MINUTES))
+                .setValidationInterval(new Duration(30, TimeUnit.SECONDS))
+                .setLeakDetectionThreshold(null));
     }
 
     @Test
@@ -50,6 +57,12 @@ public class TestH2EmbeddedDataSourceConfig
                 .put("db.mvcc.enabled", "FALSE")
                 .put("db.connections.max", "12")
                 .put("db.connections.wait", "42s")
+                .put("db.connections.min-idle", "2")
+                .put("db.connections.max-idle", "5")
+                .put("db.connections.max-idle-time", "3m")
+                .put("db.connections.max-lifetime", "1h")
+                .put("db.connections.validation-interval", "7s")
+                .put("db.connections.leak-detection-threshold", "2m")
                 .build();
 
         H2EmbeddedDataSourceConfig expected = new H2EmbeddedDataSourceConfig()
@@ -64,7 +77,13 @@ public class TestH2EmbeddedDataSourceConfig
                 .setMaxMemoryRows(5000)
                 .setMvccEnabled(false)
                 .setMaxConnections(12)
-                .setMaxConnectionWait(new Duration(42, TimeUnit.SECONDS));
+                .setMaxConnectionWait(new Duration(42, TimeUnit.SECONDS))
+                .setMinIdleConnections(2)
+                .setMaxIdleConnections(5)
+                .setMaxIdleTime(new Duration(3, TimeUnit.MINUTES))
+                .setMaxConnectionLifetime(new Duration(1, TimeUnit.HOURS))
+                .setValidationInterval(new Duration(7, TimeUnit.SECONDS))
+                .setLeakDetectionThreshold(new Duration(2, TimeUnit.MINUTES));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -73,5 +92,6 @@ public class TestH2EmbeddedDataSourceConfig
     public void testValidations()
     {
         assertFailsValidation(new H2EmbeddedDataSourceConfig(), "filename", "must not be null", NotNull.class);
+        assertFailsValidation(new H2EmbeddedDataSourceConfig().setValidationInterval(new Duration(0, TimeUnit.MILLISECONDS)), "validationInterval", "must be greater than or equal to 1ms", MinDuration.class);
     }
 }
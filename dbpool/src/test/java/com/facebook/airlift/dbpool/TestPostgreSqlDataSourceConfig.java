@@ -16,7 +16,13 @@ public class TestPostgreSqlDataSourceConfig
         ConfigAssertions.assertRecordedDefaults(ConfigAssertions.recordDefaults(PostgreSqlDataSourceConfig.class)
                 .setDefaultFetchSize(100)
                 .setMaxConnections(10)
-                .setMaxConnectionWait(new Duration(500, TimeUnit.MILLISECONDS)));
+                .setMaxConnectionWait(new Duration(500, TimeUnit.MILLISECONDS))
+                .setMinIdleConnections(0)
+                .setMaxIdleConnections(10)
+                .setMaxIdleTime(new Duration(10, TimeUnit.MINUTES))
+                .setMaxConnectionLifetime(new Duration(30, TimeUnit.MINUTES))
+                .setValidationInterval(new Duration(30, TimeUnit.SECONDS))
+                .setLeakDetectionThreshold(null));
     }
 
     @Test
@@ -26,12 +32,24 @@ public class TestPostgreSqlDataSourceConfig
                 .put("db.fetch-size", "500")
                 .put("db.connections.max", "12")
                 .put("db.connections.wait", "42s")
+                .put("db.connections.min-idle", "2")
+                .put("db.connections.max-idle", "5")
+                .put("db.connections.max-idle-time", "3m")
+                .put("db.connections.max-lifetime", "1h")
+                .put("db.connections.validation-interval", "7s")
+                .put("db.connections.leak-detection-threshold", "2m")
                 .build();
 
         PostgreSqlDataSourceConfig expected = new PostgreSqlDataSourceConfig()
                 .setDefaultFetchSize(500)
                 .setMaxConnections(12)
-                .setMaxConnectionWait(new Duration(42, TimeUnit.SECONDS));
+                .setMaxConnectionWait(new Duration(42, TimeUnit.SECONDS))
+                .setMinIdleConnections(2)
+                .setMaxIdleConnections(5)
+                .setMaxIdleTime(new Duration(3, TimeUnit.MINUTES))
+                .setMaxConnectionLifetime(new Duration(1, TimeUnit.HOURS))
+                .setValidationInterval(new Duration(7, TimeUnit.SECONDS))
+                .setLeakDetectionThreshold(new Duration(2, TimeUnit.MINUTES));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
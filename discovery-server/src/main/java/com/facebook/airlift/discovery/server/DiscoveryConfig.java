@@ -16,7 +16,9 @@
 package com.facebook.airlift.discovery.server;
 
 import com.facebook.airlift.configuration.Config;
+import com.facebook.airlift.configuration.ConfigDescription;
 import com.facebook.airlift.units.Duration;
+import com.facebook.airlift.units.MinDuration;
 import jakarta.validation.constraints.NotNull;
 
 import java.util.concurrent.TimeUnit;
@@ -25,6 +27,8 @@ public class DiscoveryConfig
 {
     private Duration maxAge = new Duration(30, TimeUnit.SECONDS);
     private Duration storeCacheTtl = new Duration(1, TimeUnit.SECONDS);
+    private Duration watchMaxWait = new Duration(30, TimeUnit.SECONDS);
+    private Duration watchCheckInterval = new Duration(100, TimeUnit.MILLISECONDS);
 
     @NotNull
     public Duration getMaxAge()
@@ -51,4 +55,34 @@ public class DiscoveryConfig
         this.storeCacheTtl = storeCacheTtl;
         return this;
     }
+
+    @NotNull
+    @MinDuration("1ms")
+    public Duration getWatchMaxWait()
+    {
+        return watchMaxWait;
+    }
+
+    @Config("discovery.watch.max-wait")
+    @ConfigDescription("Maximum time a service watch waits for a change")
+    public DiscoveryConfig setWatchMaxWait(Duration watchMaxWait)
+    {
+        this.watchMaxWait = watchMaxWait;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1ms")
+    public Duration getWatchCheckInterval()
+    {
+        return watchCheckInterval;
+    }
+
+    @Config("discovery.watch.check-interval")
+    @ConfigDescription("Interval between checks for changes to watched services")
+    public DiscoveryConfig setWatchCheckInterval(Duration watchCheckInterval)
+    {
+        this.watchCheckInterval = watchCheckInterval;
+        return this;
+    }
 }
@@ -16,9 +16,12 @@
 package com.facebook.airlift.discovery.server;
 
 import com.facebook.airlift.node.NodeInfo;
+import com.google.common.base.CharMatcher;
+import com.google.common.primitives.Longs;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -27,8 +30,10 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 
+import static jakarta.ws.rs.core.HttpHeaders.IF_MATCH;
 import static jakarta.ws.rs.core.Response.Status.ACCEPTED;
 import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
+import static jakarta.ws.rs.core.Response.Status.PRECONDITION_FAILED;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNullElse;
 
@@ -61,9 +66,35 @@ public class DynamicAnnouncementResource
                 .setLocation(location)
                 .build();
 
-        dynamicStore.put(nodeId, announcementWithLocation);
+        long version = dynamicStore.put(nodeId, announcementWithLocation);
 
-        return Response.status(ACCEPTED).build();
+        return Response.status(ACCEPTED)
+                .tag(String.valueOf(version))
+                .build();
+    }
+
+    /**
+     * Renews the announcement of a node with the version of the entity tag returned by
+     * {@link #put}, so a node that did not change its services does not send them again.
+     */
+    @PUT
+    @Path("heartbeat")
+    public Response heartbeat(@PathParam("node_id") Id<Node> nodeId, @HeaderParam(IF_MATCH) String version)
+    {
+        Long parsedVersion = (version == null) ? null : Longs.tryParse(CharMatcher.is('"').trimFrom(version));
+        if (parsedVersion == null) {
+            return Response.status(BAD_REQUEST)
+                    .entity(format("Invalid announcement version: %s", version))
+                    .build();
+        }
+
+        if (!dynamicStore.renew(nodeId, parsedVersion)) {
+            return Response.status(PRECONDITION_FAILED).build();
+        }
+
+        return Response.status(ACCEPTED)
+                .tag(String.valueOf(parsedVersion))
+                .build();
     }
 
     @DELETE
@@ -19,7 +19,19 @@ import java.util.Set;
 
 public interface DynamicStore
 {
-    void put(Id<Node> nodeId, DynamicAnnouncement announcement);
+    /**
+     * Stores the announcement of a node, replacing any previous announcement.
+     *
+     * @return the version of the stored announcement, which is used to renew it
+     */
+    long put(Id<Node> nodeId, DynamicAnnouncement announcement);
+
+    /**
+     * Extends the expiration of the announcement of a node, without sending it again.
+     *
+     * @return false if the node has no announcement, or the announcement has another version
+     */
+    boolean renew(Id<Node> nodeId, long version);
 
     void delete(Id<Node> nodeId);
 
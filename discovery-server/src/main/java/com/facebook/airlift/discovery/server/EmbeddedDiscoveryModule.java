@@ -27,6 +27,7 @@ import static com.facebook.airlift.configuration.ConfigBinder.configBinder;
 import static com.facebook.airlift.discovery.client.DiscoveryBinder.discoveryBinder;
 import static com.facebook.airlift.jaxrs.JaxrsBinder.jaxrsBinder;
 import static com.facebook.airlift.json.JsonCodecBinder.jsonCodecBinder;
+import static org.weakref.jmx.guice.ExportBinder.newExporter;
 
 public class EmbeddedDiscoveryModule
         extends AbstractConfigurationAwareModule
@@ -36,11 +37,16 @@ public class EmbeddedDiscoveryModule
     {
         configBinder(binder).bindConfig(DiscoveryConfig.class);
         jaxrsBinder(binder).bind(ServiceResource.class);
+        jaxrsBinder(binder).bind(ServiceWatchResource.class);
+        binder.bind(ServiceLookup.class).in(Scopes.SINGLETON);
+        binder.bind(ServiceWatcher.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(ServiceWatcher.class).withGeneratedName();
 
         discoveryBinder(binder).bindHttpAnnouncement("discovery");
 
         jsonCodecBinder(binder).bindJsonCodec(Service.class);
         jsonCodecBinder(binder).bindListJsonCodec(Service.class);
+        jsonCodecBinder(binder).bindJsonCodec(Services.class);
 
         binder.bind(ServiceSelector.class).to(DiscoveryServiceSelector.class);
         binder.bind(StaticStore.class).to(EmptyStaticStore.class);
@@ -15,11 +15,11 @@
  */
 package com.facebook.airlift.discovery.server;
 
+import com.facebook.airlift.discovery.server.ServiceIndex.Snapshot;
 import com.facebook.airlift.discovery.store.DistributedStore;
-import com.facebook.airlift.discovery.store.Entry;
+import com.facebook.airlift.discovery.store.Version;
 import com.facebook.airlift.json.JsonCodec;
 import com.facebook.airlift.units.Duration;
-import com.google.common.collect.ImmutableSet;
 import jakarta.inject.Inject;
 
 import java.util.List;
@@ -27,8 +27,6 @@ import java.util.Set;
 import java.util.function.Supplier;
 
 import static com.facebook.airlift.discovery.server.DynamicServiceAnnouncement.toServiceWith;
-import static com.facebook.airlift.discovery.server.Service.matchesPool;
-import static com.facebook.airlift.discovery.server.Service.matchesType;
 import static com.google.common.base.Suppliers.memoizeWithExpiration;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
@@ -40,7 +38,8 @@ public class ReplicatedDynamicStore
     private final DistributedStore store;
     private final Duration maxAge;
     private final JsonCodec<List<Service>> codec;
-    private final Supplier<Set<Service>> servicesSupplier;
+    private final ServiceIndex index;
+    private final Supplier<Snapshot> snapshotSupplier;
 
     @Inject
     public ReplicatedDynamicStore(@ForDynamicStore DistributedStore store, DiscoveryConfig config, JsonCodec<List<Service>> codec)
@@ -49,11 +48,12 @@ public class ReplicatedDynamicStore
         this.maxAge = requireNonNull(config, "config is null").getMaxAge();
         this.codec = requireNonNull(codec, "codec is null");
 
-        servicesSupplier = cachingSupplier(servicesSupplier(), config.getStoreCacheTtl());
+        this.index = new ServiceIndex(codec::fromJson);
+        this.snapshotSupplier = cachingSupplier(() -> index.update(store.getAll()), config.getStoreCacheTtl());
     }
 
     @Override
-    public void put(Id<Node> nodeId, DynamicAnnouncement announcement)
+    public long put(Id<Node> nodeId, DynamicAnnouncement announcement)
     {
         List<Service> services = announcement.getServiceAnnouncements().stream()
                 .map(toServiceWith(nodeId, announcement.getLocation(), announcement.getPool()))
@@ -62,7 +62,13 @@ public class ReplicatedDynamicStore
         byte[] key = nodeId.getBytes();
         byte[] value = codec.toJsonBytes(services);
 
-        store.put(key, value, maxAge);
+        return store.put(key, value, maxAge).getSequence();
+    }
+
+    @Override
+    public boolean renew(Id<Node> nodeId, long version)
+    {
+        return store.renew(nodeId.getBytes(), new Version(version), maxAge);
     }
 
     @Override
@@ -74,35 +80,22 @@ public class ReplicatedDynamicStore
     @Override
     public Set<Service> getAll()
     {
-        return servicesSupplier.get();
+        return snapshotSupplier.get().getAll();
     }
 
     @Override
     public Set<Service> get(String type)
     {
-        return ImmutableSet.copyOf(getAll().stream().filter(matchesType(type)).iterator());
+        return snapshotSupplier.get().get(type);
     }
 
     @Override
     public Set<Service> get(String type, String pool)
     {
-        return ImmutableSet.copyOf(getAll().stream()
-                .filter(service -> matchesType(type).test(service) && matchesPool(pool).test(service))
-                .iterator());
-    }
-
-    private Supplier<Set<Service>> servicesSupplier()
-    {
-        return () -> {
-            ImmutableSet.Builder<Service> builder = ImmutableSet.builder();
-            for (Entry entry : store.getAll()) {
-                builder.addAll(codec.fromJson(entry.getValue()));
-            }
-            return builder.build();
-        };
+        return snapshotSupplier.get().get(type, pool);
     }
 
-    private static <T> Supplier<T> cachingSupplier(Supplier<T> supplier, Duration ttl)
+    static <T> Supplier<T> cachingSupplier(Supplier<T> supplier, Duration ttl)
     {
         if (ttl.toMillis() == 0) {
             return supplier;
@@ -15,29 +15,43 @@
  */
 package com.facebook.airlift.discovery.server;
 
+import com.facebook.airlift.discovery.server.ServiceIndex.Snapshot;
 import com.facebook.airlift.discovery.store.DistributedStore;
-import com.facebook.airlift.discovery.store.Entry;
 import com.facebook.airlift.json.JsonCodec;
-import com.google.common.collect.ImmutableSet;
+import com.facebook.airlift.units.Duration;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import jakarta.inject.Inject;
 
 import java.util.Set;
+import java.util.function.Supplier;
 
-import static com.facebook.airlift.discovery.server.Service.matchesPool;
-import static com.facebook.airlift.discovery.server.Service.matchesType;
+import static com.facebook.airlift.discovery.server.ReplicatedDynamicStore.cachingSupplier;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class ReplicatedStaticStore
         implements StaticStore
 {
     private final DistributedStore store;
     private final JsonCodec<Service> codec;
+    private final ServiceIndex index;
+    private final Supplier<Snapshot> snapshotSupplier;
+
+    @VisibleForTesting
+    ReplicatedStaticStore(DistributedStore store, JsonCodec<Service> codec)
+    {
+        this(store, new DiscoveryConfig().setStoreCacheTtl(new Duration(0, MILLISECONDS)), codec);
+    }
 
     @Inject
-    public ReplicatedStaticStore(@ForStaticStore DistributedStore store, JsonCodec<Service> codec)
+    public ReplicatedStaticStore(@ForStaticStore DistributedStore store, DiscoveryConfig config, JsonCodec<Service> codec)
     {
         this.store = requireNonNull(store, "store is null");
         this.codec = requireNonNull(codec, "codec is null");
+        this.index = new ServiceIndex(json -> ImmutableList.of(codec.fromJson(json)));
+        // the static store is persistent, so reading it for every lookup of a watch check is expensive
+        this.snapshotSupplier = cachingSupplier(() -> index.update(store.getAll()), requireNonNull(config, "config is null").getStoreCacheTtl());
     }
 
     @Override
@@ -58,25 +72,18 @@ public class ReplicatedStaticStore
     @Override
     public Set<Service> getAll()
     {
-        ImmutableSet.Builder<Service> builder = ImmutableSet.builder();
-        for (Entry entry : store.getAll()) {
-            builder.add(codec.fromJson(entry.getValue()));
-        }
-
-        return builder.build();
+        return snapshotSupplier.get().getAll();
     }
 
     @Override
     public Set<Service> get(String type)
     {
-        return ImmutableSet.copyOf(getAll().stream().filter(matchesType(type)).iterator());
+        return snapshotSupplier.get().get(type);
     }
 
     @Override
     public Set<Service> get(String type, String pool)
     {
-        return ImmutableSet.copyOf(getAll().stream()
-                .filter(service -> matchesType(type).test(service) && matchesPool(pool).test(service))
-                .iterator());
+        return snapshotSupplier.get().get(type, pool);
     }
 }
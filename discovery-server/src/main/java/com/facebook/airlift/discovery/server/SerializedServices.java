@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.server;
+
+import com.google.common.base.Splitter;
+import com.google.common.hash.Hashing;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Set;
+
+import static com.google.common.net.HttpHeaders.ETAG;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The JSON of a service lookup, and its strong ETag.
+ */
+final class SerializedServices
+{
+    private static final Splitter ETAG_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final Set<Service> dynamicServices;
+    private final Set<Service> staticServices;
+    private final byte[] json;
+    private final String eTag;
+
+    public SerializedServices(Set<Service> dynamicServices, Set<Service> staticServices, byte[] json)
+    {
+        this.dynamicServices = requireNonNull(dynamicServices, "dynamicServices is null");
+        this.staticServices = requireNonNull(staticServices, "staticServices is null");
+        this.json = requireNonNull(json, "json is null");
+        this.eTag = "\"" + Hashing.sha256().hashBytes(json).toString().substring(0, 32) + "\"";
+    }
+
+    /**
+     * The stores keep the set of services of a type and pool while it does not change,
+     * and services are only equal by id, so the sets are compared by identity.
+     */
+    public boolean isFor(Set<Service> dynamicServices, Set<Service> staticServices)
+    {
+        return (this.dynamicServices == dynamicServices) && (this.staticServices == staticServices);
+    }
+
+    public boolean isEmpty()
+    {
+        return dynamicServices.isEmpty() && staticServices.isEmpty();
+    }
+
+    public String getETag()
+    {
+        return eTag;
+    }
+
+    /**
+     * Returns true if the value of an If-None-Match header matches the ETag.
+     */
+    public boolean matches(String ifNoneMatch)
+    {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String value : ETAG_SPLITTER.split(ifNoneMatch)) {
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+            // If-None-Match uses weak comparison
+            if (value.startsWith("W/") && value.substring(2).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Response toResponse()
+    {
+        return Response.ok(json, APPLICATION_JSON_TYPE)
+                .header(ETAG, eTag)
+                .build();
+    }
+
+    public Response toNotModifiedResponse()
+    {
+        return Response.notModified()
+                .header(ETAG, eTag)
+                .build();
+    }
+}
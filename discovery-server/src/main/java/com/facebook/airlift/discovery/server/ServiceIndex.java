@@ -0,0 +1,164 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.server;
+
+import com.facebook.airlift.discovery.store.Entry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.errorprone.annotations.ThreadSafe;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Services of a store indexed by type, and by type and pool. The index is updated from
+ * the entries of the store, and only the entries with a new value are decoded. The
+ * sets of services that did not change are kept, so anything derived from a set can be
+ * cached by the identity of the set.
+ */
+@ThreadSafe
+final class ServiceIndex
+{
+    private final Function<byte[], List<Service>> decoder;
+
+    @GuardedBy("this")
+    private Map<ByteBuffer, DecodedEntry> entries = ImmutableMap.of();
+    @GuardedBy("this")
+    private Snapshot snapshot = new Snapshot(ImmutableList.of(), null);
+
+    public ServiceIndex(Function<byte[], List<Service>> decoder)
+    {
+        this.decoder = requireNonNull(decoder, "decoder is null");
+    }
+
+    public synchronized Snapshot update(Iterable<Entry> storeEntries)
+    {
+        Map<ByteBuffer, DecodedEntry> updated = new HashMap<>();
+        boolean changed = false;
+        for (Entry entry : storeEntries) {
+            ByteBuffer key = ByteBuffer.wrap(entry.getKey());
+            DecodedEntry decoded = entries.get(key);
+            // versions are per key sequences that advance on every write, even when an announcement
+            // rewrites the same value, so compare the values, which are usually the same array
+            if ((decoded == null) || !Arrays.equals(decoded.value, entry.getValue())) {
+                decoded = new DecodedEntry(entry.getValue(), ImmutableList.copyOf(decoder.apply(entry.getValue())));
+                changed = true;
+            }
+            updated.put(key, decoded);
+        }
+        changed |= (updated.size() != entries.size());
+        entries = updated;
+
+        if (changed) {
+            ImmutableList.Builder<Service> services = ImmutableList.builder();
+            for (DecodedEntry entry : updated.values()) {
+                services.addAll(entry.services);
+            }
+            snapshot = new Snapshot(services.build(), snapshot);
+        }
+        return snapshot;
+    }
+
+    public static final class Snapshot
+    {
+        private final Set<Service> all;
+        private final Map<String, Set<Service>> byType;
+        private final Map<String, Map<String, Set<Service>>> byTypeAndPool;
+
+        private Snapshot(List<Service> services, Snapshot previous)
+        {
+            Map<String, ImmutableSet.Builder<Service>> byType = new LinkedHashMap<>();
+            Map<String, Map<String, ImmutableSet.Builder<Service>>> byTypeAndPool = new LinkedHashMap<>();
+            for (Service service : services) {
+                byType.computeIfAbsent(service.getType(), type -> ImmutableSet.builder()).add(service);
+                byTypeAndPool.computeIfAbsent(service.getType(), type -> new LinkedHashMap<>())
+                        .computeIfAbsent(service.getPool(), pool -> ImmutableSet.builder())
+                        .add(service);
+            }
+
+            this.all = reuse(previous == null ? null : previous.all, ImmutableSet.copyOf(services));
+
+            ImmutableMap.Builder<String, Set<Service>> typeIndex = ImmutableMap.builder();
+            byType.forEach((type, builder) ->
+                    typeIndex.put(type, reuse(previous == null ? null : previous.get(type), builder.build())));
+            this.byType = typeIndex.build();
+
+            ImmutableMap.Builder<String, Map<String, Set<Service>>> typeAndPoolIndex = ImmutableMap.builder();
+            byTypeAndPool.forEach((type, pools) -> {
+                ImmutableMap.Builder<String, Set<Service>> poolIndex = ImmutableMap.builder();
+                pools.forEach((pool, builder) ->
+                        poolIndex.put(pool, reuse(previous == null ? null : previous.get(type, pool), builder.build())));
+                typeAndPoolIndex.put(type, poolIndex.build());
+            });
+            this.byTypeAndPool = typeAndPoolIndex.build();
+        }
+
+        public Set<Service> getAll()
+        {
+            return all;
+        }
+
+        public Set<Service> get(String type)
+        {
+            return byType.getOrDefault(type, ImmutableSet.of());
+        }
+
+        public Set<Service> get(String type, String pool)
+        {
+            return byTypeAndPool.getOrDefault(type, ImmutableMap.of()).getOrDefault(pool, ImmutableSet.of());
+        }
+
+        /**
+         * Returns the previous set if it contains the same service instances, as services
+         * are only equal by id, and a service may be announced again with new properties.
+         */
+        private static Set<Service> reuse(Set<Service> previous, Set<Service> current)
+        {
+            if ((previous == null) || (previous.size() != current.size())) {
+                return current;
+            }
+            Set<Service> identities = Sets.newIdentityHashSet();
+            identities.addAll(previous);
+            for (Service service : current) {
+                if (!identities.contains(service)) {
+                    return current;
+                }
+            }
+            return previous;
+        }
+    }
+
+    private static final class DecodedEntry
+    {
+        private final byte[] value;
+        private final List<Service> services;
+
+        private DecodedEntry(byte[] value, List<Service> services)
+        {
+            this.value = value;
+            this.services = services;
+        }
+    }
+}
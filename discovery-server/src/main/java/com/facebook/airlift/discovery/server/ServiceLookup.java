@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.server;
+
+import com.facebook.airlift.json.JsonCodec;
+import com.facebook.airlift.node.NodeInfo;
+import jakarta.annotation.Nullable;
+import jakarta.inject.Inject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.collect.Sets.union;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Looks up the services of a type, or of a type and pool, in the dynamic and static
+ * stores, and keeps the serialized result until the services change.
+ */
+public class ServiceLookup
+{
+    private final DynamicStore dynamicStore;
+    private final StaticStore staticStore;
+    private final String environment;
+    private final JsonCodec<Services> servicesCodec;
+
+    // only lookups with services are kept, so the size is bounded by the announcements
+    private final Map<List<String>, SerializedServices> serializedServices = new ConcurrentHashMap<>();
+
+    @Inject
+    public ServiceLookup(DynamicStore dynamicStore, StaticStore staticStore, NodeInfo node, JsonCodec<Services> servicesCodec)
+    {
+        this.dynamicStore = requireNonNull(dynamicStore, "dynamicStore is null");
+        this.staticStore = requireNonNull(staticStore, "staticStore is null");
+        this.environment = requireNonNull(node, "node is null").getEnvironment();
+        this.servicesCodec = requireNonNull(servicesCodec, "servicesCodec is null");
+    }
+
+    SerializedServices getServices(String type, @Nullable String pool)
+    {
+        requireNonNull(type, "type is null");
+        Set<Service> dynamicServices = (pool == null) ? dynamicStore.get(type) : dynamicStore.get(type, pool);
+        Set<Service> staticServices = (pool == null) ? staticStore.get(type) : staticStore.get(type, pool);
+
+        List<String> key = Arrays.asList(type, pool);
+        SerializedServices serialized = serializedServices.get(key);
+        if ((serialized != null) && serialized.isFor(dynamicServices, staticServices)) {
+            return serialized;
+        }
+
+        byte[] json = servicesCodec.toJsonBytes(new Services(environment, union(dynamicServices, staticServices)));
+        serialized = new SerializedServices(dynamicServices, staticServices, json);
+        if (serialized.isEmpty()) {
+            serializedServices.remove(key);
+        }
+        else {
+            serializedServices.put(key, serialized);
+        }
+        return serialized;
+    }
+}
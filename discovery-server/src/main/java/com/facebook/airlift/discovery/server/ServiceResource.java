@@ -18,12 +18,16 @@ package com.facebook.airlift.discovery.server;
 import com.facebook.airlift.node.NodeInfo;
 import com.google.inject.Inject;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 
 import static com.google.common.collect.Sets.union;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
 
 @Path("/v1/service")
 public class ServiceResource
@@ -31,29 +35,38 @@ public class ServiceResource
     private final DynamicStore dynamicStore;
     private final StaticStore staticStore;
     private final NodeInfo node;
+    private final ServiceLookup serviceLookup;
 
     @Inject
-    public ServiceResource(DynamicStore dynamicStore, StaticStore staticStore, NodeInfo node)
+    public ServiceResource(DynamicStore dynamicStore, StaticStore staticStore, NodeInfo node, ServiceLookup serviceLookup)
     {
         this.dynamicStore = dynamicStore;
         this.staticStore = staticStore;
         this.node = node;
+        this.serviceLookup = serviceLookup;
     }
 
     @GET
     @Path("{type}/{pool}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Services getServices(@PathParam("type") String type, @PathParam("pool") String pool)
+    public Response getServices(
+            @PathParam("type") String type,
+            @PathParam("pool") String pool,
+            @HeaderParam(IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam(ETAG) String eTag)
     {
-        return new Services(node.getEnvironment(), union(dynamicStore.get(type, pool), staticStore.get(type, pool)));
+        return toResponse(serviceLookup.getServices(type, pool), ifNoneMatch, eTag);
     }
 
     @GET
     @Path("{type}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Services getServices(@PathParam("type") String type)
+    public Response getServices(
+            @PathParam("type") String type,
+            @HeaderParam(IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam(ETAG) String eTag)
     {
-        return new Services(node.getEnvironment(), union(dynamicStore.get(type), staticStore.get(type)));
+        return toResponse(serviceLookup.getServices(type, null), ifNoneMatch, eTag);
     }
 
     @GET
@@ -62,4 +75,13 @@ public class ServiceResource
     {
         return new Services(node.getEnvironment(), union(dynamicStore.getAll(), staticStore.getAll()));
     }
+
+    private static Response toResponse(SerializedServices services, String ifNoneMatch, String eTag)
+    {
+        // older clients send the ETag of their cached response in an ETag header
+        if (services.matches(ifNoneMatch) || services.matches(eTag)) {
+            return services.toNotModifiedResponse();
+        }
+        return services.toResponse();
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.server;
+
+import com.facebook.airlift.units.Duration;
+import com.google.common.util.concurrent.ListenableFuture;
+import jakarta.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import static com.facebook.airlift.http.server.AsyncResponseHandler.bindAsyncResponse;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
+import static com.google.common.util.concurrent.Futures.transform;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Long polling version of {@link ServiceResource}. A request with the ETag of the last
+ * response in If-None-Match waits until the services change, and is answered with
+ * 304 Not Modified if they do not change within the requested maximum wait.
+ */
+@Path("/v1/service-watch")
+public class ServiceWatchResource
+{
+    public static final String MAX_WAIT = "X-Airlift-Discovery-Max-Wait";
+
+    private final ServiceLookup serviceLookup;
+    private final ServiceWatcher serviceWatcher;
+    private final Duration maxWait;
+
+    @Inject
+    public ServiceWatchResource(ServiceLookup serviceLookup, ServiceWatcher serviceWatcher, DiscoveryConfig config)
+    {
+        this.serviceLookup = requireNonNull(serviceLookup, "serviceLookup is null");
+        this.serviceWatcher = requireNonNull(serviceWatcher, "serviceWatcher is null");
+        this.maxWait = requireNonNull(config, "config is null").getWatchMaxWait();
+    }
+
+    @GET
+    @Path("{type}/{pool}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void watchServices(
+            @PathParam("type") String type,
+            @PathParam("pool") String pool,
+            @HeaderParam(IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam(MAX_WAIT) Duration wait,
+            @Suspended AsyncResponse asyncResponse)
+    {
+        watch(type, pool, ifNoneMatch, wait, asyncResponse);
+    }
+
+    @GET
+    @Path("{type}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void watchServices(
+            @PathParam("type") String type,
+            @HeaderParam(IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam(MAX_WAIT) Duration wait,
+            @Suspended AsyncResponse asyncResponse)
+    {
+        watch(type, null, ifNoneMatch, wait, asyncResponse);
+    }
+
+    private void watch(String type, @Nullable String pool, String ifNoneMatch, Duration wait, AsyncResponse asyncResponse)
+    {
+        if (ifNoneMatch == null) {
+            asyncResponse.resume(serviceLookup.getServices(type, pool).toResponse());
+            return;
+        }
+
+        // the watch is for a single ETag, so weak and multiple ETags are not supported
+        String eTag = ifNoneMatch.trim();
+        if ((wait == null) || (wait.compareTo(maxWait) > 0)) {
+            wait = maxWait;
+        }
+
+        ListenableFuture<Response> response = transform(serviceWatcher.waitForChange(type, pool, eTag), SerializedServices::toResponse, directExecutor());
+        bindAsyncResponse(asyncResponse, response, serviceWatcher.getResponseExecutor())
+                .withTimeout(wait, () -> Response.notModified()
+                        .header(ETAG, eTag)
+                        .build());
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.server;
+
+import com.facebook.airlift.concurrent.BoundedExecutor;
+import com.facebook.airlift.log.Logger;
+import com.facebook.airlift.units.Duration;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import org.weakref.jmx.Managed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Waits for the services of a type, or of a type and pool, to change. A watch is a
+ * future that is completed by a periodic check of the watched lookups, so a watch
+ * does not hold a thread. The check only serializes lookups that changed.
+ */
+public class ServiceWatcher
+{
+    private static final Logger log = Logger.get(ServiceWatcher.class);
+
+    private static final int RESPONSE_THREADS = 16;
+
+    private final ServiceLookup serviceLookup;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService checkExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("service-watcher"));
+    private final ExecutorService responseExecutor = newCachedThreadPool(daemonThreadsNamed("service-watcher-response-%s"));
+    private final Executor boundedResponseExecutor = new BoundedExecutor(responseExecutor, RESPONSE_THREADS);
+
+    @GuardedBy("this")
+    private final Map<List<String>, List<Watch>> watches = new HashMap<>();
+
+    @Inject
+    public ServiceWatcher(ServiceLookup serviceLookup, DiscoveryConfig config)
+    {
+        this.serviceLookup = requireNonNull(serviceLookup, "serviceLookup is null");
+        this.checkInterval = requireNonNull(config, "config is null").getWatchCheckInterval();
+    }
+
+    @PostConstruct
+    public void start()
+    {
+        checkExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                checkForChanges();
+            }
+            catch (Throwable t) {
+                log.error(t, "Error checking watched services for changes");
+            }
+        }, checkInterval.toMillis(), checkInterval.toMillis(), MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        checkExecutor.shutdownNow();
+        responseExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the services when their ETag is not the specified ETag. The caller cancels
+     * the future to stop waiting.
+     */
+    public ListenableFuture<SerializedServices> waitForChange(String type, @Nullable String pool, String eTag)
+    {
+        requireNonNull(eTag, "eTag is null");
+        SerializedServices services = serviceLookup.getServices(type, pool);
+        if (!services.getETag().equals(eTag)) {
+            return immediateFuture(services);
+        }
+
+        // a change before the watch is added is found by the next check, as the ETag is different
+        Watch watch = new Watch(eTag);
+        synchronized (this) {
+            watches.computeIfAbsent(Arrays.asList(type, pool), key -> new ArrayList<>()).add(watch);
+        }
+        return watch.future;
+    }
+
+    public Executor getResponseExecutor()
+    {
+        return boundedResponseExecutor;
+    }
+
+    @Managed
+    public synchronized int getWatches()
+    {
+        return watches.values().stream()
+                .mapToInt(List::size)
+                .sum();
+    }
+
+    @Managed
+    public synchronized int getWatchedLookups()
+    {
+        return watches.size();
+    }
+
+    @VisibleForTesting
+    void checkForChanges()
+    {
+        List<List<String>> keys;
+        synchronized (this) {
+            keys = ImmutableList.copyOf(watches.keySet());
+        }
+
+        for (List<String> key : keys) {
+            SerializedServices services = serviceLookup.getServices(key.get(0), key.get(1));
+
+            List<Watch> changed = new ArrayList<>();
+            synchronized (this) {
+                List<Watch> keyWatches = watches.get(key);
+                if (keyWatches == null) {
+                    continue;
+                }
+                for (Iterator<Watch> iterator = keyWatches.iterator(); iterator.hasNext(); ) {
+                    Watch watch = iterator.next();
+                    if (watch.future.isDone()) {
+                        // the watch timed out or the request was aborted
+                        iterator.remove();
+                    }
+                    else if (!watch.eTag.equals(services.getETag())) {
+                        iterator.remove();
+                        changed.add(watch);
+                    }
+                }
+                if (keyWatches.isEmpty()) {
+                    watches.remove(key);
+                }
+            }
+
+            // complete outside of the lock, as listeners run on this thread
+            for (Watch watch : changed) {
+                watch.future.set(services);
+            }
+        }
+    }
+
+    private static final class Watch
+    {
+        private final String eTag;
+        private final SettableFuture<SerializedServices> future = SettableFuture.create();
+
+        private Watch(String eTag)
+        {
+            this.eTag = eTag;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.facebook.airlift.discovery.server;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.Immutable;
@@ -29,7 +30,8 @@ public class Services
     private final String environment;
     private final Set<Service> services;
 
-    public Services(String environment, Set<Service> services)
+    @JsonCreator
+    public Services(@JsonProperty("environment") String environment, @JsonProperty("services") Set<Service> services)
     {
         this.environment = requireNonNull(environment, "environment is null");
         this.services = ImmutableSet.copyOf(requireNonNull(services, "services is null"));
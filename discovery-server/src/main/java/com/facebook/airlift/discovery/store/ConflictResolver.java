@@ -15,6 +15,10 @@
  */
 package com.facebook.airlift.discovery.store;
 
+import com.google.common.primitives.UnsignedBytes;
+
+import java.util.Arrays;
+
 public class ConflictResolver
 {
     public Entry resolve(Entry a, Entry b)
@@ -26,6 +30,15 @@ public class ConflictResolver
                 return a;
         }
 
-        return a; // arbitrary
+        // a renewed entry has the same version and value, and a later timestamp
+        if (Arrays.equals(a.getValue(), b.getValue())) {
+            return (b.getTimestamp() > a.getTimestamp()) ? b : a;
+        }
+
+        // values written with the same version on different servers: pick the same one on every server
+        if (a.getValue() == null || b.getValue() == null) {
+            return (a.getValue() == null) ? a : b;
+        }
+        return (UnsignedBytes.lexicographicalComparator().compare(a.getValue(), b.getValue()) >= 0) ? a : b;
     }
 }
@@ -126,26 +126,49 @@ public class DistributedStore
         requireNonNull(key, "key is null");
         requireNonNull(value, "value is null");
 
-        long now = timeSupplier.get().toInstant().toEpochMilli();
+        Entry entry = putLocal(key, value, null);
+        remoteStore.put(entry);
+    }
 
-        Entry entry = new Entry(key, value, new Version(now), now, null);
+    public Version put(byte[] key, byte[] value, Duration maxAge)
+    {
+        requireNonNull(key, "key is null");
+        requireNonNull(value, "value is null");
+        requireNonNull(maxAge, "maxAge is null");
 
-        localStore.put(entry);
+        Entry entry = putLocal(key, value, maxAge.toMillis());
         remoteStore.put(entry);
+
+        return entry.getVersion();
     }
 
-    public void put(byte[] key, byte[] value, Duration maxAge)
+    /**
+     * Restarts the max age of a value, if the key still has the value of the version.
+     * The entry keeps its version, so a renewal never replaces a newer value.
+     * The remote store is sent the renewed entry with {@link RemoteStore#renew}, so it
+     * can replicate the new expiry without the value.
+     *
+     * @return false if the key has another version, or has no value
+     */
+    public boolean renew(byte[] key, Version version, Duration maxAge)
     {
         requireNonNull(key, "key is null");
-        requireNonNull(value, "value is null");
+        requireNonNull(version, "version is null");
         requireNonNull(maxAge, "maxAge is null");
 
+        Entry entry = localStore.get(key);
+        if (entry == null || entry.getValue() == null || isExpired(entry) || !entry.getVersion().equals(version)) {
+            return false;
+        }
+
         long now = timeSupplier.get().toInstant().toEpochMilli();
 
-        Entry entry = new Entry(key, value, new Version(now), now, maxAge.toMillis());
+        Entry renewed = new Entry(key, entry.getValue(), version, now, maxAge.toMillis());
 
-        localStore.put(entry);
-        remoteStore.put(entry);
+        localStore.put(renewed);
+        remoteStore.renew(renewed);
+
+        return true;
     }
 
     public byte[] get(byte[] key)
@@ -166,12 +189,27 @@ public class DistributedStore
     {
         requireNonNull(key, "key is null");
 
+        Entry entry = putLocal(key, null, null);
+        remoteStore.put(entry);
+    }
+
+    /**
+     * Stores a new value with a version after the current one, so writes of a key in the
+     * same millisecond still have distinct versions, and the last one wins.
+     */
+    private synchronized Entry putLocal(byte[] key, byte[] value, Long maxAgeInMs)
+    {
         long now = timeSupplier.get().toInstant().toEpochMilli();
 
-        Entry entry = new Entry(key, null, new Version(now), now, null);
+        long version = now;
+        Entry current = localStore.get(key);
+        if (current != null) {
+            version = Math.max(version, current.getVersion().getSequence() + 1);
+        }
 
+        Entry entry = new Entry(key, value, new Version(version), now, maxAgeInMs);
         localStore.put(entry);
-        remoteStore.put(entry);
+        return entry;
     }
 
     public Iterable<Entry> getAll()
@@ -67,6 +67,7 @@ public class HttpRemoteStore
     private final Duration updateInterval;
 
     private final ConcurrentMap<String, BatchProcessor<Entry>> processors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, BatchProcessor<Renewal>> renewalProcessors = new ConcurrentHashMap<>();
     private final String name;
     private final NodeInfo node;
     private final ServiceSelector selector;
@@ -174,6 +175,17 @@ public class HttpRemoteStore
             }
         }
 
+        Iterator<Map.Entry<String, BatchProcessor<Renewal>>> renewalIterator = renewalProcessors.entrySet().iterator();
+        while (renewalIterator.hasNext()) {
+            Map.Entry<String, BatchProcessor<Renewal>> entry = renewalIterator.next();
+
+            if (!nodeIds.contains(entry.getKey())) {
+                renewalIterator.remove();
+                entry.getValue().stop();
+                mbeanExporter.unexport(renewalNameFor(entry.getKey()));
+            }
+        }
+
         Iterable<ServiceDescriptor> newDescriptors = descriptors.stream()
                 .filter(descriptor ->
                         !descriptor.getNodeId().equals(node.getNodeId())
@@ -182,13 +194,22 @@ public class HttpRemoteStore
 
         for (ServiceDescriptor descriptor : newDescriptors) {
             BatchProcessor<Entry> processor = new BatchProcessor<Entry>(descriptor.getNodeId(),
-                    new MyBatchHandler(name, descriptor, httpClient),
+                    new MyBatchHandler<Entry>(uriFor(descriptor, name), httpClient),
                     maxBatchSize,
                     queueSize);
 
             processor.start();
             processors.put(descriptor.getNodeId(), processor);
             mbeanExporter.export(nameFor(descriptor.getNodeId()), processor);
+
+            BatchProcessor<Renewal> renewalProcessor = new BatchProcessor<Renewal>(descriptor.getNodeId() + "-renewals",
+                    new MyBatchHandler<Renewal>(uriFor(descriptor, name + "/renewals"), httpClient),
+                    maxBatchSize,
+                    queueSize);
+
+            renewalProcessor.start();
+            renewalProcessors.put(descriptor.getNodeId(), renewalProcessor);
+            mbeanExporter.export(renewalNameFor(descriptor.getNodeId()), renewalProcessor);
         }
 
         lastRemoteServerRefreshTimestamp.set(System.currentTimeMillis());
@@ -199,6 +220,20 @@ public class HttpRemoteStore
         return generatedNameOf(BatchProcessor.class, named(name + "-" + id));
     }
 
+    private String renewalNameFor(String id)
+    {
+        return generatedNameOf(BatchProcessor.class, named(name + "-" + id + "-renewals"));
+    }
+
+    private static URI uriFor(ServiceDescriptor descriptor, String path)
+    {
+        // TODO: build URI from resource class
+        if (descriptor.getProperties().get("https") != null) {
+            return URI.create(descriptor.getProperties().get("https") + "/v1/store/" + path);
+        }
+        return URI.create(descriptor.getProperties().get("http") + "/v1/store/" + path);
+    }
+
     @Managed
     public long getLastRemoteServerRefreshTimestamp()
     {
@@ -224,29 +259,36 @@ public class HttpRemoteStore
         }
     }
 
-    private static class MyBatchHandler
-            implements BatchProcessor.BatchHandler<Entry>
+    /**
+     * Sends only the key, version, timestamp and max age of the renewed entry. A
+     * remote store that does not have this version of the entry ignores the renewal,
+     * and gets the entry from the replicator instead.
+     */
+    @Override
+    public void renew(Entry entry)
+    {
+        Renewal renewal = Renewal.renewalOf(entry);
+        for (BatchProcessor<Renewal> processor : renewalProcessors.values()) {
+            processor.put(renewal);
+        }
+    }
+
+    private static class MyBatchHandler<T>
+            implements BatchProcessor.BatchHandler<T>
     {
         private final ObjectMapper mapper = new ObjectMapper(new SmileFactory());
 
         private final URI uri;
         private final HttpClient httpClient;
 
-        public MyBatchHandler(String name, ServiceDescriptor descriptor, HttpClient httpClient)
+        public MyBatchHandler(URI uri, HttpClient httpClient)
         {
+            this.uri = uri;
             this.httpClient = httpClient;
-
-            // TODO: build URI from resource class
-            if (descriptor.getProperties().get("https") != null) {
-                uri = URI.create(descriptor.getProperties().get("https") + "/v1/store/" + name);
-            }
-            else {
-                uri = URI.create(descriptor.getProperties().get("http") + "/v1/store/" + name);
-            }
         }
 
         @Override
-        public void processBatch(final Collection<Entry> entries)
+        public void processBatch(final Collection<T> entries)
         {
             final Request request = Request.Builder.preparePost()
 
@@ -62,8 +62,13 @@ public class PersistentStore
     @Override
     public Entry get(byte[] key)
     {
+        byte[] dbEntry = db.get(key);
+        if (dbEntry == null) {
+            return null;
+        }
+
         try {
-            return mapper.readValue(db.get(key), Entry.class);
+            return mapper.readValue(dbEntry, Entry.class);
         }
         catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -18,4 +18,14 @@ package com.facebook.airlift.discovery.store;
 public interface RemoteStore
 {
     void put(Entry entry);
+
+    /**
+     * Replicates a renewed entry, which has the version and value of the current entry
+     * and a new timestamp and max age. Stores that can send only the version and expiry
+     * of the entry should override this method.
+     */
+    default void renew(Entry entry)
+    {
+        put(entry);
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.store;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.errorprone.annotations.Immutable;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The new timestamp and max age of an entry, without its value. A store applies
+ * a renewal only to an entry that has the same version.
+ */
+@Immutable
+public class Renewal
+{
+    private final byte[] key;
+    private final Version version;
+    private final long timestamp;
+    private final long maxAgeInMs;
+
+    @JsonCreator
+    public Renewal(@JsonProperty("key") byte[] key,
+            @JsonProperty("version") Version version,
+            @JsonProperty("timestamp") long timestamp,
+            @JsonProperty("maxAge") long maxAgeInMs)
+    {
+        requireNonNull(key, "key is null");
+        requireNonNull(version, "version is null");
+        checkArgument(maxAgeInMs > 0, "maxAgeInMs must be greater than 0");
+
+        this.key = key;
+        this.version = version;
+        this.timestamp = timestamp;
+        this.maxAgeInMs = maxAgeInMs;
+    }
+
+    public static Renewal renewalOf(Entry entry)
+    {
+        requireNonNull(entry, "entry is null");
+        checkArgument(entry.getMaxAgeInMs() != null, "entry has no max age");
+
+        return new Renewal(entry.getKey(), entry.getVersion(), entry.getTimestamp(), entry.getMaxAgeInMs());
+    }
+
+    @JsonProperty
+    public byte[] getKey()
+    {
+        return key;
+    }
+
+    @JsonProperty
+    public Version getVersion()
+    {
+        return version;
+    }
+
+    @JsonProperty
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    @JsonProperty("maxAge")
+    public long getMaxAgeInMs()
+    {
+        return maxAgeInMs;
+    }
+
+    /**
+     * Returns the entry renewed by this renewal, or null if the entry has another
+     * version, has no value, or already has this timestamp or a later one.
+     */
+    public Entry renew(Entry entry)
+    {
+        if (entry == null || entry.getValue() == null || !entry.getVersion().equals(version) || entry.getTimestamp() >= timestamp) {
+            return null;
+        }
+        return new Entry(entry.getKey(), entry.getValue(), version, timestamp, maxAgeInMs);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        Renewal renewal = (Renewal) o;
+
+        if (timestamp != renewal.timestamp) {
+            return false;
+        }
+        if (maxAgeInMs != renewal.maxAgeInMs) {
+            return false;
+        }
+        if (!Arrays.equals(key, renewal.key)) {
+            return false;
+        }
+        if (!version.equals(renewal.version)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = Arrays.hashCode(key);
+        result = 31 * result + version.hashCode();
+        result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+        result = 31 * result + (int) (maxAgeInMs ^ (maxAgeInMs >>> 32));
+        return result;
+    }
+}
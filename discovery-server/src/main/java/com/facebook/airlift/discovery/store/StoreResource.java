@@ -77,6 +77,30 @@ public class StoreResource
         return Response.noContent().build();
     }
 
+    @POST
+    @Path("renewals")
+    @Consumes({"application/x-jackson-smile", "application/json"})
+    public Response renewMultipleEntries(@PathParam("store") String storeName, List<Renewal> renewals)
+    {
+        LocalStore store = localStores.get(storeName);
+        if (store == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+
+        for (Renewal renewal : renewals) {
+            if (System.currentTimeMillis() - renewal.getTimestamp() > renewal.getMaxAgeInMs()) {
+                continue;
+            }
+
+            // a store that missed this version of the entry gets it from the replicator
+            Entry renewed = renewal.renew(store.get(renewal.getKey()));
+            if (renewed != null) {
+                store.put(renewed);
+            }
+        }
+        return Response.noContent().build();
+    }
+
     @GET
     @Produces({"application/x-jackson-smile", "application/json"})
     public Response getAll(@PathParam("store") String storeName)
@@ -41,6 +41,7 @@ public class InMemoryDynamicStore
     private final Map<Id<Node>, Entry> descriptors = new HashMap<>();
     private final Duration maxAge;
     private final Supplier<ZonedDateTime> currentTime;
+    private long nextVersion;
 
     @Inject
     public InMemoryDynamicStore(DiscoveryConfig config, Supplier<ZonedDateTime> timeSource)
@@ -50,7 +51,7 @@ public class InMemoryDynamicStore
     }
 
     @Override
-    public synchronized void put(Id<Node> nodeId, DynamicAnnouncement announcement)
+    public synchronized long put(Id<Node> nodeId, DynamicAnnouncement announcement)
     {
         requireNonNull(nodeId, "nodeId is null");
         requireNonNull(announcement, "announcement is null");
@@ -58,7 +59,26 @@ public class InMemoryDynamicStore
         Set<Service> services = ImmutableSet.copyOf(announcement.getServiceAnnouncements().stream().map(toServiceWith(nodeId, announcement.getLocation(), announcement.getPool())).collect(toImmutableList()));
 
         Instant expiration = currentTime.get().toInstant().plusMillis((int) maxAge.toMillis());
-        descriptors.put(nodeId, new Entry(expiration, services));
+        long version = nextVersion++;
+        descriptors.put(nodeId, new Entry(version, expiration, services));
+        return version;
+    }
+
+    @Override
+    public synchronized boolean renew(Id<Node> nodeId, long version)
+    {
+        requireNonNull(nodeId, "nodeId is null");
+
+        removeExpired();
+
+        Entry entry = descriptors.get(nodeId);
+        if (entry == null || entry.getVersion() != version) {
+            return false;
+        }
+
+        Instant expiration = currentTime.get().toInstant().plusMillis((int) maxAge.toMillis());
+        descriptors.put(nodeId, new Entry(version, expiration, entry.getServices()));
+        return true;
     }
 
     @Override
@@ -116,15 +136,22 @@ public class InMemoryDynamicStore
 
     private static class Entry
     {
+        private final long version;
         private final Set<Service> services;
         private final Instant expiration;
 
-        public Entry(Instant expiration, Set<Service> services)
+        public Entry(long version, Instant expiration, Set<Service> services)
         {
+            this.version = version;
             this.expiration = expiration;
             this.services = ImmutableSet.copyOf(services);
         }
 
+        public long getVersion()
+        {
+            return version;
+        }
+
         public Instant getExpiration()
         {
             return expiration;
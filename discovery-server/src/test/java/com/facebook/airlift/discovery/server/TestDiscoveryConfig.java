@@ -33,7 +33,9 @@ public class TestDiscoveryConfig
     {
         ConfigAssertions.assertRecordedDefaults(ConfigAssertions.recordDefaults(DiscoveryConfig.class)
                 .setMaxAge(new Duration(30, TimeUnit.SECONDS))
-                .setStoreCacheTtl(new Duration(1, TimeUnit.SECONDS)));
+                .setStoreCacheTtl(new Duration(1, TimeUnit.SECONDS))
+                .setWatchMaxWait(new Duration(30, TimeUnit.SECONDS))
+                .setWatchCheckInterval(new Duration(100, TimeUnit.MILLISECONDS)));
     }
 
     @Test
@@ -42,11 +44,15 @@ public class TestDiscoveryConfig
         Map<String, String> properties = ImmutableMap.<String, String>builder()
                 .put("discovery.max-age", "1m")
                 .put("discovery.store-cache-ttl", "13s")
+                .put("discovery.watch.max-wait", "5s")
+                .put("discovery.watch.check-interval", "1s")
                 .build();
 
         DiscoveryConfig expected = new DiscoveryConfig()
                 .setMaxAge(new Duration(1, TimeUnit.MINUTES))
-                .setStoreCacheTtl(new Duration(13, TimeUnit.SECONDS));
+                .setStoreCacheTtl(new Duration(13, TimeUnit.SECONDS))
+                .setWatchMaxWait(new Duration(5, TimeUnit.SECONDS))
+                .setWatchCheckInterval(new Duration(1, TimeUnit.SECONDS));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
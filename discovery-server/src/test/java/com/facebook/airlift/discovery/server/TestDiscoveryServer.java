@@ -60,6 +60,7 @@ import static com.facebook.airlift.http.client.FullJsonResponseHandler.createFul
 import static com.facebook.airlift.http.client.JsonBodyGenerator.jsonBodyGenerator;
 import static com.facebook.airlift.http.client.Request.Builder.prepareDelete;
 import static com.facebook.airlift.http.client.Request.Builder.preparePost;
+import static com.facebook.airlift.http.client.Request.Builder.preparePut;
 import static com.facebook.airlift.http.client.StatusResponseHandler.StatusResponse;
 import static com.facebook.airlift.http.client.StatusResponseHandler.createStatusResponseHandler;
 import static com.facebook.airlift.json.JsonCodec.jsonCodec;
@@ -159,6 +160,18 @@ public class TestDiscoveryServer
         assertEquals(service.getPool(), announcerNodeInfo.getPool());
         assertEquals(service.getProperties(), announcement.getProperties());
 
+        // renew the announcement; TestHttpDiscoveryAnnouncementClient checks the requests of a heartbeat
+        client.heartbeat(ImmutableSet.of(announcement)).get();
+        assertEquals(selectorFor("apple", "red").selectAllServices().size(), 1);
+
+        // a heartbeat for another version of the announcement is rejected
+        Request request = preparePut()
+                .setUri(uriFor("/v1/announcement/" + announcerNodeInfo.getNodeId() + "/heartbeat"))
+                .setHeader(HttpHeaders.IF_MATCH, "\"1\"")
+                .build();
+        StatusResponse heartbeatResponse = new JettyHttpClient().execute(request, createStatusResponseHandler());
+        assertEquals(heartbeatResponse.getStatusCode(), Status.PRECONDITION_FAILED.getStatusCode());
+
         // ensure that service is no longer visible
         client.unannounce().get();
 
@@ -95,6 +95,65 @@ public class TestDynamicAnnouncementResource
         assertTrue(store.getAll().isEmpty());
     }
 
+    @Test
+    public void testHeartbeat()
+    {
+        DynamicAnnouncement announcement = new DynamicAnnouncement("testing", "alpha", "/a/b/c", ImmutableSet.of(
+                new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("http", "http://localhost:1111"))));
+
+        Id<Node> nodeId = Id.random();
+        Response response = resource.put(nodeId, new MockUriInfo(URI.create("http://localhost:8080/v1/announcement/" + nodeId.toString())), announcement);
+        assertEquals(response.getStatus(), Response.Status.ACCEPTED.getStatusCode());
+        String version = response.getEntityTag().toString();
+
+        response = resource.heartbeat(nodeId, version);
+
+        assertNotNull(response);
+        assertEquals(response.getStatus(), Response.Status.ACCEPTED.getStatusCode());
+        assertEquals(response.getEntityTag().toString(), version);
+
+        assertEqualsIgnoreOrder(store.getAll(), announcement.getServiceAnnouncements().stream().map(toServiceWith(nodeId, announcement.getLocation(), announcement.getPool())).collect(toImmutableList()));
+    }
+
+    @Test
+    public void testHeartbeatAfterReplace()
+    {
+        Id<Node> nodeId = Id.random();
+        DynamicAnnouncement previous = new DynamicAnnouncement("testing", "alpha", "/a/b/c", ImmutableSet.of(
+                new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("key", "existing"))));
+
+        long previousVersion = store.put(nodeId, previous);
+        store.put(nodeId, previous);
+
+        Response response = resource.heartbeat(nodeId, "\"" + previousVersion + "\"");
+
+        assertNotNull(response);
+        assertEquals(response.getStatus(), Response.Status.PRECONDITION_FAILED.getStatusCode());
+    }
+
+    @Test
+    public void testHeartbeatMissing()
+    {
+        Response response = resource.heartbeat(Id.random(), "\"0\"");
+
+        assertNotNull(response);
+        assertEquals(response.getStatus(), Response.Status.PRECONDITION_FAILED.getStatusCode());
+    }
+
+    @Test
+    public void testHeartbeatInvalidVersion()
+    {
+        Response response = resource.heartbeat(Id.random(), "abc");
+
+        assertNotNull(response);
+        assertEquals(response.getStatus(), Response.Status.BAD_REQUEST.getStatusCode());
+
+        response = resource.heartbeat(Id.random(), null);
+
+        assertNotNull(response);
+        assertEquals(response.getStatus(), Response.Status.BAD_REQUEST.getStatusCode());
+    }
+
     @Test
     public void testDeleteExisting()
     {
@@ -31,6 +31,8 @@ import static com.facebook.airlift.testing.Assertions.assertEqualsIgnoreOrder;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Streams.concat;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertTrue;
 
 public abstract class TestDynamicStore
@@ -140,6 +142,85 @@ public abstract class TestDynamicStore
                 .collect(toImmutableList()));
     }
 
+    @Test
+    public void testRenew()
+    {
+        Id<Node> nodeId = Id.random();
+        DynamicAnnouncement blue = new DynamicAnnouncement("testing", "poolA", "/US/West/SC4/rack1/host1/vm1/slot1", ImmutableSet.of(
+                new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("http", "http://localhost:1111"))));
+
+        long version = store.put(nodeId, blue);
+        currentTime.add(new Duration(MAX_AGE.toMillis() * 3 / 4, TimeUnit.MILLISECONDS));
+        assertTrue(store.renew(nodeId, version));
+        currentTime.add(new Duration(MAX_AGE.toMillis() * 3 / 4, TimeUnit.MILLISECONDS));
+
+        assertEquals(store.getAll(), blue.getServiceAnnouncements().stream()
+                .map(toServiceWith(nodeId, blue.getLocation(), blue.getPool()))
+                .collect(toImmutableList()));
+    }
+
+    @Test
+    public void testRenewExpired()
+    {
+        Id<Node> nodeId = Id.random();
+        DynamicAnnouncement blue = new DynamicAnnouncement("testing", "poolA", "/US/West/SC4/rack1/host1/vm1/slot1", ImmutableSet.of(
+                new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("http", "http://localhost:1111"))));
+
+        long version = store.put(nodeId, blue);
+        advanceTimeBeyondMaxAge();
+
+        assertFalse(store.renew(nodeId, version));
+        assertEquals(store.getAll(), Collections.<Service>emptySet());
+    }
+
+    @Test
+    public void testRenewReplaced()
+    {
+        Id<Node> nodeId = Id.random();
+
+        DynamicAnnouncement oldAnnouncement = new DynamicAnnouncement("testing", "poolA", "/US/West/SC4/rack1/host1/vm1/slot1", ImmutableSet.of(
+                new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("http", "http://localhost:1111"))));
+
+        DynamicAnnouncement newAnnouncement = new DynamicAnnouncement("testing", "poolA", "/US/West/SC4/rack1/host1/vm1/slot2", ImmutableSet.of(
+                new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("http", "http://localhost:2222"))));
+
+        long oldVersion = store.put(nodeId, oldAnnouncement);
+        currentTime.increment();
+        long newVersion = store.put(nodeId, newAnnouncement);
+        currentTime.increment();
+
+        assertFalse(store.renew(nodeId, oldVersion));
+        assertFalse(store.renew(Id.random(), newVersion));
+        assertTrue(store.renew(nodeId, newVersion));
+
+        assertEquals(store.getAll(), newAnnouncement.getServiceAnnouncements().stream()
+                .map(toServiceWith(nodeId, newAnnouncement.getLocation(), newAnnouncement.getPool()))
+                .collect(toImmutableList()));
+    }
+
+    @Test
+    public void testReplaceInSameMillisecond()
+    {
+        Id<Node> nodeId = Id.random();
+
+        DynamicAnnouncement oldAnnouncement = new DynamicAnnouncement("testing", "poolA", "/US/West/SC4/rack1/host1/vm1/slot1", ImmutableSet.of(
+                new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("http", "http://localhost:1111"))));
+
+        DynamicAnnouncement newAnnouncement = new DynamicAnnouncement("testing", "poolA", "/US/West/SC4/rack1/host1/vm1/slot2", ImmutableSet.of(
+                new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("http", "http://localhost:2222"))));
+
+        long oldVersion = store.put(nodeId, oldAnnouncement);
+        long newVersion = store.put(nodeId, newAnnouncement);
+
+        assertNotEquals(newVersion, oldVersion);
+        assertFalse(store.renew(nodeId, oldVersion));
+        assertTrue(store.renew(nodeId, newVersion));
+
+        assertEquals(store.getAll(), newAnnouncement.getServiceAnnouncements().stream()
+                .map(toServiceWith(nodeId, newAnnouncement.getLocation(), newAnnouncement.getPool()))
+                .collect(toImmutableList()));
+    }
+
     @Test
     public void testPutMultipleForDifferentNodes()
     {
@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.server;
+
+import com.facebook.airlift.discovery.store.DistributedStore;
+import com.facebook.airlift.discovery.store.PersistentStore;
+import com.facebook.airlift.discovery.store.PersistentStoreConfig;
+import com.facebook.airlift.discovery.store.RemoteStore;
+import com.facebook.airlift.discovery.store.StoreConfig;
+import org.testng.annotations.AfterMethod;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.function.Supplier;
+
+import static com.facebook.airlift.json.JsonCodec.jsonCodec;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+
+public class TestPersistentStaticStore
+        extends TestStaticStore
+{
+    private Path tempDir;
+
+    @Override
+    protected StaticStore initializeStore(Supplier<ZonedDateTime> timeSupplier)
+    {
+        RemoteStore dummy = entry -> {};
+
+        PersistentStore localStore;
+        try {
+            tempDir = Files.createTempDirectory("static-store");
+            localStore = new PersistentStore(new PersistentStoreConfig().setLocation(tempDir.toFile()));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        DistributedStore distributedStore = new DistributedStore("static", localStore, dummy, new StoreConfig(), timeSupplier);
+
+        return new ReplicatedStaticStore(distributedStore, jsonCodec(Service.class));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDir, ALLOW_INSECURE);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.server;
+
+import com.facebook.airlift.discovery.server.ServiceIndex.Snapshot;
+import com.facebook.airlift.discovery.store.Entry;
+import com.facebook.airlift.discovery.store.Version;
+import com.facebook.airlift.json.JsonCodec;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.airlift.json.JsonCodec.listJsonCodec;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestServiceIndex
+{
+    private static final JsonCodec<List<Service>> CODEC = listJsonCodec(Service.class);
+
+    @Test
+    public void testIndex()
+    {
+        Service redStorage = service("storage", "alpha", "1");
+        Service redWeb = service("web", "alpha", "2");
+        Service blueStorage = service("storage", "beta", "3");
+
+        ServiceIndex index = new ServiceIndex(CODEC::fromJson);
+        Snapshot snapshot = index.update(ImmutableList.of(
+                entry("red", redStorage, redWeb),
+                entry("blue", blueStorage)));
+
+        assertEquals(snapshot.getAll(), ImmutableSet.of(redStorage, redWeb, blueStorage));
+        assertEquals(snapshot.get("storage"), ImmutableSet.of(redStorage, blueStorage));
+        assertEquals(snapshot.get("web"), ImmutableSet.of(redWeb));
+        assertEquals(snapshot.get("storage", "alpha"), ImmutableSet.of(redStorage));
+        assertEquals(snapshot.get("storage", "beta"), ImmutableSet.of(blueStorage));
+        assertTrue(snapshot.get("unknown").isEmpty());
+        assertTrue(snapshot.get("storage", "unknown").isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdate()
+    {
+        AtomicInteger decoded = new AtomicInteger();
+        ServiceIndex index = new ServiceIndex(json -> {
+            decoded.incrementAndGet();
+            return CODEC.fromJson(json);
+        });
+
+        Entry red = entry("red", service("storage", "alpha", "1"));
+        Entry blue = entry("blue", service("web", "alpha", "2"));
+        Snapshot snapshot = index.update(ImmutableList.of(red, blue));
+        assertEquals(decoded.get(), 2);
+
+        // unchanged entries are not decoded again, and the same snapshot is returned
+        assertSame(index.update(ImmutableList.of(red, blue)), snapshot);
+        assertEquals(decoded.get(), 2);
+
+        // only the changed entry is decoded, and the sets of the other types are kept
+        Service green = service("storage", "alpha", "3");
+        Snapshot updated = index.update(ImmutableList.of(entry("red", green), blue));
+        assertEquals(decoded.get(), 3);
+        assertEquals(updated.get("storage", "alpha"), ImmutableSet.of(green));
+        assertSame(updated.get("web"), snapshot.get("web"));
+        assertSame(updated.get("web", "alpha"), snapshot.get("web", "alpha"));
+        assertNotSame(updated.get("storage"), snapshot.get("storage"));
+
+        // removed entries are removed from the index
+        Snapshot removed = index.update(ImmutableList.of(blue));
+        assertTrue(removed.get("storage").isEmpty());
+        assertSame(removed.get("web"), snapshot.get("web"));
+    }
+
+    @Test
+    public void testChangedProperties()
+    {
+        Service service = service("storage", "alpha", "1");
+        Service changed = new Service(service.getId(), service.getNodeId(), "storage", "alpha", "/location", ImmutableMap.of("key", "2"));
+
+        ServiceIndex index = new ServiceIndex(CODEC::fromJson);
+        Snapshot snapshot = index.update(ImmutableList.of(entry("red", service)));
+        Snapshot updated = index.update(ImmutableList.of(entry("red", changed)));
+
+        // services are equal by id, but the set must change as the properties did
+        assertNotSame(updated.get("storage", "alpha"), snapshot.get("storage", "alpha"));
+        assertEquals(updated.get("storage", "alpha").iterator().next().getProperties(), ImmutableMap.of("key", "2"));
+    }
+
+    private static Service service(String type, String pool, String key)
+    {
+        return new Service(Id.random(), Id.random(), type, pool, "/location", ImmutableMap.of("key", key));
+    }
+
+    private static Entry entry(String key, Service... services)
+    {
+        return new Entry(key.getBytes(), CODEC.toJsonBytes(ImmutableList.copyOf(services)), new Version(1), 1, null);
+    }
+}
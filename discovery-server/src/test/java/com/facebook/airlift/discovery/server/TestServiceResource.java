@@ -15,19 +15,31 @@
  */
 package com.facebook.airlift.discovery.server;
 
+import com.facebook.airlift.json.JsonCodec;
 import com.facebook.airlift.node.NodeInfo;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import jakarta.ws.rs.core.Response;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.Collections;
 
 import static com.facebook.airlift.discovery.server.DynamicServiceAnnouncement.toServiceWith;
+import static com.facebook.airlift.json.JsonCodec.jsonCodec;
+import static com.google.common.collect.MoreCollectors.onlyElement;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static jakarta.ws.rs.core.Response.Status.NOT_MODIFIED;
+import static jakarta.ws.rs.core.Response.Status.OK;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 
 public class TestServiceResource
 {
+    private static final JsonCodec<Services> SERVICES_CODEC = jsonCodec(Services.class);
+
     private InMemoryDynamicStore dynamicStore;
     private ServiceResource resource;
 
@@ -35,7 +47,9 @@ public class TestServiceResource
     protected void setUp()
     {
         dynamicStore = new InMemoryDynamicStore(new DiscoveryConfig(), new TestingTimeSupplier());
-        resource = new ServiceResource(dynamicStore, new InMemoryStaticStore(), new NodeInfo("testing"));
+        InMemoryStaticStore staticStore = new InMemoryStaticStore();
+        NodeInfo nodeInfo = new NodeInfo("testing");
+        resource = new ServiceResource(dynamicStore, staticStore, nodeInfo, new ServiceLookup(dynamicStore, staticStore, nodeInfo, SERVICES_CODEC));
     }
 
     @Test
@@ -58,15 +72,15 @@ public class TestServiceResource
         dynamicStore.put(greenNodeId, green);
         dynamicStore.put(blueNodeId, blue);
 
-        assertEquals(resource.getServices("storage"), new Services("testing", ImmutableSet.of(
+        assertEquals(getServices(resource.getServices("storage", null, null)), new Services("testing", ImmutableSet.of(
                 toServiceWith(redNodeId, red.getLocation(), red.getPool()).apply(redStorage),
                 toServiceWith(greenNodeId, green.getLocation(), green.getPool()).apply(greenStorage),
                 toServiceWith(blueNodeId, blue.getLocation(), blue.getPool()).apply(blueStorage))));
 
-        assertEquals(resource.getServices("web"), new Services("testing", ImmutableSet.of(
+        assertEquals(getServices(resource.getServices("web", null, null)), new Services("testing", ImmutableSet.of(
                 toServiceWith(redNodeId, red.getLocation(), red.getPool()).apply(redWeb))));
 
-        assertEquals(resource.getServices("unknown"), new Services("testing", Collections.<Service>emptySet()));
+        assertEquals(getServices(resource.getServices("unknown", null, null)), new Services("testing", Collections.<Service>emptySet()));
     }
 
     @Test
@@ -89,13 +103,13 @@ public class TestServiceResource
         dynamicStore.put(greenNodeId, green);
         dynamicStore.put(blueNodeId, blue);
 
-        assertEquals(resource.getServices("storage", "alpha"), new Services("testing", ImmutableSet.of(
+        assertEquals(getServices(resource.getServices("storage", "alpha", null, null)), new Services("testing", ImmutableSet.of(
                 toServiceWith(redNodeId, red.getLocation(), red.getPool()).apply(redStorage),
                 toServiceWith(greenNodeId, green.getLocation(), green.getPool()).apply(greenStorage))));
 
-        assertEquals(resource.getServices("storage", "beta"), new Services("testing", ImmutableSet.of(toServiceWith(blueNodeId, blue.getLocation(), blue.getPool()).apply(blueStorage))));
+        assertEquals(getServices(resource.getServices("storage", "beta", null, null)), new Services("testing", ImmutableSet.of(toServiceWith(blueNodeId, blue.getLocation(), blue.getPool()).apply(blueStorage))));
 
-        assertEquals(resource.getServices("storage", "unknown"), new Services("testing", Collections.<Service>emptySet()));
+        assertEquals(getServices(resource.getServices("storage", "unknown", null, null)), new Services("testing", Collections.<Service>emptySet()));
     }
 
     @Test
@@ -124,4 +138,44 @@ public class TestServiceResource
                 toServiceWith(greenNodeId, green.getLocation(), green.getPool()).apply(greenStorage),
                 toServiceWith(blueNodeId, blue.getLocation(), blue.getPool()).apply(blueStorage))));
     }
+
+    @Test
+    public void testNotModified()
+    {
+        Id<Node> redNodeId = Id.random();
+        DynamicServiceAnnouncement redStorage = new DynamicServiceAnnouncement(Id.<Service>random(), "storage", ImmutableMap.of("key", "1"));
+        dynamicStore.put(redNodeId, new DynamicAnnouncement("testing", "alpha", "/a/b/c", ImmutableSet.of(redStorage)));
+
+        Response response = resource.getServices("storage", "alpha", null, null);
+        assertEquals(response.getStatus(), OK.getStatusCode());
+        String eTag = response.getHeaderString(ETAG);
+        assertNotNull(eTag);
+
+        response = resource.getServices("storage", "alpha", eTag, null);
+        assertEquals(response.getStatus(), NOT_MODIFIED.getStatusCode());
+        assertEquals(response.getHeaderString(ETAG), eTag);
+        assertNull(response.getEntity());
+
+        assertEquals(resource.getServices("storage", "alpha", "\"other\", W/" + eTag, null).getStatus(), NOT_MODIFIED.getStatusCode());
+        assertEquals(resource.getServices("storage", "alpha", "*", null).getStatus(), NOT_MODIFIED.getStatusCode());
+        assertEquals(resource.getServices("storage", "alpha", null, eTag).getStatus(), NOT_MODIFIED.getStatusCode());
+        assertEquals(resource.getServices("storage", "alpha", "\"other\"", null).getStatus(), OK.getStatusCode());
+
+        // the same service announced with new properties
+        redStorage = new DynamicServiceAnnouncement(redStorage.getId(), "storage", ImmutableMap.of("key", "2"));
+        dynamicStore.put(redNodeId, new DynamicAnnouncement("testing", "alpha", "/a/b/c", ImmutableSet.of(redStorage)));
+
+        response = resource.getServices("storage", "alpha", eTag, null);
+        assertEquals(response.getStatus(), OK.getStatusCode());
+        assertNotEquals(response.getHeaderString(ETAG), eTag);
+        Services services = getServices(response);
+        assertEquals(services, new Services("testing", ImmutableSet.of(toServiceWith(redNodeId, "/a/b/c", "alpha").apply(redStorage))));
+        assertEquals(services.getServices().stream().collect(onlyElement()).getProperties(), ImmutableMap.of("key", "2"));
+    }
+
+    private static Services getServices(Response response)
+    {
+        assertEquals(response.getStatus(), OK.getStatusCode());
+        return SERVICES_CODEC.fromJson((byte[]) response.getEntity());
+    }
 }
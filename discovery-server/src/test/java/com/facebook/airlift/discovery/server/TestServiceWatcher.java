@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.server;
+
+import com.facebook.airlift.node.NodeInfo;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.facebook.airlift.json.JsonCodec.jsonCodec;
+import static com.google.common.util.concurrent.Futures.getDone;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestServiceWatcher
+{
+    private InMemoryDynamicStore dynamicStore;
+    private ServiceLookup serviceLookup;
+    private ServiceWatcher watcher;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        dynamicStore = new InMemoryDynamicStore(new DiscoveryConfig(), new TestingTimeSupplier());
+        InMemoryStaticStore staticStore = new InMemoryStaticStore();
+        serviceLookup = new ServiceLookup(dynamicStore, staticStore, new NodeInfo("testing"), jsonCodec(Services.class));
+        // changes are checked explicitly, so the watcher is not started
+        watcher = new ServiceWatcher(serviceLookup, new DiscoveryConfig());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        watcher.stop();
+    }
+
+    @Test
+    public void testStaleETag()
+            throws Exception
+    {
+        announce(Id.random(), "alpha");
+
+        ListenableFuture<SerializedServices> future = watcher.waitForChange("storage", "alpha", "\"stale\"");
+        assertTrue(future.isDone());
+        assertEquals(getDone(future).getETag(), serviceLookup.getServices("storage", "alpha").getETag());
+        assertEquals(watcher.getWatches(), 0);
+    }
+
+    @Test
+    public void testChange()
+            throws Exception
+    {
+        announce(Id.random(), "alpha");
+        String eTag = serviceLookup.getServices("storage", "alpha").getETag();
+
+        ListenableFuture<SerializedServices> future = watcher.waitForChange("storage", "alpha", eTag);
+        ListenableFuture<SerializedServices> typeFuture = watcher.waitForChange("storage", null, serviceLookup.getServices("storage", null).getETag());
+        assertFalse(future.isDone());
+        assertFalse(typeFuture.isDone());
+        assertEquals(watcher.getWatches(), 2);
+        assertEquals(watcher.getWatchedLookups(), 2);
+
+        // no change
+        watcher.checkForChanges();
+        assertFalse(future.isDone());
+
+        // a change to another pool only changes the lookup by type
+        announce(Id.random(), "beta");
+        watcher.checkForChanges();
+        assertFalse(future.isDone());
+        assertTrue(typeFuture.isDone());
+        assertEquals(watcher.getWatches(), 1);
+
+        announce(Id.random(), "alpha");
+        watcher.checkForChanges();
+        assertTrue(future.isDone());
+        assertNotEquals(getDone(future).getETag(), eTag);
+        assertEquals(watcher.getWatches(), 0);
+        assertEquals(watcher.getWatchedLookups(), 0);
+    }
+
+    @Test
+    public void testCanceledWatchIsRemoved()
+    {
+        announce(Id.random(), "alpha");
+        String eTag = serviceLookup.getServices("storage", "alpha").getETag();
+
+        ListenableFuture<SerializedServices> future = watcher.waitForChange("storage", "alpha", eTag);
+        assertEquals(watcher.getWatches(), 1);
+
+        future.cancel(false);
+        watcher.checkForChanges();
+        assertEquals(watcher.getWatches(), 0);
+        assertEquals(watcher.getWatchedLookups(), 0);
+    }
+
+    private void announce(Id<Node> nodeId, String pool)
+    {
+        DynamicServiceAnnouncement storage = new DynamicServiceAnnouncement(Id.random(), "storage", ImmutableMap.of("key", "value"));
+        dynamicStore.put(nodeId, new DynamicAnnouncement("testing", pool, "/a/b/c", ImmutableSet.of(storage)));
+    }
+}
@@ -78,6 +78,38 @@ public class TestInMemoryStore
         assertEquals(store.get("blue".getBytes(UTF_8)), entry2);
     }
 
+    @Test
+    public void testRenewal()
+    {
+        Entry entry = entryOf("blue", "apple", 1, 0);
+        store.put(entry);
+
+        Entry renewed = entryOf("blue", "apple", 1, 10);
+        store.put(renewed);
+        assertEquals(store.get("blue".getBytes(UTF_8)), renewed);
+
+        // a late copy of the entry does not undo the renewal
+        store.put(entry);
+        assertEquals(store.get("blue".getBytes(UTF_8)), renewed);
+    }
+
+    @Test
+    public void testResolvesSameVersion()
+    {
+        // values with the same version from different servers resolve the same way in any order
+        Entry apple = entryOf("blue", "apple", 1, 10);
+        Entry banana = entryOf("blue", "banana", 1, 0);
+
+        store.put(apple);
+        store.put(banana);
+        assertEquals(store.get("blue".getBytes(UTF_8)), banana);
+
+        store = new InMemoryStore(new ConflictResolver());
+        store.put(banana);
+        store.put(apple);
+        assertEquals(store.get("blue".getBytes(UTF_8)), banana);
+    }
+
     private static Entry entryOf(String key, String value, long version, long timestamp)
     {
         return new Entry(key.getBytes(UTF_8), value.getBytes(UTF_8), new Version(version), timestamp, null);
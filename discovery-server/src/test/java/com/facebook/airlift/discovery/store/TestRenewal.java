@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.store;
+
+import com.facebook.airlift.json.JsonCodec;
+import org.testng.annotations.Test;
+
+import static com.facebook.airlift.discovery.store.Renewal.renewalOf;
+import static com.facebook.airlift.json.JsonCodec.jsonCodec;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class TestRenewal
+{
+    @Test
+    public void testRenewalOf()
+    {
+        Renewal renewal = renewalOf(new Entry("fruit".getBytes(UTF_8), "apple".getBytes(UTF_8), new Version(123), 456, 1000L));
+
+        assertEquals(renewal.getKey(), "fruit".getBytes(UTF_8));
+        assertEquals(renewal.getVersion(), new Version(123));
+        assertEquals(renewal.getTimestamp(), 456);
+        assertEquals(renewal.getMaxAgeInMs(), 1000);
+    }
+
+    @Test
+    public void testRenew()
+    {
+        Entry entry = entryOf("apple", 123, 456);
+
+        assertEquals(renewalOf(entryOf(null, 123, 789)).renew(entry), entryOf("apple", 123, 789));
+    }
+
+    @Test
+    public void testRenewOtherVersion()
+    {
+        assertNull(renewalOf(entryOf(null, 124, 789)).renew(entryOf("apple", 123, 456)));
+    }
+
+    @Test
+    public void testRenewTombstone()
+    {
+        assertNull(renewalOf(entryOf(null, 123, 789)).renew(entryOf(null, 123, 456)));
+    }
+
+    @Test
+    public void testRenewMissingEntry()
+    {
+        assertNull(renewalOf(entryOf(null, 123, 789)).renew(null));
+    }
+
+    @Test
+    public void testRenewOlderTimestamp()
+    {
+        assertNull(renewalOf(entryOf(null, 123, 456)).renew(entryOf("apple", 123, 789)));
+    }
+
+    @Test
+    public void testSerialization()
+    {
+        JsonCodec<Renewal> codec = jsonCodec(Renewal.class);
+
+        Renewal expected = renewalOf(entryOf(null, 123, 456));
+        Renewal actual = codec.fromJson(codec.toJsonBytes(expected));
+
+        assertEquals(actual, expected);
+    }
+
+    private static Entry entryOf(String value, long version, long timestamp)
+    {
+        return new Entry("fruit".getBytes(UTF_8), (value == null) ? null : value.getBytes(UTF_8), new Version(version), timestamp, 1000L);
+    }
+}
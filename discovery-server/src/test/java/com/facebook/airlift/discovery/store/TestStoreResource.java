@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.store;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import jakarta.ws.rs.core.Response.Status;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class TestStoreResource
+{
+    private LocalStore store;
+    private StoreResource resource;
+
+    @BeforeMethod
+    protected void setUp()
+    {
+        store = new InMemoryStore(new ConflictResolver());
+        resource = new StoreResource(ImmutableMap.of("fruit", store), ImmutableMap.of("fruit", new StoreConfig()));
+    }
+
+    @Test
+    public void testRenew()
+    {
+        long now = System.currentTimeMillis();
+        store.put(entryOf("apple", 1, now - 500));
+
+        assertEquals(resource.renewMultipleEntries("fruit", ImmutableList.of(renewalOf(1, now))).getStatus(), Status.NO_CONTENT.getStatusCode());
+
+        assertEquals(store.get(key()), entryOf("apple", 1, now));
+    }
+
+    @Test
+    public void testRenewOtherVersion()
+    {
+        long now = System.currentTimeMillis();
+        store.put(entryOf("apple", 2, now - 500));
+
+        resource.renewMultipleEntries("fruit", ImmutableList.of(renewalOf(1, now)));
+
+        assertEquals(store.get(key()), entryOf("apple", 2, now - 500));
+    }
+
+    @Test
+    public void testRenewMissingEntry()
+    {
+        resource.renewMultipleEntries("fruit", ImmutableList.of(renewalOf(1, System.currentTimeMillis())));
+
+        assertNull(store.get(key()));
+    }
+
+    @Test
+    public void testRenewExpired()
+    {
+        long now = System.currentTimeMillis();
+        store.put(entryOf("apple", 1, now - 5000));
+
+        resource.renewMultipleEntries("fruit", ImmutableList.of(renewalOf(1, now - 2000)));
+
+        assertEquals(store.get(key()), entryOf("apple", 1, now - 5000));
+    }
+
+    @Test
+    public void testRenewUnknownStore()
+    {
+        assertEquals(resource.renewMultipleEntries("vegetable", ImmutableList.of(renewalOf(1, System.currentTimeMillis()))).getStatus(), Status.NOT_FOUND.getStatusCode());
+    }
+
+    private static byte[] key()
+    {
+        return "blue".getBytes(UTF_8);
+    }
+
+    private static Entry entryOf(String value, long version, long timestamp)
+    {
+        return new Entry(key(), value.getBytes(UTF_8), new Version(version), timestamp, 1000L);
+    }
+
+    private static Renewal renewalOf(long version, long timestamp)
+    {
+        return new Renewal(key(), new Version(version), timestamp, 1000L);
+    }
+}
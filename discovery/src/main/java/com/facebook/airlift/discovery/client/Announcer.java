@@ -24,6 +24,7 @@ import com.google.common.collect.MapMaker;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import org.weakref.jmx.Managed;
@@ -37,9 +38,12 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
 import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
@@ -48,7 +52,26 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class Announcer
 {
     private static final Logger log = Logger.get(Announcer.class);
+    // changes in this window are sent in a single announcement
+    private static final Duration CHANGE_ANNOUNCEMENT_DELAY = new Duration(1, MILLISECONDS);
+
     private final ConcurrentMap<UUID, ServiceAnnouncement> announcements = new MapMaker().makeMap();
+    // incremented on every change of the announcements
+    private final AtomicLong version = new AtomicLong();
+    // version of the last announcement accepted by discovery, which is kept alive with heartbeats
+    private final AtomicLong announcedVersion = new AtomicLong(-1);
+    private final AtomicBoolean changeAnnouncementScheduled = new AtomicBoolean();
+
+    // only one request is sent at a time, so a heartbeat never races a change announcement;
+    // an announcement that comes due while a request is in flight is sent when it completes
+    @GuardedBy("this")
+    private boolean requestInFlight;
+    @GuardedBy("this")
+    private boolean periodicAnnouncementWaiting;
+    @GuardedBy("this")
+    private boolean changeAnnouncementWaiting;
+    // copy of the announcements, which is only made again after a change
+    private volatile AnnouncementsSnapshot snapshot = new AnnouncementsSnapshot(0, ImmutableSet.of());
 
     private final DiscoveryAnnouncementClient announcementClient;
     private final ScheduledExecutorService executor;
@@ -86,7 +109,7 @@ public final class Announcer
         Preconditions.checkState(!executor.isShutdown(), "Announcer has been destroyed");
         if (started.compareAndSet(false, true)) {
             // announce immediately, if discovery is running
-            ListenableFuture<Duration> announce = announce(System.nanoTime(), new Duration(0, SECONDS));
+            ListenableFuture<?> announce = announce(System.nanoTime(), new Duration(0, SECONDS));
             try {
                 announce.get(30, SECONDS);
             }
@@ -124,33 +147,55 @@ public final class Announcer
     {
         requireNonNull(serviceAnnouncement, "serviceAnnouncement is null");
         announcements.put(serviceAnnouncement.getId(), serviceAnnouncement);
+        announcementsChanged();
     }
 
     public void removeServiceAnnouncement(UUID serviceId)
     {
-        announcements.remove(serviceId);
+        if (announcements.remove(serviceId) != null) {
+            announcementsChanged();
+        }
     }
 
     public Set<ServiceAnnouncement> getServiceAnnouncements()
     {
-        return ImmutableSet.copyOf(announcements.values());
+        // read the version first, so a copy that misses a change is replaced on the next call
+        long currentVersion = version.get();
+        AnnouncementsSnapshot snapshot = this.snapshot;
+        if (snapshot.version != currentVersion) {
+            snapshot = new AnnouncementsSnapshot(currentVersion, ImmutableSet.copyOf(announcements.values()));
+            this.snapshot = snapshot;
+        }
+        return snapshot.announcements;
     }
 
-    private ListenableFuture<Duration> announce(long delayStart, Duration expectedDelay)
+    private ListenableFuture<?> announce(long delayStart, Duration expectedDelay)
     {
         // log announcement did not happen within 5 seconds of expected delay
         if (System.nanoTime() - (delayStart + expectedDelay.roundTo(NANOSECONDS)) > SECONDS.toNanos(5)) {
             log.error("Expected service announcement after %s, but announcement was delayed %s", expectedDelay, Duration.nanosSince(delayStart));
         }
 
+        if (!startRequest(true)) {
+            return immediateVoidFuture();
+        }
+
         long requestStart = System.nanoTime();
-        ListenableFuture<Duration> future = announcementClient.announce(getServiceAnnouncements());
+        long currentVersion = version.get();
+        ListenableFuture<Duration> future;
+        if (announcedVersion.get() == currentVersion) {
+            future = announcementClient.heartbeat(getServiceAnnouncements());
+        }
+        else {
+            future = announceAll(currentVersion);
+        }
 
         Futures.addCallback(future, new FutureCallback<Duration>()
         {
             @Override
             public void onSuccess(Duration expectedDelay)
             {
+                requestFinished();
                 errorBackOff.success();
 
                 // wait 80% of the suggested delay
@@ -163,6 +208,7 @@ public final class Announcer
             @Override
             public void onFailure(Throwable t)
             {
+                requestFinished();
                 Duration duration = errorBackOff.failed(t);
                 // todo this is a duplicate log message and should be remove after root cause of announcement delay is determined
                 log.error("Service announcement failed after %s. Next request will happen within %s", Duration.nanosSince(requestStart), expectedDelay);
@@ -175,7 +221,123 @@ public final class Announcer
 
     public ListenableFuture<?> forceAnnounce()
     {
-        return announcementClient.announce(getServiceAnnouncements());
+        return announceAll(version.get());
+    }
+
+    private ListenableFuture<Duration> announceAll(long currentVersion)
+    {
+        ListenableFuture<Duration> future = announcementClient.announce(getServiceAnnouncements());
+        Futures.addCallback(future, new FutureCallback<Duration>()
+        {
+            @Override
+            public void onSuccess(Duration result)
+            {
+                announcedVersion.set(currentVersion);
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                // the next announcement is sent in full
+                announcedVersion.set(-1);
+            }
+        }, directExecutor());
+        return future;
+    }
+
+    private void announcementsChanged()
+    {
+        version.incrementAndGet();
+        if (started.get()) {
+            scheduleChangeAnnouncement(CHANGE_ANNOUNCEMENT_DELAY);
+        }
+    }
+
+    private void scheduleChangeAnnouncement(Duration delay)
+    {
+        // already stopped?  avoids rejection exception
+        if (executor.isShutdown() || !changeAnnouncementScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        executor.schedule(() -> {
+            changeAnnouncementScheduled.set(false);
+            announceChanges();
+        }, delay.roundTo(NANOSECONDS), NANOSECONDS);
+    }
+
+    private void announceChanges()
+    {
+        long currentVersion = version.get();
+        if (announcedVersion.get() == currentVersion || !startRequest(false)) {
+            return;
+        }
+
+        long requestStart = System.nanoTime();
+        Futures.addCallback(announceAll(currentVersion), new FutureCallback<Duration>()
+        {
+            @Override
+            public void onSuccess(Duration expectedDelay)
+            {
+                requestFinished();
+                errorBackOff.success();
+                log.debug("Service announcement of changes succeeded after %s", Duration.nanosSince(requestStart));
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                requestFinished();
+                Duration duration = errorBackOff.failed(t);
+                log.error("Service announcement of changes failed after %s. Next request will happen within %s", Duration.nanosSince(requestStart), duration);
+                scheduleChangeAnnouncement(duration);
+            }
+        }, executor);
+    }
+
+    /**
+     * Returns false if another request is in flight, in which case the announcement is
+     * sent when that request completes.
+     */
+    private synchronized boolean startRequest(boolean periodic)
+    {
+        if (requestInFlight) {
+            if (periodic) {
+                periodicAnnouncementWaiting = true;
+            }
+            else {
+                changeAnnouncementWaiting = true;
+            }
+            return false;
+        }
+        requestInFlight = true;
+        return true;
+    }
+
+    private void requestFinished()
+    {
+        boolean periodic;
+        boolean changes;
+        synchronized (this) {
+            requestInFlight = false;
+            periodic = periodicAnnouncementWaiting;
+            changes = changeAnnouncementWaiting;
+            periodicAnnouncementWaiting = false;
+            changeAnnouncementWaiting = false;
+        }
+
+        // already stopped?  avoids rejection exception
+        if (executor.isShutdown()) {
+            return;
+        }
+
+        // only one of these is sent now, and the other waits for it again
+        if (periodic) {
+            executor.execute(() -> announce(System.nanoTime(), new Duration(0, SECONDS)));
+        }
+        if (changes) {
+            scheduleChangeAnnouncement(new Duration(0, SECONDS));
+        }
     }
 
     private void scheduleNextAnnouncement(Duration expectedDelay)
@@ -188,4 +350,16 @@ public final class Announcer
         long delayStart = System.nanoTime();
         executor.schedule(() -> announce(delayStart, expectedDelay), expectedDelay.toMillis(), MILLISECONDS);
     }
+
+    private static class AnnouncementsSnapshot
+    {
+        private final long version;
+        private final Set<ServiceAnnouncement> announcements;
+
+        public AnnouncementsSnapshot(long version, Set<ServiceAnnouncement> announcements)
+        {
+            this.version = version;
+            this.announcements = announcements;
+        }
+    }
 }
@@ -26,6 +26,7 @@ import com.google.common.util.concurrent.SettableFuture;
 import jakarta.annotation.PostConstruct;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -35,35 +36,55 @@ import java.util.concurrent.atomic.AtomicReference;
 import static com.facebook.airlift.discovery.client.DiscoveryAnnouncementClient.DEFAULT_DELAY;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class CachingServiceSelector
         implements ServiceSelector
 {
     private static final Logger log = Logger.get(CachingServiceSelector.class);
+    private static final long MIN_WATCH_INTERVAL_NANOS = MILLISECONDS.toNanos(500);
 
     private final String type;
     private final String pool;
     private final DiscoveryLookupClient lookupClient;
     private final AtomicReference<ServiceDescriptors> serviceDescriptors = new AtomicReference<>();
     private final ScheduledExecutorService executor;
+    private final Optional<Duration> watchMaxWait;
 
     private final ExponentialBackOff errorBackOff;
 
+    // cleared when the discovery server does not support watching
+    private final AtomicBoolean watchSupported = new AtomicBoolean(true);
+    private final AtomicBoolean watching = new AtomicBoolean();
+
     private final AtomicBoolean started = new AtomicBoolean(false);
 
     public CachingServiceSelector(String type, ServiceSelectorConfig selectorConfig, DiscoveryLookupClient lookupClient, ScheduledExecutorService executor)
+    {
+        this(type, selectorConfig, lookupClient, executor, Optional.empty());
+    }
+
+    /**
+     * When {@code watchMaxWait} is present, the selector watches for changes after each
+     * successful refresh, and only polls when watching fails. Watches are started at most
+     * once per 500ms, so frequent changes do not turn watching into a busy loop.
+     */
+    public CachingServiceSelector(String type, ServiceSelectorConfig selectorConfig, DiscoveryLookupClient lookupClient, ScheduledExecutorService executor, Optional<Duration> watchMaxWait)
     {
         requireNonNull(type, "type is null");
         requireNonNull(selectorConfig, "selectorConfig is null");
         requireNonNull(lookupClient, "client is null");
         requireNonNull(executor, "executor is null");
+        requireNonNull(watchMaxWait, "watchMaxWait is null");
 
         this.type = type;
         this.pool = selectorConfig.getPool();
         this.lookupClient = lookupClient;
         this.executor = executor;
+        this.watchMaxWait = watchMaxWait;
         this.errorBackOff = new ExponentialBackOff(
                 new Duration(1, MILLISECONDS),
                 new Duration(1, SECONDS),
@@ -130,6 +151,14 @@ public class CachingServiceSelector
                 serviceDescriptors.set(newDescriptors);
                 errorBackOff.success();
 
+                if (canWatch(newDescriptors)) {
+                    // a forced refresh does not start another watch
+                    if (watching.compareAndSet(false, true)) {
+                        watch(newDescriptors);
+                    }
+                    return;
+                }
+
                 Duration delay = newDescriptors.getMaxAge();
                 if (delay == null) {
                     delay = DEFAULT_DELAY;
@@ -148,6 +177,68 @@ public class CachingServiceSelector
         return Futures.transform(future, ServiceDescriptors::getServiceDescriptors, directExecutor());
     }
 
+    private boolean canWatch(ServiceDescriptors descriptors)
+    {
+        // a watch waits for a change from the ETag of the descriptors
+        return watchMaxWait.isPresent() && watchSupported.get() && (descriptors.getETag() != null);
+    }
+
+    private void watch(ServiceDescriptors oldDescriptors)
+    {
+        if (executor.isShutdown()) {
+            watching.set(false);
+            return;
+        }
+
+        long watchStart = System.nanoTime();
+        Futures.addCallback(lookupClient.watchServices(oldDescriptors, watchMaxWait.orElseThrow()), new FutureCallback<ServiceDescriptors>()
+        {
+            @Override
+            public void onSuccess(ServiceDescriptors newDescriptors)
+            {
+                serviceDescriptors.set(newDescriptors);
+                errorBackOff.success();
+
+                if (canWatch(newDescriptors)) {
+                    scheduleWatch(newDescriptors, MIN_WATCH_INTERVAL_NANOS - (System.nanoTime() - watchStart));
+                }
+                else {
+                    watching.set(false);
+                    scheduleRefresh(requireNonNullElse(newDescriptors.getMaxAge(), DEFAULT_DELAY));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                watching.set(false);
+                if (t instanceof UnsupportedOperationException) {
+                    log.info("Discovery server does not support watching services, polling instead (%s/%s)", type, pool);
+                    watchSupported.set(false);
+                    scheduleRefresh(requireNonNullElse(oldDescriptors.getMaxAge(), DEFAULT_DELAY));
+                    return;
+                }
+
+                // poll until a refresh succeeds, which starts watching again
+                scheduleRefresh(errorBackOff.failed(t));
+            }
+        }, executor);
+    }
+
+    private void scheduleWatch(ServiceDescriptors oldDescriptors, long delayNanos)
+    {
+        if (delayNanos <= 0) {
+            watch(oldDescriptors);
+            return;
+        }
+        // already stopped?  avoids rejection exception
+        if (executor.isShutdown()) {
+            watching.set(false);
+            return;
+        }
+        executor.schedule(() -> watch(oldDescriptors), delayNanos, NANOSECONDS);
+    }
+
     private void scheduleRefresh(Duration delay)
     {
         // already stopped?  avoids rejection exception
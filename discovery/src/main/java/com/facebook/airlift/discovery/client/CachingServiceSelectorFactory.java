@@ -15,8 +15,10 @@
  */
 package com.facebook.airlift.discovery.client;
 
+import com.facebook.airlift.units.Duration;
 import jakarta.inject.Inject;
 
+import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static java.util.Objects.requireNonNull;
@@ -26,14 +28,22 @@ public class CachingServiceSelectorFactory
 {
     private final DiscoveryLookupClient lookupClient;
     private final ScheduledExecutorService executor;
+    private final Optional<Duration> watchMaxWait;
+
+    public CachingServiceSelectorFactory(DiscoveryLookupClient lookupClient, ScheduledExecutorService executor)
+    {
+        this(lookupClient, executor, new DiscoveryClientConfig().setWatchEnabled(false));
+    }
 
     @Inject
-    public CachingServiceSelectorFactory(DiscoveryLookupClient lookupClient, @ForDiscoveryClient ScheduledExecutorService executor)
+    public CachingServiceSelectorFactory(DiscoveryLookupClient lookupClient, @ForDiscoveryClient ScheduledExecutorService executor, DiscoveryClientConfig config)
     {
         requireNonNull(lookupClient, "client is null");
         requireNonNull(executor, "executor is null");
+        requireNonNull(config, "config is null");
         this.lookupClient = lookupClient;
         this.executor = executor;
+        this.watchMaxWait = config.isWatchEnabled() ? Optional.of(config.getWatchMaxWait()) : Optional.empty();
     }
 
     public ServiceSelector createServiceSelector(String type, ServiceSelectorConfig selectorConfig)
@@ -41,7 +51,7 @@ public class CachingServiceSelectorFactory
         requireNonNull(type, "type is null");
         requireNonNull(selectorConfig, "selectorConfig is null");
 
-        CachingServiceSelector serviceSelector = new CachingServiceSelector(type, selectorConfig, lookupClient, executor);
+        CachingServiceSelector serviceSelector = new CachingServiceSelector(type, selectorConfig, lookupClient, executor, watchMaxWait);
         serviceSelector.start();
 
         return serviceSelector;
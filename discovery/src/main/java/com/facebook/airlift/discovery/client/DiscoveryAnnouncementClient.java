@@ -27,5 +27,15 @@ public interface DiscoveryAnnouncementClient
 
     ListenableFuture<Duration> announce(Set<ServiceAnnouncement> services);
 
+    /**
+     * Keeps the last announcement of the services alive. The services must be the
+     * services of the last announcement, and are announced again when the announcement
+     * can not be renewed.
+     */
+    default ListenableFuture<Duration> heartbeat(Set<ServiceAnnouncement> services)
+    {
+        return announce(services);
+    }
+
     ListenableFuture<Void> unannounce();
 }
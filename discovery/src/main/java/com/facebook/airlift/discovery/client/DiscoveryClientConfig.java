@@ -17,12 +17,19 @@ package com.facebook.airlift.discovery.client;
 
 import com.facebook.airlift.configuration.Config;
 import com.facebook.airlift.configuration.ConfigDescription;
+import com.facebook.airlift.units.Duration;
+import com.facebook.airlift.units.MinDuration;
+import jakarta.validation.constraints.NotNull;
 
 import java.net.URI;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 public class DiscoveryClientConfig
 {
     private URI discoveryServiceURI;
+    private boolean watchEnabled;
+    private Duration watchMaxWait = new Duration(30, SECONDS);
 
     public URI getDiscoveryServiceURI()
     {
@@ -36,4 +43,32 @@ public class DiscoveryClientConfig
         this.discoveryServiceURI = uri;
         return this;
     }
+
+    public boolean isWatchEnabled()
+    {
+        return watchEnabled;
+    }
+
+    @Config("discovery.watch.enabled")
+    @ConfigDescription("Watch discovery for service changes instead of polling, which requires a discovery server that supports watching")
+    public DiscoveryClientConfig setWatchEnabled(boolean watchEnabled)
+    {
+        this.watchEnabled = watchEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getWatchMaxWait()
+    {
+        return watchMaxWait;
+    }
+
+    @Config("discovery.watch.client-max-wait")
+    @ConfigDescription("Maximum time a watch waits for a service change, which must be less than the HTTP client idle timeout")
+    public DiscoveryClientConfig setWatchMaxWait(Duration watchMaxWait)
+    {
+        this.watchMaxWait = watchMaxWait;
+        return this;
+    }
 }
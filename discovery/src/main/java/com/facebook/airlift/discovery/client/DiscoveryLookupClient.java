@@ -15,8 +15,11 @@
  */
 package com.facebook.airlift.discovery.client;
 
+import com.facebook.airlift.units.Duration;
 import com.google.common.util.concurrent.ListenableFuture;
 
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+
 public interface DiscoveryLookupClient
 {
     ListenableFuture<ServiceDescriptors> getServices(String type);
@@ -24,4 +27,14 @@ public interface DiscoveryLookupClient
     ListenableFuture<ServiceDescriptors> getServices(String type, String pool);
 
     ListenableFuture<ServiceDescriptors> refreshServices(ServiceDescriptors serviceDescriptors);
+
+    /**
+     * Waits up to {@code maxWait} for the services to change from the specified services,
+     * and returns the current services. The future fails with
+     * {@link UnsupportedOperationException} when watching is not supported.
+     */
+    default ListenableFuture<ServiceDescriptors> watchServices(ServiceDescriptors serviceDescriptors, Duration maxWait)
+    {
+        return immediateFailedFuture(new UnsupportedOperationException("Watching services is not supported"));
+    }
 }
@@ -32,16 +32,23 @@ import jakarta.inject.Inject;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+import static com.facebook.airlift.http.client.HttpStatus.METHOD_NOT_ALLOWED;
+import static com.facebook.airlift.http.client.HttpStatus.NOT_FOUND;
+import static com.facebook.airlift.http.client.HttpStatus.PRECONDITION_FAILED;
 import static com.facebook.airlift.http.client.JsonBodyGenerator.jsonBodyGenerator;
 import static com.facebook.airlift.http.client.Request.Builder.prepareDelete;
 import static com.facebook.airlift.http.client.Request.Builder.preparePut;
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.Futures.transformAsync;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
@@ -54,6 +61,8 @@ public class HttpDiscoveryAnnouncementClient
     private final NodeInfo nodeInfo;
     private final JsonCodec<Announcement> announcementCodec;
     private final HttpClient httpClient;
+    // entity tag of the last announcement, or null if the server did not return one
+    private final AtomicReference<String> announcementVersion = new AtomicReference<>();
 
     @Inject
     public HttpDiscoveryAnnouncementClient(
@@ -101,12 +110,51 @@ public class HttpDiscoveryAnnouncementClient
                     throw new DiscoveryException(String.format("Announcement failed with status code %s: %s", statusCode, getBodyForError(response)));
                 }
 
+                announcementVersion.set(response.getHeader(HttpHeaders.ETAG));
+
                 Duration maxAge = extractMaxAge(response);
                 return maxAge;
             }
         });
     }
 
+    @Override
+    public ListenableFuture<Duration> heartbeat(Set<ServiceAnnouncement> services)
+    {
+        requireNonNull(services, "services is null");
+
+        URI uri = discoveryServiceURI.get();
+        String version = announcementVersion.get();
+        if (uri == null || version == null) {
+            return announce(services);
+        }
+
+        Request request = preparePut()
+                .setUri(URI.create(uri + "/v1/announcement/" + nodeInfo.getNodeId() + "/heartbeat"))
+                .setHeader("User-Agent", nodeInfo.getNodeId())
+                .setHeader(HttpHeaders.IF_MATCH, version)
+                .build();
+        ListenableFuture<Optional<Duration>> future = httpClient.executeAsync(request, new DiscoveryResponseHandler<Optional<Duration>>("Heartbeat", uri)
+        {
+            @Override
+            public Optional<Duration> handle(Request request, Response response)
+                    throws DiscoveryException
+            {
+                int statusCode = response.getStatusCode();
+                // the server lost or replaced the announcement, or does not support heartbeats
+                if (statusCode == PRECONDITION_FAILED.code() || statusCode == NOT_FOUND.code() || statusCode == METHOD_NOT_ALLOWED.code()) {
+                    return Optional.empty();
+                }
+                if (!isSuccess(statusCode)) {
+                    throw new DiscoveryException(String.format("Heartbeat failed with status code %s: %s", statusCode, getBodyForError(response)));
+                }
+
+                return Optional.of(extractMaxAge(response));
+            }
+        });
+        return transformAsync(future, maxAge -> maxAge.isPresent() ? immediateFuture(maxAge.orElseThrow()) : announce(services), directExecutor());
+    }
+
     private static boolean isSuccess(int statusCode)
     {
         return statusCode / 100 == 2;
@@ -125,6 +173,8 @@ public class HttpDiscoveryAnnouncementClient
     @Override
     public ListenableFuture<Void> unannounce()
     {
+        announcementVersion.set(null);
+
         URI uri = discoveryServiceURI.get();
         if (uri == null) {
             return immediateFuture(null);
@@ -33,11 +33,13 @@ import org.weakref.jmx.Managed;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Optional;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import static com.facebook.airlift.discovery.client.DiscoveryAnnouncementClient.DEFAULT_DELAY;
+import static com.facebook.airlift.http.client.HttpStatus.NOT_FOUND;
 import static com.facebook.airlift.http.client.HttpStatus.NOT_MODIFIED;
 import static com.facebook.airlift.http.client.HttpStatus.OK;
 import static com.facebook.airlift.http.client.Request.Builder.prepareGet;
@@ -48,6 +50,8 @@ import static java.util.Objects.requireNonNull;
 public class HttpDiscoveryLookupClient
         implements DiscoveryLookupClient
 {
+    private static final String MAX_WAIT_HEADER = "X-Airlift-Discovery-Max-Wait";
+
     private final String environment;
     private final Supplier<URI> discoveryServiceURI;
     private final NodeInfo nodeInfo;
@@ -102,7 +106,20 @@ public class HttpDiscoveryLookupClient
         return lookup(serviceDescriptors.getType(), serviceDescriptors.getPool(), serviceDescriptors);
     }
 
+    @Override
+    public ListenableFuture<ServiceDescriptors> watchServices(ServiceDescriptors serviceDescriptors, Duration maxWait)
+    {
+        requireNonNull(serviceDescriptors, "serviceDescriptors is null");
+        requireNonNull(maxWait, "maxWait is null");
+        return lookup(serviceDescriptors.getType(), serviceDescriptors.getPool(), serviceDescriptors, Optional.of(maxWait));
+    }
+
     private ListenableFuture<ServiceDescriptors> lookup(final String type, final String pool, final ServiceDescriptors serviceDescriptors)
+    {
+        return lookup(type, pool, serviceDescriptors, Optional.empty());
+    }
+
+    private ListenableFuture<ServiceDescriptors> lookup(final String type, final String pool, final ServiceDescriptors serviceDescriptors, Optional<Duration> maxWait)
     {
         requireNonNull(type, "type is null");
 
@@ -111,7 +128,7 @@ public class HttpDiscoveryLookupClient
             return immediateFailedFuture(new DiscoveryException("No discovery servers are available"));
         }
 
-        uri = URI.create(uri + "/v1/service/" + type + "/");
+        uri = URI.create(uri + (maxWait.isPresent() ? "/v1/service-watch/" : "/v1/service/") + type + "/");
         if (pool != null) {
             uri = uri.resolve(pool);
         }
@@ -120,8 +137,9 @@ public class HttpDiscoveryLookupClient
                 .setUri(uri)
                 .setHeader("User-Agent", nodeInfo.getNodeId());
         if (serviceDescriptors != null && serviceDescriptors.getETag() != null) {
-            requestBuilder.setHeader(HttpHeaders.ETAG, serviceDescriptors.getETag());
+            requestBuilder.setHeader(HttpHeaders.IF_NONE_MATCH, serviceDescriptors.getETag());
         }
+        maxWait.ifPresent(wait -> requestBuilder.setHeader(MAX_WAIT_HEADER, wait.toString()));
         return httpClient.executeAsync(requestBuilder.build(), new DiscoveryResponseHandler<ServiceDescriptors>(format("Lookup of %s", type), uri)
         {
             @Override
@@ -134,6 +152,11 @@ public class HttpDiscoveryLookupClient
                     return new ServiceDescriptors(serviceDescriptors, maxAge, eTag);
                 }
 
+                // discovery servers without the watch resource
+                if (maxWait.isPresent() && NOT_FOUND.code() == response.getStatusCode()) {
+                    throw new UnsupportedOperationException("Discovery server does not support watching services");
+                }
+
                 if (OK.code() != response.getStatusCode()) {
                     throw new DiscoveryException(format("Lookup of %s failed with status code %s", type, response.getStatusCode()));
                 }
@@ -25,4 +25,12 @@ public interface HttpServiceSelector
     String getPool();
 
     List<URI> selectHttpService();
+
+    /**
+     * Returns the services as of the last refresh, for selecting a service per request.
+     */
+    default HttpServiceSnapshot getHttpServiceSnapshot()
+    {
+        return HttpServiceSnapshot.fromUris(selectHttpService());
+    }
 }
@@ -18,7 +18,6 @@ package com.facebook.airlift.discovery.client;
 import com.google.common.collect.ImmutableList;
 
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -29,6 +28,7 @@ public class HttpServiceSelectorImpl
         implements HttpServiceSelector
 {
     private final ServiceSelector serviceSelector;
+    private volatile HttpServiceSnapshot snapshot = HttpServiceSnapshot.fromServiceDescriptors(ImmutableList.of());
 
     public HttpServiceSelectorImpl(ServiceSelector serviceSelector)
     {
@@ -51,38 +51,30 @@ public class HttpServiceSelectorImpl
     @Override
     public List<URI> selectHttpService()
     {
-        List<ServiceDescriptor> serviceDescriptors = new ArrayList<>(serviceSelector.selectAllServices());
-        if (serviceDescriptors.isEmpty()) {
+        // unlike the selection methods of the snapshot, this includes stopped services
+        HttpServiceSnapshot snapshot = getHttpServiceSnapshot();
+        if (snapshot.getHttpsServices().isEmpty() && snapshot.getHttpServices().isEmpty()) {
             return ImmutableList.of();
         }
 
-        // favor https over http
-        List<URI> httpsUri = new ArrayList<>();
-        for (ServiceDescriptor serviceDescriptor : serviceDescriptors) {
-            String https = serviceDescriptor.getProperties().get("https");
-            if (https != null) {
-                try {
-                    httpsUri.add(new URI(https));
-                }
-                catch (URISyntaxException ignored) {
-                }
-            }
-        }
-        List<URI> httpUri = new ArrayList<>();
-        for (ServiceDescriptor serviceDescriptor : serviceDescriptors) {
-            String http = serviceDescriptor.getProperties().get("http");
-            if (http != null) {
-                try {
-                    httpUri.add(new URI(http));
-                }
-                catch (URISyntaxException ignored) {
-                }
-            }
-        }
-
         // return random(https) + random(http)
+        List<URI> httpsUri = new ArrayList<>(snapshot.getHttpsServices());
+        List<URI> httpUri = new ArrayList<>(snapshot.getHttpServices());
         Collections.shuffle(httpsUri);
         Collections.shuffle(httpUri);
         return ImmutableList.<URI>builder().addAll(httpsUri).addAll(httpUri).build();
     }
+
+    @Override
+    public HttpServiceSnapshot getHttpServiceSnapshot()
+    {
+        // the selector returns the same list until it is refreshed
+        List<ServiceDescriptor> serviceDescriptors = serviceSelector.selectAllServices();
+        HttpServiceSnapshot snapshot = this.snapshot;
+        if (!snapshot.isSnapshotOf(serviceDescriptors)) {
+            snapshot = HttpServiceSnapshot.fromServiceDescriptors(serviceDescriptors);
+            this.snapshot = snapshot;
+        }
+        return snapshot;
+    }
 }
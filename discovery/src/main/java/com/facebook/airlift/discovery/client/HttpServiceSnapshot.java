@@ -0,0 +1,245 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Longs;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The HTTP services of a selector as of its last refresh. The URIs are parsed when the
+ * snapshot is created, so selecting a service for a request is an array lookup that does
+ * not allocate. Services without a valid URI are left out. Stopped services are listed by
+ * {@link #getHttpsServices()} and {@link #getHttpServices()}, as
+ * {@link HttpServiceSelector#selectHttpService()} has always returned them, but are never selected.
+ * <p>
+ * Selection favors https over http: a service is selected from the https services,
+ * or from the http services when there are none. A service with a {@code weight}
+ * property is selected in proportion to its weight, and other services have a
+ * weight of one.
+ */
+public final class HttpServiceSnapshot
+{
+    public static final String WEIGHT_PROPERTY = "weight";
+
+    // the descriptors the snapshot was created from, so selectors can tell when to create a new one
+    private final List<ServiceDescriptor> serviceDescriptors;
+    private final List<URI> httpsServices;
+    private final List<URI> httpServices;
+
+    private final URI[] selectable;
+    // running totals of the weights of the selectable services, or null when the weights are equal
+    private final long[] weightTotals;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    private HttpServiceSnapshot(
+            List<ServiceDescriptor> serviceDescriptors,
+            List<URI> httpsServices,
+            List<URI> httpServices,
+            List<URI> selectableHttpsServices,
+            long[] httpsWeights,
+            List<URI> selectableHttpServices,
+            long[] httpWeights)
+    {
+        this.serviceDescriptors = serviceDescriptors;
+        this.httpsServices = ImmutableList.copyOf(httpsServices);
+        this.httpServices = ImmutableList.copyOf(httpServices);
+
+        List<URI> selectable = selectableHttpsServices.isEmpty() ? selectableHttpServices : selectableHttpsServices;
+        long[] weights = selectableHttpsServices.isEmpty() ? httpWeights : httpsWeights;
+        this.selectable = selectable.toArray(new URI[0]);
+        this.weightTotals = runningTotals(weights);
+    }
+
+    public static HttpServiceSnapshot fromServiceDescriptors(List<ServiceDescriptor> serviceDescriptors)
+    {
+        requireNonNull(serviceDescriptors, "serviceDescriptors is null");
+
+        List<URI> httpsServices = new ArrayList<>();
+        List<URI> httpServices = new ArrayList<>();
+        List<URI> selectableHttpsServices = new ArrayList<>();
+        List<Long> httpsWeights = new ArrayList<>();
+        List<URI> selectableHttpServices = new ArrayList<>();
+        List<Long> httpWeights = new ArrayList<>();
+        for (ServiceDescriptor serviceDescriptor : serviceDescriptors) {
+            boolean selectable = serviceDescriptor.getState() != ServiceState.STOPPED;
+            long weight = weight(serviceDescriptor);
+
+            URI https = parseUri(serviceDescriptor.getProperties().get("https"));
+            if (https != null) {
+                httpsServices.add(https);
+                if (selectable) {
+                    selectableHttpsServices.add(https);
+                    httpsWeights.add(weight);
+                }
+            }
+            URI http = parseUri(serviceDescriptor.getProperties().get("http"));
+            if (http != null) {
+                httpServices.add(http);
+                if (selectable) {
+                    selectableHttpServices.add(http);
+                    httpWeights.add(weight);
+                }
+            }
+        }
+        return new HttpServiceSnapshot(
+                serviceDescriptors,
+                httpsServices,
+                httpServices,
+                selectableHttpsServices,
+                Longs.toArray(httpsWeights),
+                selectableHttpServices,
+                Longs.toArray(httpWeights));
+    }
+
+    public static HttpServiceSnapshot fromUris(List<URI> uris)
+    {
+        requireNonNull(uris, "uris is null");
+
+        List<URI> httpsServices = new ArrayList<>();
+        List<URI> httpServices = new ArrayList<>();
+        for (URI uri : uris) {
+            if ("https".equalsIgnoreCase(uri.getScheme())) {
+                httpsServices.add(uri);
+            }
+            else {
+                httpServices.add(uri);
+            }
+        }
+        return new HttpServiceSnapshot(null, httpsServices, httpServices, httpsServices, null, httpServices, null);
+    }
+
+    boolean isSnapshotOf(List<ServiceDescriptor> serviceDescriptors)
+    {
+        return this.serviceDescriptors == serviceDescriptors;
+    }
+
+    public List<URI> getHttpsServices()
+    {
+        return httpsServices;
+    }
+
+    public List<URI> getHttpServices()
+    {
+        return httpServices;
+    }
+
+    /**
+     * Returns true if there are no services to select.
+     */
+    public boolean isEmpty()
+    {
+        return selectable.length == 0;
+    }
+
+    /**
+     * Selects a service at random.
+     *
+     * @return the service, or null if there are no services
+     */
+    public URI selectRandom()
+    {
+        if (selectable.length == 0) {
+            return null;
+        }
+        if (weightTotals == null) {
+            return selectable[ThreadLocalRandom.current().nextInt(selectable.length)];
+        }
+        return selectable[indexOfWeight(ThreadLocalRandom.current().nextLong(weightTotals[weightTotals.length - 1]))];
+    }
+
+    /**
+     * Selects the services in turn, each as many times in a round as its weight.
+     *
+     * @return the service, or null if there are no services
+     */
+    public URI selectNext()
+    {
+        if (selectable.length == 0) {
+            return null;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        if (weightTotals == null) {
+            return selectable[(int) Math.floorMod(sequence, (long) selectable.length)];
+        }
+        return selectable[indexOfWeight(Math.floorMod(sequence, weightTotals[weightTotals.length - 1]))];
+    }
+
+    private int indexOfWeight(long weight)
+    {
+        // the first service with a running total above the weight
+        int index = Arrays.binarySearch(weightTotals, weight);
+        return (index >= 0) ? index + 1 : -index - 1;
+    }
+
+    private static long[] runningTotals(long[] weights)
+    {
+        if (weights == null || Arrays.stream(weights).allMatch(weight -> weight == 1)) {
+            return null;
+        }
+        long[] totals = new long[weights.length];
+        long total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            totals[i] = total;
+        }
+        return totals;
+    }
+
+    private static long weight(ServiceDescriptor serviceDescriptor)
+    {
+        String value = serviceDescriptor.getProperties().get(WEIGHT_PROPERTY);
+        if (value == null) {
+            return 1;
+        }
+        Long weight = Longs.tryParse(value);
+        if (weight == null || weight < 1) {
+            return 1;
+        }
+        // keeps the running totals from overflowing
+        return Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static URI parseUri(String uri)
+    {
+        if (uri == null) {
+            return null;
+        }
+        try {
+            return new URI(uri);
+        }
+        catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("httpsServices", httpsServices)
+                .add("httpServices", httpServices)
+                .toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.facebook.airlift.discovery.client;
 
 import com.facebook.airlift.node.NodeInfo;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.ListenableFuture;
 
@@ -18,6 +19,7 @@ public class MergingServiceSelector
     private final ServiceSelector selector;
     private final Announcer announcer;
     private final NodeInfo nodeInfo;
+    private volatile MergedServices merged = new MergedServices(ImmutableSet.of(), ImmutableList.of(), ImmutableList.of());
 
     public MergingServiceSelector(ServiceSelector selector, Announcer announcer, NodeInfo nodeInfo)
     {
@@ -41,7 +43,15 @@ public class MergingServiceSelector
     @Override
     public List<ServiceDescriptor> selectAllServices()
     {
-        return merge(announcer.getServiceAnnouncements(), selector.selectAllServices());
+        // reuse the last merge while neither side changed, so callers can cache by the identity of the list
+        Set<ServiceAnnouncement> serviceAnnouncements = announcer.getServiceAnnouncements();
+        List<ServiceDescriptor> serviceDescriptors = selector.selectAllServices();
+        MergedServices merged = this.merged;
+        if (merged.serviceAnnouncements != serviceAnnouncements || merged.serviceDescriptors != serviceDescriptors) {
+            merged = new MergedServices(serviceAnnouncements, serviceDescriptors, merge(serviceAnnouncements, serviceDescriptors));
+            this.merged = merged;
+        }
+        return merged.services;
     }
 
     @Override
@@ -63,4 +73,18 @@ public class MergingServiceSelector
         set.addAll(serviceDescriptors);
         return ImmutableList.copyOf(set);
     }
+
+    private static class MergedServices
+    {
+        private final Set<ServiceAnnouncement> serviceAnnouncements;
+        private final List<ServiceDescriptor> serviceDescriptors;
+        private final List<ServiceDescriptor> services;
+
+        public MergedServices(Set<ServiceAnnouncement> serviceAnnouncements, List<ServiceDescriptor> serviceDescriptors, List<ServiceDescriptor> services)
+        {
+            this.serviceAnnouncements = serviceAnnouncements;
+            this.serviceDescriptors = serviceDescriptors;
+            this.services = services;
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package com.facebook.airlift.discovery.client.testing;
 
 import com.facebook.airlift.discovery.client.HttpServiceSelector;
+import com.facebook.airlift.discovery.client.HttpServiceSnapshot;
 import com.google.common.collect.ImmutableList;
 
 import java.net.URI;
@@ -32,6 +33,7 @@ public class StaticHttpServiceSelector
     private final String type;
     private final String pool;
     private final List<URI> uris;
+    private final HttpServiceSnapshot snapshot;
 
     public StaticHttpServiceSelector(URI uri, URI... uris)
     {
@@ -53,6 +55,7 @@ public class StaticHttpServiceSelector
         this.type = type;
         this.pool = pool;
         this.uris = ImmutableList.<URI>builder().add(uri).add(uris).build();
+        this.snapshot = HttpServiceSnapshot.fromUris(this.uris);
     }
 
     public StaticHttpServiceSelector(Iterable<URI> uris)
@@ -73,6 +76,7 @@ public class StaticHttpServiceSelector
         this.type = type;
         this.pool = pool;
         this.uris = ImmutableList.copyOf(uris);
+        this.snapshot = HttpServiceSnapshot.fromUris(this.uris);
     }
 
     public String getType()
@@ -91,6 +95,12 @@ public class StaticHttpServiceSelector
         return uris;
     }
 
+    @Override
+    public HttpServiceSnapshot getHttpServiceSnapshot()
+    {
+        return snapshot;
+    }
+
     @Override
     public String toString()
     {
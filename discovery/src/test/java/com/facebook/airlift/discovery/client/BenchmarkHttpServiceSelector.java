@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.client;
+
+import com.facebook.airlift.discovery.client.testing.StaticServiceSelector;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects one service per call, as a client does per request, with the selection of all
+ * services and with the snapshot of the selector.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class BenchmarkHttpServiceSelector
+{
+    @Param({"3", "30", "300"})
+    private int serviceCount;
+
+    private ServiceSelector serviceSelector;
+    private HttpServiceSelector httpServiceSelector;
+
+    @Setup
+    public void setup()
+    {
+        ImmutableList.Builder<ServiceDescriptor> services = ImmutableList.builder();
+        for (int i = 0; i < serviceCount; i++) {
+            services.add(new ServiceDescriptor(UUID.randomUUID(), "node-" + i, "apple", "pool", "location", ServiceState.RUNNING, ImmutableMap.of(
+                    "http", "http://10.0.0." + i + ":8080",
+                    "https", "https://10.0.0." + i + ":8443")));
+        }
+        serviceSelector = new StaticServiceSelector(services.build());
+        httpServiceSelector = new HttpServiceSelectorImpl(serviceSelector);
+    }
+
+    @Benchmark
+    public URI benchmarkParseAndShuffle()
+    {
+        return parseAndShuffle(serviceSelector.selectAllServices()).get(0);
+    }
+
+    @Benchmark
+    public URI benchmarkSelectHttpService()
+    {
+        return httpServiceSelector.selectHttpService().get(0);
+    }
+
+    @Benchmark
+    public URI benchmarkSnapshotRandom()
+    {
+        return httpServiceSelector.getHttpServiceSnapshot().selectRandom();
+    }
+
+    @Benchmark
+    public URI benchmarkSnapshotRoundRobin()
+    {
+        return httpServiceSelector.getHttpServiceSnapshot().selectNext();
+    }
+
+    // the selection before the snapshot, which parsed the URIs on every call
+    private static List<URI> parseAndShuffle(List<ServiceDescriptor> serviceDescriptors)
+    {
+        List<URI> httpsUri = new ArrayList<>();
+        List<URI> httpUri = new ArrayList<>();
+        for (ServiceDescriptor serviceDescriptor : serviceDescriptors) {
+            String https = serviceDescriptor.getProperties().get("https");
+            String http = serviceDescriptor.getProperties().get("http");
+            try {
+                if (https != null) {
+                    httpsUri.add(new URI(https));
+                }
+                if (http != null) {
+                    httpUri.add(new URI(http));
+                }
+            }
+            catch (URISyntaxException ignored) {
+            }
+        }
+        Collections.shuffle(httpsUri);
+        Collections.shuffle(httpUri);
+        return ImmutableList.<URI>builder().addAll(httpsUri).addAll(httpUri).build();
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkHttpServiceSelector.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
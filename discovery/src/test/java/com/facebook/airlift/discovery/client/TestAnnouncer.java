@@ -21,20 +21,28 @@ import com.facebook.airlift.node.NodeInfo;
 import com.facebook.airlift.units.Duration;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
 import static com.facebook.airlift.discovery.client.ServiceTypes.serviceType;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 @Test(singleThreaded = true)
@@ -146,6 +154,85 @@ public class TestAnnouncer
         assertAnnounced();
     }
 
+    @Test
+    public void testHeartbeat()
+            throws Exception
+    {
+        CountingAnnouncementClient client = new CountingAnnouncementClient(discoveryClient);
+        Announcer announcer = new Announcer(client, ImmutableSet.of(serviceAnnouncement));
+        try {
+            announcer.start();
+            Thread.sleep(100);
+
+            // nothing changed, so the announcer only sent heartbeats after the first announcement
+            assertEquals(client.getAnnouncements(), 1);
+            assertTrue(client.getHeartbeats() > 0);
+            assertAnnounced(serviceAnnouncement);
+        }
+        finally {
+            announcer.destroy();
+        }
+    }
+
+    @Test
+    public void testChangesAnnouncedImmediately()
+            throws Exception
+    {
+        InMemoryDiscoveryClient slowClient = new InMemoryDiscoveryClient(nodeInfo, new Duration(1, TimeUnit.HOURS));
+        CountingAnnouncementClient client = new CountingAnnouncementClient(slowClient);
+        Announcer announcer = new Announcer(client, ImmutableSet.of(serviceAnnouncement));
+        try {
+            announcer.start();
+            assertEquals(client.getAnnouncements(), 1);
+
+            for (int i = 0; i < 10; i++) {
+                announcer.addServiceAnnouncement(ServiceAnnouncement.serviceAnnouncement(serviceType.value()).addProperty("a", "apple").build());
+            }
+
+            // the next announcement is due in an hour
+            long start = System.nanoTime();
+            while (getFutureValue(slowClient.getServices(serviceType.value(), "pool")).getServiceDescriptors().size() != 11) {
+                assertTrue(Duration.nanosSince(start).compareTo(new Duration(10, TimeUnit.SECONDS)) < 0, "changes were not announced");
+                Thread.sleep(1);
+            }
+            assertTrue(client.getAnnouncements() >= 2);
+            assertEquals(client.getHeartbeats(), 0);
+        }
+        finally {
+            announcer.destroy();
+        }
+    }
+
+    @Test
+    public void testOneRequestAtATime()
+            throws Exception
+    {
+        ScheduledExecutorService executor = newSingleThreadScheduledExecutor(daemonThreadsNamed("test-announcement-%s"));
+        InMemoryDiscoveryClient fastClient = new InMemoryDiscoveryClient(nodeInfo, new Duration(50, TimeUnit.MILLISECONDS));
+        SlowAnnouncementClient client = new SlowAnnouncementClient(fastClient, executor);
+        Announcer announcer = new Announcer(client, ImmutableSet.of(serviceAnnouncement));
+        try {
+            announcer.start();
+
+            // changes come due while periodic announcements are in flight, and the reverse
+            for (int i = 0; i < 20; i++) {
+                announcer.addServiceAnnouncement(ServiceAnnouncement.serviceAnnouncement(serviceType.value()).addProperty("a", "apple").build());
+                Thread.sleep(15);
+            }
+
+            long start = System.nanoTime();
+            while (getFutureValue(fastClient.getServices(serviceType.value(), "pool")).getServiceDescriptors().size() != 21) {
+                assertTrue(Duration.nanosSince(start).compareTo(new Duration(10, TimeUnit.SECONDS)) < 0, "changes were not announced");
+                Thread.sleep(1);
+            }
+            assertEquals(client.getMaxConcurrentRequests(), 1);
+        }
+        finally {
+            announcer.destroy();
+            executor.shutdownNow();
+        }
+    }
+
     private void assertAnnounced(ServiceAnnouncement... serviceAnnouncements)
     {
         Future<ServiceDescriptors> future = discoveryClient.getServices(serviceType.value(), "pool");
@@ -175,4 +262,96 @@ public class TestAnnouncer
             assertEquals(serviceDescriptor.getNodeId(), nodeInfo.getNodeId());
         }
     }
+
+    private static class SlowAnnouncementClient
+            implements DiscoveryAnnouncementClient
+    {
+        private final DiscoveryAnnouncementClient delegate;
+        private final ScheduledExecutorService executor;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+        public SlowAnnouncementClient(DiscoveryAnnouncementClient delegate, ScheduledExecutorService executor)
+        {
+            this.delegate = delegate;
+            this.executor = executor;
+        }
+
+        public int getMaxConcurrentRequests()
+        {
+            return maxConcurrentRequests.get();
+        }
+
+        @Override
+        public ListenableFuture<Duration> announce(Set<ServiceAnnouncement> services)
+        {
+            return delay(delegate.announce(services));
+        }
+
+        @Override
+        public ListenableFuture<Duration> heartbeat(Set<ServiceAnnouncement> services)
+        {
+            return delay(delegate.heartbeat(services));
+        }
+
+        @Override
+        public ListenableFuture<Void> unannounce()
+        {
+            return delegate.unannounce();
+        }
+
+        private ListenableFuture<Duration> delay(ListenableFuture<Duration> result)
+        {
+            maxConcurrentRequests.accumulateAndGet(requests.incrementAndGet(), Math::max);
+            SettableFuture<Duration> future = SettableFuture.create();
+            executor.schedule(() -> {
+                requests.decrementAndGet();
+                future.setFuture(result);
+            }, 20, TimeUnit.MILLISECONDS);
+            return future;
+        }
+    }
+
+    private static class CountingAnnouncementClient
+            implements DiscoveryAnnouncementClient
+    {
+        private final DiscoveryAnnouncementClient delegate;
+        private final AtomicInteger announcements = new AtomicInteger();
+        private final AtomicInteger heartbeats = new AtomicInteger();
+
+        public CountingAnnouncementClient(DiscoveryAnnouncementClient delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        public int getAnnouncements()
+        {
+            return announcements.get();
+        }
+
+        public int getHeartbeats()
+        {
+            return heartbeats.get();
+        }
+
+        @Override
+        public ListenableFuture<Duration> announce(Set<ServiceAnnouncement> services)
+        {
+            announcements.incrementAndGet();
+            return delegate.announce(services);
+        }
+
+        @Override
+        public ListenableFuture<Duration> heartbeat(Set<ServiceAnnouncement> services)
+        {
+            heartbeats.incrementAndGet();
+            return delegate.heartbeat(services);
+        }
+
+        @Override
+        public ListenableFuture<Void> unannounce()
+        {
+            return delegate.unannounce();
+        }
+    }
 }
@@ -17,19 +17,32 @@ package com.facebook.airlift.discovery.client;
 
 import com.facebook.airlift.discovery.client.testing.InMemoryDiscoveryClient;
 import com.facebook.airlift.node.NodeInfo;
+import com.facebook.airlift.units.Duration;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
 import static com.facebook.airlift.testing.Assertions.assertEqualsIgnoreOrder;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 public class TestCachingServiceSelector
 {
@@ -131,4 +144,115 @@ public class TestCachingServiceSelector
 
         assertEqualsIgnoreOrder(serviceSelector.selectAllServices(), ImmutableList.of(APPLE_1_SERVICE, APPLE_2_SERVICE));
     }
+
+    @Test
+    public void testWatch()
+            throws Exception
+    {
+        WatchingDiscoveryClient discoveryClient = new WatchingDiscoveryClient(nodeInfo);
+        discoveryClient.addDiscoveredService(APPLE_1_SERVICE);
+
+        CachingServiceSelector serviceSelector = new CachingServiceSelector("apple",
+                new ServiceSelectorConfig().setPool("pool"),
+                discoveryClient,
+                executor,
+                Optional.of(new Duration(1, SECONDS)));
+
+        serviceSelector.start();
+
+        SettableFuture<ServiceDescriptors> watch = discoveryClient.getWatches().poll(10, SECONDS);
+        assertNotNull(watch);
+        assertEquals(serviceSelector.selectAllServices(), ImmutableList.of(APPLE_1_SERVICE));
+
+        // a change is visible when the watch completes, and another watch is started
+        watch.set(new ServiceDescriptors("apple", "pool", ImmutableList.of(APPLE_1_SERVICE, APPLE_2_SERVICE), new Duration(1, SECONDS), "changed"));
+        assertNotNull(discoveryClient.getWatches().poll(10, SECONDS));
+        assertEqualsIgnoreOrder(serviceSelector.selectAllServices(), ImmutableList.of(APPLE_1_SERVICE, APPLE_2_SERVICE));
+
+        // a forced refresh does not start another watch
+        serviceSelector.refresh().get(10, SECONDS);
+        assertNull(discoveryClient.getWatches().poll(100, MILLISECONDS));
+    }
+
+    @Test
+    public void testWatchMinimumInterval()
+            throws Exception
+    {
+        WatchingDiscoveryClient discoveryClient = new WatchingDiscoveryClient(nodeInfo);
+        discoveryClient.addDiscoveredService(APPLE_1_SERVICE);
+
+        CachingServiceSelector serviceSelector = new CachingServiceSelector("apple",
+                new ServiceSelectorConfig().setPool("pool"),
+                discoveryClient,
+                executor,
+                Optional.of(new Duration(1, SECONDS)));
+
+        serviceSelector.start();
+
+        // a watch that completes immediately does not start the next watch immediately
+        for (int i = 0; i < 3; i++) {
+            SettableFuture<ServiceDescriptors> watch = discoveryClient.getWatches().poll(10, SECONDS);
+            assertNotNull(watch);
+            watch.set(new ServiceDescriptors("apple", "pool", ImmutableList.of(APPLE_1_SERVICE), new Duration(1, SECONDS), "changed-" + i));
+        }
+        List<Long> watchStarts = discoveryClient.getWatchStarts();
+        for (int i = 1; i < watchStarts.size(); i++) {
+            assertTrue(watchStarts.get(i) - watchStarts.get(i - 1) >= MILLISECONDS.toNanos(500));
+        }
+    }
+
+    @Test
+    public void testWatchNotSupported()
+            throws Exception
+    {
+        InMemoryDiscoveryClient discoveryClient = new InMemoryDiscoveryClient(nodeInfo, new Duration(1, MILLISECONDS));
+        discoveryClient.addDiscoveredService(APPLE_1_SERVICE);
+
+        CachingServiceSelector serviceSelector = new CachingServiceSelector("apple",
+                new ServiceSelectorConfig().setPool("pool"),
+                discoveryClient,
+                executor,
+                Optional.of(new Duration(1, SECONDS)));
+
+        serviceSelector.start();
+        assertEquals(serviceSelector.selectAllServices(), ImmutableList.of(APPLE_1_SERVICE));
+
+        // the selector falls back to polling
+        discoveryClient.addDiscoveredService(APPLE_2_SERVICE);
+        for (int i = 0; (i < 1000) && (serviceSelector.selectAllServices().size() < 2); i++) {
+            Thread.sleep(10);
+        }
+        assertEqualsIgnoreOrder(serviceSelector.selectAllServices(), ImmutableList.of(APPLE_1_SERVICE, APPLE_2_SERVICE));
+    }
+
+    private static class WatchingDiscoveryClient
+            extends InMemoryDiscoveryClient
+    {
+        private final BlockingQueue<SettableFuture<ServiceDescriptors>> watches = new LinkedBlockingQueue<>();
+        private final List<Long> watchStarts = new CopyOnWriteArrayList<>();
+
+        public WatchingDiscoveryClient(NodeInfo nodeInfo)
+        {
+            super(nodeInfo);
+        }
+
+        public BlockingQueue<SettableFuture<ServiceDescriptors>> getWatches()
+        {
+            return watches;
+        }
+
+        public List<Long> getWatchStarts()
+        {
+            return watchStarts;
+        }
+
+        @Override
+        public ListenableFuture<ServiceDescriptors> watchServices(ServiceDescriptors serviceDescriptors, Duration maxWait)
+        {
+            watchStarts.add(System.nanoTime());
+            SettableFuture<ServiceDescriptors> watch = SettableFuture.create();
+            watches.add(watch);
+            return watch;
+        }
+    }
 }
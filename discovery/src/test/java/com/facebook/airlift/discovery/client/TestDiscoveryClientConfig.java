@@ -16,19 +16,24 @@
 package com.facebook.airlift.discovery.client;
 
 import com.facebook.airlift.configuration.testing.ConfigAssertions;
+import com.facebook.airlift.units.Duration;
 import com.google.common.collect.ImmutableMap;
 import org.testng.annotations.Test;
 
 import java.net.URI;
 import java.util.Map;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 public class TestDiscoveryClientConfig
 {
     @Test
     public void testDefaults()
     {
         ConfigAssertions.assertRecordedDefaults(ConfigAssertions.recordDefaults(DiscoveryClientConfig.class)
-                .setDiscoveryServiceURI(null));
+                .setDiscoveryServiceURI(null)
+                .setWatchEnabled(false)
+                .setWatchMaxWait(new Duration(30, SECONDS)));
     }
 
     @Test
@@ -36,10 +41,14 @@ public class TestDiscoveryClientConfig
     {
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("discovery.uri", "fake://server")
+                .put("discovery.watch.enabled", "true")
+                .put("discovery.watch.client-max-wait", "10s")
                 .build();
 
         DiscoveryClientConfig expected = new DiscoveryClientConfig()
-                .setDiscoveryServiceURI(URI.create("fake://server"));
+                .setDiscoveryServiceURI(URI.create("fake://server"))
+                .setWatchEnabled(true)
+                .setWatchMaxWait(new Duration(10, SECONDS));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.client;
+
+import com.facebook.airlift.http.client.HttpStatus;
+import com.facebook.airlift.http.client.Request;
+import com.facebook.airlift.http.client.testing.TestingHttpClient;
+import com.facebook.airlift.http.client.testing.TestingResponse;
+import com.facebook.airlift.node.NodeConfig;
+import com.facebook.airlift.node.NodeInfo;
+import com.facebook.airlift.units.Duration;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.HttpHeaders;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
+import static com.facebook.airlift.http.client.HttpStatus.ACCEPTED;
+import static com.facebook.airlift.http.client.HttpStatus.METHOD_NOT_ALLOWED;
+import static com.facebook.airlift.http.client.HttpStatus.NOT_FOUND;
+import static com.facebook.airlift.http.client.HttpStatus.OK;
+import static com.facebook.airlift.http.client.HttpStatus.PRECONDITION_FAILED;
+import static com.facebook.airlift.json.JsonCodec.jsonCodec;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@Test(singleThreaded = true)
+public class TestHttpDiscoveryAnnouncementClient
+{
+    private static final URI DISCOVERY_URI = URI.create("http://discovery.example.com");
+    private static final String ENTITY_TAG = "\"1234\"";
+
+    private final Set<ServiceAnnouncement> services = ImmutableSet.of(ServiceAnnouncement.serviceAnnouncement("foo").addProperty("a", "apple").build());
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private NodeInfo nodeInfo;
+    private HttpStatus heartbeatStatus;
+    private String announcementEntityTag;
+    private HttpDiscoveryAnnouncementClient client;
+
+    @BeforeMethod
+    protected void setUp()
+    {
+        requests.clear();
+        heartbeatStatus = OK;
+        announcementEntityTag = ENTITY_TAG;
+        nodeInfo = new NodeInfo(new NodeConfig().setEnvironment("test").setPool("pool"));
+        client = new HttpDiscoveryAnnouncementClient(() -> DISCOVERY_URI, nodeInfo, jsonCodec(Announcement.class), new TestingHttpClient(this::handle));
+    }
+
+    @Test
+    public void testHeartbeat()
+    {
+        assertEquals(getFutureValue(client.announce(services)), new Duration(30, TimeUnit.SECONDS));
+        assertEquals(getFutureValue(client.heartbeat(services)), new Duration(20, TimeUnit.SECONDS));
+
+        assertEquals(requests.size(), 2);
+        assertAnnouncement(requests.get(0));
+
+        Request heartbeat = requests.get(1);
+        assertEquals(heartbeat.getMethod(), "PUT");
+        assertEquals(heartbeat.getUri(), URI.create(DISCOVERY_URI + "/v1/announcement/" + nodeInfo.getNodeId() + "/heartbeat"));
+        assertEquals(heartbeat.getHeader(HttpHeaders.IF_MATCH), ENTITY_TAG);
+        assertNull(heartbeat.getBodyGenerator());
+    }
+
+    @DataProvider
+    public Object[][] announcementLostStatuses()
+    {
+        return new Object[][] {{PRECONDITION_FAILED}, {NOT_FOUND}, {METHOD_NOT_ALLOWED}};
+    }
+
+    @Test(dataProvider = "announcementLostStatuses")
+    public void testHeartbeatFallsBackToAnnouncement(HttpStatus status)
+    {
+        heartbeatStatus = status;
+
+        getFutureValue(client.announce(services));
+        assertEquals(getFutureValue(client.heartbeat(services)), new Duration(30, TimeUnit.SECONDS));
+
+        assertEquals(requests.size(), 3);
+        assertAnnouncement(requests.get(0));
+        assertEquals(requests.get(1).getHeader(HttpHeaders.IF_MATCH), ENTITY_TAG);
+        assertAnnouncement(requests.get(2));
+    }
+
+    @Test
+    public void testHeartbeatBeforeAnnouncement()
+    {
+        assertEquals(getFutureValue(client.heartbeat(services)), new Duration(30, TimeUnit.SECONDS));
+
+        assertEquals(requests.size(), 1);
+        assertAnnouncement(requests.get(0));
+    }
+
+    @Test
+    public void testHeartbeatWithoutEntityTag()
+    {
+        announcementEntityTag = null;
+
+        getFutureValue(client.announce(services));
+        getFutureValue(client.heartbeat(services));
+
+        assertEquals(requests.size(), 2);
+        assertAnnouncement(requests.get(0));
+        assertAnnouncement(requests.get(1));
+    }
+
+    @Test
+    public void testHeartbeatAfterUnannounce()
+    {
+        getFutureValue(client.announce(services));
+        getFutureValue(client.unannounce());
+        getFutureValue(client.heartbeat(services));
+
+        assertEquals(requests.size(), 3);
+        assertEquals(requests.get(1).getMethod(), "DELETE");
+        assertAnnouncement(requests.get(2));
+    }
+
+    private void assertAnnouncement(Request request)
+    {
+        assertEquals(request.getMethod(), "PUT");
+        assertEquals(request.getUri(), URI.create(DISCOVERY_URI + "/v1/announcement/" + nodeInfo.getNodeId()));
+        assertNull(request.getHeader(HttpHeaders.IF_MATCH));
+    }
+
+    private TestingResponse handle(Request request)
+    {
+        requests.add(request);
+
+        if (request.getMethod().equals("DELETE")) {
+            return new TestingResponse(OK, ImmutableListMultimap.of(), new byte[0]);
+        }
+        if (request.getUri().getPath().endsWith("/heartbeat")) {
+            if (heartbeatStatus != OK) {
+                return new TestingResponse(heartbeatStatus, ImmutableListMultimap.of(), new byte[0]);
+            }
+            return new TestingResponse(OK, ImmutableListMultimap.of(HttpHeaders.CACHE_CONTROL, "max-age=20"), new byte[0]);
+        }
+
+        ImmutableListMultimap.Builder<String, String> headers = ImmutableListMultimap.builder();
+        headers.put(HttpHeaders.CACHE_CONTROL, "max-age=30");
+        if (announcementEntityTag != null) {
+            headers.put(HttpHeaders.ETAG, announcementEntityTag);
+        }
+        return new TestingResponse(ACCEPTED, headers.build(), new byte[0]);
+    }
+}
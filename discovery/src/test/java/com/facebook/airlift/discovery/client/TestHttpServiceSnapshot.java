@@ -0,0 +1,190 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.discovery.client;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Multiset;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.facebook.airlift.testing.Assertions.assertEqualsIgnoreOrder;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestHttpServiceSnapshot
+{
+    @Test
+    public void testFavorsHttps()
+    {
+        HttpServiceSnapshot snapshot = HttpServiceSnapshot.fromServiceDescriptors(ImmutableList.of(
+                service(ServiceState.RUNNING, ImmutableMap.of("http", "http://a:1", "https", "https://a:2")),
+                service(null, ImmutableMap.of("http", "http://b:1")),
+                service(ServiceState.STOPPED, ImmutableMap.of("https", "https://c:2")),
+                service(ServiceState.RUNNING, ImmutableMap.of("http", "not a uri", "https", "https://d:2"))));
+
+        // stopped services are listed, but never selected
+        assertEqualsIgnoreOrder(snapshot.getHttpsServices(), ImmutableList.of(URI.create("https://a:2"), URI.create("https://c:2"), URI.create("https://d:2")));
+        assertEqualsIgnoreOrder(snapshot.getHttpServices(), ImmutableList.of(URI.create("http://a:1"), URI.create("http://b:1")));
+        assertFalse(snapshot.isEmpty());
+
+        List<URI> selectable = ImmutableList.of(URI.create("https://a:2"), URI.create("https://d:2"));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(selectable.contains(snapshot.selectRandom()));
+            assertTrue(selectable.contains(snapshot.selectNext()));
+        }
+    }
+
+    @Test
+    public void testOnlyStoppedServices()
+    {
+        List<ServiceDescriptor> services = ImmutableList.of(service(ServiceState.STOPPED, ImmutableMap.of("http", "http://a:1")));
+        HttpServiceSelector httpSelector = new HttpServiceSelectorImpl(new RefreshableServiceSelector(services));
+
+        HttpServiceSnapshot snapshot = httpSelector.getHttpServiceSnapshot();
+        assertTrue(snapshot.isEmpty());
+        assertNull(snapshot.selectRandom());
+        assertNull(snapshot.selectNext());
+
+        // selectHttpService returns stopped services, as it always has
+        assertEquals(httpSelector.selectHttpService(), ImmutableList.of(URI.create("http://a:1")));
+    }
+
+    @Test
+    public void testHttpOnly()
+    {
+        HttpServiceSnapshot snapshot = HttpServiceSnapshot.fromServiceDescriptors(ImmutableList.of(
+                service(ServiceState.RUNNING, ImmutableMap.of("http", "http://a:1")),
+                service(ServiceState.RUNNING, ImmutableMap.of("http", "http://b:1"))));
+
+        assertTrue(snapshot.getHttpsServices().isEmpty());
+        assertEquals(snapshot.selectNext(), URI.create("http://a:1"));
+        assertEquals(snapshot.selectNext(), URI.create("http://b:1"));
+        assertEquals(snapshot.selectNext(), URI.create("http://a:1"));
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        HttpServiceSnapshot snapshot = HttpServiceSnapshot.fromServiceDescriptors(ImmutableList.of(
+                service(ServiceState.RUNNING, ImmutableMap.of("a", "apple"))));
+
+        assertTrue(snapshot.isEmpty());
+        assertNull(snapshot.selectRandom());
+        assertNull(snapshot.selectNext());
+    }
+
+    @Test
+    public void testWeights()
+    {
+        HttpServiceSnapshot snapshot = HttpServiceSnapshot.fromServiceDescriptors(ImmutableList.of(
+                service(ServiceState.RUNNING, ImmutableMap.of("http", "http://a:1", "weight", "3")),
+                service(ServiceState.RUNNING, ImmutableMap.of("http", "http://b:1")),
+                service(ServiceState.RUNNING, ImmutableMap.of("http", "http://c:1", "weight", "invalid"))));
+
+        // each service is selected as many times in a round as its weight
+        Multiset<URI> selected = HashMultiset.create();
+        for (int i = 0; i < 5 * 100; i++) {
+            selected.add(snapshot.selectNext());
+        }
+        assertEquals(selected.count(URI.create("http://a:1")), 300);
+        assertEquals(selected.count(URI.create("http://b:1")), 100);
+        assertEquals(selected.count(URI.create("http://c:1")), 100);
+
+        selected.clear();
+        for (int i = 0; i < 50_000; i++) {
+            selected.add(snapshot.selectRandom());
+        }
+        assertEquals(selected.count(URI.create("http://a:1")), 30_000, 1000);
+        assertEquals(selected.count(URI.create("http://b:1")), 10_000, 1000);
+    }
+
+    @Test
+    public void testFromUris()
+    {
+        List<URI> uris = ImmutableList.of(URI.create("http://a:1"), URI.create("https://b:2"));
+        HttpServiceSnapshot snapshot = HttpServiceSnapshot.fromUris(uris);
+
+        assertEquals(snapshot.getHttpsServices(), ImmutableList.of(URI.create("https://b:2")));
+        assertEquals(snapshot.getHttpServices(), ImmutableList.of(URI.create("http://a:1")));
+        assertEquals(snapshot.selectRandom(), URI.create("https://b:2"));
+    }
+
+    @Test
+    public void testSelectorReusesSnapshot()
+    {
+        List<ServiceDescriptor> services = ImmutableList.of(service(ServiceState.RUNNING, ImmutableMap.of("http", "http://a:1")));
+        RefreshableServiceSelector selector = new RefreshableServiceSelector(services);
+        HttpServiceSelector httpSelector = new HttpServiceSelectorImpl(selector);
+
+        HttpServiceSnapshot snapshot = httpSelector.getHttpServiceSnapshot();
+        assertEquals(snapshot.getHttpServices(), ImmutableList.of(URI.create("http://a:1")));
+        assertSame(httpSelector.getHttpServiceSnapshot(), snapshot);
+        assertEquals(httpSelector.selectHttpService(), ImmutableList.of(URI.create("http://a:1")));
+
+        // a refresh of the selector creates a new snapshot
+        selector.services = ImmutableList.of(service(ServiceState.RUNNING, ImmutableMap.of("http", "http://b:1")));
+        assertEquals(httpSelector.getHttpServiceSnapshot().getHttpServices(), ImmutableList.of(URI.create("http://b:1")));
+    }
+
+    private static ServiceDescriptor service(ServiceState state, Map<String, String> properties)
+    {
+        return new ServiceDescriptor(UUID.randomUUID(), "node", "apple", "pool", "location", state, properties);
+    }
+
+    private static class RefreshableServiceSelector
+            implements ServiceSelector
+    {
+        private volatile List<ServiceDescriptor> services;
+
+        public RefreshableServiceSelector(List<ServiceDescriptor> services)
+        {
+            this.services = services;
+        }
+
+        @Override
+        public String getType()
+        {
+            return "apple";
+        }
+
+        @Override
+        public String getPool()
+        {
+            return "pool";
+        }
+
+        @Override
+        public List<ServiceDescriptor> selectAllServices()
+        {
+            return services;
+        }
+
+        @Override
+        public ListenableFuture<List<ServiceDescriptor>> refresh()
+        {
+            return immediateFuture(services);
+        }
+    }
+}
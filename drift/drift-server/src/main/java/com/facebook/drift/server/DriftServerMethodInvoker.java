@@ -15,6 +15,7 @@
  */
 package com.facebook.drift.server;
 
+import com.facebook.airlift.stats.ThreadResourceUsage;
 import com.facebook.drift.TApplicationException;
 import com.facebook.drift.TApplicationException.Type;
 import com.facebook.drift.codec.ThriftCodecManager;
@@ -86,7 +87,24 @@ class DriftServerMethodInvoker
             return Futures.immediateFailedFuture(new TApplicationException(Type.UNKNOWN_METHOD, "Invalid method name: '" + request.getMethod().getName() + "'"));
         }
 
-        return method.invokeMethod(request);
+        MethodInvocationStat stat = stats.get(request.getMethod().getName());
+        if (stat == null) {
+            return method.invokeMethod(request);
+        }
+
+        // only the work done on the calling thread is measured, not asynchronous continuations
+        ThreadResourceUsage resourceUsage = ThreadResourceUsage.start();
+        try {
+            return method.invokeMethod(request);
+        }
+        finally {
+            if (ThreadResourceUsage.isCpuTimeSupported()) {
+                stat.recordCpuTime(resourceUsage.getCpuTimeNanos());
+            }
+            if (ThreadResourceUsage.isAllocatedBytesSupported()) {
+                stat.recordAllocatedBytes(resourceUsage.getAllocatedBytes());
+            }
+        }
     }
 
     @Override
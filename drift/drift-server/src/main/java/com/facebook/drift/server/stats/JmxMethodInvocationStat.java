@@ -16,6 +16,7 @@
 package com.facebook.drift.server.stats;
 
 import com.facebook.airlift.stats.CounterStat;
+import com.facebook.airlift.stats.DistributionStat;
 import com.facebook.airlift.stats.TimeStat;
 import com.google.common.util.concurrent.ListenableFuture;
 import org.weakref.jmx.Managed;
@@ -26,6 +27,7 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class JmxMethodInvocationStat
         implements MethodInvocationStat
@@ -34,6 +36,8 @@ public class JmxMethodInvocationStat
     private final TimeStat time = new TimeStat(MILLISECONDS);
     private final CounterStat successes = new CounterStat();
     private final CounterStat failures = new CounterStat();
+    private final TimeStat cpuTime = new TimeStat(MILLISECONDS);
+    private final DistributionStat allocatedBytes = new DistributionStat();
 
     public JmxMethodInvocationStat(String name)
     {
@@ -66,6 +70,20 @@ public class JmxMethodInvocationStat
         return failures;
     }
 
+    @Managed
+    @Nested
+    public TimeStat getCpuTime()
+    {
+        return cpuTime;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+
     @Override
     public void recordResult(long startTime, ListenableFuture<Object> result)
     {
@@ -83,6 +101,18 @@ public class JmxMethodInvocationStat
                 directExecutor());
     }
 
+    @Override
+    public void recordCpuTime(long cpuTimeNanos)
+    {
+        cpuTime.add(cpuTimeNanos, NANOSECONDS);
+    }
+
+    @Override
+    public void recordAllocatedBytes(long allocatedBytes)
+    {
+        this.allocatedBytes.add(allocatedBytes);
+    }
+
     @Override
     public String toString()
     {
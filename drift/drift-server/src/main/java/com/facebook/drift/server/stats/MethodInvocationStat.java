@@ -20,4 +20,8 @@ import com.google.common.util.concurrent.ListenableFuture;
 public interface MethodInvocationStat
 {
     void recordResult(long startTime, ListenableFuture<Object> result);
+
+    default void recordCpuTime(long cpuTimeNanos) {}
+
+    default void recordAllocatedBytes(long allocatedBytes) {}
 }
@@ -33,6 +33,7 @@ public class TestingMethodInvocationStat
     private final AtomicInteger successes = new AtomicInteger();
     private final AtomicInteger failures = new AtomicInteger();
     private final AtomicLong lastStartTime = new AtomicLong();
+    private final AtomicInteger resourceUsages = new AtomicInteger();
 
     public void clear()
     {
@@ -40,6 +41,7 @@ public class TestingMethodInvocationStat
         successes.set(0);
         failures.set(0);
         lastStartTime.set(0);
+        resourceUsages.set(0);
     }
 
     public void assertSuccess()
@@ -48,6 +50,7 @@ public class TestingMethodInvocationStat
         assertGreaterThan(successes.get(), 0);
         assertEquals(failures.get(), 0);
         assertNotEquals(lastStartTime.get(), 0);
+        assertGreaterThan(resourceUsages.get(), 0);
     }
 
     public void assertFailure()
@@ -75,4 +78,16 @@ public class TestingMethodInvocationStat
                 },
                 directExecutor());
     }
+
+    @Override
+    public void recordCpuTime(long cpuTimeNanos)
+    {
+        resourceUsages.incrementAndGet();
+    }
+
+    @Override
+    public void recordAllocatedBytes(long allocatedBytes)
+    {
+        resourceUsages.incrementAndGet();
+    }
 }
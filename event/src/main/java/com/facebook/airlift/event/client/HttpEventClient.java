@@ -39,7 +39,6 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.URI;
 import java.util.Arrays;
-import java.util.List;
 
 import static com.facebook.airlift.http.client.Request.Builder.preparePost;
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
@@ -102,15 +101,15 @@ public class HttpEventClient
     {
         requireNonNull(eventGenerator, "eventGenerator is null");
 
-        List<URI> uris = serviceSelector.selectHttpService();
+        URI uri = serviceSelector.getHttpServiceSnapshot().selectRandom();
 
-        if (uris.isEmpty()) {
+        if (uri == null) {
             return immediateFailedFuture(new ServiceUnavailableException(serviceSelector.getType(), serviceSelector.getPool()));
         }
 
         // todo this doesn't really work due to returning the future which can fail without being retried
         Request request = preparePost()
-                .setUri(uris.get(0).resolve("/v2/event"))
+                .setUri(uri.resolve("/v2/event"))
                 .setHeader("User-Agent", nodeInfo.getNodeId())
                 .setHeader("Content-Type", MEDIA_TYPE_JSON.toString())
                 .setBodyGenerator(new JsonEntityWriter<>(eventWriter, eventGenerator))
@@ -92,6 +92,9 @@ public class HttpClientConfig
     private DataSize http2InitialSessionReceiveWindowSize = new DataSize(16, MEGABYTE);
     private DataSize http2InitialStreamReceiveWindowSize = new DataSize(16, MEGABYTE);
     private DataSize http2InputBufferSize = new DataSize(8, KILOBYTE);
+    private boolean http2AdaptiveFlowControlEnabled;
+    private DataSize http2MaxSessionReceiveWindowSize = new DataSize(128, MEGABYTE);
+    private DataSize http2MaxStreamReceiveWindowSize = new DataSize(64, MEGABYTE);
 
     private String logPath = "var/log/";
     private boolean logEnabled;
@@ -472,6 +475,51 @@ public class HttpClientConfig
         return this;
     }
 
+    public boolean isHttp2AdaptiveFlowControlEnabled()
+    {
+        return http2AdaptiveFlowControlEnabled;
+    }
+
+    @Config("http-client.http2.adaptive-flow-control.enabled")
+    @ConfigDescription("Grow HTTP/2 receive windows to the measured bandwidth-delay product and open extra connections to saturated destinations")
+    public HttpClientConfig setHttp2AdaptiveFlowControlEnabled(boolean http2AdaptiveFlowControlEnabled)
+    {
+        this.http2AdaptiveFlowControlEnabled = http2AdaptiveFlowControlEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1kB")
+    @MaxDataSize("1GB")
+    public DataSize getHttp2MaxSessionReceiveWindowSize()
+    {
+        return http2MaxSessionReceiveWindowSize;
+    }
+
+    @Config("http-client.http2.max-session-receive-window-size")
+    @ConfigDescription("Maximum size the session's flow control receive window can grow to when adaptive flow control is enabled")
+    public HttpClientConfig setHttp2MaxSessionReceiveWindowSize(DataSize http2MaxSessionReceiveWindowSize)
+    {
+        this.http2MaxSessionReceiveWindowSize = http2MaxSessionReceiveWindowSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1kB")
+    @MaxDataSize("1GB")
+    public DataSize getHttp2MaxStreamReceiveWindowSize()
+    {
+        return http2MaxStreamReceiveWindowSize;
+    }
+
+    @Config("http-client.http2.max-stream-receive-window-size")
+    @ConfigDescription("Maximum size the stream's flow control receive window can grow to when adaptive flow control is enabled")
+    public HttpClientConfig setHttp2MaxStreamReceiveWindowSize(DataSize http2MaxStreamReceiveWindowSize)
+    {
+        this.http2MaxStreamReceiveWindowSize = http2MaxStreamReceiveWindowSize;
+        return this;
+    }
+
     @Min(1)
     public int getSelectorCount()
     {
@@ -0,0 +1,297 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.http.client.jetty;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.ConnectionPoolAccessor;
+import org.eclipse.jetty.client.transport.HttpDestination;
+import org.eclipse.jetty.http2.BufferingFlowControlStrategy;
+import org.eclipse.jetty.http2.FlowControlStrategy;
+import org.eclipse.jetty.http2.HTTP2Session;
+import org.eclipse.jetty.http2.HTTP2Stream;
+import org.eclipse.jetty.http2.api.Session;
+import org.eclipse.jetty.http2.api.Stream;
+import org.eclipse.jetty.http2.client.transport.internal.HttpConnectionOverHTTP2;
+import org.eclipse.jetty.http2.frames.SettingsFrame;
+import org.eclipse.jetty.http2.frames.WindowUpdateFrame;
+import org.eclipse.jetty.util.Callback;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * HTTP/2 flow control for a single client session. When adaptive flow control
+ * is enabled, the session and stream receive windows are doubled, up to the configured
+ * maximum, each time the peer exhausts a window that is smaller than twice the measured
+ * bandwidth-delay product of the connection.
+ * <p>
+ * The round trip time is sampled as the delay between replenishing an exhausted window
+ * and the arrival of the next data frame, and the bandwidth as the rate data was received
+ * over the last sample interval. A window exhausted because the application consumes data
+ * slowly does not grow, since the measured bandwidth then stays low.
+ */
+class AdaptiveFlowControlStrategy
+        extends BufferingFlowControlStrategy
+{
+    private static final float BUFFER_RATIO = 0.5F;
+    // a window smaller than the default HTTP/2 frame size blocks the sender
+    private static final int STALL_THRESHOLD = 16 * 1024;
+    private static final long SESSION_STALL_NANOS = SECONDS.toNanos(1);
+    private static final double SATURATED_STREAM_RATIO = 0.75;
+
+    private final Factory factory;
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final Set<Stream> stalledStreams = ConcurrentHashMap.newKeySet();
+    private final Map<Stream, Long> replenishedStreams = new ConcurrentHashMap<>();
+    private final BandwidthDelayEstimator estimator = new BandwidthDelayEstimator(System.nanoTime());
+
+    private volatile HTTP2Session session;
+    private volatile int sessionRecvWindow = FlowControlStrategy.DEFAULT_WINDOW_SIZE;
+    private volatile int streamRecvWindow;
+    private volatile boolean sessionStalled;
+    private volatile long sessionReplenished;
+    private volatile long lastMaxSessionStall;
+
+    private AdaptiveFlowControlStrategy(Factory factory)
+    {
+        super(BUFFER_RATIO);
+        this.factory = factory;
+    }
+
+    @Override
+    public void onStreamCreated(Stream stream)
+    {
+        super.onStreamCreated(stream);
+        bind((HTTP2Session) stream.getSession());
+        openStreams.incrementAndGet();
+    }
+
+    @Override
+    public void onStreamDestroyed(Stream stream)
+    {
+        super.onStreamDestroyed(stream);
+        openStreams.decrementAndGet();
+        stalledStreams.remove(stream);
+        replenishedStreams.remove(stream);
+    }
+
+    @Override
+    public void windowUpdate(Session session, Stream stream, WindowUpdateFrame frame)
+    {
+        super.windowUpdate(session, stream, frame);
+        HTTP2Session http2Session = (HTTP2Session) session;
+        bind(http2Session);
+        if (frame.getStreamId() == 0) {
+            // track the largest session window granted to the peer, including the
+            // update sent by the client when the connection is opened
+            sessionRecvWindow = max(sessionRecvWindow, http2Session.getRecvWindow());
+        }
+    }
+
+    @Override
+    public void onDataReceived(Session session, Stream stream, int length)
+    {
+        super.onDataReceived(session, stream, length);
+        if (!factory.adaptive) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        estimator.recordReceived(length, now);
+
+        if (stream != null) {
+            Long replenished = replenishedStreams.remove(stream);
+            if (replenished != null) {
+                estimator.recordRoundTrip(now - replenished);
+            }
+            if (((HTTP2Stream) stream).getRecvWindow() < STALL_THRESHOLD) {
+                stalledStreams.add(stream);
+            }
+        }
+
+        long replenished = sessionReplenished;
+        if (replenished != 0) {
+            sessionReplenished = 0;
+            estimator.recordRoundTrip(now - replenished);
+        }
+        if (((HTTP2Session) session).getRecvWindow() < STALL_THRESHOLD) {
+            sessionStalled = true;
+            if (sessionRecvWindow >= factory.maxSessionRecvWindow) {
+                lastMaxSessionStall = now;
+            }
+        }
+    }
+
+    @Override
+    public void onDataConsumed(Session session, Stream stream, int length)
+    {
+        // sends the window updates that replenish the consumed data
+        super.onDataConsumed(session, stream, length);
+        if (!factory.adaptive) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        HTTP2Session http2Session = (HTTP2Session) session;
+        if (stream != null && ((HTTP2Stream) stream).getRecvWindow() >= STALL_THRESHOLD && stalledStreams.remove(stream)) {
+            replenishedStreams.put(stream, now);
+            growStreamWindow(http2Session);
+        }
+        if (sessionStalled && http2Session.getRecvWindow() >= STALL_THRESHOLD) {
+            sessionStalled = false;
+            sessionReplenished = now;
+            growSessionWindow(http2Session);
+        }
+    }
+
+    private void bind(HTTP2Session session)
+    {
+        if (this.session == null) {
+            this.session = session;
+            factory.strategies.put(session, this);
+        }
+    }
+
+    private synchronized void growStreamWindow(HTTP2Session session)
+    {
+        int window = getStreamRecvWindow();
+        int newWindow = estimator.nextWindow(window, factory.maxStreamRecvWindow);
+        if (newWindow == window) {
+            return;
+        }
+        streamRecvWindow = newWindow;
+        // the session adjusts the receive window of all open streams when the settings are sent
+        session.settings(new SettingsFrame(Map.of(SettingsFrame.INITIAL_WINDOW_SIZE, newWindow), false), Callback.NOOP);
+        factory.windowIncreases.increment();
+    }
+
+    private synchronized void growSessionWindow(HTTP2Session session)
+    {
+        int window = sessionRecvWindow;
+        int delta = estimator.nextWindow(window, factory.maxSessionRecvWindow) - window;
+        if (delta == 0) {
+            return;
+        }
+        sessionRecvWindow = window + delta;
+        session.updateRecvWindow(delta);
+        session.frames(null, List.of(new WindowUpdateFrame(0, delta)), Callback.NOOP);
+        factory.windowIncreases.increment();
+    }
+
+    public int getSessionRecvWindow()
+    {
+        return sessionRecvWindow;
+    }
+
+    public int getStreamRecvWindow()
+    {
+        return max(streamRecvWindow, getInitialStreamRecvWindow());
+    }
+
+    public int getOpenStreams()
+    {
+        return openStreams.get();
+    }
+
+    /**
+     * Returns the maximum number of concurrent streams allowed by the peer, or zero if not known.
+     */
+    public int getMaxStreams()
+    {
+        HTTP2Session session = this.session;
+        if (session == null) {
+            return 0;
+        }
+        return max(session.getMaxLocalStreams(), 0);
+    }
+
+    public long getRoundTripNanos()
+    {
+        return estimator.getRoundTripNanos();
+    }
+
+    /**
+     * A session is saturated when most of the streams allowed by the peer are in use,
+     * or when the session window is at its maximum size and was recently exhausted.
+     */
+    public boolean isSaturated()
+    {
+        return isSaturated(openStreams.get(), getMaxStreams(), lastMaxSessionStall, System.nanoTime());
+    }
+
+    static boolean isSaturated(int openStreams, int maxStreams, long lastMaxSessionStall, long now)
+    {
+        if (maxStreams > 0 && openStreams >= maxStreams * SATURATED_STREAM_RATIO) {
+            return true;
+        }
+        return lastMaxSessionStall != 0 && now - lastMaxSessionStall < SESSION_STALL_NANOS;
+    }
+
+    static class Factory
+            implements FlowControlStrategy.Factory
+    {
+        private final boolean adaptive;
+        private final int maxSessionRecvWindow;
+        private final int maxStreamRecvWindow;
+        private final Map<Session, AdaptiveFlowControlStrategy> strategies = new MapMaker().weakKeys().makeMap();
+        private final LongAdder windowIncreases = new LongAdder();
+
+        public Factory(boolean adaptive, int maxSessionRecvWindow, int maxStreamRecvWindow)
+        {
+            this.adaptive = adaptive;
+            this.maxSessionRecvWindow = maxSessionRecvWindow;
+            this.maxStreamRecvWindow = maxStreamRecvWindow;
+        }
+
+        @Override
+        public FlowControlStrategy newFlowControlStrategy()
+        {
+            return new AdaptiveFlowControlStrategy(this);
+        }
+
+        public long getWindowIncreases()
+        {
+            return windowIncreases.sum();
+        }
+
+        /**
+         * Returns the flow control of the HTTP/2 connections of the destination that have streams in use.
+         */
+        public List<AdaptiveFlowControlStrategy> getStrategies(HttpDestination destination)
+        {
+            ConnectionPool connectionPool = destination.getConnectionPool();
+            if (!(connectionPool instanceof AbstractConnectionPool)) {
+                return ImmutableList.of();
+            }
+            ImmutableList.Builder<AdaptiveFlowControlStrategy> result = ImmutableList.builder();
+            ConnectionPoolAccessor.getActiveConnections((AbstractConnectionPool) connectionPool).stream()
+                    .filter(HttpConnectionOverHTTP2.class::isInstance)
+                    .map(connection -> strategies.get(((HttpConnectionOverHTTP2) connection).getSession()))
+                    .filter(Objects::nonNull)
+                    .forEach(result::add);
+            return result.build();
+        }
+    }
+}
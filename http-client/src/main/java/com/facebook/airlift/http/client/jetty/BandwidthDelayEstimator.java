@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.http.client.jetty;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Estimates the bandwidth-delay product of a connection and sizes its receive windows.
+ * The bandwidth is the rate data was received over the last sample interval, and the
+ * round trip time is the smallest sample recorded.
+ */
+class BandwidthDelayEstimator
+{
+    private static final long RATE_INTERVAL_NANOS = MILLISECONDS.toNanos(100);
+
+    @GuardedBy("this")
+    private long roundTripNanos;
+    @GuardedBy("this")
+    private long intervalStart;
+    @GuardedBy("this")
+    private long intervalBytes;
+    @GuardedBy("this")
+    private double bytesPerNano;
+
+    public BandwidthDelayEstimator(long startNanos)
+    {
+        this.intervalStart = startNanos;
+    }
+
+    public synchronized void recordReceived(int length, long now)
+    {
+        intervalBytes += length;
+        long elapsed = now - intervalStart;
+        if (elapsed >= RATE_INTERVAL_NANOS) {
+            bytesPerNano = (double) intervalBytes / elapsed;
+            intervalStart = now;
+            intervalBytes = 0;
+        }
+    }
+
+    public synchronized void recordRoundTrip(long nanos)
+    {
+        // keep the minimum sample, since samples include time the peer spent producing data
+        roundTripNanos = (roundTripNanos == 0) ? nanos : min(roundTripNanos, nanos);
+    }
+
+    public synchronized long getRoundTripNanos()
+    {
+        return roundTripNanos;
+    }
+
+    /**
+     * Returns the size an exhausted window should grow to. The window doubles, up to the
+     * maximum, when it is smaller than twice the bandwidth-delay product, and otherwise
+     * stays the same size.
+     */
+    public synchronized int nextWindow(int window, int maxWindow)
+    {
+        if (window >= maxWindow || roundTripNanos == 0 || window >= 2 * bytesPerNano * roundTripNanos) {
+            return window;
+        }
+        return toIntExact(min(2L * window, maxWindow));
+    }
+}
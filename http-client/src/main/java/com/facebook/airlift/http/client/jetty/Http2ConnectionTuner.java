@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.http.client.jetty;
+
+import com.facebook.airlift.log.Logger;
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.transport.HttpDestination;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Periodically opens an additional HTTP/2 connection to destinations where every
+ * connection is saturated, either because most of the streams allowed by the server
+ * are in use or because the session receive window is exhausted at its maximum size.
+ * Combined with a round-robin connection pool, new streams are spread over the extra
+ * connection rather than queued on the saturated ones.
+ */
+class Http2ConnectionTuner
+        extends AbstractLifeCycle
+        implements Runnable
+{
+    private static final Logger log = Logger.get(Http2ConnectionTuner.class);
+
+    private final HttpClient httpClient;
+    private final AdaptiveFlowControlStrategy.Factory flowControl;
+    private final Scheduler scheduler;
+    private final long periodMillis;
+    private final AtomicReference<Scheduler.Task> task = new AtomicReference<>();
+    private final LongAdder connectionsAdded = new LongAdder();
+
+    public Http2ConnectionTuner(HttpClient httpClient, AdaptiveFlowControlStrategy.Factory flowControl, Scheduler scheduler, long periodMillis)
+    {
+        this.httpClient = requireNonNull(httpClient, "httpClient is null");
+        this.flowControl = requireNonNull(flowControl, "flowControl is null");
+        this.scheduler = requireNonNull(scheduler, "scheduler is null");
+        this.periodMillis = periodMillis;
+    }
+
+    @Override
+    protected void doStart()
+            throws Exception
+    {
+        super.doStart();
+        schedule();
+    }
+
+    @Override
+    protected void doStop()
+            throws Exception
+    {
+        Scheduler.Task task = this.task.getAndSet(null);
+        if (task != null) {
+            task.cancel();
+        }
+        super.doStop();
+    }
+
+    @Override
+    public void run()
+    {
+        try {
+            httpClient.getDestinations().stream()
+                    .filter(HttpDestination.class::isInstance)
+                    .map(HttpDestination.class::cast)
+                    .forEach(this::tune);
+        }
+        catch (RuntimeException e) {
+            log.warn(e, "Error tuning HTTP/2 connections");
+        }
+        finally {
+            schedule();
+        }
+    }
+
+    public long getConnectionsAdded()
+    {
+        return connectionsAdded.sum();
+    }
+
+    private void tune(HttpDestination destination)
+    {
+        ConnectionPool connectionPool = destination.getConnectionPool();
+        if (!(connectionPool instanceof AbstractConnectionPool)) {
+            return;
+        }
+        AbstractConnectionPool pool = (AbstractConnectionPool) connectionPool;
+        List<AdaptiveFlowControlStrategy> sessions = flowControl.getStrategies(destination);
+        int saturatedSessions = (int) sessions.stream().filter(AdaptiveFlowControlStrategy::isSaturated).count();
+        if (shouldAddConnection(pool.getIdleConnectionCount(), pool.getPendingConnectionCount(), pool.getConnectionCount(), pool.getMaxConnectionCount(), sessions.size(), saturatedSessions)) {
+            pool.preCreateConnections(1);
+            connectionsAdded.increment();
+        }
+    }
+
+    /**
+     * A connection is added when every session of the destination is saturated, and the
+     * pool has no idle or pending connection that new streams could use instead.
+     */
+    static boolean shouldAddConnection(int idleConnections, int pendingConnections, int connections, int maxConnections, int sessions, int saturatedSessions)
+    {
+        if (idleConnections > 0 || pendingConnections > 0 || connections >= maxConnections) {
+            return false;
+        }
+        return sessions > 0 && saturatedSessions == sessions;
+    }
+
+    private void schedule()
+    {
+        if (isRunning() || isStarting()) {
+            task.set(scheduler.schedule(this, periodMillis, MILLISECONDS));
+        }
+    }
+}
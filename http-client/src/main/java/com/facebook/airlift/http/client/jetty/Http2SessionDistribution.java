@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.http.client.jetty;
+
+import com.facebook.airlift.stats.Distribution;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.transport.HttpDestination;
+
+import java.util.List;
+
+class Http2SessionDistribution
+        extends CachedDistribution
+{
+    interface Processor
+    {
+        void process(Distribution distribution, List<AdaptiveFlowControlStrategy> sessions);
+    }
+
+    public Http2SessionDistribution(HttpClient httpClient, AdaptiveFlowControlStrategy.Factory flowControl, Processor processor)
+    {
+        super(() -> {
+            Distribution distribution = new Distribution();
+            httpClient.getDestinations().stream()
+                    .filter(HttpDestination.class::isInstance)
+                    .map(HttpDestination.class::cast)
+                    .map(flowControl::getStrategies)
+                    .filter(sessions -> !sessions.isEmpty())
+                    .forEach(sessions -> processor.process(distribution, sessions));
+            return distribution;
+        });
+    }
+}
@@ -29,6 +29,7 @@ import org.eclipse.jetty.client.HttpClientTransport;
 import org.eclipse.jetty.client.InputStreamResponseListener;
 import org.eclipse.jetty.client.PathRequestContent;
 import org.eclipse.jetty.client.Response;
+import org.eclipse.jetty.client.RoundRobinConnectionPool;
 import org.eclipse.jetty.client.Socks4Proxy;
 import org.eclipse.jetty.client.WWWAuthenticationProtocolHandler;
 import org.eclipse.jetty.client.transport.HttpChannel;
@@ -75,6 +76,7 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Streams.stream;
+import static java.lang.Math.max;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -87,6 +89,7 @@ public class JettyHttpClient
 {
     private static final String STATS_KEY = "airlift_stats";
     private static final long SWEEP_PERIOD_MILLIS = 5000;
+    private static final long HTTP2_TUNE_PERIOD_MILLIS = 1000;
 
     private static final AtomicLong NAME_COUNTER = new AtomicLong();
 
@@ -103,6 +106,11 @@ public class JettyHttpClient
     private final CachedDistribution queuedRequestsPerDestination;
     private final CachedDistribution activeConnectionsPerDestination;
     private final CachedDistribution idleConnectionsPerDestination;
+    private final AdaptiveFlowControlStrategy.Factory http2FlowControl;
+    private final Http2ConnectionTuner http2ConnectionTuner;
+    private final CachedDistribution http2SessionReceiveWindowPerConnection;
+    private final CachedDistribution http2StreamReceiveWindowPerConnection;
+    private final CachedDistribution http2StreamUtilizationPerDestination;
 
     private final CachedDistribution currentQueuedTime;
     private final CachedDistribution currentRequestTime;
@@ -181,14 +189,34 @@ public class JettyHttpClient
         sslContextFactory.setIncludeCipherSuites(includedCipherSuites.toArray(new String[0]));
         sslContextFactory.setExcludeCipherSuites(excludedCipherSuites.toArray(new String[0]));
 
+        int http2SessionReceiveWindow = toIntExact(config.getHttp2InitialSessionReceiveWindowSize().toBytes());
+        int http2StreamReceiveWindow = toIntExact(config.getHttp2InitialStreamReceiveWindowSize().toBytes());
+        boolean http2Adaptive = config.isHttp2Enabled() && config.isHttp2AdaptiveFlowControlEnabled();
+        if (http2Adaptive) {
+            // windows never shrink below the initial size
+            http2FlowControl = new AdaptiveFlowControlStrategy.Factory(
+                    true,
+                    max(http2SessionReceiveWindow, toIntExact(config.getHttp2MaxSessionReceiveWindowSize().toBytes())),
+                    max(http2StreamReceiveWindow, toIntExact(config.getHttp2MaxStreamReceiveWindowSize().toBytes())));
+        }
+        else {
+            http2FlowControl = new AdaptiveFlowControlStrategy.Factory(false, http2SessionReceiveWindow, http2StreamReceiveWindow);
+        }
+
         HttpClientTransport transport;
         if (config.isHttp2Enabled()) {
             HTTP2Client client = new HTTP2Client();
-            client.setInitialSessionRecvWindow(toIntExact(config.getHttp2InitialSessionReceiveWindowSize().toBytes()));
-            client.setInitialStreamRecvWindow(toIntExact(config.getHttp2InitialStreamReceiveWindowSize().toBytes()));
+            client.setInitialSessionRecvWindow(http2SessionReceiveWindow);
+            client.setInitialStreamRecvWindow(http2StreamReceiveWindow);
+            client.setFlowControlStrategyFactory(http2FlowControl);
             client.setInputBufferSize(toIntExact(config.getHttp2InputBufferSize().toBytes()));
             client.setSelectors(config.getSelectorCount());
             transport = new HttpClientTransportOverHTTP2(client);
+            if (http2Adaptive) {
+                // spread streams over all connections, so connections opened for saturated destinations are used
+                int maxConnectionsPerServer = config.getMaxConnectionsPerServer();
+                transport.setConnectionPoolFactory(destination -> new RoundRobinConnectionPool(destination, maxConnectionsPerServer));
+            }
         }
         else {
             transport = new HttpClientTransportOverHTTP(config.getSelectorCount());
@@ -257,6 +285,14 @@ public class JettyHttpClient
         // is observed in the closed state multiple times, it logs, and destroys the connection.
         httpClient.addBean(new Sweeper(httpClient.getScheduler(), SWEEP_PERIOD_MILLIS), true);
 
+        if (http2Adaptive) {
+            http2ConnectionTuner = new Http2ConnectionTuner(httpClient, http2FlowControl, httpClient.getScheduler(), HTTP2_TUNE_PERIOD_MILLIS);
+            httpClient.addBean(http2ConnectionTuner, true);
+        }
+        else {
+            http2ConnectionTuner = null;
+        }
+
         // track connection statistics
         ConnectionStatistics connectionStats = new ConnectionStatistics();
         httpClient.addBean(connectionStats);
@@ -309,6 +345,25 @@ public class JettyHttpClient
         this.queuedRequestsPerDestination = new DestinationDistribution(httpClient,
                 (distribution, destination) -> distribution.add(destination.getHttpExchanges().size()));
 
+        this.http2SessionReceiveWindowPerConnection = new Http2SessionDistribution(httpClient, http2FlowControl,
+                (distribution, sessions) -> sessions.forEach(session -> distribution.add(session.getSessionRecvWindow())));
+
+        this.http2StreamReceiveWindowPerConnection = new Http2SessionDistribution(httpClient, http2FlowControl,
+                (distribution, sessions) -> sessions.forEach(session -> distribution.add(session.getStreamRecvWindow())));
+
+        this.http2StreamUtilizationPerDestination = new Http2SessionDistribution(httpClient, http2FlowControl, (distribution, sessions) -> {
+            long openStreams = 0;
+            long maxStreams = 0;
+            for (AdaptiveFlowControlStrategy session : sessions) {
+                openStreams += session.getOpenStreams();
+                maxStreams += session.getMaxStreams();
+            }
+            if (maxStreams > 0) {
+                // percentage of the streams allowed by the server that are in use
+                distribution.add(openStreams * 100 / maxStreams);
+            }
+        });
+
         this.currentQueuedTime = new RequestDistribution(httpClient, (distribution, listener, now) -> {
             long started = listener.getRequestStarted();
             if (started == 0) {
@@ -695,6 +750,42 @@ public class JettyHttpClient
         return queuedRequestsPerDestination;
     }
 
+    @Managed
+    @Nested
+    public CachedDistribution getHttp2SessionReceiveWindowPerConnection()
+    {
+        return http2SessionReceiveWindowPerConnection;
+    }
+
+    @Managed
+    @Nested
+    public CachedDistribution getHttp2StreamReceiveWindowPerConnection()
+    {
+        return http2StreamReceiveWindowPerConnection;
+    }
+
+    @Managed
+    @Nested
+    public CachedDistribution getHttp2StreamUtilizationPerDestination()
+    {
+        return http2StreamUtilizationPerDestination;
+    }
+
+    @Managed
+    public long getHttp2WindowIncreases()
+    {
+        return http2FlowControl.getWindowIncreases();
+    }
+
+    @Managed
+    public long getHttp2ConnectionsAdded()
+    {
+        if (http2ConnectionTuner == null) {
+            return 0;
+        }
+        return http2ConnectionTuner.getConnectionsAdded();
+    }
+
     @Managed
     @Nested
     public CachedDistribution getCurrentQueuedTime()
@@ -75,6 +75,9 @@ public class TestHttpClientConfig
                 .setHttp2InitialSessionReceiveWindowSize(new DataSize(16, MEGABYTE))
                 .setHttp2InitialStreamReceiveWindowSize(new DataSize(16, MEGABYTE))
                 .setHttp2InputBufferSize(new DataSize(8, KILOBYTE))
+                .setHttp2AdaptiveFlowControlEnabled(false)
+                .setHttp2MaxSessionReceiveWindowSize(new DataSize(128, MEGABYTE))
+                .setHttp2MaxStreamReceiveWindowSize(new DataSize(64, MEGABYTE))
                 .setSelectorCount(2)
                 .setRecordRequestComplete(true)
                 .setConnectBlocking(false)
@@ -123,6 +126,9 @@ public class TestHttpClientConfig
                 .put("http-client.http2.session-receive-window-size", "7MB")
                 .put("http-client.http2.stream-receive-window-size", "7MB")
                 .put("http-client.http2.input-buffer-size", "1MB")
+                .put("http-client.http2.adaptive-flow-control.enabled", "true")
+                .put("http-client.http2.max-session-receive-window-size", "256MB")
+                .put("http-client.http2.max-stream-receive-window-size", "32MB")
                 .put("http-client.selector-count", "16")
                 .put("http-client.record-request-complete", "false")
                 .put("http-client.use-blocking-connect", "true")
@@ -168,6 +174,9 @@ public class TestHttpClientConfig
                 .setHttp2InitialSessionReceiveWindowSize(new DataSize(7, MEGABYTE))
                 .setHttp2InitialStreamReceiveWindowSize(new DataSize(7, MEGABYTE))
                 .setHttp2InputBufferSize(new DataSize(1, MEGABYTE))
+                .setHttp2AdaptiveFlowControlEnabled(true)
+                .setHttp2MaxSessionReceiveWindowSize(new DataSize(256, MEGABYTE))
+                .setHttp2MaxStreamReceiveWindowSize(new DataSize(32, MEGABYTE))
                 .setSelectorCount(16)
                 .setRecordRequestComplete(false)
                 .setConnectBlocking(true)
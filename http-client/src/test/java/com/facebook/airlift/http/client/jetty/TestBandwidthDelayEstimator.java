@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.http.client.jetty;
+
+import org.testng.annotations.Test;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestBandwidthDelayEstimator
+{
+    private static final int INITIAL_WINDOW = 65_535;
+    private static final int MAX_WINDOW = 16 * 1024 * 1024;
+
+    @Test
+    public void testGrowsToMaximumUnderSustainedThroughput()
+    {
+        // 4 GB/s with a 10ms round trip is a 40 MB bandwidth-delay product, more than the maximum
+        int window = transfer(new BandwidthDelayEstimator(0), 4_000_000_000L, MILLISECONDS.toNanos(10), 1000);
+        assertEquals(window, MAX_WINDOW);
+    }
+
+    @Test
+    public void testGrowsToBandwidthDelayProduct()
+    {
+        // 10 MB/s with a 10ms round trip is a 100 KB bandwidth-delay product
+        int window = transfer(new BandwidthDelayEstimator(0), 10_000_000, MILLISECONDS.toNanos(10), 1000);
+        assertTrue(window >= 100_000, "window " + window);
+        assertTrue(window < 2 * 100_000, "window " + window);
+    }
+
+    @Test
+    public void testSlowConsumer()
+    {
+        // the window is exhausted each second, but the data arrives in a millisecond
+        BandwidthDelayEstimator estimator = new BandwidthDelayEstimator(0);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            now += SECONDS.toNanos(1);
+            estimator.recordReceived(INITIAL_WINDOW, now);
+            estimator.recordRoundTrip(MILLISECONDS.toNanos(1));
+            assertEquals(estimator.nextWindow(INITIAL_WINDOW, MAX_WINDOW), INITIAL_WINDOW);
+        }
+    }
+
+    @Test
+    public void testNoRoundTrip()
+    {
+        BandwidthDelayEstimator estimator = new BandwidthDelayEstimator(0);
+        estimator.recordReceived(INITIAL_WINDOW, SECONDS.toNanos(1));
+        assertEquals(estimator.getRoundTripNanos(), 0);
+        assertEquals(estimator.nextWindow(INITIAL_WINDOW, MAX_WINDOW), INITIAL_WINDOW);
+    }
+
+    @Test
+    public void testMinimumRoundTrip()
+    {
+        BandwidthDelayEstimator estimator = new BandwidthDelayEstimator(0);
+        estimator.recordRoundTrip(30);
+        estimator.recordRoundTrip(10);
+        estimator.recordRoundTrip(20);
+        assertEquals(estimator.getRoundTripNanos(), 10);
+    }
+
+    @Test
+    public void testWindowAboveMaximum()
+    {
+        BandwidthDelayEstimator estimator = new BandwidthDelayEstimator(0);
+        estimator.recordReceived(Integer.MAX_VALUE, SECONDS.toNanos(1));
+        estimator.recordRoundTrip(SECONDS.toNanos(1));
+        assertEquals(estimator.nextWindow(MAX_WINDOW, MAX_WINDOW), MAX_WINDOW);
+        assertEquals(estimator.nextWindow(2 * MAX_WINDOW, MAX_WINDOW), 2 * MAX_WINDOW);
+    }
+
+    /**
+     * Simulates a sender that sends a window of data each round trip, up to the capacity of
+     * the link, and grows the window each time the sender exhausts it.
+     */
+    private static int transfer(BandwidthDelayEstimator estimator, long linkBytesPerSecond, long roundTripNanos, int roundTrips)
+    {
+        long linkBytesPerRoundTrip = linkBytesPerSecond * roundTripNanos / SECONDS.toNanos(1);
+        int window = INITIAL_WINDOW;
+        long now = 0;
+        for (int i = 0; i < roundTrips; i++) {
+            int received = toIntExact(min(window, linkBytesPerRoundTrip));
+            now += roundTripNanos;
+            estimator.recordReceived(received, now);
+            estimator.recordRoundTrip(roundTripNanos);
+            if (received == window) {
+                window = estimator.nextWindow(window, MAX_WINDOW);
+                assertTrue(window <= MAX_WINDOW, "window " + window);
+            }
+        }
+        return window;
+    }
+}
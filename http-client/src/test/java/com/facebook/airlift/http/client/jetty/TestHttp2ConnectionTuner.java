@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.http.client.jetty;
+
+import org.testng.annotations.Test;
+
+import static com.facebook.airlift.http.client.jetty.AdaptiveFlowControlStrategy.isSaturated;
+import static com.facebook.airlift.http.client.jetty.Http2ConnectionTuner.shouldAddConnection;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestHttp2ConnectionTuner
+{
+    @Test
+    public void testSaturatedByStreams()
+    {
+        assertTrue(isSaturated(75, 100, 0, 0));
+        assertTrue(isSaturated(100, 100, 0, 0));
+        assertFalse(isSaturated(74, 100, 0, 0));
+
+        // the stream limit of the server is not known yet
+        assertFalse(isSaturated(1000, 0, 0, 0));
+    }
+
+    @Test
+    public void testSaturatedBySessionWindow()
+    {
+        long stall = SECONDS.toNanos(10);
+        assertTrue(isSaturated(1, 100, stall, stall));
+        assertTrue(isSaturated(1, 100, stall, stall + MILLISECONDS.toNanos(999)));
+
+        // the session window has not been exhausted at its maximum recently
+        assertFalse(isSaturated(1, 100, stall, stall + SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void testAddsConnectionWhenAllSessionsSaturated()
+    {
+        assertTrue(shouldAddConnection(0, 0, 1, 4, 1, 1));
+        assertTrue(shouldAddConnection(0, 0, 3, 4, 3, 3));
+
+        // a session that is not saturated can take the new streams
+        assertFalse(shouldAddConnection(0, 0, 3, 4, 3, 2));
+
+        // no sessions in use
+        assertFalse(shouldAddConnection(0, 0, 0, 4, 0, 0));
+    }
+
+    @Test
+    public void testDoesNotAddConnectionBeyondPool()
+    {
+        // an idle connection is available
+        assertFalse(shouldAddConnection(1, 0, 2, 4, 1, 1));
+
+        // a connection is already being opened
+        assertFalse(shouldAddConnection(0, 1, 2, 4, 1, 1));
+
+        // the pool is full
+        assertFalse(shouldAddConnection(0, 0, 4, 4, 4, 4));
+    }
+}
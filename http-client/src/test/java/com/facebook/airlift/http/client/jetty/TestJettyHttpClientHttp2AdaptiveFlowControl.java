@@ -0,0 +1,15 @@
+package com.facebook.airlift.http.client.jetty;
+
+import com.facebook.airlift.http.client.HttpClientConfig;
+
+public class TestJettyHttpClientHttp2AdaptiveFlowControl
+        extends TestJettyHttpClient
+{
+    @Override
+    protected HttpClientConfig createClientConfig()
+    {
+        return super.createClientConfig()
+                .setHttp2Enabled(true)
+                .setHttp2AdaptiveFlowControlEnabled(true);
+    }
+}
@@ -17,6 +17,7 @@ package com.facebook.airlift.http.server;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 import com.google.common.net.HttpHeaders;
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletResponse;
@@ -28,22 +29,37 @@ import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Response;
 import org.eclipse.jetty.util.Callback;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
+import static org.eclipse.jetty.http.HttpHeader.ACCEPT_ENCODING;
+import static org.eclipse.jetty.http.HttpHeader.CONTENT_ENCODING;
+import static org.eclipse.jetty.http.HttpHeader.CONTENT_LENGTH;
 import static org.eclipse.jetty.http.HttpHeader.CONTENT_TYPE;
+import static org.eclipse.jetty.http.HttpHeader.ETAG;
+import static org.eclipse.jetty.http.HttpHeader.IF_NONE_MATCH;
+import static org.eclipse.jetty.http.HttpHeader.VARY;
 import static org.eclipse.jetty.server.Response.toRedirectURI;
 
 /**
  * Serves files from a given folder on the classpath through jetty.
  * Intended to serve a couple of static files e.g. for javascript or HTML.
+ * <p>
+ * When caching is enabled, each resource is read from the classpath once and kept
+ * in memory as a direct buffer together with a precomputed gzip variant and a
+ * strong ETag, and conditional requests are answered with {@code 304 Not Modified}.
  */
 // Forked from https://github.com/NessComputing/components-ness-httpserver/
 public class ClassPathResourceHandler
@@ -51,6 +67,7 @@ public class ClassPathResourceHandler
 {
     private static final MimeTypes MIME_TYPES;
     private static final byte[] EMPTY_BYTE = new byte[0];
+    private static final String GZIP = "gzip";
 
     static {
         MIME_TYPES = new MimeTypes();
@@ -60,6 +77,8 @@ public class ClassPathResourceHandler
     private final String classPathResourceBase;
     private final List<String> welcomeFiles;
     private final Map<String, String> extraHeaders;
+    private final boolean cacheEnabled;
+    private final ConcurrentMap<String, CachedResource> cache = new ConcurrentHashMap<>();
 
     public ClassPathResourceHandler(String baseUri, String classPathResourceBase, String... welcomeFiles)
     {
@@ -67,6 +86,11 @@ public class ClassPathResourceHandler
     }
 
     public ClassPathResourceHandler(String baseUri, String classPathResourceBase, List<String> welcomeFiles, Map<String, String> extraHeaders)
+    {
+        this(baseUri, classPathResourceBase, welcomeFiles, extraHeaders, false);
+    }
+
+    public ClassPathResourceHandler(String baseUri, String classPathResourceBase, List<String> welcomeFiles, Map<String, String> extraHeaders, boolean cacheEnabled)
     {
         requireNonNull(baseUri, "baseUri is null");
         requireNonNull(classPathResourceBase, "classPathResourceBase is null");
@@ -88,6 +112,7 @@ public class ClassPathResourceHandler
         }
         this.welcomeFiles = files.build();
         this.extraHeaders = ImmutableMap.copyOf(extraHeaders);
+        this.cacheEnabled = cacheEnabled;
     }
 
     @Override
@@ -105,23 +130,42 @@ public class ClassPathResourceHandler
             return true;
         }
 
-        URL resource = getResource(resourcePath);
-        if (resource == null) {
-            return false;
+        String method = request.getMethod();
+        boolean skipContent = HttpMethod.HEAD.is(method);
+        if (!HttpMethod.GET.is(method) && !skipContent) {
+            // only check that the resource exists, so other methods never read it into the cache
+            if (getResource(resourcePath) == null) {
+                return false;
+            }
+            callback.failed(new HttpException.IllegalArgumentException(HttpServletResponse.SC_METHOD_NOT_ALLOWED));
+            return true;
         }
 
-        // When a request hits this handler, it will serve something. Either data or an error.
-
-        String method = request.getMethod();
-        boolean skipContent = false;
-        if (!HttpMethod.GET.is(method)) {
-            if (HttpMethod.HEAD.is(method)) {
-                skipContent = true;
+        CachedResource cachedResource = null;
+        URL resource = null;
+        if (cacheEnabled) {
+            try {
+                cachedResource = getCachedResource(resourcePath);
             }
-            else {
-                callback.failed(new HttpException.IllegalArgumentException(HttpServletResponse.SC_METHOD_NOT_ALLOWED));
+            catch (UncheckedIOException e) {
+                // the resource exists but could not be read
+                callback.failed(e.getCause());
                 return true;
             }
+            if (cachedResource == null) {
+                return false;
+            }
+        }
+        else {
+            resource = getResource(resourcePath);
+            if (resource == null) {
+                return false;
+            }
+        }
+
+        if (cachedResource != null) {
+            serveCachedResource(request, response, callback, cachedResource, skipContent);
+            return true;
         }
 
         InputStream resourceStream = null;
@@ -150,6 +194,121 @@ public class ClassPathResourceHandler
         return true;
     }
 
+    private void serveCachedResource(Request request, Response response, Callback callback, CachedResource resource, boolean skipContent)
+    {
+        try {
+            boolean gzip = resource.getGzipContent() != null && request.getHeaders().getQualityCSV(ACCEPT_ENCODING).contains(GZIP);
+            String etag = gzip ? resource.getGzipETag() : resource.getETag();
+
+            response.getHeaders().put(ETAG, etag);
+            if (resource.getGzipContent() != null) {
+                response.getHeaders().put(VARY, ACCEPT_ENCODING.asString());
+            }
+            extraHeaders.forEach((name, value) -> response.getHeaders().add(name, value));
+
+            if (matchesETag(request.getHeaders().getCSV(IF_NONE_MATCH, true), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                callback.succeeded();
+                return;
+            }
+
+            ByteBuffer content = gzip ? resource.getGzipContent() : resource.getContent();
+            if (resource.getContentType() != null) {
+                response.getHeaders().put(CONTENT_TYPE, resource.getContentType());
+            }
+            response.getHeaders().put(CONTENT_LENGTH, content.remaining());
+            if (gzip) {
+                response.getHeaders().put(CONTENT_ENCODING, GZIP);
+            }
+            if (skipContent) {
+                callback.succeeded();
+                return;
+            }
+
+            // the cached buffers are shared, so each response writes its own view of the content
+            response.write(true, content.duplicate(), callback);
+        }
+        catch (Exception e) {
+            callback.failed(e);
+        }
+    }
+
+    private static boolean matchesETag(List<String> ifNoneMatch, String etag)
+    {
+        for (String value : ifNoneMatch) {
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+            // If-None-Match uses weak comparison
+            if (value.startsWith("W/") && value.substring(2).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private CachedResource getCachedResource(String resourcePath)
+    {
+        CachedResource resource = cache.get(resourcePath);
+        if (resource != null) {
+            return resource;
+        }
+
+        // missing resources are not cached, so the cache is bounded by the contents of the resource base
+        URL url = getResource(resourcePath);
+        if (url == null) {
+            return null;
+        }
+        return cache.computeIfAbsent(resourcePath, ignored -> loadResource(url));
+    }
+
+    private static CachedResource loadResource(URL resource)
+    {
+        byte[] content;
+        try (InputStream in = resource.openStream()) {
+            content = in.readAllBytes();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String hash = Hashing.sha256().hashBytes(content).toString().substring(0, 32);
+
+        byte[] gzipContent = gzip(content);
+        // only keep the compressed variant when it is a meaningful improvement
+        if (gzipContent.length >= content.length * 0.9) {
+            gzipContent = null;
+        }
+
+        return new CachedResource(
+                MIME_TYPES.getMimeByExtension(resource.toString()),
+                toDirectBuffer(content),
+                '"' + hash + '"',
+                gzipContent == null ? null : toDirectBuffer(gzipContent),
+                '"' + hash + "-gzip\"");
+    }
+
+    private static byte[] gzip(byte[] content)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] bytes)
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
     @Nullable
     private String getResourcePath(Request request)
     {
@@ -201,4 +360,49 @@ public class ClassPathResourceHandler
             }
         }
     }
+
+    private static class CachedResource
+    {
+        private final String contentType;
+        private final ByteBuffer content;
+        private final String etag;
+        private final ByteBuffer gzipContent;
+        private final String gzipETag;
+
+        public CachedResource(@Nullable String contentType, ByteBuffer content, String etag, @Nullable ByteBuffer gzipContent, String gzipETag)
+        {
+            this.contentType = contentType;
+            this.content = requireNonNull(content, "content is null");
+            this.etag = requireNonNull(etag, "etag is null");
+            this.gzipContent = gzipContent;
+            this.gzipETag = requireNonNull(gzipETag, "gzipETag is null");
+        }
+
+        @Nullable
+        public String getContentType()
+        {
+            return contentType;
+        }
+
+        public ByteBuffer getContent()
+        {
+            return content;
+        }
+
+        public String getETag()
+        {
+            return etag;
+        }
+
+        @Nullable
+        public ByteBuffer getGzipContent()
+        {
+            return gzipContent;
+        }
+
+        public String getGzipETag()
+        {
+            return gzipETag;
+        }
+    }
 }
@@ -56,8 +56,17 @@ public class HttpLogLayout
                 .append(event.getFirstToLastContentTimeInMillis())
                 .append('\t')
                 .append(contentInterarrivalStats)
+                .append('\t')
+                .append(toStringOrEmpty(event.getCpuTimeNanos()))
+                .append('\t')
+                .append(toStringOrEmpty(event.getAllocatedBytes()))
                 .append('\n');
 
         return builder.toString();
     }
+
+    private static String toStringOrEmpty(Long value)
+    {
+        return (value == null) ? "" : value.toString();
+    }
 }
@@ -79,6 +79,18 @@ public class HttpRequestEvent
 
         long timeToLastByte = max(currentTimeInMillis - Request.getTimeStamp(request), 0);
 
+        Long cpuTimeNanos = null;
+        Object cpuTime = request.getAttribute(TimingFilter.CPU_TIME_NANOS);
+        if (cpuTime instanceof Long) {
+            cpuTimeNanos = (Long) cpuTime;
+        }
+
+        Long allocatedBytes = null;
+        Object allocated = request.getAttribute(TimingFilter.ALLOCATED_BYTES);
+        if (allocated instanceof Long) {
+            allocatedBytes = (Long) allocated;
+        }
+
         ImmutableList.Builder<String> builder = ImmutableList.builder();
         if (getRemoteAddr(request) != null) {
             builder.add(getRemoteAddr(request));
@@ -146,7 +158,9 @@ public class HttpRequestEvent
                 afterHandleMillis,
                 firstToLastContentTimeInMillis,
                 responseContentInterarrivalStats,
-                request.getConnectionMetaData().getHttpVersion());
+                request.getConnectionMetaData().getHttpVersion(),
+                cpuTimeNanos,
+                allocatedBytes);
     }
 
     private final Instant timeStamp;
@@ -171,6 +185,8 @@ public class HttpRequestEvent
     private final long firstToLastContentTimeInMillis;
     private final DoubleSummaryStats responseContentInterarrivalStats;
     private final String protocolVersion;
+    private final Long cpuTimeNanos;
+    private final Long allocatedBytes;
 
     public HttpRequestEvent(
             Instant timeStamp,
@@ -195,6 +211,59 @@ public class HttpRequestEvent
             long firstToLastContentTimeInMillis,
             DoubleSummaryStats responseContentInterarrivalStats,
             HttpVersion protocolVersion)
+    {
+        this(
+                timeStamp,
+                traceToken,
+                clientAddress,
+                protocol,
+                method,
+                requestUri,
+                user,
+                agent,
+                referrer,
+                requestSize,
+                requestContentType,
+                responseSize,
+                responseCode,
+                responseContentType,
+                timeToDispatch,
+                timeToFirstByte,
+                timeToLastByte,
+                beginToDispatchMillis,
+                afterDispatchMillis,
+                firstToLastContentTimeInMillis,
+                responseContentInterarrivalStats,
+                protocolVersion,
+                null,
+                null);
+    }
+
+    public HttpRequestEvent(
+            Instant timeStamp,
+            String traceToken,
+            String clientAddress,
+            String protocol,
+            String method,
+            String requestUri,
+            String user,
+            String agent,
+            String referrer,
+            long requestSize,
+            String requestContentType,
+            long responseSize,
+            int responseCode,
+            String responseContentType,
+            long timeToDispatch,
+            Long timeToFirstByte,
+            long timeToLastByte,
+            long beginToDispatchMillis,
+            long afterDispatchMillis,
+            long firstToLastContentTimeInMillis,
+            DoubleSummaryStats responseContentInterarrivalStats,
+            HttpVersion protocolVersion,
+            Long cpuTimeNanos,
+            Long allocatedBytes)
     {
         this.timeStamp = timeStamp;
         this.traceToken = traceToken;
@@ -218,6 +287,8 @@ public class HttpRequestEvent
         this.firstToLastContentTimeInMillis = firstToLastContentTimeInMillis;
         this.responseContentInterarrivalStats = responseContentInterarrivalStats;
         this.protocolVersion = protocolVersion.toString();
+        this.cpuTimeNanos = cpuTimeNanos;
+        this.allocatedBytes = allocatedBytes;
     }
 
     @EventField(fieldMapping = TIMESTAMP)
@@ -351,4 +422,16 @@ public class HttpRequestEvent
     {
         return protocolVersion;
     }
+
+    @EventField
+    public Long getCpuTimeNanos()
+    {
+        return cpuTimeNanos;
+    }
+
+    @EventField
+    public Long getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
 }
@@ -380,12 +380,19 @@ public class HttpServer
          */
         Handler.Sequence handlers = new Handler.Sequence();
         for (HttpResourceBinding resource : resources) {
-            GzipHandler gzipHandler = new GzipHandler(new ClassPathResourceHandler(
+            ClassPathResourceHandler resourceHandler = new ClassPathResourceHandler(
                     resource.getBaseUri(),
                     resource.getClassPathResourceBase(),
                     resource.getWelcomeFiles(),
-                    resource.getExtraHeaders()));
-            handlers.addHandler(gzipHandler);
+                    resource.getExtraHeaders(),
+                    resource.isCacheEnabled());
+            // cached resources carry their own precompressed variants
+            if (resource.isCacheEnabled()) {
+                handlers.addHandler(resourceHandler);
+            }
+            else {
+                handlers.addHandler(new GzipHandler(resourceHandler));
+            }
         }
 
         handlers.addHandler(createServletContext(config, defaultServlet, servlets, parameters, filters, tokenManager, loginService, authorizer, "http", "https"));
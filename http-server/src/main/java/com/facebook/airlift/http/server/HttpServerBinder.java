@@ -47,6 +47,7 @@ public class HttpServerBinder
         private final String classPathResourceBase;
         private final List<String> welcomeFiles = new ArrayList<>();
         private final Map<String, String> extraHeaders = new HashMap<>();
+        private boolean cacheEnabled;
 
         public HttpResourceBinding(String baseUri, String classPathResourceBase)
         {
@@ -85,5 +86,20 @@ public class HttpServerBinder
             extraHeaders.put(name, value);
             return this;
         }
+
+        public boolean isCacheEnabled()
+        {
+            return cacheEnabled;
+        }
+
+        /**
+         * Keep the resources in memory with precomputed gzip variants and ETags,
+         * instead of reading them from the classpath on every request.
+         */
+        public HttpResourceBinding withCaching()
+        {
+            cacheEnabled = true;
+            return this;
+        }
     }
 }
@@ -99,6 +99,7 @@ public class HttpServerConfig
     private String logPath = "var/log/http-request.log";
     private boolean logEnabled = true;
     private boolean requestStatsEnabled = true;
+    private int requestStatsMaxRoutes = 100;
     private int logHistory = 15;
     private int logQueueSize = 10_000;
     private DataSize logMaxFileSize = new DataSize(100, MEGABYTE);
@@ -380,6 +381,20 @@ public class HttpServerConfig
         return this;
     }
 
+    @Min(0)
+    public int getRequestStatsMaxRoutes()
+    {
+        return requestStatsMaxRoutes;
+    }
+
+    @Config("http-server.request-stats.max-routes")
+    @ConfigDescription("Maximum number of routes with individual request stats; additional routes are recorded as 'other'")
+    public HttpServerConfig setRequestStatsMaxRoutes(int requestStatsMaxRoutes)
+    {
+        this.requestStatsMaxRoutes = requestStatsMaxRoutes;
+        return this;
+    }
+
     public DataSize getLogMaxFileSize()
     {
         return logMaxFileSize;
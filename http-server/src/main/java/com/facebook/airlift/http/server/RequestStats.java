@@ -17,6 +17,7 @@ package com.facebook.airlift.http.server;
 
 import com.facebook.airlift.stats.CounterStat;
 import com.facebook.airlift.stats.DistributionStat;
+import com.facebook.airlift.stats.TimeDistribution;
 import com.facebook.airlift.stats.TimeStat;
 import com.facebook.airlift.units.Duration;
 import jakarta.inject.Inject;
@@ -24,20 +25,61 @@ import org.weakref.jmx.Flatten;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 public class RequestStats
 {
+    /**
+     * Request attribute holding the route (e.g. {@code GET /v1/service/{type}}) that
+     * handled the request. Set by the resource framework after request matching.
+     */
+    public static final String ROUTE_ATTRIBUTE = RequestStats.class.getName() + ".ROUTE";
+
+    public static final String OTHER_ROUTE = "other";
+
+    private static final int DEFAULT_MAX_ROUTES = 100;
+
     private final CounterStat request;
     private final TimeStat requestTime;
     private final DistributionStat readBytes;
     private final DistributionStat writtenBytes;
+    private final TimeStat cpuTime;
+    private final DistributionStat allocatedBytes;
+
+    private final int maxRoutes;
+    private final ConcurrentMap<String, RouteStats> routeStats = new ConcurrentHashMap<>();
+    private final RouteStats otherRouteStats = new RouteStats();
 
-    @Inject
     public RequestStats()
     {
+        this(DEFAULT_MAX_ROUTES);
+    }
+
+    @Inject
+    public RequestStats(HttpServerConfig config)
+    {
+        this(config.getRequestStatsMaxRoutes());
+    }
+
+    public RequestStats(int maxRoutes)
+    {
+        checkArgument(maxRoutes >= 0, "maxRoutes is negative");
+        this.maxRoutes = maxRoutes;
         request = new CounterStat();
         requestTime = new TimeStat();
         readBytes = new DistributionStat();
         writtenBytes = new DistributionStat();
+        cpuTime = new TimeStat(MILLISECONDS);
+        allocatedBytes = new DistributionStat();
     }
 
     public void record(long requestSizeInBytes, long responseSizeInBytes, Duration requestProcessingTime)
@@ -48,6 +90,63 @@ public class RequestStats
         writtenBytes.add(responseSizeInBytes);
     }
 
+    public void record(String route, int status, long requestSizeInBytes, long responseSizeInBytes, Duration requestProcessingTime)
+    {
+        record(requestSizeInBytes, responseSizeInBytes, requestProcessingTime);
+        if (maxRoutes > 0) {
+            getRouteStats(route).record(status, requestSizeInBytes, responseSizeInBytes, requestProcessingTime);
+        }
+    }
+
+    /**
+     * Records the CPU time used by the thread handling a request.
+     */
+    public void recordCpuTime(String route, long cpuTimeNanos)
+    {
+        cpuTime.add(cpuTimeNanos, NANOSECONDS);
+        if (maxRoutes > 0) {
+            getRouteStats(route).recordCpuTime(cpuTimeNanos);
+        }
+    }
+
+    /**
+     * Records the bytes allocated by the thread handling a request.
+     */
+    public void recordAllocatedBytes(String route, long allocatedBytes)
+    {
+        this.allocatedBytes.add(allocatedBytes);
+        if (maxRoutes > 0) {
+            getRouteStats(route).recordAllocatedBytes(allocatedBytes);
+        }
+    }
+
+    /**
+     * Returns the stats for the specified route. Once {@code maxRoutes} distinct routes
+     * have been seen, unknown routes are folded into the {@value #OTHER_ROUTE} bucket.
+     */
+    public RouteStats getRouteStats(String route)
+    {
+        if (route == null) {
+            return otherRouteStats;
+        }
+
+        RouteStats stats = routeStats.get(route);
+        if (stats != null) {
+            return stats;
+        }
+        // once the table is full, unknown routes do not contend on the lock
+        if (routeStats.size() >= maxRoutes) {
+            return otherRouteStats;
+        }
+
+        synchronized (routeStats) {
+            if (routeStats.size() >= maxRoutes && !routeStats.containsKey(route)) {
+                return otherRouteStats;
+            }
+            return routeStats.computeIfAbsent(route, ignored -> new RouteStats());
+        }
+    }
+
     @Managed
     @Flatten
     public CounterStat getRequest()
@@ -75,4 +174,94 @@ public class RequestStats
     {
         return writtenBytes;
     }
+
+    @Managed
+    @Nested
+    public TimeStat getCpuTime()
+    {
+        return cpuTime;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+
+    @Managed
+    @Nested
+    public RouteStats getOtherRouteStats()
+    {
+        return otherRouteStats;
+    }
+
+    @Managed(description = "Number of requests per route")
+    public Map<String, Long> getRouteRequestCounts()
+    {
+        return routeValues(RouteStats::getRequestCount);
+    }
+
+    @Managed(description = "Number of requests per route that completed with a 4xx status")
+    public Map<String, Long> getRouteClientErrorCounts()
+    {
+        return routeValues(RouteStats::getStatus4xx);
+    }
+
+    @Managed(description = "Number of requests per route that completed with a 5xx status")
+    public Map<String, Long> getRouteServerErrorCounts()
+    {
+        return routeValues(RouteStats::getStatus5xx);
+    }
+
+    @Managed(description = "Bytes written per route")
+    public Map<String, Long> getRouteWrittenBytes()
+    {
+        return routeValues(RouteStats::getWrittenBytes);
+    }
+
+    @Managed(description = "Median request time per route over the last five minutes (ms)")
+    public Map<String, Double> getRouteRequestTimeP50()
+    {
+        return routeTimes(TimeDistribution::getP50);
+    }
+
+    @Managed(description = "99th percentile request time per route over the last five minutes (ms)")
+    public Map<String, Double> getRouteRequestTimeP99()
+    {
+        return routeTimes(TimeDistribution::getP99);
+    }
+
+    @Managed(description = "Average CPU time of the request thread per route over the last five minutes (ms)")
+    public Map<String, Double> getRouteCpuTimeAverage()
+    {
+        return routeDoubleValues(stats -> stats.getCpuTime().getFiveMinutes().getAvg());
+    }
+
+    @Managed(description = "Average bytes allocated by the request thread per route over the last five minutes")
+    public Map<String, Double> getRouteAllocatedBytesAverage()
+    {
+        return routeDoubleValues(stats -> stats.getAllocatedBytes().getFiveMinutes().getAvg());
+    }
+
+    private Map<String, Long> routeValues(ToLongFunction<RouteStats> function)
+    {
+        Map<String, Long> values = new TreeMap<>();
+        routeStats.forEach((route, stats) -> values.put(route, function.applyAsLong(stats)));
+        values.put(OTHER_ROUTE, function.applyAsLong(otherRouteStats));
+        return values;
+    }
+
+    private Map<String, Double> routeTimes(ToDoubleFunction<TimeDistribution> function)
+    {
+        return routeDoubleValues(stats -> function.applyAsDouble(stats.getRequestTime().getFiveMinutes()));
+    }
+
+    private Map<String, Double> routeDoubleValues(ToDoubleFunction<RouteStats> function)
+    {
+        Map<String, Double> values = new TreeMap<>();
+        routeStats.forEach((route, stats) -> values.put(route, function.applyAsDouble(stats)));
+        values.put(OTHER_ROUTE, function.applyAsDouble(otherRouteStats));
+        return values;
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.http.server;
+
+import com.facebook.airlift.stats.DistributionStat;
+import com.facebook.airlift.stats.TimeStat;
+import com.facebook.airlift.units.Duration;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Request statistics for a single route (the matched resource template).
+ * Counters are striped so that concurrent requests for the same route do
+ * not contend on a shared cache line.
+ */
+public class RouteStats
+{
+    private final TimeStat requestTime = new TimeStat(MILLISECONDS);
+    private final LongAdder readBytes = new LongAdder();
+    private final LongAdder writtenBytes = new LongAdder();
+    private final LongAdder[] statusClassCounts = new LongAdder[5];
+    private final TimeStat cpuTime = new TimeStat(MILLISECONDS);
+    private final DistributionStat allocatedBytes = new DistributionStat();
+
+    public RouteStats()
+    {
+        for (int i = 0; i < statusClassCounts.length; i++) {
+            statusClassCounts[i] = new LongAdder();
+        }
+    }
+
+    public void record(int status, long requestSizeInBytes, long responseSizeInBytes, Duration requestProcessingTime)
+    {
+        requestTime.add(requestProcessingTime);
+        readBytes.add(requestSizeInBytes);
+        writtenBytes.add(responseSizeInBytes);
+        statusClassCounts[statusClassIndex(status)].increment();
+    }
+
+    public void recordCpuTime(long cpuTimeNanos)
+    {
+        cpuTime.add(cpuTimeNanos, NANOSECONDS);
+    }
+
+    public void recordAllocatedBytes(long allocatedBytes)
+    {
+        this.allocatedBytes.add(allocatedBytes);
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getRequestTime()
+    {
+        return requestTime;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getCpuTime()
+    {
+        return cpuTime;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+
+    @Managed
+    public long getRequestCount()
+    {
+        long count = 0;
+        for (LongAdder statusClassCount : statusClassCounts) {
+            count += statusClassCount.sum();
+        }
+        return count;
+    }
+
+    @Managed
+    public long getReadBytes()
+    {
+        return readBytes.sum();
+    }
+
+    @Managed
+    public long getWrittenBytes()
+    {
+        return writtenBytes.sum();
+    }
+
+    @Managed
+    public long getStatus1xx()
+    {
+        return statusClassCounts[0].sum();
+    }
+
+    @Managed
+    public long getStatus2xx()
+    {
+        return statusClassCounts[1].sum();
+    }
+
+    @Managed
+    public long getStatus3xx()
+    {
+        return statusClassCounts[2].sum();
+    }
+
+    @Managed
+    public long getStatus4xx()
+    {
+        return statusClassCounts[3].sum();
+    }
+
+    @Managed
+    public long getStatus5xx()
+    {
+        return statusClassCounts[4].sum();
+    }
+
+    private static int statusClassIndex(int status)
+    {
+        // anything outside the standard ranges is treated as a server error
+        if (status < 100 || status >= 600) {
+            return 4;
+        }
+        return (status / 100) - 1;
+    }
+}
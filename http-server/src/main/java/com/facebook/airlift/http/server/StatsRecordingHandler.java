@@ -40,6 +40,22 @@ public class StatsRecordingHandler
     public void log(Request request, Response response)
     {
         Duration requestTime = new Duration(max(0, System.currentTimeMillis() - getTimeStamp(request)), MILLISECONDS);
-        stats.record(getContentBytesRead(request), getContentBytesWritten(response), requestTime);
+        Object route = request.getAttribute(RequestStats.ROUTE_ATTRIBUTE);
+        String routeName = route instanceof String ? (String) route : null;
+        stats.record(
+                routeName,
+                response.getStatus(),
+                getContentBytesRead(request),
+                getContentBytesWritten(response),
+                requestTime);
+
+        Object cpuTime = request.getAttribute(TimingFilter.CPU_TIME_NANOS);
+        Object allocatedBytes = request.getAttribute(TimingFilter.ALLOCATED_BYTES);
+        if (cpuTime instanceof Long) {
+            stats.recordCpuTime(routeName, (Long) cpuTime);
+        }
+        if (allocatedBytes instanceof Long) {
+            stats.recordAllocatedBytes(routeName, (Long) allocatedBytes);
+        }
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.facebook.airlift.http.server;
 
+import com.facebook.airlift.stats.ThreadResourceUsage;
 import com.google.common.base.Preconditions;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
@@ -35,6 +36,8 @@ class TimingFilter
         implements Filter
 {
     public static final String FIRST_BYTE_TIME = TimingFilter.class.getName() + ".FIRST_BYTE_TIME";
+    public static final String CPU_TIME_NANOS = TimingFilter.class.getName() + ".CPU_TIME_NANOS";
+    public static final String ALLOCATED_BYTES = TimingFilter.class.getName() + ".ALLOCATED_BYTES";
 
     @Override
     public void init(FilterConfig filterConfig)
@@ -46,6 +49,7 @@ class TimingFilter
             throws IOException, ServletException
     {
         TimedResponse response = new TimedResponse((HttpServletResponse) servletResponse);
+        ThreadResourceUsage resourceUsage = ThreadResourceUsage.start();
         try {
             chain.doFilter(servletRequest, response);
         }
@@ -54,6 +58,13 @@ class TimingFilter
             if (firstByteTime != null) {
                 servletRequest.setAttribute(FIRST_BYTE_TIME, firstByteTime);
             }
+            // only the request thread is measured, not the threads completing an async response
+            if (ThreadResourceUsage.isCpuTimeSupported()) {
+                servletRequest.setAttribute(CPU_TIME_NANOS, resourceUsage.getCpuTimeNanos());
+            }
+            if (ThreadResourceUsage.isAllocatedBytesSupported()) {
+                servletRequest.setAttribute(ALLOCATED_BYTES, resourceUsage.getAllocatedBytes());
+            }
         }
     }
 
@@ -48,6 +48,7 @@ import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestDelimitedRequestLog
@@ -144,6 +145,8 @@ public class TestDelimitedRequestLog
         long beginToDispatchMillis = 333;
         long firstToLastContentTimeInMillis = 444;
         long afterHandleMillis = 555;
+        long cpuTimeNanos = 666;
+        long allocatedBytes = 777;
         DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
         stats.accept(1);
         stats.accept(3);
@@ -167,6 +170,8 @@ public class TestDelimitedRequestLog
         when(request.getConnectionMetaData()).thenReturn(connectionMetaData);
         when(request.getHttpURI()).thenReturn(uri);
         when(request.getAttribute(TimingFilter.FIRST_BYTE_TIME)).thenReturn(timestamp + timeToFirstByte);
+        when(request.getAttribute(TimingFilter.CPU_TIME_NANOS)).thenReturn(cpuTimeNanos);
+        when(request.getAttribute(TimingFilter.ALLOCATED_BYTES)).thenReturn(allocatedBytes);
         when(request.getMethod()).thenReturn(method);
         when(response.getStatus()).thenReturn(responseCode);
         try (MockedStatic<Request> requestMock = mockStatic(Request.class)) {
@@ -205,9 +210,11 @@ public class TestDelimitedRequestLog
         assertEquals(event.getBeginToDispatchMillis(), beginToDispatchMillis);
         assertEquals(event.getFirstToLastContentTimeInMillis(), firstToLastContentTimeInMillis);
         assertEquals(event.getResponseContentInterarrivalStats(), responseContentInterarrivalStats);
+        assertEquals(event.getCpuTimeNanos(), (Long) cpuTimeNanos);
+        assertEquals(event.getAllocatedBytes(), (Long) allocatedBytes);
 
         String actual = asCharSource(file, UTF_8).read();
-        String expected = String.format("%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\n",
+        String expected = String.format("%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\n",
                 ISO_FORMATTER.format(Instant.ofEpochMilli(timestamp)),
                 ip,
                 method,
@@ -223,7 +230,9 @@ public class TestDelimitedRequestLog
                 beginToDispatchMillis,
                 afterHandleMillis,
                 firstToLastContentTimeInMillis,
-                format("%.2f, %.2f, %.2f, %d", stats.getMin(), stats.getAverage(), stats.getMax(), stats.getCount()));
+                format("%.2f, %.2f, %.2f, %d", stats.getMin(), stats.getAverage(), stats.getMax(), stats.getCount()),
+                cpuTimeNanos,
+                allocatedBytes);
         assertEquals(actual, expected);
     }
 
@@ -269,6 +278,26 @@ public class TestDelimitedRequestLog
         assertNull(event.getTimeToFirstByte());
     }
 
+    @Test
+    public void testNoResourceUsage()
+            throws Exception
+    {
+        Request request = setupMockRequest();
+
+        InMemoryEventClient eventClient = new InMemoryEventClient();
+        DelimitedRequestLog logger = new DelimitedRequestLog(file.getAbsolutePath(), 1, 256, Long.MAX_VALUE, null, eventClient, false);
+        logger.log(request, 200, 0, HttpFields.EMPTY, 0, 0, 0, new DoubleSummaryStats(new DoubleSummaryStatistics()));
+        logger.stop();
+
+        List<Object> events = eventClient.getEvents();
+        assertEquals(events.size(), 1);
+        HttpRequestEvent event = (HttpRequestEvent) events.get(0);
+
+        assertNull(event.getCpuTimeNanos());
+        assertNull(event.getAllocatedBytes());
+        assertTrue(asCharSource(file, UTF_8).read().endsWith("\t\t\n"));
+    }
+
     private Request setupMockRequest()
     {
         Request request = mock(Request.class);
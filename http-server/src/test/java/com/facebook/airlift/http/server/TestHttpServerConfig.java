@@ -57,6 +57,7 @@ public class TestHttpServerConfig
                 .setLogPath("var/log/http-request.log")
                 .setLogEnabled(true)
                 .setRequestStatsEnabled(true)
+                .setRequestStatsMaxRoutes(100)
                 .setLogMaxFileSize(new DataSize(100, MEGABYTE))
                 .setLogHistory(15)
                 .setLogQueueSize(10_000)
@@ -120,6 +121,7 @@ public class TestHttpServerConfig
                 .put("http-server.log.queue-size", "1")
                 .put("http-server.log.compression.enabled", "false")
                 .put("http-server.request-stats.enabled", "false")
+                .put("http-server.request-stats.max-routes", "7")
                 .put("http-server.http.acceptor-threads", "10")
                 .put("http-server.http.selector-threads", "11")
                 .put("http-server.https.acceptor-threads", "12")
@@ -172,6 +174,7 @@ public class TestHttpServerConfig
                 .setLogPath("/log")
                 .setLogEnabled(false)
                 .setRequestStatsEnabled(false)
+                .setRequestStatsMaxRoutes(7)
                 .setLogMaxFileSize(new DataSize(1, GIGABYTE))
                 .setLogHistory(1)
                 .setLogQueueSize(1)
@@ -67,6 +67,8 @@ import static com.facebook.airlift.http.server.HttpServerBinder.httpServerBinder
 import static com.google.common.io.MoreFiles.deleteRecursively;
 import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
 import static com.google.common.net.HttpHeaders.LOCATION;
 import static com.google.common.net.HttpHeaders.REFERER;
 import static com.google.common.net.HttpHeaders.USER_AGENT;
@@ -183,6 +185,7 @@ public class TestHttpServerModule
                             .withExtraHeader("Content-Security-Policy", "frame-ancestors 'self'");
                     httpServerBinder(binder).bindResource("path", "webapp/user").withWelcomeFile("user-welcome.txt");
                     httpServerBinder(binder).bindResource("path", "webapp/user2");
+                    httpServerBinder(binder).bindResource("cached", "webapp/user").withWelcomeFile("user-welcome.txt").withCaching();
                 });
 
         HttpServerInfo httpServerInfo = injector.getInstance(HttpServerInfo.class);
@@ -214,6 +217,21 @@ public class TestHttpServerModule
             assertResource(httpUri, client, "path/user-welcome.txt", "welcome user!");
             assertResource(httpUri, client, "path/user.txt", "user");
             assertResource(httpUri, client, "path/user2.txt", "user2");
+            assertRedirect(httpUri, client, "cached", "/cached/");
+            assertResource(httpUri, client, "cached/", "welcome user!");
+            assertResource(httpUri, client, "cached/user.txt", "user");
+
+            // cached resources support conditional requests
+            URI cachedUri = uriBuilderFrom(httpUri).appendPath("cached/user.txt").build();
+            StringResponse cachedResponse = client.execute(prepareGet().setUri(cachedUri).build(), createStringResponseHandler());
+            String etag = cachedResponse.getHeader(ETAG);
+            assertNotNull(etag, ETAG + " header is absent");
+            StatusResponse notModified = client.execute(prepareGet().setUri(cachedUri).setHeader(IF_NONE_MATCH, etag).build(), createStatusResponseHandler());
+            assertEquals(notModified.getStatusCode(), HttpStatus.NOT_MODIFIED.code());
+            StatusResponse weakNotModified = client.execute(prepareGet().setUri(cachedUri).setHeader(IF_NONE_MATCH, "\"other\", W/" + etag).build(), createStatusResponseHandler());
+            assertEquals(weakNotModified.getStatusCode(), HttpStatus.NOT_MODIFIED.code());
+            StatusResponse modified = client.execute(prepareGet().setUri(cachedUri).setHeader(IF_NONE_MATCH, "\"unknown\"").build(), createStatusResponseHandler());
+            assertEquals(modified.getStatusCode(), HttpStatus.OK.code());
         }
         finally {
             server.stop();
@@ -345,6 +363,8 @@ public class TestHttpServerModule
         assertNotNull(event.getTimeToFirstByte());
         assertTrue(event.getTimeToDispatch() <= event.getTimeToFirstByte());
         assertTrue(event.getTimeToFirstByte() <= event.getTimeToLastByte());
+        assertNotNull(event.getCpuTimeNanos());
+        assertNotNull(event.getAllocatedBytes());
     }
 
     private static final class EchoServlet
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.http.server;
+
+import com.facebook.airlift.units.Duration;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import static com.facebook.airlift.http.server.RequestStats.OTHER_ROUTE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class TestRequestStats
+{
+    private static final Duration REQUEST_TIME = new Duration(5, MILLISECONDS);
+
+    @Test
+    public void testRouteStats()
+    {
+        RequestStats stats = new RequestStats(10);
+        stats.record("GET /v1/foo", 200, 10, 20, REQUEST_TIME);
+        stats.record("GET /v1/foo", 404, 10, 20, REQUEST_TIME);
+        stats.record("PUT /v1/bar", 503, 30, 40, REQUEST_TIME);
+
+        RouteStats foo = stats.getRouteStats("GET /v1/foo");
+        assertEquals(foo.getRequestCount(), 2);
+        assertEquals(foo.getStatus2xx(), 1);
+        assertEquals(foo.getStatus4xx(), 1);
+        assertEquals(foo.getReadBytes(), 20);
+        assertEquals(foo.getWrittenBytes(), 40);
+
+        RouteStats bar = stats.getRouteStats("PUT /v1/bar");
+        assertEquals(bar.getRequestCount(), 1);
+        assertEquals(bar.getStatus5xx(), 1);
+
+        assertEquals(stats.getRequest().getTotalCount(), 3);
+        assertEquals(stats.getRouteRequestCounts(), ImmutableMap.of("GET /v1/foo", 2L, "PUT /v1/bar", 1L, OTHER_ROUTE, 0L));
+    }
+
+    @Test
+    public void testResourceUsage()
+    {
+        RequestStats stats = new RequestStats(10);
+        stats.recordCpuTime("GET /v1/foo", MILLISECONDS.toNanos(2));
+        stats.recordCpuTime("GET /v1/foo", MILLISECONDS.toNanos(4));
+        stats.recordCpuTime(null, MILLISECONDS.toNanos(1));
+        stats.recordAllocatedBytes("GET /v1/foo", 1000);
+        stats.recordAllocatedBytes("GET /v1/foo", 3000);
+        stats.recordAllocatedBytes(null, 10);
+
+        RouteStats foo = stats.getRouteStats("GET /v1/foo");
+        assertEquals(foo.getCpuTime().getAllTime().getCount(), 2.0);
+        assertEquals(foo.getAllocatedBytes().getAllTime().getTotal(), 4000.0);
+        assertEquals(stats.getAllocatedBytes().getAllTime().getTotal(), 4010.0);
+        assertEquals(stats.getRouteAllocatedBytesAverage(), ImmutableMap.of("GET /v1/foo", 2000.0, OTHER_ROUTE, 10.0));
+        assertEquals(stats.getRouteCpuTimeAverage().get("GET /v1/foo"), 3.0, 0.001);
+    }
+
+    @Test
+    public void testUnknownRoute()
+    {
+        RequestStats stats = new RequestStats(10);
+        stats.record(null, 200, 0, 0, REQUEST_TIME);
+        assertEquals(stats.getOtherRouteStats().getRequestCount(), 1);
+    }
+
+    @Test
+    public void testRouteCardinalityLimit()
+    {
+        RequestStats stats = new RequestStats(2);
+        stats.record("GET /a", 200, 0, 0, REQUEST_TIME);
+        stats.record("GET /b", 200, 0, 0, REQUEST_TIME);
+        stats.record("GET /c", 200, 0, 0, REQUEST_TIME);
+        stats.record("GET /d", 500, 0, 0, REQUEST_TIME);
+        stats.record("GET /a", 200, 0, 0, REQUEST_TIME);
+
+        assertSame(stats.getRouteStats("GET /c"), stats.getOtherRouteStats());
+        assertEquals(stats.getRouteRequestCounts(), ImmutableMap.of("GET /a", 2L, "GET /b", 1L, OTHER_ROUTE, 2L));
+        assertEquals(stats.getRouteServerErrorCounts(), ImmutableMap.of("GET /a", 0L, "GET /b", 0L, OTHER_ROUTE, 1L));
+    }
+
+    @Test
+    public void testRouteStatsDisabled()
+    {
+        RequestStats stats = new RequestStats(0);
+        stats.record("GET /a", 200, 0, 0, REQUEST_TIME);
+        assertEquals(stats.getRequest().getTotalCount(), 1);
+        assertEquals(stats.getRouteRequestCounts(), ImmutableMap.of(OTHER_ROUTE, 0L));
+    }
+}
@@ -13,7 +13,10 @@
  */
 package com.facebook.airlift.jaxrs;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.google.common.collect.ImmutableSet;
+import jakarta.annotation.Nullable;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.MessageBodyReader;
@@ -23,7 +26,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.stream.Stream;
 
 // This code is based on JacksonJsonProvider
 public abstract class BaseMapper
@@ -79,4 +84,46 @@ public abstract class BaseMapper
         // worth it to write everything twice.
         return -1;
     }
+
+    /**
+     * Returns the type to serialize values of the specified generic type as, or null
+     * if the runtime type of the value should be used. {@link Stream} types are mapped
+     * to the equivalent {@link Iterator} type, as streams are written through their iterator.
+     */
+    @Nullable
+    protected static JavaType getRootType(TypeFactory typeFactory, @Nullable Type genericType)
+    {
+        // 04-Mar-2010, tatu: How about type we were given? (if any)
+        if (genericType == null) {
+            return null;
+        }
+
+        // 10-Jan-2011, tatu: as per [JACKSON-456], it's not safe to just force root
+        //    type since it prevents polymorphic type serialization. Since we really
+        //    just need this for generics, let's only use generic type if it's truly
+        //    generic.
+        if (genericType.getClass() == Class.class) { // generic types are other implementations of 'java.lang.reflect.Type'
+            return null;
+        }
+
+        // This is still not exactly right; should root type be further
+        // specialized with 'value.getClass()'? Let's see how well this works before
+        // trying to come up with more complete solution.
+        JavaType rootType = typeFactory.constructType(genericType);
+
+        // 26-Feb-2011, tatu: To help with [JACKSON-518], we better recognize cases where
+        //    type degenerates back into "Object.class" (as is the case with plain TypeVariable,
+        //    for example), and not use that.
+        //
+        if (rootType.getRawClass() == Object.class) {
+            return null;
+        }
+
+        if (rootType.isTypeOrSubTypeOf(Stream.class)) {
+            JavaType[] elementTypes = typeFactory.findTypeParameters(rootType, Stream.class);
+            JavaType elementType = elementTypes.length == 1 ? elementTypes[0] : TypeFactory.unknownType();
+            return typeFactory.constructParametricType(Iterator.class, elementType);
+        }
+        return rootType;
+    }
 }
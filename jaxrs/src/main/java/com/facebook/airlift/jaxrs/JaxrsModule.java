@@ -38,6 +38,7 @@ import java.util.Set;
 import static com.facebook.airlift.jaxrs.JaxrsBinder.jaxrsBinder;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
+import static org.weakref.jmx.guice.ExportBinder.newExporter;
 
 public class JaxrsModule
         extends AbstractConfigurationAwareModule
@@ -59,10 +60,13 @@ public class JaxrsModule
         binder.bind(Servlet.class).annotatedWith(TheServlet.class).to(Key.get(ServletContainer.class));
         jaxrsBinder(binder).bind(JsonMapper.class);
         jaxrsBinder(binder).bind(SmileMapper.class);
+        newExporter(binder).export(JsonMapper.class).withGeneratedName();
+        newExporter(binder).export(SmileMapper.class).withGeneratedName();
         binder.install(new ThriftCodecModule());
         jaxrsBinder(binder).bind(ThriftMapper.class);
         jaxrsBinder(binder).bind(ParsingExceptionMapper.class);
         jaxrsBinder(binder).bind(OverrideMethodFilter.class);
+        jaxrsBinder(binder).bind(RequestRouteFilter.class);
 
         if (buildConfigObject(HttpServerConfig.class).isAuthorizationEnabled()) {
             jaxrsBinder(binder).bind(AuthorizationFilter.class);
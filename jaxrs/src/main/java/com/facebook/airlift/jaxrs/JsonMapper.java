@@ -17,16 +17,15 @@ package com.facebook.airlift.jaxrs;
 
 import com.facebook.airlift.log.Logger;
 import com.fasterxml.jackson.core.JsonEncoding;
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.SerializableString;
 import com.fasterxml.jackson.core.io.CharacterEscapes;
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.util.JSONPObject;
+import com.google.common.io.CountingOutputStream;
 import com.google.common.net.HttpHeaders;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
@@ -36,6 +35,8 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.Provider;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -44,6 +45,9 @@ import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static com.facebook.airlift.units.Duration.nanosSince;
 
 @Provider
 @Consumes({MediaType.APPLICATION_JSON, "text/json"})
@@ -54,6 +58,8 @@ public class JsonMapper
     public static final Logger log = Logger.get(JsonMapper.class);
 
     private final ObjectMapper objectMapper;
+    private final ObjectWriterCache writers;
+    private final MapperStats stats = new MapperStats();
 
     private final AtomicReference<UriInfo> uriInfo = new AtomicReference<>();
 
@@ -61,6 +67,7 @@ public class JsonMapper
     public JsonMapper(ObjectMapper objectMapper)
     {
         this.objectMapper = objectMapper;
+        this.writers = new ObjectWriterCache(objectMapper);
     }
 
     @Context
@@ -122,10 +129,12 @@ public class JsonMapper
         // Prevent broken browser from attempting to render the json as html
         httpHeaders.add(HttpHeaders.X_CONTENT_TYPE_OPTIONS, "nosniff");
 
-        JsonFactory jsonFactory = objectMapper.getFactory();
-        jsonFactory.setCharacterEscapes(HTMLCharacterEscapes.INSTANCE);
+        long start = System.nanoTime();
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(countingOutputStream, JsonEncoding.UTF8);
 
-        JsonGenerator jsonGenerator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8);
+        // escape HTML characters only in responses, since the object mapper is shared
+        jsonGenerator.setCharacterEscapes(HTMLCharacterEscapes.INSTANCE);
 
         // Important: we are NOT to close the underlying stream after
         // mapping, so we need to instruct generator:
@@ -136,47 +145,28 @@ public class JsonMapper
             jsonGenerator.useDefaultPrettyPrinter();
         }
 
-        // 04-Mar-2010, tatu: How about type we were given? (if any)
-        JavaType rootType = null;
-        if (genericType != null && value != null) {
-            // 10-Jan-2011, tatu: as per [JACKSON-456], it's not safe to just force root
-            //    type since it prevents polymorphic type serialization. Since we really
-            //    just need this for generics, let's only use generic type if it's truly
-            //    generic.
-            if (genericType.getClass() != Class.class) { // generic types are other implementations of 'java.lang.reflect.Type'
-                // This is still not exactly right; should root type be further
-                // specialized with 'value.getClass()'? Let's see how well this works before
-                // trying to come up with more complete solution.
-                rootType = objectMapper.getTypeFactory().constructType(genericType);
-                // 26-Feb-2011, tatu: To help with [JACKSON-518], we better recognize cases where
-                //    type degenerates back into "Object.class" (as is the case with plain TypeVariable,
-                //    for example), and not use that.
-                //
-                if (rootType.getRawClass() == Object.class) {
-                    rootType = null;
-                }
-            }
+        // streams are written element by element through their iterator, so they are never collected in memory
+        Stream<?> stream = null;
+        if (value instanceof Stream) {
+            stream = (Stream<?>) value;
+            value = stream.iterator();
         }
 
+        ObjectWriter writer;
         String jsonpFunctionName = getJsonpFunctionName();
         if (jsonpFunctionName != null) {
-            value = new JSONPObject(jsonpFunctionName, value, rootType);
-            rootType = null;
-        }
-
-        ObjectWriter writer;
-        if (rootType != null) {
-            writer = objectMapper.writerFor(rootType);
+            value = new JSONPObject(jsonpFunctionName, value, value == null ? null : getRootType(objectMapper.getTypeFactory(), genericType));
+            writer = objectMapper.writer();
         }
         else {
-            writer = objectMapper.writer();
+            writer = writers.getWriter(genericType);
         }
 
         try {
             writer.writeValue(jsonGenerator, value);
 
             // add a newline so when you use curl it looks nice
-            outputStream.write('\n');
+            countingOutputStream.write('\n');
         }
         catch (EOFException e) {
             // ignore EOFException
@@ -186,6 +176,19 @@ public class JsonMapper
             // important.  This is safe since the output stream is already
             // closed.
         }
+        finally {
+            if (stream != null) {
+                stream.close();
+            }
+        }
+        stats.recordSerialization(countingOutputStream.getCount(), nanosSince(start));
+    }
+
+    @Managed
+    @Nested
+    public MapperStats getStats()
+    {
+        return stats;
     }
 
     private boolean isPrettyPrintRequested()
@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jaxrs;
+
+import com.facebook.airlift.stats.DistributionStat;
+import com.facebook.airlift.stats.TimeStat;
+import com.facebook.airlift.units.Duration;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Serialization stats for a message body writer. The serialization time includes
+ * time spent blocked writing to the client.
+ */
+public class MapperStats
+{
+    private final TimeStat serializationTime = new TimeStat(MILLISECONDS);
+    private final DistributionStat serializedBytes = new DistributionStat();
+
+    public void recordSerialization(long bytes, Duration time)
+    {
+        serializationTime.add(time);
+        serializedBytes.add(bytes);
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getSerializationTime()
+    {
+        return serializationTime;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getSerializedBytes()
+    {
+        return serializedBytes;
+    }
+}
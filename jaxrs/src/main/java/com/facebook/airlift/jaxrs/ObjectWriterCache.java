@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jaxrs;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import jakarta.annotation.Nullable;
+
+import java.lang.reflect.Type;
+
+import static com.facebook.airlift.jaxrs.BaseMapper.getRootType;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The writers of a mapper by generic entity type. Values of a raw class are written as
+ * their runtime type, so they share the default writer and are not cached. Generic types
+ * are cached up to a fixed count, as resources can return any number of them.
+ */
+final class ObjectWriterCache
+{
+    private static final int MAX_CACHED_WRITERS = 1_000;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter defaultWriter;
+    private final LoadingCache<Type, ObjectWriter> writers = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_WRITERS)
+            .build(CacheLoader.from(this::createWriter));
+
+    public ObjectWriterCache(ObjectMapper objectMapper)
+    {
+        this.objectMapper = requireNonNull(objectMapper, "objectMapper is null");
+        this.defaultWriter = objectMapper.writer();
+    }
+
+    public ObjectWriter getWriter(@Nullable Type genericType)
+    {
+        if (genericType == null || genericType instanceof Class) {
+            return defaultWriter;
+        }
+        return writers.getUnchecked(genericType);
+    }
+
+    private ObjectWriter createWriter(Type genericType)
+    {
+        JavaType rootType = getRootType(objectMapper.getTypeFactory(), genericType);
+        return rootType == null ? defaultWriter : objectMapper.writerFor(rootType);
+    }
+}
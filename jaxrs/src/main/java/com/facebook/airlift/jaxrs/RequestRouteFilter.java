@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jaxrs;
+
+import com.google.common.collect.Lists;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.uri.UriTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.facebook.airlift.http.server.RequestStats.ROUTE_ATTRIBUTE;
+
+/**
+ * Records the matched resource method template (e.g. {@code GET /v1/service/{type}})
+ * as a request attribute so the HTTP server can report per-route request stats.
+ */
+@Provider
+public class RequestRouteFilter
+        implements ContainerRequestFilter
+{
+    private final Map<ResourceMethod, String> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public void filter(ContainerRequestContext request)
+    {
+        if (!(request.getUriInfo() instanceof ExtendedUriInfo)) {
+            return;
+        }
+        ExtendedUriInfo uriInfo = (ExtendedUriInfo) request.getUriInfo();
+        ResourceMethod resourceMethod = uriInfo.getMatchedResourceMethod();
+        if (resourceMethod == null) {
+            return;
+        }
+
+        String route = routes.computeIfAbsent(resourceMethod, ignored -> buildRoute(resourceMethod.getHttpMethod(), uriInfo));
+        request.setProperty(ROUTE_ATTRIBUTE, route);
+    }
+
+    private static String buildRoute(String method, ExtendedUriInfo uriInfo)
+    {
+        // matched templates are ordered from the most specific to the root resource
+        StringBuilder path = new StringBuilder();
+        for (UriTemplate template : Lists.reverse(uriInfo.getMatchedTemplates())) {
+            String value = template.getTemplate();
+            if (value.isEmpty() || value.equals("/")) {
+                continue;
+            }
+            if (!value.startsWith("/")) {
+                path.append('/');
+            }
+            path.append(value);
+        }
+        if (path.length() == 0) {
+            path.append('/');
+        }
+        return method + " " + path;
+    }
+}
@@ -19,15 +19,17 @@ import com.facebook.airlift.log.Logger;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.io.CountingOutputStream;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.ext.Provider;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -35,6 +37,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.stream.Stream;
+
+import static com.facebook.airlift.units.Duration.nanosSince;
 
 @Provider
 @Consumes("application/x-jackson-smile")
@@ -45,11 +50,16 @@ public class SmileMapper
     public static final Logger log = Logger.get(SmileMapper.class);
 
     private final ObjectMapper objectMapper;
+    // factories are thread safe once configured, and creating one is expensive
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final ObjectWriterCache writers;
+    private final MapperStats stats = new MapperStats();
 
     @Inject
     public SmileMapper(ObjectMapper objectMapper)
     {
         this.objectMapper = objectMapper;
+        this.writers = new ObjectWriterCache(objectMapper);
     }
 
     @Override
@@ -63,7 +73,7 @@ public class SmileMapper
     {
         Object object;
         try {
-            JsonParser jsonParser = new SmileFactory().createParser(inputStream);
+            JsonParser jsonParser = smileFactory.createParser(inputStream);
 
             // Important: we are NOT to close the underlying stream after
             // mapping, so we need to instruct parser:
@@ -97,39 +107,30 @@ public class SmileMapper
             OutputStream outputStream)
             throws IOException
     {
-        JsonGenerator jsonGenerator = new SmileFactory().createGenerator(outputStream);
+        long start = System.nanoTime();
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        JsonGenerator jsonGenerator = smileFactory.createGenerator(countingOutputStream);
 
         // Important: we are NOT to close the underlying stream after
         // mapping, so we need to instruct generator:
         jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
 
-        // 04-Mar-2010, tatu: How about type we were given? (if any)
-        JavaType rootType = null;
-        if (genericType != null && value != null) {
-            // 10-Jan-2011, tatu: as per [JACKSON-456], it's not safe to just force root
-            //    type since it prevents polymorphic type serialization. Since we really
-            //    just need this for generics, let's only use generic type if it's truly
-            //    generic.
-            if (genericType.getClass() != Class.class) { // generic types are other implementations of 'java.lang.reflect.Type'
-                // This is still not exactly right; should root type be further
-                // specialized with 'value.getClass()'? Let's see how well this works before
-                // trying to come up with more complete solution.
-                rootType = objectMapper.getTypeFactory().constructType(genericType);
-                // 26-Feb-2011, tatu: To help with [JACKSON-518], we better recognize cases where
-                //    type degenerates back into "Object.class" (as is the case with plain TypeVariable,
-                //    for example), and not use that.
-                //
-                if (rootType.getRawClass() == Object.class) {
-                    rootType = null;
-                }
+        // streams are written element by element through their iterator, so they are never collected in memory
+        if (value instanceof Stream) {
+            try (Stream<?> stream = (Stream<?>) value) {
+                writers.getWriter(genericType).writeValue(jsonGenerator, stream.iterator());
             }
         }
-
-        if (rootType != null) {
-            objectMapper.writerFor(rootType).writeValue(jsonGenerator, value);
-        }
         else {
-            objectMapper.writeValue(jsonGenerator, value);
+            writers.getWriter(genericType).writeValue(jsonGenerator, value);
         }
+        stats.recordSerialization(countingOutputStream.getCount(), nanosSince(start));
+    }
+
+    @Managed
+    @Nested
+    public MapperStats getStats()
+    {
+        return stats;
     }
 }
@@ -20,6 +20,7 @@ import com.facebook.airlift.json.JsonCodec;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.net.HttpHeaders;
+import com.google.common.reflect.TypeToken;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.MultivaluedMap;
 import org.testng.annotations.Test;
@@ -28,6 +29,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import java.util.zip.ZipException;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -68,6 +72,34 @@ public class TestJsonMapper
         assertEquals(headers.getFirst(HttpHeaders.X_CONTENT_TYPE_OPTIONS), "nosniff");
     }
 
+    @Test
+    public void testObjectMapperNotModified()
+            throws IOException
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonMapper jsonMapper = new JsonMapper(objectMapper);
+        jsonMapper.writeTo("<>", String.class, null, null, null, new GuavaMultivaluedMap<>(), new ByteArrayOutputStream());
+
+        assertEquals(objectMapper.writeValueAsString("<>"), "\"<>\"");
+    }
+
+    @Test
+    public void testStream()
+            throws IOException
+    {
+        JsonMapper jsonMapper = new JsonMapper(new ObjectMapper());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> stream = Stream.of("a", "b", "c").onClose(() -> closed.set(true));
+
+        jsonMapper.writeTo(stream, Stream.class, new TypeToken<Stream<String>>() {}.getType(), null, null, new GuavaMultivaluedMap<>(), outputStream);
+
+        String json = new String(outputStream.toByteArray(), UTF_8);
+        assertEquals(JsonCodec.listJsonCodec(String.class).fromJson(json), List.of("a", "b", "c"));
+        assertTrue(closed.get());
+        assertEquals(jsonMapper.getStats().getSerializedBytes().getAllTime().getCount(), 1.0);
+    }
+
     @Test
     public void testEOFExceptionReturnsJsonMapperParsingException()
             throws IOException
@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jaxrs;
+
+import com.facebook.airlift.bootstrap.Bootstrap;
+import com.facebook.airlift.bootstrap.LifeCycleManager;
+import com.facebook.airlift.event.client.InMemoryEventModule;
+import com.facebook.airlift.http.client.HttpClient;
+import com.facebook.airlift.http.client.Request;
+import com.facebook.airlift.http.client.StatusResponseHandler.StatusResponse;
+import com.facebook.airlift.http.client.jetty.JettyHttpClient;
+import com.facebook.airlift.http.server.HttpServerInfo;
+import com.facebook.airlift.http.server.HttpServerModule;
+import com.facebook.airlift.http.server.RequestStats;
+import com.facebook.airlift.json.JsonModule;
+import com.facebook.airlift.node.testing.TestingNodeModule;
+import com.facebook.airlift.testing.Closeables;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Injector;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.facebook.airlift.http.client.Request.Builder.prepareGet;
+import static com.facebook.airlift.http.client.Request.Builder.prepareHead;
+import static com.facebook.airlift.http.client.StatusResponseHandler.createStatusResponseHandler;
+import static com.facebook.airlift.jaxrs.JaxrsBinder.jaxrsBinder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestRequestRouteFilterInHttpServer
+{
+    private static final String ROUTE = "GET /test/{id}";
+
+    private LifeCycleManager lifeCycleManager;
+    private RequestStats stats;
+    private URI baseUri;
+    private HttpClient client;
+
+    @BeforeClass
+    public void setup()
+            throws Exception
+    {
+        Injector injector = new Bootstrap(
+                new TestingNodeModule(),
+                new HttpServerModule(),
+                new InMemoryEventModule(),
+                new JaxrsModule(),
+                new JsonModule(),
+                binder -> jaxrsBinder(binder).bind(TestResource.class))
+                .setRequiredConfigurationProperties(ImmutableMap.of(
+                        "http-server.http.port", "0",
+                        "http-server.log.enabled", "false"))
+                .doNotInitializeLogging()
+                .quiet()
+                .initialize();
+
+        lifeCycleManager = injector.getInstance(LifeCycleManager.class);
+        stats = injector.getInstance(RequestStats.class);
+        baseUri = injector.getInstance(HttpServerInfo.class).getHttpUri();
+        client = new JettyHttpClient();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardown()
+    {
+        try {
+            if (lifeCycleManager != null) {
+                lifeCycleManager.stop();
+            }
+        }
+        catch (Throwable ignored) {
+        }
+        Closeables.closeQuietly(client);
+    }
+
+    @Test
+    public void testHeadRequestUsesResourceMethodRoute()
+            throws Exception
+    {
+        // the first request builds the cached route, so a HEAD must not name it
+        assertStatus(prepareHead().setUri(baseUri.resolve("/test/1")).build(), 200);
+        assertStatus(prepareGet().setUri(baseUri.resolve("/test/2")).build(), 200);
+
+        // stats are recorded after the response is sent
+        assertEventually(() -> stats.getRouteRequestCounts().getOrDefault(ROUTE, 0L) == 2);
+
+        Map<String, Long> counts = stats.getRouteRequestCounts();
+        assertFalse(counts.containsKey("HEAD /test/{id}"), counts.toString());
+        assertEquals(counts.get(RequestStats.OTHER_ROUTE), (Long) 0L, counts.toString());
+    }
+
+    private void assertStatus(Request request, int expectedStatus)
+    {
+        StatusResponse response = client.execute(request, createStatusResponseHandler());
+        assertEquals(response.getStatusCode(), expectedStatus);
+    }
+
+    private static void assertEventually(Supplier<Boolean> condition)
+            throws InterruptedException
+    {
+        for (int i = 0; i < 100; i++) {
+            if (condition.get()) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("condition was not met");
+    }
+
+    @Path("/test")
+    public static class TestResource
+    {
+        @GET
+        @Path("{id}")
+        public String get(@PathParam("id") String id)
+        {
+            return id;
+        }
+    }
+}
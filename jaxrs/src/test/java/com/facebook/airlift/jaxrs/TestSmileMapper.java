@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jaxrs;
+
+import com.facebook.airlift.jaxrs.testing.GuavaMultivaluedMap;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.reflect.TypeToken;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestSmileMapper
+{
+    @Test
+    public void testRoundTrip()
+            throws IOException
+    {
+        SmileMapper smileMapper = new SmileMapper(new ObjectMapper());
+        Type listType = new TypeToken<List<String>>() {}.getType();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        smileMapper.writeTo(List.of("a", "<>'&"), List.class, listType, null, null, new GuavaMultivaluedMap<>(), outputStream);
+
+        assertEquals(readList(smileMapper, outputStream.toByteArray()), List.of("a", "<>'&"));
+    }
+
+    @Test
+    public void testStream()
+            throws IOException
+    {
+        SmileMapper smileMapper = new SmileMapper(new ObjectMapper());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> stream = Stream.of("a", "b", "c").onClose(() -> closed.set(true));
+
+        smileMapper.writeTo(stream, Stream.class, new TypeToken<Stream<String>>() {}.getType(), null, null, new GuavaMultivaluedMap<>(), outputStream);
+
+        assertEquals(readList(smileMapper, outputStream.toByteArray()), List.of("a", "b", "c"));
+        assertTrue(closed.get());
+        assertEquals(smileMapper.getStats().getSerializedBytes().getAllTime().getCount(), 1.0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object readList(SmileMapper smileMapper, byte[] smile)
+            throws IOException
+    {
+        Class<Object> type = (Class<Object>) (Class<?>) List.class;
+        return smileMapper.readFrom(type, new TypeToken<List<String>>() {}.getType(), null, null, new GuavaMultivaluedMap<>(), new ByteArrayInputStream(smile));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx.http.rpc;
+
+import com.google.common.collect.ImmutableMap;
+
+import javax.management.AttributeList;
+import javax.management.ObjectName;
+
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Attributes of many MBeans read in a single request. For a request for changed
+ * attributes, only the attributes that changed since the version of the request are
+ * included, and {@link #getVersion()} is the version to pass to the next request.
+ */
+public final class AttributeBatch
+{
+    private final long version;
+    private final Map<ObjectName, AttributeList> attributes;
+
+    public AttributeBatch(long version, Map<ObjectName, AttributeList> attributes)
+    {
+        this.version = version;
+        this.attributes = ImmutableMap.copyOf(requireNonNull(attributes, "attributes is null"));
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public Map<ObjectName, AttributeList> getAttributes()
+    {
+        return attributes;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("version", version)
+                .add("attributes", attributes)
+                .toString();
+    }
+}
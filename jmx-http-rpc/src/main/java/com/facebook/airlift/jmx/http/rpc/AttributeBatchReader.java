@@ -0,0 +1,210 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx.http.rpc;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Reads the attributes of many MBeans for a single request. Each requested
+ * {@code ObjectName} may be a pattern, and a {@code null} attribute array requests all
+ * readable attributes. MBeans that cannot be read are left out of the result.
+ * <p>
+ * For requests for changed attributes, the last value read of each attribute is kept,
+ * along with the version in which it changed, until the MBean is unregistered or has
+ * not been read for {@value #TRACKING_EXPIRATION_MINUTES} minutes. At most
+ * {@value #MAX_TRACKED_MBEANS} MBeans are tracked. The attributes of an MBean that is no
+ * longer tracked are returned as changed. A version is only meaningful for the same set
+ * of attributes it was returned for.
+ */
+public class AttributeBatchReader
+{
+    private static final int MAX_TRACKED_MBEANS = 10_000;
+    private static final int TRACKING_EXPIRATION_MINUTES = 10;
+
+    private final MBeanServer mbeanServer;
+    private final NotificationListener registrationListener;
+
+    @GuardedBy("this")
+    private final Cache<ObjectName, Map<String, TrackedValue>> tracked;
+
+    // start at a random version, so a version returned before a restart is not mistaken for a current one
+    @GuardedBy("this")
+    private long version = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE / 2);
+
+    @Inject
+    public AttributeBatchReader(MBeanServer mbeanServer)
+    {
+        this(mbeanServer, Ticker.systemTicker());
+    }
+
+    AttributeBatchReader(MBeanServer mbeanServer, Ticker ticker)
+    {
+        this.mbeanServer = requireNonNull(mbeanServer, "mbeanServer is null");
+        this.tracked = CacheBuilder.newBuilder()
+                .maximumSize(MAX_TRACKED_MBEANS)
+                .expireAfterAccess(TRACKING_EXPIRATION_MINUTES, MINUTES)
+                .ticker(requireNonNull(ticker, "ticker is null"))
+                .build();
+        this.registrationListener = (notification, handback) -> {
+            if (notification instanceof MBeanServerNotification) {
+                synchronized (this) {
+                    tracked.invalidate(((MBeanServerNotification) notification).getMBeanName());
+                }
+            }
+        };
+        try {
+            mbeanServer.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, registrationListener, null, null);
+        }
+        catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        try {
+            mbeanServer.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, registrationListener);
+        }
+        catch (JMException ignored) {
+        }
+    }
+
+    public AttributeBatch getAttributes(Map<ObjectName, String[]> request)
+    {
+        Map<ObjectName, AttributeList> attributes = readAttributes(request);
+        synchronized (this) {
+            return new AttributeBatch(version, attributes);
+        }
+    }
+
+    /**
+     * Returns the attributes that changed since the specified version, or all of them
+     * if the version was not returned by this reader.
+     */
+    public AttributeBatch getChangedAttributes(Map<ObjectName, String[]> request, long since)
+    {
+        Map<ObjectName, AttributeList> attributes = readAttributes(request);
+        synchronized (this) {
+            version++;
+            boolean all = (since <= 0) || (since >= version);
+
+            ImmutableMap.Builder<ObjectName, AttributeList> changed = ImmutableMap.builder();
+            for (Map.Entry<ObjectName, AttributeList> entry : attributes.entrySet()) {
+                ObjectName name = entry.getKey();
+                Map<String, TrackedValue> values = tracked.getIfPresent(name);
+                if (values == null) {
+                    // do not track an MBean unregistered after it was read, as it would never be removed
+                    if (!mbeanServer.isRegistered(name)) {
+                        continue;
+                    }
+                    values = new HashMap<>();
+                    tracked.put(name, values);
+                }
+
+                AttributeList list = new AttributeList();
+                for (Attribute attribute : entry.getValue().asList()) {
+                    TrackedValue value = values.get(attribute.getName());
+                    if ((value == null) || !Objects.deepEquals(value.value, attribute.getValue())) {
+                        value = new TrackedValue(attribute.getValue(), version);
+                        values.put(attribute.getName(), value);
+                    }
+                    if (all || (value.changedVersion > since)) {
+                        list.add(attribute);
+                    }
+                }
+                if (!list.isEmpty()) {
+                    changed.put(name, list);
+                }
+            }
+            return new AttributeBatch(version, changed.build());
+        }
+    }
+
+    private Map<ObjectName, AttributeList> readAttributes(Map<ObjectName, String[]> request)
+    {
+        Map<ObjectName, AttributeList> result = new LinkedHashMap<>();
+        for (Map.Entry<ObjectName, String[]> entry : request.entrySet()) {
+            Set<ObjectName> names;
+            if (entry.getKey().isPattern()) {
+                names = new TreeSet<>(mbeanServer.queryNames(entry.getKey(), null));
+            }
+            else {
+                names = ImmutableSet.of(entry.getKey());
+            }
+
+            for (ObjectName name : names) {
+                try {
+                    String[] attributes = entry.getValue();
+                    if (attributes == null) {
+                        attributes = Arrays.stream(mbeanServer.getMBeanInfo(name).getAttributes())
+                                .filter(MBeanAttributeInfo::isReadable)
+                                .map(MBeanAttributeInfo::getName)
+                                .toArray(String[]::new);
+                    }
+                    AttributeList values = mbeanServer.getAttributes(name, attributes);
+                    result.merge(name, values, (existing, added) -> {
+                        existing.addAll(added);
+                        return existing;
+                    });
+                }
+                catch (JMException e) {
+                    // the MBean was unregistered, or is broken
+                }
+            }
+        }
+        return result;
+    }
+
+    private static final class TrackedValue
+    {
+        private final Object value;
+        private final long changedVersion;
+
+        private TrackedValue(Object value, long changedVersion)
+        {
+            this.value = value;
+            this.changedVersion = changedVersion;
+        }
+    }
+}
@@ -43,6 +43,7 @@ import java.net.MalformedURLException;
 import java.net.Proxy;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -128,13 +129,13 @@ public class HttpJmxConnector
     }
 
     @Override
-    public MBeanServerConnection getMBeanServerConnection()
+    public HttpMBeanServerConnection getMBeanServerConnection()
     {
         return new HttpMBeanServerConnection(baseUri, credentials);
     }
 
     @Override
-    public MBeanServerConnection getMBeanServerConnection(Subject delegationSubject)
+    public HttpMBeanServerConnection getMBeanServerConnection(Subject delegationSubject)
     {
         return getMBeanServerConnection();
     }
@@ -171,8 +172,49 @@ public class HttpJmxConnector
             this.credentials = credentials;
         }
 
+        /**
+         * Reads the attributes of many MBeans in a single request. Each {@code ObjectName}
+         * may be a pattern, and a {@code null} attribute array reads all readable attributes.
+         * MBeans that cannot be read are left out of the result.
+         */
+        public Map<ObjectName, AttributeList> getAttributes(Map<ObjectName, String[]> attributes)
+                throws IOException
+        {
+            return getAttributeBatch("getAttributeBatch", new HashMap<>(attributes)).getAttributes();
+        }
+
+        /**
+         * Reads the attributes that changed since the version returned by a previous call
+         * for the same attributes. Use version {@code 0} for the first call, which returns
+         * all attributes.
+         */
+        public AttributeBatch getChangedAttributes(Map<ObjectName, String[]> attributes, long version)
+                throws IOException
+        {
+            return getAttributeBatch("getChangedAttributes", new HashMap<>(attributes), version);
+        }
+
+        private AttributeBatch getAttributeBatch(String method, Object... args)
+                throws IOException
+        {
+            try {
+                return execute(method, HttpMBeanServerRpc::decodeAttributeBatch, args);
+            }
+            catch (Exception e) {
+                propagateIfInstanceOf(e, IOException.class);
+                propagateIfPossible(e);
+                throw new IOException(e);
+            }
+        }
+
         private Object invoke(String method, Object... args)
                 throws Exception
+        {
+            return execute(method, HttpMBeanServerRpc::deserialize, args);
+        }
+
+        private <T> T execute(String method, ResponseDecoder<T> decoder, Object... args)
+                throws Exception
         {
             OutputStream outputStream = null;
             InputStream inputStream = null;
@@ -203,11 +245,9 @@ public class HttpJmxConnector
                     inputStream = urlConnection.getErrorStream();
                 }
 
-                // deserialize response
-                Object result = HttpMBeanServerRpc.deserialize(inputStream);
-
                 // any non-200 response must contain a serialized exception
                 if (statusCode / 100 != 2) {
+                    Object result = HttpMBeanServerRpc.deserialize(inputStream);
                     if (result instanceof Exception) {
                         throw (Exception) result;
                     }
@@ -215,7 +255,7 @@ public class HttpJmxConnector
                             statusCode,
                             result.getClass().getName()));
                 }
-                return result;
+                return decoder.decode(inputStream);
             }
             finally {
                 if (outputStream != null) {
@@ -462,6 +502,12 @@ public class HttpJmxConnector
                     .toString();
         }
 
+        private interface ResponseDecoder<T>
+        {
+            T decode(InputStream inputStream)
+                    throws IOException;
+        }
+
         //
         // Unsupported
         //
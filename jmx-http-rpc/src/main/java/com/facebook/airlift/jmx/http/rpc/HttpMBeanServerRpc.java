@@ -15,22 +15,51 @@
  */
 package com.facebook.airlift.jmx.http.rpc;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 final class HttpMBeanServerRpc
 {
     public static final Charset UTF_8 = Charset.forName("UTF-8");
 
+    private static final int ATTRIBUTE_BATCH_FORMAT = 1;
+
+    private static final int NULL_VALUE = 0;
+    private static final int BOOLEAN_VALUE = 1;
+    private static final int BYTE_VALUE = 2;
+    private static final int SHORT_VALUE = 3;
+    private static final int INTEGER_VALUE = 4;
+    private static final int LONG_VALUE = 5;
+    private static final int FLOAT_VALUE = 6;
+    private static final int DOUBLE_VALUE = 7;
+    private static final int STRING_VALUE = 8;
+    private static final int SERIALIZED_VALUE = 9;
+
     private HttpMBeanServerRpc() {}
 
     public static byte[] createSuccessResponse(Object result)
             throws IOException
     {
+        if (result instanceof AttributeBatch) {
+            return encodeAttributeBatch((AttributeBatch) result);
+        }
         return serialize(result);
     }
 
@@ -62,6 +91,176 @@ final class HttpMBeanServerRpc
         }
     }
 
+    /**
+     * Encodes the attributes with primitive and string values written directly, and other
+     * values with Java serialization. Each attribute name is written once, and referenced
+     * by index after that.
+     */
+    public static byte[] encodeAttributeBatch(AttributeBatch batch)
+            throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(ATTRIBUTE_BATCH_FORMAT);
+        output.writeLong(batch.getVersion());
+        output.writeInt(batch.getAttributes().size());
+
+        Map<String, Integer> attributeNames = new HashMap<>();
+        for (Map.Entry<ObjectName, AttributeList> entry : batch.getAttributes().entrySet()) {
+            writeString(output, entry.getKey().getCanonicalName());
+            List<Attribute> attributes = entry.getValue().asList();
+            output.writeInt(attributes.size());
+            for (Attribute attribute : attributes) {
+                Integer index = attributeNames.putIfAbsent(attribute.getName(), attributeNames.size());
+                if (index != null) {
+                    output.writeInt(index);
+                }
+                else {
+                    output.writeInt(-1);
+                    writeString(output, attribute.getName());
+                }
+                writeValue(output, attribute.getValue());
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    public static AttributeBatch decodeAttributeBatch(InputStream inputStream)
+            throws IOException
+    {
+        DataInputStream input = new DataInputStream(inputStream);
+        int format = input.readUnsignedByte();
+        if (format != ATTRIBUTE_BATCH_FORMAT) {
+            throw new IOException("Unsupported attribute batch format " + format);
+        }
+        long version = input.readLong();
+        int mbeanCount = input.readInt();
+
+        List<String> attributeNames = new ArrayList<>();
+        Map<ObjectName, AttributeList> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < mbeanCount; i++) {
+            ObjectName name;
+            try {
+                name = new ObjectName(readString(input));
+            }
+            catch (MalformedObjectNameException e) {
+                throw new IOException(e);
+            }
+            int attributeCount = input.readInt();
+            AttributeList list = new AttributeList(attributeCount);
+            for (int j = 0; j < attributeCount; j++) {
+                int index = input.readInt();
+                String attributeName;
+                if (index < 0) {
+                    attributeName = readString(input);
+                    attributeNames.add(attributeName);
+                }
+                else {
+                    attributeName = attributeNames.get(index);
+                }
+                list.add(new Attribute(attributeName, readValue(input)));
+            }
+            attributes.put(name, list);
+        }
+        return new AttributeBatch(version, attributes);
+    }
+
+    private static void writeValue(DataOutputStream output, Object value)
+            throws IOException
+    {
+        if (value == null) {
+            output.writeByte(NULL_VALUE);
+        }
+        else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN_VALUE);
+            output.writeBoolean((Boolean) value);
+        }
+        else if (value instanceof Byte) {
+            output.writeByte(BYTE_VALUE);
+            output.writeByte((Byte) value);
+        }
+        else if (value instanceof Short) {
+            output.writeByte(SHORT_VALUE);
+            output.writeShort((Short) value);
+        }
+        else if (value instanceof Integer) {
+            output.writeByte(INTEGER_VALUE);
+            output.writeInt((Integer) value);
+        }
+        else if (value instanceof Long) {
+            output.writeByte(LONG_VALUE);
+            output.writeLong((Long) value);
+        }
+        else if (value instanceof Float) {
+            output.writeByte(FLOAT_VALUE);
+            output.writeFloat((Float) value);
+        }
+        else if (value instanceof Double) {
+            output.writeByte(DOUBLE_VALUE);
+            output.writeDouble((Double) value);
+        }
+        else if (value instanceof String) {
+            output.writeByte(STRING_VALUE);
+            writeString(output, (String) value);
+        }
+        else {
+            byte[] bytes = serialize(value);
+            output.writeByte(SERIALIZED_VALUE);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static Object readValue(DataInputStream input)
+            throws IOException
+    {
+        int type = input.readUnsignedByte();
+        switch (type) {
+            case NULL_VALUE:
+                return null;
+            case BOOLEAN_VALUE:
+                return input.readBoolean();
+            case BYTE_VALUE:
+                return input.readByte();
+            case SHORT_VALUE:
+                return input.readShort();
+            case INTEGER_VALUE:
+                return input.readInt();
+            case LONG_VALUE:
+                return input.readLong();
+            case FLOAT_VALUE:
+                return input.readFloat();
+            case DOUBLE_VALUE:
+                return input.readDouble();
+            case STRING_VALUE:
+                return readString(input);
+            case SERIALIZED_VALUE:
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                return deserialize(new ByteArrayInputStream(bytes));
+            default:
+                throw new IOException("Unknown attribute value type " + type);
+        }
+    }
+
+    // writeUTF is limited to 64k bytes
+    private static void writeString(DataOutputStream output, String value)
+            throws IOException
+    {
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input)
+            throws IOException
+    {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
     //
     // This code was swiped from Guava
     //
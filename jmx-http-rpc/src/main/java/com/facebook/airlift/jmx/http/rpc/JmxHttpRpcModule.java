@@ -61,6 +61,7 @@ public class JmxHttpRpcModule
     {
         binder.disableCircularProxies();
 
+        binder.bind(AttributeBatchReader.class).in(Scopes.SINGLETON);
         binder.bind(Servlet.class).annotatedWith(bindingAnnotation).to(MBeanServerServlet.class).in(Scopes.SINGLETON);
         binder.bind(new TypeLiteral<Map<String, String>>() {}).annotatedWith(bindingAnnotation).toInstance(ImmutableMap.<String, String>of());
 
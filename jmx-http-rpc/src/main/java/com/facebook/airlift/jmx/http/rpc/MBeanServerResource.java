@@ -32,6 +32,7 @@ import javax.management.remote.JMXServerErrorException;
 
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.util.Map;
 
 import static com.facebook.airlift.jmx.http.rpc.HttpMBeanServerRpc.createExceptionResponse;
 import static com.facebook.airlift.jmx.http.rpc.HttpMBeanServerRpc.createSuccessResponse;
@@ -41,14 +42,17 @@ public class MBeanServerResource
 {
     private final MBeanServer mbeanServer;
     private final HttpMBeanServerCredentials credentials;
+    private final AttributeBatchReader attributeBatchReader;
 
     @Inject
-    public MBeanServerResource(MBeanServer mbeanServer, HttpMBeanServerCredentials credentials)
+    public MBeanServerResource(MBeanServer mbeanServer, HttpMBeanServerCredentials credentials, AttributeBatchReader attributeBatchReader)
     {
         this.mbeanServer = mbeanServer;
         this.credentials = credentials;
+        this.attributeBatchReader = attributeBatchReader;
     }
 
+    @SuppressWarnings("unchecked")
     @POST
     @Path("{method}")
     public Response invoke(@PathParam("method") String method, InputStream in, @HeaderParam("Authorization") String authHeader)
@@ -89,6 +93,12 @@ public class MBeanServerResource
             else if ("getAttributes".equals(method)) {
                 result = mbeanServer.getAttributes((ObjectName) args[0], (String[]) args[1]);
             }
+            else if ("getAttributeBatch".equals(method)) {
+                result = attributeBatchReader.getAttributes((Map<ObjectName, String[]>) args[0]);
+            }
+            else if ("getChangedAttributes".equals(method)) {
+                result = attributeBatchReader.getChangedAttributes((Map<ObjectName, String[]>) args[0], (Long) args[1]);
+            }
             else if ("setAttribute".equals(method)) {
                 mbeanServer.setAttribute((ObjectName) args[0], (Attribute) args[1]);
             }
@@ -30,6 +30,7 @@ import javax.management.remote.JMXServerErrorException;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.util.Map;
 
 import static com.facebook.airlift.jmx.http.rpc.HttpMBeanServerRpc.createExceptionResponse;
 import static com.facebook.airlift.jmx.http.rpc.HttpMBeanServerRpc.createSuccessResponse;
@@ -43,14 +44,17 @@ public class MBeanServerServlet
     private static final String BASE_PATH = "/v1/jmx/mbeanServer/";
     private final MBeanServer mbeanServer;
     private final HttpMBeanServerCredentials credentials;
+    private final AttributeBatchReader attributeBatchReader;
 
     @Inject
-    public MBeanServerServlet(MBeanServer mbeanServer, HttpMBeanServerCredentials credentials)
+    public MBeanServerServlet(MBeanServer mbeanServer, HttpMBeanServerCredentials credentials, AttributeBatchReader attributeBatchReader)
     {
         this.mbeanServer = mbeanServer;
         this.credentials = credentials;
+        this.attributeBatchReader = attributeBatchReader;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException
@@ -94,6 +98,12 @@ public class MBeanServerServlet
             else if ("getAttributes".equals(method)) {
                 result = mbeanServer.getAttributes((ObjectName) args[0], (String[]) args[1]);
             }
+            else if ("getAttributeBatch".equals(method)) {
+                result = attributeBatchReader.getAttributes((Map<ObjectName, String[]>) args[0]);
+            }
+            else if ("getChangedAttributes".equals(method)) {
+                result = attributeBatchReader.getChangedAttributes((Map<ObjectName, String[]>) args[0], (Long) args[1]);
+            }
             else if ("setAttribute".equals(method)) {
                 mbeanServer.setAttribute((ObjectName) args[0], (Attribute) args[1]);
             }
@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx.http.rpc;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+public class TestAttributeBatchReader
+{
+    @Test
+    public void testStopsTrackingIdleMBeans()
+            throws Exception
+    {
+        MBeanServer mbeanServer = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:name=value");
+        mbeanServer.registerMBean(new Value("FOO"), name);
+
+        AtomicLong nanos = new AtomicLong();
+        AttributeBatchReader reader = new AttributeBatchReader(mbeanServer, new Ticker()
+        {
+            @Override
+            public long read()
+            {
+                return nanos.get();
+            }
+        });
+        Map<ObjectName, String[]> request = ImmutableMap.of(name, new String[] {"Value"});
+        Map<ObjectName, AttributeList> expected = ImmutableMap.of(name, new AttributeList(ImmutableList.of(new Attribute("Value", "FOO"))));
+
+        AttributeBatch batch = reader.getChangedAttributes(request, 0);
+        assertEquals(batch.getAttributes(), expected);
+
+        // reading keeps the MBean tracked
+        nanos.addAndGet(MINUTES.toNanos(9));
+        batch = reader.getChangedAttributes(request, batch.getVersion());
+        assertEquals(batch.getAttributes(), ImmutableMap.of());
+        nanos.addAndGet(MINUTES.toNanos(9));
+        batch = reader.getChangedAttributes(request, batch.getVersion());
+        assertEquals(batch.getAttributes(), ImmutableMap.of());
+
+        // an MBean that is no longer tracked is returned as changed
+        nanos.addAndGet(MINUTES.toNanos(11));
+        batch = reader.getChangedAttributes(request, batch.getVersion());
+        assertEquals(batch.getAttributes(), expected);
+        assertEquals(reader.getChangedAttributes(request, batch.getVersion()).getAttributes(), ImmutableMap.of());
+
+        reader.stop();
+    }
+
+    @Test
+    public void testStopsTrackingUnregisteredMBeans()
+            throws Exception
+    {
+        MBeanServer mbeanServer = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:name=value");
+        mbeanServer.registerMBean(new Value("FOO"), name);
+
+        AttributeBatchReader reader = new AttributeBatchReader(mbeanServer);
+        Map<ObjectName, String[]> request = ImmutableMap.of(name, new String[] {"Value"});
+        AttributeBatch batch = reader.getChangedAttributes(request, 0);
+
+        // a new MBean registered under the same name is returned as changed
+        mbeanServer.unregisterMBean(name);
+        mbeanServer.registerMBean(new Value("FOO"), name);
+        assertEquals(reader.getChangedAttributes(request, batch.getVersion()).getAttributes(),
+                ImmutableMap.of(name, new AttributeList(ImmutableList.of(new Attribute("Value", "FOO")))));
+
+        reader.stop();
+    }
+
+    public interface ValueMBean
+    {
+        String getValue();
+    }
+
+    public static class Value
+            implements ValueMBean
+    {
+        private final String value;
+
+        public Value(String value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public String getValue()
+        {
+            return value;
+        }
+    }
+}
@@ -20,10 +20,12 @@ import com.facebook.airlift.bootstrap.LifeCycleManager;
 import com.facebook.airlift.http.server.TheServlet;
 import com.facebook.airlift.http.server.testing.TestingHttpServer;
 import com.facebook.airlift.http.server.testing.TestingHttpServerModule;
+import com.facebook.airlift.jmx.http.rpc.HttpJmxConnector.HttpMBeanServerConnection;
 import com.facebook.airlift.json.JsonModule;
 import com.facebook.airlift.node.testing.TestingNodeModule;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Injector;
 import com.google.inject.Scopes;
 import org.testng.annotations.AfterMethod;
@@ -43,6 +45,8 @@ import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
 
 import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.testng.Assert.assertEquals;
@@ -197,6 +201,55 @@ public class TestMBeanServerResource
                 new AttributeList(ImmutableList.of(new Attribute("Value", "FOO"), new Attribute("ObjectValue", testMBean.getObjectValue()))));
     }
 
+    @Test
+    public void testGetAttributeBatch()
+            throws Exception
+    {
+        testMBean.setValue("FOO");
+        testMBean.setObjectValue(UUID.randomUUID());
+
+        Map<ObjectName, AttributeList> attributes = batchConnection().getAttributes(ImmutableMap.of(
+                testMBeanName, new String[] {"Value", "ObjectValue"},
+                new ObjectName("fake", "fake", "fake"), new String[] {"Value"}));
+        assertEquals(attributes, ImmutableMap.of(testMBeanName,
+                new AttributeList(ImmutableList.of(new Attribute("Value", "FOO"), new Attribute("ObjectValue", testMBean.getObjectValue())))));
+
+        // patterns and all attributes
+        Map<ObjectName, String[]> request = new HashMap<>();
+        request.put(new ObjectName(testMBeanName.getDomain() + ":*"), null);
+        attributes = batchConnection().getAttributes(request);
+        assertEquals(attributes.keySet(), platformMBeanServer.queryNames(new ObjectName(testMBeanName.getDomain() + ":*"), null));
+        assertEquals(ImmutableSet.copyOf(attributes.get(testMBeanName).asList()),
+                ImmutableSet.of(new Attribute("Value", "FOO"), new Attribute("ObjectValue", testMBean.getObjectValue())));
+    }
+
+    @Test
+    public void testGetChangedAttributes()
+            throws Exception
+    {
+        Map<ObjectName, String[]> request = ImmutableMap.of(testMBeanName, new String[] {"Value", "ObjectValue"});
+
+        testMBean.setValue("FOO");
+        AttributeBatch batch = batchConnection().getChangedAttributes(request, 0);
+        assertEquals(batch.getAttributes(), ImmutableMap.of(testMBeanName,
+                new AttributeList(ImmutableList.of(new Attribute("Value", "FOO"), new Attribute("ObjectValue", null)))));
+
+        AttributeBatch unchanged = batchConnection().getChangedAttributes(request, batch.getVersion());
+        assertEquals(unchanged.getAttributes(), ImmutableMap.of());
+        assertTrue(unchanged.getVersion() > batch.getVersion());
+
+        testMBean.setValue("BAR");
+        AttributeBatch changed = batchConnection().getChangedAttributes(request, unchanged.getVersion());
+        assertEquals(changed.getAttributes(), ImmutableMap.of(testMBeanName, new AttributeList(ImmutableList.of(new Attribute("Value", "BAR")))));
+
+        // a client that missed a poll still sees the change
+        assertEquals(batchConnection().getChangedAttributes(request, batch.getVersion()).getAttributes(), changed.getAttributes());
+
+        // a version this server did not return reads everything
+        assertEquals(batchConnection().getChangedAttributes(request, changed.getVersion() + 1000).getAttributes(), ImmutableMap.of(testMBeanName,
+                new AttributeList(ImmutableList.of(new Attribute("Value", "BAR"), new Attribute("ObjectValue", null)))));
+    }
+
     @Test
     public void testSetAttribute()
             throws Exception
@@ -253,6 +306,11 @@ public class TestMBeanServerResource
         }
     }
 
+    private HttpMBeanServerConnection batchConnection()
+    {
+        return (HttpMBeanServerConnection) mbeanServerConnection;
+    }
+
     public static class TestMBean
     {
         private String value;
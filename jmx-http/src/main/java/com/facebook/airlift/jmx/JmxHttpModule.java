@@ -28,6 +28,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Binder;
 import com.google.inject.Module;
+import com.google.inject.Scopes;
 
 import javax.management.ObjectName;
 import javax.management.openmbean.CompositeData;
@@ -54,6 +55,7 @@ public class JmxHttpModule
     {
         binder.disableCircularProxies();
 
+        binder.bind(OpenMetricsExporter.class).in(Scopes.SINGLETON);
         jaxrsBinder(binder).bind(MBeanResource.class);
         jsonBinder(binder).addSerializerBinding(InetAddress.class).toInstance(ToStringSerializer.instance);
         jsonBinder(binder).addSerializerBinding(ObjectName.class).toInstance(ToStringSerializer.instance);
@@ -23,12 +23,17 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import javax.management.JMException;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.List;
 
 import static com.google.common.io.Resources.getResource;
@@ -40,12 +45,14 @@ public class MBeanResource
 {
     private final MBeanServer mbeanServer;
     private final ObjectMapper objectMapper;
+    private final OpenMetricsExporter openMetricsExporter;
 
     @Inject
-    public MBeanResource(MBeanServer mbeanServer, ObjectMapper objectMapper)
+    public MBeanResource(MBeanServer mbeanServer, ObjectMapper objectMapper, OpenMetricsExporter openMetricsExporter)
     {
         this.mbeanServer = mbeanServer;
         this.objectMapper = objectMapper;
+        this.openMetricsExporter = openMetricsExporter;
     }
 
     @GET
@@ -70,6 +77,19 @@ public class MBeanResource
         return mbeans.build();
     }
 
+    @GET
+    @Path("metrics")
+    @Produces(OpenMetricsExporter.CONTENT_TYPE)
+    public StreamingOutput getMetrics(@QueryParam("name") List<ObjectName> names)
+    {
+        List<ObjectName> patterns = ImmutableList.copyOf(names);
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, UTF_8));
+            openMetricsExporter.write(writer, patterns);
+            writer.flush();
+        };
+    }
+
     @GET
     @Path("mbean/{objectName}")
     @Produces(MediaType.APPLICATION_JSON)
@@ -0,0 +1,357 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes the numeric attributes of MBeans in the OpenMetrics text format. Attributes are
+ * gauges, labeled with the key properties of the object name. Nested attributes with
+ * percentiles and a count, such as those of a {@code Distribution} or {@code TimeStat},
+ * are written as summaries. The count and total of a summary must never go down, so they
+ * are only written as {@code _count} and {@code _sum} for the non-decaying {@code AllTime}
+ * distributions. Those of the decaying windows are written as gauges.
+ * <p>
+ * How the attributes of each MBean map to samples is derived from its {@code MBeanInfo}
+ * once, and kept until the MBean is unregistered.
+ */
+public class OpenMetricsExporter
+{
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final Map<String, String> QUANTILES = ImmutableMap.<String, String>builder()
+            .put("P01", "0.01")
+            .put("P05", "0.05")
+            .put("P10", "0.1")
+            .put("P25", "0.25")
+            .put("P50", "0.5")
+            .put("P75", "0.75")
+            .put("P90", "0.9")
+            .put("P95", "0.95")
+            .put("P99", "0.99")
+            .build();
+
+    private static final Set<String> NUMERIC_TYPES = ImmutableSet.of(
+            "byte", "short", "int", "long", "float", "double", "boolean",
+            Byte.class.getName(), Short.class.getName(), Integer.class.getName(), Long.class.getName(),
+            Float.class.getName(), Double.class.getName(), Boolean.class.getName());
+
+    private final MBeanServer mbeanServer;
+    private final Map<ObjectName, MBeanSamples> samples = new ConcurrentHashMap<>();
+    private final NotificationListener registrationListener;
+
+    @Inject
+    public OpenMetricsExporter(MBeanServer mbeanServer)
+    {
+        this.mbeanServer = requireNonNull(mbeanServer, "mbeanServer is null");
+        this.registrationListener = (notification, handback) -> {
+            if (notification instanceof MBeanServerNotification) {
+                samples.remove(((MBeanServerNotification) notification).getMBeanName());
+            }
+        };
+        try {
+            mbeanServer.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, registrationListener, null, null);
+        }
+        catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        try {
+            mbeanServer.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, registrationListener);
+        }
+        catch (JMException ignored) {
+        }
+    }
+
+    /**
+     * Writes the MBeans matching any of the patterns, or all MBeans if there are none.
+     */
+    public void write(Writer writer, List<ObjectName> patterns)
+            throws IOException
+    {
+        // sorted, so samples are written in the same order on each scrape
+        Set<ObjectName> names = new TreeSet<>();
+        if (patterns.isEmpty()) {
+            names.addAll(mbeanServer.queryNames(ObjectName.WILDCARD, null));
+        }
+        else {
+            for (ObjectName pattern : patterns) {
+                names.addAll(mbeanServer.queryNames(pattern, null));
+            }
+        }
+
+        // samples of a metric family must be written together, and families are shared by MBeans
+        Map<String, Family> families = new TreeMap<>();
+        for (ObjectName name : names) {
+            MBeanSamples mbeanSamples = samples.computeIfAbsent(name, this::createSamples);
+            if (mbeanSamples.attributes.length == 0) {
+                continue;
+            }
+
+            AttributeList values;
+            try {
+                values = mbeanServer.getAttributes(name, mbeanSamples.attributes);
+            }
+            catch (JMException | RuntimeException e) {
+                // the MBean was unregistered, or is broken
+                continue;
+            }
+
+            // the values are returned in the order requested, without those that could not be read
+            int index = 0;
+            for (Attribute attribute : values.asList()) {
+                while ((index < mbeanSamples.attributes.length) && !mbeanSamples.attributes[index].equals(attribute.getName())) {
+                    index++;
+                }
+                if (index == mbeanSamples.attributes.length) {
+                    break;
+                }
+                Sample sample = mbeanSamples.samples[index];
+                Family family = families.computeIfAbsent(sample.family, ignored -> new Family(sample.type));
+                if (family.type.equals(sample.type)) {
+                    family.appendSample(sample, attribute.getValue());
+                }
+            }
+        }
+
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+            if (family.samples.length() == 0) {
+                continue;
+            }
+            writer.write("# TYPE ");
+            writer.write(entry.getKey());
+            writer.write(' ');
+            writer.write(family.type);
+            writer.write('\n');
+            writer.append(family.samples);
+        }
+        writer.write("# EOF\n");
+    }
+
+    private MBeanSamples createSamples(ObjectName name)
+    {
+        MBeanAttributeInfo[] attributeInfos;
+        try {
+            attributeInfos = mbeanServer.getMBeanInfo(name).getAttributes();
+        }
+        catch (JMException | RuntimeException e) {
+            return new MBeanSamples(ImmutableList.of(), ImmutableList.of());
+        }
+
+        Map<String, String> labels = new TreeMap<>();
+        name.getKeyPropertyList().forEach((key, value) -> labels.put(sanitizeLabelName(key), escapeLabelValue(value)));
+        String prefix = name.getDomain() + "_";
+
+        // group nested attributes by the name of the attribute they are nested in
+        Map<String, Map<String, String>> nested = new HashMap<>();
+        List<String> numeric = new ArrayList<>();
+        for (MBeanAttributeInfo attributeInfo : attributeInfos) {
+            if (!attributeInfo.isReadable() || !NUMERIC_TYPES.contains(attributeInfo.getType())) {
+                continue;
+            }
+            String attribute = attributeInfo.getName();
+            numeric.add(attribute);
+            int separator = attribute.lastIndexOf('.');
+            if (separator > 0) {
+                nested.computeIfAbsent(attribute.substring(0, separator), ignored -> new HashMap<>())
+                        .put(attribute.substring(separator + 1), attribute);
+            }
+        }
+
+        ImmutableList.Builder<String> attributes = ImmutableList.builder();
+        ImmutableList.Builder<Sample> samples = ImmutableList.builder();
+        Set<String> summaryAttributes = new HashSet<>();
+        for (Map.Entry<String, Map<String, String>> entry : nested.entrySet()) {
+            Map<String, String> children = entry.getValue();
+            if (!children.containsKey("P50") || !children.containsKey("Count")) {
+                continue;
+            }
+            String family = sanitizeMetricName(prefix + entry.getKey());
+            for (Map.Entry<String, String> quantile : QUANTILES.entrySet()) {
+                String attribute = children.get(quantile.getKey());
+                if (attribute != null) {
+                    Map<String, String> quantileLabels = new TreeMap<>(labels);
+                    quantileLabels.put("quantile", quantile.getValue());
+                    attributes.add(attribute);
+                    samples.add(new Sample(family, "summary", family, formatLabels(quantileLabels)));
+                    summaryAttributes.add(attribute);
+                }
+            }
+            if (!isAllTime(entry.getKey())) {
+                continue;
+            }
+            attributes.add(children.get("Count"));
+            samples.add(new Sample(family, "summary", family + "_count", formatLabels(labels)));
+            summaryAttributes.add(children.get("Count"));
+            if (children.containsKey("Total")) {
+                attributes.add(children.get("Total"));
+                samples.add(new Sample(family, "summary", family + "_sum", formatLabels(labels)));
+                summaryAttributes.add(children.get("Total"));
+            }
+        }
+
+        String gaugeLabels = formatLabels(labels);
+        for (String attribute : numeric) {
+            if (!summaryAttributes.contains(attribute)) {
+                String family = sanitizeMetricName(prefix + attribute);
+                attributes.add(attribute);
+                samples.add(new Sample(family, "gauge", family, gaugeLabels));
+            }
+        }
+        return new MBeanSamples(attributes.build(), samples.build());
+    }
+
+    private static boolean isAllTime(String nestedName)
+    {
+        return nestedName.equals("AllTime") || nestedName.endsWith(".AllTime");
+    }
+
+    private static String formatLabels(Map<String, String> labels)
+    {
+        if (labels.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder("{");
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(label.getKey()).append("=\"").append(label.getValue()).append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    private static String sanitizeMetricName(String name)
+    {
+        StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || (c == '_') || (c == ':') || ((i > 0) && (c >= '0') && (c <= '9'));
+            builder.append(valid ? c : '_');
+        }
+        return builder.toString();
+    }
+
+    private static String sanitizeLabelName(String name)
+    {
+        return sanitizeMetricName(name).replace(':', '_');
+    }
+
+    private static String escapeLabelValue(String value)
+    {
+        return value.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n");
+    }
+
+    private static final class MBeanSamples
+    {
+        // attributes to read, and the sample each of them is written as
+        private final String[] attributes;
+        private final Sample[] samples;
+
+        private MBeanSamples(List<String> attributes, List<Sample> samples)
+        {
+            this.attributes = attributes.toArray(new String[0]);
+            this.samples = samples.toArray(new Sample[0]);
+        }
+    }
+
+    private static final class Sample
+    {
+        private final String family;
+        private final String type;
+        private final String name;
+        private final String labels;
+
+        private Sample(String family, String type, String name, String labels)
+        {
+            this.family = family;
+            this.type = type;
+            this.name = name;
+            this.labels = labels;
+        }
+    }
+
+    private static final class Family
+    {
+        private final String type;
+        private final StringBuilder samples = new StringBuilder();
+
+        private Family(String type)
+        {
+            this.type = type;
+        }
+
+        private void appendSample(Sample sample, Object value)
+        {
+            if (value instanceof Boolean) {
+                value = ((Boolean) value) ? 1 : 0;
+            }
+            if (!(value instanceof Number)) {
+                return;
+            }
+            samples.append(sample.name).append(sample.labels).append(' ');
+            if ((value instanceof Double) || (value instanceof Float)) {
+                double number = ((Number) value).doubleValue();
+                if (Double.isNaN(number)) {
+                    samples.append("NaN");
+                }
+                else if (Double.isInfinite(number)) {
+                    samples.append((number > 0) ? "+Inf" : "-Inf");
+                }
+                else {
+                    samples.append(number);
+                }
+            }
+            else {
+                samples.append(((Number) value).longValue());
+            }
+            samples.append('\n');
+        }
+    }
+}
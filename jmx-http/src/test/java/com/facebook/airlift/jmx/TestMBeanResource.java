@@ -43,6 +43,7 @@ import static com.google.common.net.MediaType.JSON_UTF_8;
 import static java.lang.management.ManagementFactory.MEMORY_MXBEAN_NAME;
 import static java.lang.management.ManagementFactory.RUNTIME_MXBEAN_NAME;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 public class TestMBeanResource
@@ -139,6 +140,36 @@ public class TestMBeanResource
         assertEqualsIgnoreOrder(names, getMBeanNames());
     }
 
+    @Test
+    public void testGetMetrics()
+            throws Exception
+    {
+        StringResponse response = client.execute(
+                prepareGet().setUri(uriFor("/v1/jmx/metrics")).build(),
+                createStringResponseHandler());
+
+        assertEquals(response.getStatusCode(), 200, response.getBody());
+        assertTrue(response.getHeader(CONTENT_TYPE).startsWith("application/openmetrics-text"), response.getHeader(CONTENT_TYPE));
+        assertContains(response.getBody(), "# TYPE java_lang_ObjectPendingFinalizationCount gauge\n");
+        assertContains(response.getBody(), "java_lang_ObjectPendingFinalizationCount{type=\"Memory\"} ");
+        assertContains(response.getBody(), "java_lang_Uptime{type=\"Runtime\"} ");
+        assertTrue(response.getBody().endsWith("# EOF\n"));
+    }
+
+    @Test
+    public void testGetMetricsWithNameFilter()
+            throws Exception
+    {
+        URI uri = uriBuilderFrom(uriFor("/v1/jmx/metrics"))
+                .addParameter("name", MEMORY_MXBEAN_NAME)
+                .build();
+        StringResponse response = client.execute(prepareGet().setUri(uri).build(), createStringResponseHandler());
+
+        assertEquals(response.getStatusCode(), 200, response.getBody());
+        assertContains(response.getBody(), "java_lang_ObjectPendingFinalizationCount{type=\"Memory\"} ");
+        assertFalse(response.getBody().contains("type=\"Runtime\""), response.getBody());
+    }
+
     @Test(dataProvider = "mbeanNames")
     public void testGetMBean(String mbeanName)
             throws Exception
@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+public class TestOpenMetricsExporter
+{
+    private MBeanServer mbeanServer;
+    private OpenMetricsExporter exporter;
+
+    @BeforeMethod
+    public void setup()
+    {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+        exporter = new OpenMetricsExporter(mbeanServer);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void teardown()
+    {
+        exporter.stop();
+    }
+
+    @Test
+    public void testGaugesAndSummaries()
+            throws Exception
+    {
+        mbeanServer.registerMBean(new TestingMBean(ImmutableMap.<String, Object>builder()
+                .put("Active", true)
+                .put("Size", 42)
+                .put("Ratio", 0.25)
+                .put("Name", "ignored")
+                .put("Latency.P50", 1.5)
+                .put("Latency.P99", 9.0)
+                .put("Latency.Count", 10.0)
+                .put("Latency.Total", 20L)
+                .put("Latency.Max", 12.0)
+                .build()), new ObjectName("test.domain:type=Testing,name=\"a b\""));
+
+        assertEquals(write(ImmutableList.of()), "" +
+                "# TYPE test_domain_Active gauge\n" +
+                "test_domain_Active{name=\"\\\"a b\\\"\",type=\"Testing\"} 1\n" +
+                "# TYPE test_domain_Latency summary\n" +
+                "test_domain_Latency{name=\"\\\"a b\\\"\",quantile=\"0.5\",type=\"Testing\"} 1.5\n" +
+                "test_domain_Latency{name=\"\\\"a b\\\"\",quantile=\"0.99\",type=\"Testing\"} 9.0\n" +
+                "# TYPE test_domain_Latency_Count gauge\n" +
+                "test_domain_Latency_Count{name=\"\\\"a b\\\"\",type=\"Testing\"} 10.0\n" +
+                "# TYPE test_domain_Latency_Max gauge\n" +
+                "test_domain_Latency_Max{name=\"\\\"a b\\\"\",type=\"Testing\"} 12.0\n" +
+                "# TYPE test_domain_Latency_Total gauge\n" +
+                "test_domain_Latency_Total{name=\"\\\"a b\\\"\",type=\"Testing\"} 20\n" +
+                "# TYPE test_domain_Ratio gauge\n" +
+                "test_domain_Ratio{name=\"\\\"a b\\\"\",type=\"Testing\"} 0.25\n" +
+                "# TYPE test_domain_Size gauge\n" +
+                "test_domain_Size{name=\"\\\"a b\\\"\",type=\"Testing\"} 42\n" +
+                "# EOF\n");
+    }
+
+    @Test
+    public void testOnlyAllTimeSummariesHaveCountAndSum()
+            throws Exception
+    {
+        mbeanServer.registerMBean(new TestingMBean(ImmutableMap.<String, Object>builder()
+                .put("Time.OneMinute.P50", 1.0)
+                .put("Time.OneMinute.Count", 2.5)
+                .put("Time.OneMinute.Total", 3.5)
+                .put("Time.AllTime.P50", 1.0)
+                .put("Time.AllTime.Count", 10.0)
+                .put("Time.AllTime.Total", 20.0)
+                .build()), new ObjectName("test:name=a"));
+
+        assertEquals(write(ImmutableList.of()), "" +
+                "# TYPE test_Time_AllTime summary\n" +
+                "test_Time_AllTime{name=\"a\",quantile=\"0.5\"} 1.0\n" +
+                "test_Time_AllTime_count{name=\"a\"} 10.0\n" +
+                "test_Time_AllTime_sum{name=\"a\"} 20.0\n" +
+                "# TYPE test_Time_OneMinute summary\n" +
+                "test_Time_OneMinute{name=\"a\",quantile=\"0.5\"} 1.0\n" +
+                "# TYPE test_Time_OneMinute_Count gauge\n" +
+                "test_Time_OneMinute_Count{name=\"a\"} 2.5\n" +
+                "# TYPE test_Time_OneMinute_Total gauge\n" +
+                "test_Time_OneMinute_Total{name=\"a\"} 3.5\n" +
+                "# EOF\n");
+    }
+
+    @Test
+    public void testFamiliesAreGrouped()
+            throws Exception
+    {
+        mbeanServer.registerMBean(new TestingMBean(ImmutableMap.of("Size", 1, "Other", 2)), new ObjectName("test:name=a"));
+        mbeanServer.registerMBean(new TestingMBean(ImmutableMap.of("Size", 3)), new ObjectName("test:name=b"));
+
+        String output = write(ImmutableList.of());
+        assertEquals(output.indexOf("# TYPE test_Size gauge\n"), output.lastIndexOf("# TYPE test_Size"));
+        assertEquals(output.substring(output.indexOf("# TYPE test_Size")), "" +
+                "# TYPE test_Size gauge\n" +
+                "test_Size{name=\"a\"} 1\n" +
+                "test_Size{name=\"b\"} 3\n" +
+                "# EOF\n");
+    }
+
+    @Test
+    public void testNameFilter()
+            throws Exception
+    {
+        mbeanServer.registerMBean(new TestingMBean(ImmutableMap.of("Size", 1)), new ObjectName("test:name=a"));
+        mbeanServer.registerMBean(new TestingMBean(ImmutableMap.of("Size", 3)), new ObjectName("test:name=b"));
+
+        assertEquals(write(ImmutableList.of(new ObjectName("test:name=b"))), "" +
+                "# TYPE test_Size gauge\n" +
+                "test_Size{name=\"b\"} 3\n" +
+                "# EOF\n");
+    }
+
+    @Test
+    public void testReregisteredMBean()
+            throws Exception
+    {
+        ObjectName name = new ObjectName("test:name=a");
+        mbeanServer.registerMBean(new TestingMBean(ImmutableMap.of("Size", 1)), name);
+        assertEquals(write(ImmutableList.of(name)), "# TYPE test_Size gauge\ntest_Size{name=\"a\"} 1\n# EOF\n");
+
+        mbeanServer.unregisterMBean(name);
+        mbeanServer.registerMBean(new TestingMBean(ImmutableMap.of("Count", 2)), name);
+        assertEquals(write(ImmutableList.of(name)), "# TYPE test_Count gauge\ntest_Count{name=\"a\"} 2\n# EOF\n");
+    }
+
+    private String write(List<ObjectName> patterns)
+            throws IOException
+    {
+        StringWriter writer = new StringWriter();
+        exporter.write(writer, patterns);
+        return writer.toString()
+                // only keep the test MBeans
+                .replaceAll("(?m)^.*JMImplementation.*\n", "");
+    }
+
+    public static class TestingMBean
+            implements DynamicMBean
+    {
+        private final Map<String, Object> attributes;
+
+        public TestingMBean(Map<String, Object> attributes)
+        {
+            this.attributes = ImmutableMap.copyOf(attributes);
+        }
+
+        @Override
+        public Object getAttribute(String attribute)
+        {
+            return attributes.get(attribute);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] names)
+        {
+            AttributeList list = new AttributeList();
+            for (String name : names) {
+                list.add(new Attribute(name, attributes.get(name)));
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo()
+        {
+            MBeanAttributeInfo[] attributeInfos = attributes.entrySet().stream()
+                    .map(entry -> new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(), null, true, false, false))
+                    .toArray(MBeanAttributeInfo[]::new);
+            return new MBeanInfo(TestingMBean.class.getName(), null, attributeInfos, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx;
+
+import com.facebook.airlift.jmx.StackTraceWindow.StackTraceCount;
+import com.facebook.airlift.log.Logger;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.weakref.jmx.Managed;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Samples allocations, monitor contention and thread parking with JFR event streaming,
+ * and keeps the stack traces with the most weight over a rolling window. The overhead
+ * is bounded by the JFR allocation sampling rate and the contention threshold, and the
+ * memory by the number of distinct stack traces kept per window.
+ * <p>
+ * A thread park is weighted by how long the thread was parked, so threads that wait for
+ * work would otherwise dominate the parked stack traces. Parks of idle pool threads
+ * waiting for a task and of the JFR event stream itself are left out. Other threads that
+ * park while they wait for work, such as a thread taking from a queue in a loop, are
+ * still included.
+ */
+public class JfrSampler
+{
+    private static final Logger log = Logger.get(JfrSampler.class);
+
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    private static final String THREAD_PARK = "jdk.ThreadPark";
+
+    // frames of threads that park while they wait for work
+    private static final Set<String> IDLE_METHODS = ImmutableSet.of(
+            "java.util.concurrent.ThreadPoolExecutor.getTask",
+            "java.util.concurrent.ForkJoinPool.awaitWork",
+            "org.eclipse.jetty.util.thread.QueuedThreadPool$Runner.idleJobPoll",
+            "org.eclipse.jetty.util.thread.ReservedThreadExecutor$ReservedThread.reservedWait");
+    private static final String JFR_PACKAGE = "jdk.jfr.";
+
+    private static final int MAX_FRAMES = 32;
+    private static final int TOP_STACK_TRACES = 20;
+
+    private final boolean enabled;
+    private final int allocationSampleRate;
+    private final Duration contentionThreshold;
+    private final StackTraceWindow allocations;
+    private final StackTraceWindow monitorEnters;
+    private final StackTraceWindow threadParks;
+
+    @GuardedBy("this")
+    private RecordingStream stream;
+
+    @Inject
+    public JfrSampler(JfrSamplerConfig config)
+    {
+        this(config, Ticker.systemTicker());
+    }
+
+    JfrSampler(JfrSamplerConfig config, Ticker ticker)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isEnabled();
+        this.allocationSampleRate = config.getAllocationSampleRate();
+        this.contentionThreshold = Duration.ofNanos(config.getContentionThreshold().roundTo(NANOSECONDS));
+        long windowNanos = config.getWindow().roundTo(NANOSECONDS);
+        this.allocations = new StackTraceWindow(windowNanos, config.getMaxStackTraces(), ticker);
+        this.monitorEnters = new StackTraceWindow(windowNanos, config.getMaxStackTraces(), ticker);
+        this.threadParks = new StackTraceWindow(windowNanos, config.getMaxStackTraces(), ticker);
+    }
+
+    @PostConstruct
+    public synchronized void start()
+    {
+        if (!enabled || stream != null) {
+            return;
+        }
+
+        RecordingStream recordingStream;
+        try {
+            recordingStream = new RecordingStream();
+        }
+        catch (RuntimeException e) {
+            log.warn(e, "JFR is not available, allocation and contention sampling is disabled");
+            return;
+        }
+        recordingStream.enable(ALLOCATION_SAMPLE).with("throttle", allocationSampleRate + "/s").withStackTrace();
+        recordingStream.enable(MONITOR_ENTER).withThreshold(contentionThreshold).withStackTrace();
+        recordingStream.enable(THREAD_PARK).withThreshold(contentionThreshold).withStackTrace();
+
+        // the weight of an allocation sample is the bytes allocated since the previous sample
+        recordingStream.onEvent(ALLOCATION_SAMPLE, event -> record(allocations, event, event.getLong("weight"), false));
+        recordingStream.onEvent(MONITOR_ENTER, event -> record(monitorEnters, event, event.getDuration().toNanos(), false));
+        recordingStream.onEvent(THREAD_PARK, event -> record(threadParks, event, event.getDuration().toNanos(), true));
+
+        // events are only aggregated, so they do not need to be ordered or kept
+        recordingStream.setOrdered(false);
+        recordingStream.setReuse(true);
+        recordingStream.startAsync();
+        this.stream = recordingStream;
+    }
+
+    @PreDestroy
+    public synchronized void stop()
+    {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Managed
+    public synchronized boolean isRunning()
+    {
+        return stream != null;
+    }
+
+    @Managed(description = "Stack traces allocating the most bytes")
+    public List<String> getTopAllocationStackTraces()
+    {
+        return format(allocations.getTop(TOP_STACK_TRACES), "bytes");
+    }
+
+    @Managed(description = "Stack traces blocked the longest entering a monitor")
+    public List<String> getTopMonitorEnterStackTraces()
+    {
+        return format(monitorEnters.getTop(TOP_STACK_TRACES), "ns");
+    }
+
+    @Managed(description = "Stack traces parked the longest, excluding idle pool threads")
+    public List<String> getTopThreadParkStackTraces()
+    {
+        return format(threadParks.getTop(TOP_STACK_TRACES), "ns");
+    }
+
+    @Managed
+    public long getAllocationSamples()
+    {
+        return allocations.getSamples();
+    }
+
+    @Managed
+    public long getMonitorEnterSamples()
+    {
+        return monitorEnters.getSamples();
+    }
+
+    @Managed
+    public long getThreadParkSamples()
+    {
+        return threadParks.getSamples();
+    }
+
+    @Managed(description = "Samples dropped because the window had too many distinct stack traces")
+    public long getDroppedSamples()
+    {
+        return allocations.getDropped() + monitorEnters.getDropped() + threadParks.getDropped();
+    }
+
+    List<StackTraceCount> getTopAllocations(int limit)
+    {
+        return allocations.getTop(limit);
+    }
+
+    List<StackTraceCount> getTopMonitorEnters(int limit)
+    {
+        return monitorEnters.getTop(limit);
+    }
+
+    private static void record(StackTraceWindow window, RecordedEvent event, long weight, boolean skipIdle)
+    {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        ImmutableList.Builder<String> key = ImmutableList.builderWithExpectedSize(Math.min(frames.size(), MAX_FRAMES));
+        for (int i = 0; i < frames.size() && i < MAX_FRAMES; i++) {
+            RecordedFrame frame = frames.get(i);
+            key.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber());
+        }
+        List<String> stackTraceKey = key.build();
+        if (skipIdle && isIdle(stackTraceKey)) {
+            return;
+        }
+        window.add(stackTraceKey, weight);
+    }
+
+    /**
+     * Returns true if the frames are those of a pool thread waiting for work or of the JFR event stream.
+     */
+    static boolean isIdle(List<String> frames)
+    {
+        for (String frame : frames) {
+            if (frame.startsWith(JFR_PACKAGE)) {
+                return true;
+            }
+            int lineSeparator = frame.lastIndexOf(':');
+            if (IDLE_METHODS.contains(lineSeparator < 0 ? frame : frame.substring(0, lineSeparator))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> format(List<StackTraceCount> counts, String unit)
+    {
+        List<String> output = new ArrayList<>();
+        for (StackTraceCount count : counts) {
+            output.add(count.getWeight() + " " + unit + " in " + count.getCount() + " samples");
+            for (String frame : count.getFrames()) {
+                output.add("\t" + frame);
+            }
+            output.add("");
+        }
+        return output;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx;
+
+import com.facebook.airlift.configuration.Config;
+import com.facebook.airlift.configuration.ConfigDescription;
+import com.facebook.airlift.units.Duration;
+import com.facebook.airlift.units.MinDuration;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+public class JfrSamplerConfig
+{
+    private boolean enabled;
+    private int allocationSampleRate = 100;
+    private Duration contentionThreshold = new Duration(10, MILLISECONDS);
+    private Duration window = new Duration(1, MINUTES);
+    private int maxStackTraces = 1000;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("jmx.sampler.enabled")
+    @ConfigDescription("Sample allocations and lock contention with JFR")
+    public JfrSamplerConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getAllocationSampleRate()
+    {
+        return allocationSampleRate;
+    }
+
+    @Config("jmx.sampler.allocation-sample-rate")
+    @ConfigDescription("Maximum number of allocations sampled per second")
+    public JfrSamplerConfig setAllocationSampleRate(int allocationSampleRate)
+    {
+        this.allocationSampleRate = allocationSampleRate;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1ms")
+    public Duration getContentionThreshold()
+    {
+        return contentionThreshold;
+    }
+
+    @Config("jmx.sampler.contention-threshold")
+    @ConfigDescription("Minimum time blocked on a monitor or parked for a thread to be sampled")
+    public JfrSamplerConfig setContentionThreshold(Duration contentionThreshold)
+    {
+        this.contentionThreshold = contentionThreshold;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getWindow()
+    {
+        return window;
+    }
+
+    @Config("jmx.sampler.window")
+    @ConfigDescription("Time the sampled stack traces are aggregated over")
+    public JfrSamplerConfig setWindow(Duration window)
+    {
+        this.window = window;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxStackTraces()
+    {
+        return maxStackTraces;
+    }
+
+    @Config("jmx.sampler.max-stack-traces")
+    @ConfigDescription("Maximum number of distinct stack traces kept per window for each kind of event")
+    public JfrSamplerConfig setMaxStackTraces(int maxStackTraces)
+    {
+        this.maxStackTraces = maxStackTraces;
+        return this;
+    }
+}
@@ -45,6 +45,10 @@ public class JmxModule
         newExporter(binder).export(StackTraceMBean.class).withGeneratedName();
         binder.bind(StackTraceMBean.class).in(Scopes.SINGLETON);
 
+        configBinder(binder).bindConfig(JfrSamplerConfig.class);
+        newExporter(binder).export(JfrSampler.class).withGeneratedName();
+        binder.bind(JfrSampler.class).in(Scopes.SINGLETON);
+
         discoveryBinder(binder).bindServiceAnnouncement(JmxAnnouncementProvider.class);
 
         binder.bind(JmxAgent9.class).in(Scopes.SINGLETON);
@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Aggregates the weight of sampled stack traces over a rolling window. Samples are
+ * added to the current window, and the top stack traces are taken from the current and
+ * the previous window, so they cover between one and two windows of time. At most
+ * {@code maxStackTraces} distinct stack traces are kept per window, and samples of
+ * other stack traces are dropped.
+ */
+final class StackTraceWindow
+{
+    private final Ticker ticker;
+    private final long windowNanos;
+    private final int maxStackTraces;
+
+    @GuardedBy("this")
+    private Map<List<String>, StackTraceCount> current = new HashMap<>();
+    @GuardedBy("this")
+    private Map<List<String>, StackTraceCount> previous = ImmutableMap.of();
+    @GuardedBy("this")
+    private long currentStart;
+    @GuardedBy("this")
+    private long samples;
+    @GuardedBy("this")
+    private long dropped;
+
+    StackTraceWindow(long windowNanos, int maxStackTraces, Ticker ticker)
+    {
+        checkArgument(windowNanos > 0, "windowNanos must be positive");
+        checkArgument(maxStackTraces > 0, "maxStackTraces must be positive");
+        this.windowNanos = windowNanos;
+        this.maxStackTraces = maxStackTraces;
+        this.ticker = requireNonNull(ticker, "ticker is null");
+        this.currentStart = ticker.read();
+    }
+
+    public synchronized void add(List<String> frames, long weight)
+    {
+        rotate();
+        samples++;
+        StackTraceCount count = current.get(frames);
+        if (count == null) {
+            if (current.size() >= maxStackTraces) {
+                dropped++;
+                return;
+            }
+            count = new StackTraceCount(frames);
+            current.put(frames, count);
+        }
+        count.add(1, weight);
+    }
+
+    public synchronized List<StackTraceCount> getTop(int limit)
+    {
+        rotate();
+        Map<List<String>, StackTraceCount> merged = new HashMap<>();
+        for (Map<List<String>, StackTraceCount> window : ImmutableList.of(previous, current)) {
+            for (StackTraceCount count : window.values()) {
+                merged.computeIfAbsent(count.getFrames(), StackTraceCount::new).add(count.getCount(), count.getWeight());
+            }
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(StackTraceCount::getWeight).reversed())
+                .limit(limit)
+                .collect(toImmutableList());
+    }
+
+    public synchronized long getSamples()
+    {
+        return samples;
+    }
+
+    public synchronized long getDropped()
+    {
+        return dropped;
+    }
+
+    @GuardedBy("this")
+    private void rotate()
+    {
+        long now = ticker.read();
+        long elapsed = now - currentStart;
+        if (elapsed < windowNanos) {
+            return;
+        }
+        previous = (elapsed < (2 * windowNanos)) ? current : ImmutableMap.of();
+        current = new HashMap<>();
+        currentStart = now - (elapsed % windowNanos);
+    }
+
+    public static final class StackTraceCount
+    {
+        private final List<String> frames;
+        private long count;
+        private long weight;
+
+        private StackTraceCount(List<String> frames)
+        {
+            this.frames = frames;
+        }
+
+        private void add(long count, long weight)
+        {
+            this.count += count;
+            this.weight += weight;
+        }
+
+        public List<String> getFrames()
+        {
+            return frames;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getWeight()
+        {
+            return weight;
+        }
+    }
+}
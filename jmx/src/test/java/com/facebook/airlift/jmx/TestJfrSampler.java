@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx;
+
+import com.facebook.airlift.jmx.StackTraceWindow.StackTraceCount;
+import com.facebook.airlift.units.Duration;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.facebook.airlift.jmx.JfrSampler.isIdle;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestJfrSampler
+{
+    private static volatile Object sink;
+
+    @Test
+    public void testDisabled()
+    {
+        JfrSampler sampler = new JfrSampler(new JfrSamplerConfig());
+        sampler.start();
+        assertFalse(sampler.isRunning());
+        sampler.stop();
+    }
+
+    @Test(timeOut = 60_000)
+    public void testAllocationsAndContention()
+            throws Exception
+    {
+        JfrSampler sampler = new JfrSampler(new JfrSamplerConfig()
+                .setEnabled(true)
+                .setAllocationSampleRate(1000)
+                .setContentionThreshold(new Duration(1, MILLISECONDS)));
+        sampler.start();
+        try {
+            assertTrue(sampler.isRunning());
+            assertEventually(() -> {
+                allocate();
+                return containsFrame(sampler.getTopAllocations(100), "allocate");
+            });
+            assertEventually(() -> {
+                contend();
+                return containsFrame(sampler.getTopMonitorEnters(100), "lambda$contend");
+            });
+            assertFalse(sampler.getTopAllocationStackTraces().isEmpty());
+        }
+        finally {
+            sampler.stop();
+        }
+        assertFalse(sampler.isRunning());
+    }
+
+    @Test
+    public void testIdleThreadParks()
+    {
+        assertTrue(isIdle(ImmutableList.of(
+                "jdk.internal.misc.Unsafe.park:-1",
+                "java.util.concurrent.locks.LockSupport.parkNanos:269",
+                "java.util.concurrent.LinkedBlockingQueue.poll:460",
+                "java.util.concurrent.ThreadPoolExecutor.getTask:1069",
+                "java.util.concurrent.ThreadPoolExecutor.runWorker:1130")));
+        assertTrue(isIdle(ImmutableList.of(
+                "jdk.internal.misc.Unsafe.park:-1",
+                "java.util.concurrent.ForkJoinPool.awaitWork:1724")));
+        assertTrue(isIdle(ImmutableList.of(
+                "jdk.internal.misc.Unsafe.park:-1",
+                "jdk.jfr.internal.consumer.AbstractEventStream.run:218")));
+
+        // a task waiting on a lock while it runs in a pool thread
+        assertFalse(isIdle(ImmutableList.of(
+                "jdk.internal.misc.Unsafe.park:-1",
+                "java.util.concurrent.locks.ReentrantLock.lock:322",
+                "java.util.concurrent.ThreadPoolExecutor.runWorker:1136")));
+    }
+
+    private static void allocate()
+    {
+        for (int i = 0; i < 10_000; i++) {
+            sink = new byte[1024];
+        }
+    }
+
+    private static void contend()
+    {
+        Object lock = new Object();
+        // blocks entering the monitor held by this thread
+        Thread blocked = new Thread(() -> {
+            synchronized (lock) {
+                sink = lock;
+            }
+        });
+        synchronized (lock) {
+            blocked.start();
+            sleep(50);
+        }
+        try {
+            blocked.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void sleep(long millis)
+    {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static boolean containsFrame(List<StackTraceCount> counts, String method)
+    {
+        String frame = TestJfrSampler.class.getName() + "." + method;
+        return counts.stream()
+                .flatMap(count -> count.getFrames().stream())
+                .anyMatch(value -> value.startsWith(frame));
+    }
+
+    private static void assertEventually(Supplier<Boolean> condition)
+            throws InterruptedException
+    {
+        for (int i = 0; i < 200; i++) {
+            if (condition.get()) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("condition was not met");
+    }
+}
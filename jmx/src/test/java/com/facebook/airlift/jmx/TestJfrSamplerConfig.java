@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx;
+
+import com.facebook.airlift.units.Duration;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class TestJfrSamplerConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(JfrSamplerConfig.class)
+                .setEnabled(false)
+                .setAllocationSampleRate(100)
+                .setContentionThreshold(new Duration(10, MILLISECONDS))
+                .setWindow(new Duration(1, MINUTES))
+                .setMaxStackTraces(1000));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("jmx.sampler.enabled", "true")
+                .put("jmx.sampler.allocation-sample-rate", "20")
+                .put("jmx.sampler.contention-threshold", "50ms")
+                .put("jmx.sampler.window", "30s")
+                .put("jmx.sampler.max-stack-traces", "10")
+                .build();
+
+        JfrSamplerConfig expected = new JfrSamplerConfig()
+                .setEnabled(true)
+                .setAllocationSampleRate(20)
+                .setContentionThreshold(new Duration(50, MILLISECONDS))
+                .setWindow(new Duration(30, SECONDS))
+                .setMaxStackTraces(10);
+
+        assertFullMapping(properties, expected);
+    }
+}
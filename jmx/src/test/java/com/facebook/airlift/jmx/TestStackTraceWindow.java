@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.jmx;
+
+import com.facebook.airlift.jmx.StackTraceWindow.StackTraceCount;
+import com.facebook.airlift.testing.TestingTicker;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+
+public class TestStackTraceWindow
+{
+    private static final List<String> A = ImmutableList.of("a", "main");
+    private static final List<String> B = ImmutableList.of("b", "main");
+    private static final List<String> C = ImmutableList.of("c", "main");
+
+    @Test
+    public void testTopByWeight()
+    {
+        StackTraceWindow window = new StackTraceWindow(SECONDS.toNanos(10), 10, new TestingTicker());
+        window.add(A, 10);
+        window.add(B, 25);
+        window.add(A, 10);
+        window.add(C, 1);
+
+        List<StackTraceCount> top = window.getTop(2);
+        assertEquals(top.size(), 2);
+        assertCount(top.get(0), B, 1, 25);
+        assertCount(top.get(1), A, 2, 20);
+        assertEquals(window.getSamples(), 4);
+    }
+
+    @Test
+    public void testRolling()
+    {
+        TestingTicker ticker = new TestingTicker();
+        StackTraceWindow window = new StackTraceWindow(SECONDS.toNanos(10), 10, ticker);
+        window.add(A, 1);
+
+        // the previous window is still included
+        ticker.increment(12, SECONDS);
+        window.add(A, 2);
+        window.add(B, 5);
+        List<StackTraceCount> top = window.getTop(10);
+        assertEquals(top.size(), 2);
+        assertCount(top.get(0), B, 1, 5);
+        assertCount(top.get(1), A, 2, 3);
+
+        // the first window is gone
+        ticker.increment(10, SECONDS);
+        top = window.getTop(10);
+        assertEquals(top.size(), 2);
+        assertCount(top.get(0), B, 1, 5);
+        assertCount(top.get(1), A, 1, 2);
+
+        // both windows are gone after being idle
+        ticker.increment(20, SECONDS);
+        assertEquals(window.getTop(10), ImmutableList.of());
+    }
+
+    @Test
+    public void testMaxStackTraces()
+    {
+        StackTraceWindow window = new StackTraceWindow(SECONDS.toNanos(10), 2, new TestingTicker());
+        window.add(A, 1);
+        window.add(B, 1);
+        window.add(C, 1);
+        window.add(A, 1);
+
+        assertEquals(window.getTop(10).size(), 2);
+        assertEquals(window.getSamples(), 4);
+        assertEquals(window.getDropped(), 1);
+    }
+
+    private static void assertCount(StackTraceCount count, List<String> frames, long samples, long weight)
+    {
+        assertEquals(count.getFrames(), frames);
+        assertEquals(count.getCount(), samples);
+        assertEquals(count.getWeight(), weight);
+    }
+}
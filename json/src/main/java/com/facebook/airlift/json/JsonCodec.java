@@ -18,6 +18,9 @@ package com.facebook.airlift.json;
 import com.facebook.airlift.json.LengthLimitedWriter.LengthLimitExceededException;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
 import com.google.common.base.Suppliers;
 import com.google.common.reflect.TypeParameter;
 import com.google.common.reflect.TypeToken;
@@ -27,12 +30,15 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringWriter;
 import java.lang.reflect.Type;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 
 import static com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT;
+import static com.google.common.base.Throwables.getCausalChain;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -104,15 +110,21 @@ public class JsonCodec<T>
         return new JsonCodec<>(OBJECT_MAPPER_SUPPLIER.get(), mapType);
     }
 
-    private final ObjectMapper mapper;
     private final Type type;
     private final JavaType javaType;
+    // readers and writers are immutable and cache the root (de)serializer after first use
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    // writes the runtime type of the instance, so properties of subclasses are not dropped
+    private final ObjectWriter runtimeTypeWriter;
 
     JsonCodec(ObjectMapper mapper, Type type)
     {
-        this.mapper = mapper;
         this.type = type;
         this.javaType = mapper.getTypeFactory().constructType(type);
+        this.reader = mapper.readerFor(javaType);
+        this.writer = mapper.writerFor(javaType);
+        this.runtimeTypeWriter = mapper.writer();
     }
 
     /**
@@ -134,7 +146,7 @@ public class JsonCodec<T>
             throws IllegalArgumentException
     {
         try {
-            return mapper.readerFor(javaType).readValue(json);
+            return reader.readValue(json);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("Invalid JSON string for %s", javaType), e);
@@ -152,7 +164,7 @@ public class JsonCodec<T>
             throws IllegalArgumentException
     {
         try {
-            return mapper.writerFor(javaType).writeValueAsString(instance);
+            return writer.writeValueAsString(instance);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("%s could not be converted to JSON", instance.getClass().getName()), e);
@@ -171,7 +183,7 @@ public class JsonCodec<T>
     {
         try (StringWriter stringWriter = new StringWriter();
                 LengthLimitedWriter lengthLimitedWriter = new LengthLimitedWriter(stringWriter, lengthLimit)) {
-            mapper.writeValue(lengthLimitedWriter, instance);
+            runtimeTypeWriter.writeValue(lengthLimitedWriter, instance);
             return Optional.of(stringWriter.getBuffer().toString());
         }
         catch (LengthLimitExceededException e) {
@@ -193,7 +205,7 @@ public class JsonCodec<T>
             throws IllegalArgumentException
     {
         try {
-            return mapper.readerFor(javaType).readValue(json);
+            return reader.readValue(json);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("Invalid JSON bytes for %s", javaType), e);
@@ -211,13 +223,42 @@ public class JsonCodec<T>
             throws IllegalArgumentException
     {
         try {
-            return mapper.writerFor(javaType).writeValueAsBytes(instance);
+            return writer.writeValueAsBytes(instance);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("%s could not be converted to JSON", instance.getClass().getName()), e);
         }
     }
 
+    /**
+     * Writes the specified instance as json (UTF-8) into the buffer, starting at
+     * the current position. On success the position is advanced past the json.
+     *
+     * @param buffer the buffer to write into
+     * @param instance the instance to convert to json
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if the specified instance can not be converted to json,
+     * or if the json does not fit in the remaining space of the buffer; in both cases the
+     * position of the buffer is unchanged
+     */
+    public int toJson(ByteBuffer buffer, T instance)
+            throws IllegalArgumentException
+    {
+        int start = buffer.position();
+        try {
+            writer.writeValue(new ByteBufferBackedOutputStream(buffer), instance);
+            return buffer.position() - start;
+        }
+        catch (IOException | BufferOverflowException e) {
+            buffer.position(start);
+            // Jackson wraps exceptions thrown from inside a serializer in a JsonMappingException
+            if (getCausalChain(e).stream().anyMatch(BufferOverflowException.class::isInstance)) {
+                throw new IllegalArgumentException(format("Buffer is too small: JSON for %s does not fit in %s bytes", instance.getClass().getName(), buffer.limit() - start), e);
+            }
+            throw new IllegalArgumentException(format("%s could not be converted to JSON", instance.getClass().getName()), e);
+        }
+    }
+
     @Override
     public byte[] toBytes(T instance)
     {
@@ -234,7 +275,7 @@ public class JsonCodec<T>
     public void writeBytes(OutputStream output, T instance)
     {
         try {
-            mapper.writeValue(output, instance);
+            runtimeTypeWriter.writeValue(output, instance);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("%s could not be converted to JSON", instance.getClass().getName()), e);
@@ -245,7 +286,7 @@ public class JsonCodec<T>
     public T readBytes(InputStream input)
     {
         try {
-            return mapper.readValue(input, javaType);
+            return reader.readValue(input);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("Invalid JSON bytes for %s", javaType), e);
@@ -16,6 +16,8 @@ package com.facebook.airlift.json.smile;
 import com.facebook.airlift.json.Codec;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Suppliers;
 import com.google.common.reflect.TypeParameter;
@@ -101,15 +103,19 @@ public class SmileCodec<T>
         return new SmileCodec<>(OBJECT_MAPPER_SUPPLIER.get(), mapType);
     }
 
-    private final ObjectMapper mapper;
     private final Type type;
     private final JavaType javaType;
+    // readers and writers are immutable and cache the root (de)serializer after first use
+    private final ObjectReader reader;
+    // writes the runtime type of the instance, so properties of subclasses are not dropped
+    private final ObjectWriter writer;
 
     SmileCodec(ObjectMapper mapper, Type type)
     {
-        this.mapper = mapper;
         this.type = type;
         this.javaType = mapper.getTypeFactory().constructType(type);
+        this.reader = mapper.readerFor(javaType);
+        this.writer = mapper.writer();
     }
 
     /**
@@ -131,7 +137,7 @@ public class SmileCodec<T>
             throws IllegalArgumentException
     {
         try {
-            return mapper.readValue(bytes, javaType);
+            return reader.readValue(bytes);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("Invalid SMILE bytes for %s", javaType), e);
@@ -149,7 +155,7 @@ public class SmileCodec<T>
             throws IllegalArgumentException
     {
         try {
-            return mapper.writeValueAsBytes(instance);
+            return writer.writeValueAsBytes(instance);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("%s could not be converted to SMILE", instance.getClass().getName()), e);
@@ -172,7 +178,7 @@ public class SmileCodec<T>
     public void writeBytes(OutputStream output, T instance)
     {
         try {
-            mapper.writeValue(output, instance);
+            writer.writeValue(output, instance);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("%s could not be converted to SMILE", instance.getClass().getName()), e);
@@ -183,7 +189,7 @@ public class SmileCodec<T>
     public T readBytes(InputStream input)
     {
         try {
-            return mapper.readValue(input, javaType);
+            return reader.readValue(input);
         }
         catch (IOException e) {
             throw new IllegalArgumentException(format("Invalid SMILE bytes for %s", javaType), e);
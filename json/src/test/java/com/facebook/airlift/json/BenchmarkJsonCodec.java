@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.json;
+
+import com.facebook.airlift.json.smile.SmileCodec;
+import com.facebook.airlift.json.smile.SmileCodecFactory;
+import com.facebook.airlift.json.smile.SmileObjectMapperProvider;
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class BenchmarkJsonCodec
+{
+    @State(Scope.Thread)
+    public static class Data
+    {
+        @Param({"1", "1000"})
+        private int size;
+
+        private List<Person> people;
+        private JsonCodec<List<Person>> jsonCodec;
+        private SmileCodec<List<Person>> smileCodec;
+        private String json;
+        private byte[] jsonBytes;
+        private byte[] smileBytes;
+        private ByteBuffer buffer;
+
+        @Setup
+        public void setup()
+        {
+            ImmutableList.Builder<Person> builder = ImmutableList.builder();
+            for (int i = 0; i < size; i++) {
+                Person person = new Person()
+                        .setName("person-" + i)
+                        .setRocks(i % 2 == 0);
+                person.setLastName(i % 3 == 0 ? Optional.empty() : Optional.of("last-name-" + i));
+                builder.add(person);
+            }
+            people = builder.build();
+
+            jsonCodec = new JsonCodecFactory(new JsonObjectMapperProvider()).listJsonCodec(Person.class);
+            smileCodec = new SmileCodecFactory(new SmileObjectMapperProvider()).listSmileCodec(Person.class);
+
+            json = jsonCodec.toJson(people);
+            jsonBytes = jsonCodec.toJsonBytes(people);
+            smileBytes = smileCodec.toSmile(people);
+            buffer = ByteBuffer.allocateDirect(jsonBytes.length * 2);
+        }
+    }
+
+    @Benchmark
+    public String benchmarkToJson(Data data)
+    {
+        return data.jsonCodec.toJson(data.people);
+    }
+
+    @Benchmark
+    public byte[] benchmarkToJsonBytes(Data data)
+    {
+        return data.jsonCodec.toJsonBytes(data.people);
+    }
+
+    @Benchmark
+    public int benchmarkToJsonByteBuffer(Data data)
+    {
+        data.buffer.clear();
+        return data.jsonCodec.toJson(data.buffer, data.people);
+    }
+
+    @Benchmark
+    public Optional<String> benchmarkToJsonWithLengthLimit(Data data)
+    {
+        return data.jsonCodec.toJsonWithLengthLimit(data.people, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<Person> benchmarkFromJson(Data data)
+    {
+        return data.jsonCodec.fromJson(data.json);
+    }
+
+    @Benchmark
+    public List<Person> benchmarkFromJsonBytes(Data data)
+    {
+        return data.jsonCodec.fromJson(data.jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] benchmarkToSmile(Data data)
+    {
+        return data.smileCodec.toSmile(data.people);
+    }
+
+    @Benchmark
+    public List<Person> benchmarkFromSmile(Data data)
+    {
+        return data.smileCodec.fromSmile(data.smileBytes);
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkJsonCodec.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
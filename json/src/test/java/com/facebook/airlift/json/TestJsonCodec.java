@@ -15,10 +15,13 @@
  */
 package com.facebook.airlift.json;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Strings;
 import com.google.common.reflect.TypeToken;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,10 +31,12 @@ import java.util.Map;
 import static com.facebook.airlift.json.JsonCodec.jsonCodec;
 import static com.facebook.airlift.json.JsonCodec.listJsonCodec;
 import static com.facebook.airlift.json.JsonCodec.mapJsonCodec;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
 
 public class TestJsonCodec
 {
@@ -261,4 +266,67 @@ public class TestJsonCodec
         assertFalse(jsonCodec.toJsonWithLengthLimit(people, jsonNoLimitLength - 1).isPresent());
         assertTrue(jsonCodec.toJsonWithLengthLimit(people, jsonNoLimitLength).isPresent());
     }
+
+    @Test
+    public void testToJsonByteBuffer()
+    {
+        JsonCodec<ImmutablePerson> jsonCodec = jsonCodec(ImmutablePerson.class);
+        ImmutablePerson person = new ImmutablePerson("dain", true);
+        byte[] expected = jsonCodec.toJsonBytes(person);
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10);
+        buffer.position(3);
+        assertEquals(jsonCodec.toJson(buffer, person), expected.length);
+        assertEquals(buffer.position(), expected.length + 3);
+
+        byte[] actual = new byte[expected.length];
+        buffer.flip().position(3);
+        buffer.get(actual);
+        assertEquals(actual, expected);
+        assertEquals(jsonCodec.fromJson(actual), person);
+    }
+
+    @Test
+    public void testToJsonByteBufferOverflow()
+    {
+        JsonCodec<ImmutablePerson> jsonCodec = jsonCodec(ImmutablePerson.class);
+        ImmutablePerson person = new ImmutablePerson(Strings.repeat("a", 1000), false);
+
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        IllegalArgumentException exception = expectThrows(IllegalArgumentException.class, () -> jsonCodec.toJson(buffer, person));
+        assertTrue(exception.getMessage().startsWith("Buffer is too small"), exception.getMessage());
+        assertEquals(buffer.position(), 0);
+    }
+
+    @Test
+    public void testSubclassPropertiesWritten()
+    {
+        JsonCodec<Person> jsonCodec = jsonCodec(Person.class);
+        Person employee = new Employee("facebook").setName("dain").setRocks(true);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jsonCodec.writeBytes(output, employee);
+        String json = new String(output.toByteArray(), UTF_8);
+        assertTrue(json.contains("\"employer\" : \"facebook\""), json);
+
+        json = jsonCodec.toJsonWithLengthLimit(employee, 1000).orElseThrow(AssertionError::new);
+        assertTrue(json.contains("\"employer\" : \"facebook\""), json);
+    }
+
+    public static class Employee
+            extends Person
+    {
+        private final String employer;
+
+        public Employee(String employer)
+        {
+            this.employer = employer;
+        }
+
+        @JsonProperty
+        public String getEmployer()
+        {
+            return employer;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.facebook.airlift.json.smile;
 
 import com.facebook.airlift.json.ImmutablePerson;
 import com.facebook.airlift.json.Person;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
@@ -163,6 +164,20 @@ public class TestSmileCodecFactory
         assertEquals(personCodec.readBytes(input), person);
     }
 
+    @Test
+    public void testSubclassPropertiesWritten()
+    {
+        SmileCodec<Person> personCodec = codecFactory.smileCodec(Person.class);
+        SmileCodec<Map<String, Object>> mapCodec = codecFactory.mapSmileCodec(String.class, Object.class);
+        Person employee = new Employee("facebook").setName("person-1").setRocks(true);
+
+        assertEquals(mapCodec.fromSmile(personCodec.toSmile(employee)).get("employer"), "facebook");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        personCodec.writeBytes(output, employee);
+        assertEquals(mapCodec.fromSmile(output.toByteArray()).get("employer"), "facebook");
+    }
+
     private void validatePersonListSmileCodec(SmileCodec<List<Person>> smileCodec)
     {
         List<Person> expected = ImmutableList.of(
@@ -212,4 +227,21 @@ public class TestSmileCodecFactory
         List<ImmutablePerson> actual = smileCodec.fromSmile(smileBytes);
         assertEquals(actual, expected);
     }
+
+    public static class Employee
+            extends Person
+    {
+        private final String employer;
+
+        public Employee(String employer)
+        {
+            this.employer = employer;
+        }
+
+        @JsonProperty
+        public String getEmployer()
+        {
+            return employer;
+        }
+    }
 }
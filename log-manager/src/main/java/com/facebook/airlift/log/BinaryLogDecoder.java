@@ -0,0 +1,144 @@
+package com.facebook.airlift.log;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static com.facebook.airlift.log.BinaryLogRecordEncoder.NAME;
+import static com.facebook.airlift.log.BinaryLogRecordEncoder.RECORD;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Converts log files written in the {@link LogFormat#BINARY} format to JSON lines.
+ * <p>
+ * Usage: {@code java -cp ... com.facebook.airlift.log.BinaryLogDecoder file...}
+ */
+public final class BinaryLogDecoder
+{
+    private static final Level[] LEVELS = Level.values();
+
+    private BinaryLogDecoder() {}
+
+    public static void main(String[] args)
+            throws IOException
+    {
+        for (String file : args) {
+            Path path = Paths.get(file);
+            InputStream input = Files.newInputStream(path);
+            if (file.endsWith(".gz")) {
+                input = new GZIPInputStream(input);
+            }
+            try (InputStream in = input) {
+                decode(in, System.out);
+            }
+        }
+        System.out.flush();
+    }
+
+    public static void decode(InputStream input, OutputStream output)
+            throws IOException
+    {
+        CountingInputStream in = new CountingInputStream(new BufferedInputStream(input));
+        WritableByteChannel channel = Channels.newChannel(output);
+        LogOutputBuffer buffer = new LogOutputBuffer(64 * 1024, bytes -> {
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        JsonLogRecordEncoder encoder = new JsonLogRecordEncoder();
+        Map<Long, String> names = new HashMap<>();
+
+        try {
+            for (int type = in.read(); type >= 0; type = in.read()) {
+                if (type == NAME) {
+                    long id = readVarint(in);
+                    names.put(id, readString(in));
+                }
+                else if (type == RECORD) {
+                    long millis = readVarint(in);
+                    Level level = readLevel(in);
+                    String loggerName = names.get(readVarint(in));
+                    String threadName = names.get(readVarint(in));
+                    String traceToken = readString(in);
+                    String message = readString(in);
+                    String stackTrace = readString(in);
+                    encoder.encode(millis, level, threadName, loggerName, message, stackTrace, traceToken, buffer);
+                }
+                else {
+                    throw new IOException(format("Invalid entry type %s at offset %s", type, in.getCount() - 1));
+                }
+            }
+            buffer.flush();
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Level readLevel(CountingInputStream in)
+            throws IOException
+    {
+        int ordinal = readByte(in);
+        if (ordinal >= LEVELS.length) {
+            throw new IOException(format("Invalid log level %s at offset %s", ordinal, in.getCount() - 1));
+        }
+        return LEVELS[ordinal];
+    }
+
+    private static int readByte(InputStream in)
+            throws IOException
+    {
+        int value = in.read();
+        if (value < 0) {
+            throw new EOFException();
+        }
+        return value;
+    }
+
+    private static long readVarint(InputStream in)
+            throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static String readString(InputStream in)
+            throws IOException
+    {
+        long length = readVarint(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[toIntExact(length - 1)];
+        ByteStreams.readFully(in, bytes);
+        return new String(bytes, UTF_8);
+    }
+}
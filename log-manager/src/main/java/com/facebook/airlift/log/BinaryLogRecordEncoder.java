@@ -0,0 +1,89 @@
+package com.facebook.airlift.log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encodes records in a compact binary form. Thread and logger names are written once per
+ * file as dictionary entries and records refer to them by id:
+ * <pre>
+ * file   := entry*
+ * entry  := NAME id:varint value:string
+ *         | RECORD millis:varint level:byte logger:varint thread:varint traceToken:string message:string throwable:string
+ * string := 0                                 (absent)
+ *         | (length + 1):varint utf8[length]
+ * </pre>
+ * An id of zero stands for an absent name. A name entry may redefine an id that was used before.
+ */
+final class BinaryLogRecordEncoder
+        implements LogRecordEncoder
+{
+    static final int NAME = 1;
+    static final int RECORD = 2;
+
+    private static final int MAX_NAMES = 4096;
+
+    private final Map<String, Integer> names = new HashMap<>();
+
+    @Override
+    public void encode(LogRecordBuffer.Entry entry, LogOutputBuffer output)
+    {
+        // resolve the message before writing anything, since formatting it may fail
+        String message = entry.getMessage();
+        Throwable thrown = entry.getThrown();
+        String stackTrace = (thrown == null) ? null : StaticFormatter.formatStackTrace(thrown);
+
+        int logger = name(entry.getLoggerName(), output);
+        int thread = name(entry.getThreadName(), output);
+
+        output.writeByte(RECORD);
+        output.writeVarint(entry.getMillis());
+        output.writeByte(Level.fromJulLevel(entry.getLevel()).ordinal());
+        output.writeVarint(logger);
+        output.writeVarint(thread);
+        writeString(entry.getTraceToken(), output);
+        writeString(message, output);
+        writeString(stackTrace, output);
+    }
+
+    @Override
+    public void reset()
+    {
+        // each file has its own dictionary
+        names.clear();
+    }
+
+    private int name(String value, LogOutputBuffer output)
+    {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = names.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (names.size() >= MAX_NAMES) {
+            names.clear();
+        }
+        id = names.size() + 1;
+        names.put(value, id);
+
+        output.writeByte(NAME);
+        output.writeVarint(id);
+        writeString(value, output);
+        return id;
+    }
+
+    private static void writeString(String value, LogOutputBuffer output)
+    {
+        if (value == null) {
+            output.writeVarint(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeVarint(bytes.length + 1L);
+        output.writeBytes(bytes);
+    }
+}
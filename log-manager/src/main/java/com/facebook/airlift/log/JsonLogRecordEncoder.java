@@ -0,0 +1,127 @@
+package com.facebook.airlift.log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encodes records as JSON lines. The level, thread name and logger name fields are
+ * encoded once and the bytes are reused, since most records repeat a small set of names.
+ */
+final class JsonLogRecordEncoder
+        implements LogRecordEncoder
+{
+    private static final int MAX_CACHED_NAMES = 4096;
+    private static final int MAX_RETAINED_LINE_LENGTH = 64 * 1024;
+    private static final byte[][] LEVEL_FIELDS = new byte[Level.values().length][];
+
+    static {
+        for (Level level : Level.values()) {
+            LEVEL_FIELDS[level.ordinal()] = (",\"level\":\"" + level.name() + "\"").getBytes(UTF_8);
+        }
+    }
+
+    private final Map<String, byte[]> threadFields = new HashMap<>();
+    private final Map<String, byte[]> loggerFields = new HashMap<>();
+    private final StringBuilder builder = new StringBuilder();
+
+    @Override
+    public void encode(LogRecordBuffer.Entry entry, LogOutputBuffer output)
+    {
+        // resolve the message before writing anything, since formatting it may fail
+        String message = entry.getMessage();
+        Throwable thrown = entry.getThrown();
+        String stackTrace = (thrown == null) ? null : StaticFormatter.formatStackTrace(thrown);
+
+        encode(entry.getMillis(), Level.fromJulLevel(entry.getLevel()), entry.getThreadName(), entry.getLoggerName(), message, stackTrace, entry.getTraceToken(), output);
+    }
+
+    public void encode(long millis, Level level, String threadName, String loggerName, String message, String stackTrace, String traceToken, LogOutputBuffer output)
+    {
+        builder.setLength(0);
+        builder.append("{\"timestamp\":\"");
+        StaticFormatter.formatTimestamp(builder, millis);
+        builder.append('"');
+        output.writeString(builder);
+
+        output.writeBytes(LEVEL_FIELDS[level.ordinal()]);
+        output.writeBytes(field(threadFields, "thread", threadName));
+        output.writeBytes(field(loggerFields, "logger", loggerName));
+
+        builder.setLength(0);
+        if (traceToken != null) {
+            builder.append(",\"traceToken\":");
+            appendString(builder, traceToken);
+        }
+        builder.append(",\"message\":");
+        appendString(builder, message);
+        if (stackTrace != null) {
+            builder.append(",\"throwable\":");
+            appendString(builder, stackTrace);
+        }
+        builder.append("}\n");
+        output.writeString(builder);
+
+        if (builder.capacity() > MAX_RETAINED_LINE_LENGTH) {
+            builder.setLength(0);
+            builder.trimToSize();
+        }
+    }
+
+    private static byte[] field(Map<String, byte[]> cache, String name, String value)
+    {
+        byte[] field = cache.get(value);
+        if (field == null) {
+            if (cache.size() >= MAX_CACHED_NAMES) {
+                // names generated per task would otherwise grow the cache without bound
+                cache.clear();
+            }
+            StringBuilder builder = new StringBuilder()
+                    .append(",\"").append(name).append("\":");
+            appendString(builder, value);
+            field = builder.toString().getBytes(UTF_8);
+            cache.put(value, field);
+        }
+        return field;
+    }
+
+    private static void appendString(StringBuilder builder, String value)
+    {
+        if (value == null) {
+            builder.append("null");
+            return;
+        }
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append("\\u00")
+                                .append(Character.forDigit(c >> 4, 16))
+                                .append(Character.forDigit(c & 0xF, 16));
+                    }
+                    else {
+                        builder.append(c);
+                    }
+            }
+        }
+        builder.append('"');
+    }
+}
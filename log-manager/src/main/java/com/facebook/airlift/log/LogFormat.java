@@ -0,0 +1,21 @@
+package com.facebook.airlift.log;
+
+/**
+ * Format of the records written to the log file.
+ */
+public enum LogFormat
+{
+    /**
+     * Tab separated text, one record per line, with stack traces on the following lines.
+     */
+    TEXT,
+    /**
+     * One JSON object per line. Includes the trace token of the logging thread, if any.
+     */
+    JSON,
+    /**
+     * Compact binary records, which {@link BinaryLogDecoder} converts to JSON lines.
+     * Includes the trace token of the logging thread, if any.
+     */
+    BINARY,
+}
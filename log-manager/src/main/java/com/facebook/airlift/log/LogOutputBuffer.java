@@ -0,0 +1,122 @@
+package com.facebook.airlift.log;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.function.Consumer;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.nio.charset.CodingErrorAction.REPLACE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Direct byte buffer that encoded log records are written to. When the buffer
+ * is full, or when {@link #flush()} is called, its contents are passed to the sink.
+ * Not thread safe.
+ */
+final class LogOutputBuffer
+{
+    private static final int MAX_RETAINED_CHARS = 64 * 1024;
+
+    private final ByteBuffer buffer;
+    private final Consumer<ByteBuffer> sink;
+    private final CharsetEncoder encoder = UTF_8.newEncoder()
+            .onMalformedInput(REPLACE)
+            .onUnmappableCharacter(REPLACE);
+    private char[] chars = new char[1024];
+
+    public LogOutputBuffer(int size, Consumer<ByteBuffer> sink)
+    {
+        this.buffer = ByteBuffer.allocateDirect(size);
+        this.sink = sink;
+    }
+
+    public int size()
+    {
+        return buffer.position();
+    }
+
+    public void flush()
+    {
+        if (buffer.position() == 0) {
+            return;
+        }
+        // cast so the call links against Buffer when running on Java 8
+        ((Buffer) buffer).flip();
+        try {
+            sink.accept(buffer);
+        }
+        finally {
+            ((Buffer) buffer).clear();
+        }
+    }
+
+    public void writeByte(int value)
+    {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) value);
+    }
+
+    public void writeBytes(byte[] bytes)
+    {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int length = min(bytes.length - offset, buffer.remaining());
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    public void writeVarint(long value)
+    {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    public void writeString(String value)
+    {
+        int length = value.length();
+        value.getChars(0, length, charBuffer(length), 0);
+        encode(length);
+    }
+
+    public void writeString(StringBuilder value)
+    {
+        int length = value.length();
+        value.getChars(0, length, charBuffer(length), 0);
+        encode(length);
+    }
+
+    private char[] charBuffer(int length)
+    {
+        if (chars.length < length || chars.length > max(length, MAX_RETAINED_CHARS)) {
+            chars = new char[max(length, 1024)];
+        }
+        return chars;
+    }
+
+    private void encode(int length)
+    {
+        // encode from an array-backed buffer, so the encoder can use its fast path
+        CharBuffer input = CharBuffer.wrap(chars, 0, length);
+        while (true) {
+            CoderResult result = encoder.encode(input, buffer, true);
+            if (!result.isOverflow()) {
+                break;
+            }
+            flush();
+        }
+        encoder.reset();
+    }
+}
@@ -0,0 +1,178 @@
+package com.facebook.airlift.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.LogRecord;
+
+import static java.lang.Integer.highestOneBit;
+
+/**
+ * Bounded ring buffer of preallocated log entries with many producers and a single consumer.
+ * Entries hold the record, so the consumer, not the logging thread, formats its message.
+ * <p>
+ * Each slot carries a sequence number. A producer claims the slot for position {@code p}
+ * when its sequence is {@code p}, and publishes it by setting the sequence to {@code p + 1}.
+ * The consumer releases the slot by setting the sequence to {@code p + capacity}, which
+ * makes it available to the producer one lap later.
+ */
+final class LogRecordBuffer
+{
+    private final Entry[] entries;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // next position to be claimed by a producer
+    private final AtomicLong tail = new AtomicLong();
+    // next position to be consumed, only written by the consumer
+    private volatile long head;
+
+    public LogRecordBuffer(int minCapacity)
+    {
+        if (minCapacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        // with a single slot, a published entry and a released slot have the same sequence
+        int capacity = (minCapacity <= 2) ? 2 : highestOneBit(minCapacity - 1) << 1;
+        entries = new Entry[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    public int capacity()
+    {
+        return entries.length;
+    }
+
+    public int size()
+    {
+        return (int) (tail.get() - head);
+    }
+
+    public boolean isEmpty()
+    {
+        return tail.get() == head;
+    }
+
+    /**
+     * Adds the record to the buffer, or returns false if the buffer is full.
+     */
+    public boolean offer(LogRecord record, String threadName, String traceToken)
+    {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entries[index].set(record, threadName, traceToken);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            }
+            else if (difference < 0) {
+                // the slot still holds the entry from the previous lap
+                return false;
+            }
+            else {
+                // another producer claimed the position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Returns the oldest published entry, or null if there is none. The entry
+     * is valid until {@link #release()} is called. Only called by the consumer.
+     */
+    public Entry peek()
+    {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        return entries[index];
+    }
+
+    /**
+     * Returns the entry returned by {@link #peek()} to the producers.
+     */
+    public void release()
+    {
+        long position = head;
+        int index = (int) position & mask;
+        entries[index].clear();
+        sequences.set(index, position + entries.length);
+        head = position + 1;
+    }
+
+    static final class Entry
+    {
+        private LogRecord record;
+        private String threadName;
+        private String traceToken;
+
+        private void set(LogRecord record, String threadName, String traceToken)
+        {
+            this.record = record;
+            this.threadName = threadName;
+            this.traceToken = traceToken;
+        }
+
+        private void clear()
+        {
+            record = null;
+            threadName = null;
+            traceToken = null;
+        }
+
+        public long getMillis()
+        {
+            return record.getMillis();
+        }
+
+        public java.util.logging.Level getLevel()
+        {
+            return record.getLevel();
+        }
+
+        public String getThreadName()
+        {
+            return threadName;
+        }
+
+        public String getLoggerName()
+        {
+            return record.getLoggerName();
+        }
+
+        /**
+         * Returns the message. The message of a {@link FormattedLogRecord} is formatted here,
+         * on the consumer thread.
+         */
+        public String getMessage()
+        {
+            return record.getMessage();
+        }
+
+        public Throwable getThrown()
+        {
+            return record.getThrown();
+        }
+
+        public String getTraceToken()
+        {
+            return traceToken;
+        }
+
+        public void formatTo(StringBuilder builder)
+        {
+            StaticFormatter.format(builder, getMillis(), getLevel(), threadName, getLoggerName(), getMessage(), getThrown());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.facebook.airlift.log;
+
+interface LogRecordEncoder
+{
+    void encode(LogRecordBuffer.Entry entry, LogOutputBuffer output);
+
+    /**
+     * Called before the first record of a new log file is encoded.
+     */
+    default void reset() {}
+
+    static LogRecordEncoder create(LogFormat format)
+    {
+        switch (format) {
+            case TEXT:
+                return new TextLogRecordEncoder();
+            case JSON:
+                return new JsonLogRecordEncoder();
+            case BINARY:
+                return new BinaryLogRecordEncoder();
+        }
+        throw new IllegalArgumentException("Unsupported log format: " + format);
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.facebook.airlift.log;
 
+import com.facebook.airlift.tracetoken.TraceTokenManager;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 
@@ -26,10 +27,12 @@ import java.io.PrintStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Handler;
 import java.util.logging.LogManager;
 
@@ -56,6 +59,9 @@ public class Logging
     @GuardedBy("this")
     private OutputStreamHandler consoleHandler;
 
+    private final List<RollingFileHandler> fileHandlers = new CopyOnWriteArrayList<>();
+    private volatile TraceTokenManager traceTokenManager;
+
     /**
      * Sets up default logging:
      * <p>
@@ -111,13 +117,46 @@ public class Logging
     }
 
     public void logToFile(String logPath, int maxHistory, long maxSizeInBytes)
+    {
+        logToFile(logPath, maxHistory, maxSizeInBytes, RollingFileHandler.DEFAULT_QUEUE_SIZE, QueueFullPolicy.BLOCK, LogFormat.TEXT);
+    }
+
+    public void logToFile(String logPath, int maxHistory, long maxSizeInBytes, int queueSize, QueueFullPolicy queueFullPolicy, LogFormat format)
     {
         log.info("Logging to %s", logPath);
 
-        RollingFileHandler rollingFileHandler = new RollingFileHandler(logPath, maxHistory, maxSizeInBytes);
+        RollingFileHandler rollingFileHandler = new RollingFileHandler(logPath, maxHistory, maxSizeInBytes, queueSize, queueFullPolicy, format, this::getCurrentTraceToken);
+        fileHandlers.add(rollingFileHandler);
         ROOT.addHandler(rollingFileHandler);
     }
 
+    /**
+     * Sets the source of the trace tokens included in structured log files.
+     */
+    public void setTraceTokenManager(TraceTokenManager traceTokenManager)
+    {
+        this.traceTokenManager = traceTokenManager;
+    }
+
+    private String getCurrentTraceToken()
+    {
+        TraceTokenManager traceTokenManager = this.traceTokenManager;
+        if (traceTokenManager == null) {
+            return null;
+        }
+        return traceTokenManager.getCurrentRequestToken();
+    }
+
+    /**
+     * Returns the number of records the file handlers discarded because they could not keep up.
+     */
+    public long getDroppedRecordCount()
+    {
+        return fileHandlers.stream()
+                .mapToLong(RollingFileHandler::getDroppedRecordCount)
+                .sum();
+    }
+
     public Level getRootLevel()
     {
         return getLevel(ROOT_LOGGER_NAME);
@@ -181,7 +220,7 @@ public class Logging
     public void configure(LoggingConfiguration config)
     {
         if (config.getLogPath() != null) {
-            logToFile(config.getLogPath(), config.getMaxHistory(), config.getMaxSize().toBytes());
+            logToFile(config.getLogPath(), config.getMaxHistory(), config.getMaxSize().toBytes(), config.getQueueSize(), config.getQueueFullPolicy(), config.getFormat());
         }
 
         if (!config.isConsoleEnabled()) {
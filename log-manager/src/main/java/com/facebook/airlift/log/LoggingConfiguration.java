@@ -18,6 +18,7 @@ package com.facebook.airlift.log;
 import com.facebook.airlift.configuration.Config;
 import com.facebook.airlift.configuration.LegacyConfig;
 import com.facebook.airlift.units.DataSize;
+import jakarta.validation.constraints.Min;
 
 import static com.facebook.airlift.units.DataSize.Unit.BYTE;
 import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
@@ -29,6 +30,9 @@ public class LoggingConfiguration
     private DataSize maxSize = new DataSize(100, MEGABYTE);
     private int maxHistory = 30;
     private String levelsFile;
+    private int queueSize = RollingFileHandler.DEFAULT_QUEUE_SIZE;
+    private QueueFullPolicy queueFullPolicy = QueueFullPolicy.BLOCK;
+    private LogFormat format = LogFormat.TEXT;
 
     public boolean isConsoleEnabled()
     {
@@ -104,4 +108,41 @@ public class LoggingConfiguration
         this.levelsFile = levelsFile;
         return this;
     }
+
+    @Min(1)
+    public int getQueueSize()
+    {
+        return queueSize;
+    }
+
+    @Config("log.queue-size")
+    public LoggingConfiguration setQueueSize(int queueSize)
+    {
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    public QueueFullPolicy getQueueFullPolicy()
+    {
+        return queueFullPolicy;
+    }
+
+    @Config("log.queue-full-policy")
+    public LoggingConfiguration setQueueFullPolicy(QueueFullPolicy queueFullPolicy)
+    {
+        this.queueFullPolicy = queueFullPolicy;
+        return this;
+    }
+
+    public LogFormat getFormat()
+    {
+        return format;
+    }
+
+    @Config("log.format")
+    public LoggingConfiguration setFormat(LogFormat format)
+    {
+        this.format = format;
+        return this;
+    }
 }
@@ -62,4 +62,10 @@ public class LoggingMBean
     {
         return ImmutableSortedMap.copyOf(Maps.transformValues(logging.getAllLevels(), Object::toString));
     }
+
+    @Managed
+    public long getDroppedRecordCount()
+    {
+        return logging.getDroppedRecordCount();
+    }
 }
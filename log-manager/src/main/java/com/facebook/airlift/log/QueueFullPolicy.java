@@ -0,0 +1,22 @@
+package com.facebook.airlift.log;
+
+/**
+ * What a file handler does with a log record when the records waiting to be
+ * written fill its buffer.
+ */
+public enum QueueFullPolicy
+{
+    /**
+     * Wait until the writer makes room for the record.
+     */
+    BLOCK,
+    /**
+     * Discard the record.
+     */
+    DROP,
+    /**
+     * Once the buffer is mostly full, keep all warnings and errors but only a
+     * sample of lower level records. Records are discarded when the buffer is full.
+     */
+    SAMPLE,
+}
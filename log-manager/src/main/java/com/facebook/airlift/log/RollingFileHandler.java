@@ -1,73 +1,153 @@
 package com.facebook.airlift.log;
 
-import ch.qos.logback.core.AsyncAppenderBase;
-import ch.qos.logback.core.ContextBase;
-import ch.qos.logback.core.encoder.EncoderBase;
-import ch.qos.logback.core.rolling.RollingFileAppender;
-import ch.qos.logback.core.rolling.SizeAndTimeBasedFNATP;
-import ch.qos.logback.core.rolling.TimeBasedRollingPolicy;
-import ch.qos.logback.core.util.FileSize;
 import com.facebook.airlift.units.DataSize;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.logging.ErrorManager;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 import java.util.logging.Handler;
 import java.util.logging.LogRecord;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
+import static com.facebook.airlift.log.LogFormat.TEXT;
+import static com.facebook.airlift.log.QueueFullPolicy.BLOCK;
+import static com.facebook.airlift.log.QueueFullPolicy.SAMPLE;
 import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.logging.ErrorManager.CLOSE_FAILURE;
 import static java.util.logging.ErrorManager.FORMAT_FAILURE;
+import static java.util.logging.ErrorManager.OPEN_FAILURE;
 import static java.util.logging.ErrorManager.WRITE_FAILURE;
 
+/**
+ * Writes log records to a file that is rolled daily and when it reaches the maximum size.
+ * <p>
+ * Records are added to a preallocated ring buffer and written by a single background
+ * thread, which encodes them in the configured {@link LogFormat} into a direct buffer that
+ * is written to the file whenever it fills or the ring buffer is drained. Rolled files are compressed and old files
+ * are deleted by a separate thread, so rolling does not stall the writer.
+ * <p>
+ * Records are always encoded by the handler itself, so a {@link java.util.logging.Formatter}
+ * set on the handler is kept for {@link #getFormatter()} but is not used.
+ */
 final class RollingFileHandler
         extends Handler
 {
+    static final int DEFAULT_QUEUE_SIZE = 16 * 1024;
+
     private static final String TEMP_FILE_EXTENSION = ".tmp";
     private static final String LOG_FILE_EXTENSION = ".log";
-    private static final FileSize BUFFER_SIZE_IN_BYTES = new FileSize(new DataSize(1, MEGABYTE).toBytes());
+    private static final String COMPRESSED_FILE_EXTENSION = ".log.gz";
+    private static final int BUFFER_SIZE_IN_BYTES = toIntExact(new DataSize(1, MEGABYTE).toBytes());
+    private static final long WRITER_IDLE_NANOS = MILLISECONDS.toNanos(10);
+    private static final long PRODUCER_WAIT_NANOS = MICROSECONDS.toNanos(50);
+    private static final int SAMPLE_RATE = 16;
+    private static final ZoneId SYSTEM_ZONE = ZoneId.systemDefault().normalized();
 
-    private final AsyncAppenderBase<String> asyncAppender;
+    // rolled files being compressed by any handler in this process, so they are not recovered twice
+    private static final Set<Path> COMPRESSING_FILES = ConcurrentHashMap.newKeySet();
 
-    public RollingFileHandler(String filename, int maxHistory, long maxSizeInBytes)
-    {
-        setFormatter(new StaticFormatter());
+    private final Path file;
+    private final Pattern archivePattern;
+    private final int maxHistory;
+    private final long maxSizeInBytes;
+    private final QueueFullPolicy queueFullPolicy;
+    private final int sampleThreshold;
+    private final LogFormat format;
+    private final Supplier<String> traceTokenSupplier;
 
-        ContextBase context = new ContextBase();
+    private final LogRecordBuffer buffer;
+    private final Thread writerThread;
+    private final ExecutorService compressionExecutor;
+    private final LongAdder droppedRecords = new LongAdder();
+    private final AtomicLong sampledRecords = new AtomicLong();
+    private volatile boolean writerWaiting;
+    private volatile boolean closed;
 
-        recoverTempFiles(filename);
+    // only used by the writer thread
+    private final LogRecordEncoder encoder;
+    private final LogOutputBuffer output = new LogOutputBuffer(BUFFER_SIZE_IN_BYTES, this::writeToFile);
+    private FileChannel channel;
+    private long fileSize;
+    private LocalDate fileDate;
+    private long nextDayMillis;
 
-        RollingFileAppender<String> fileAppender = new RollingFileAppender<>();
-        TimeBasedRollingPolicy<String> rollingPolicy = new TimeBasedRollingPolicy<>();
-        SizeAndTimeBasedFNATP<String> triggeringPolicy = new SizeAndTimeBasedFNATP<>();
+    public RollingFileHandler(String filename, int maxHistory, long maxSizeInBytes)
+    {
+        this(filename, maxHistory, maxSizeInBytes, DEFAULT_QUEUE_SIZE, BLOCK, TEXT, () -> null);
+    }
 
-        rollingPolicy.setContext(context);
-        rollingPolicy.setFileNamePattern(filename + "-%d{yyyy-MM-dd}.%i.log.gz");
-        rollingPolicy.setMaxHistory(maxHistory);
-        rollingPolicy.setTimeBasedFileNamingAndTriggeringPolicy(triggeringPolicy);
-        rollingPolicy.setParent(fileAppender);
+    public RollingFileHandler(String filename, int maxHistory, long maxSizeInBytes, int queueSize, QueueFullPolicy queueFullPolicy, LogFormat format, Supplier<String> traceTokenSupplier)
+    {
+        if (queueFullPolicy == null) {
+            throw new NullPointerException("queueFullPolicy is null");
+        }
+        if (format == null) {
+            throw new NullPointerException("format is null");
+        }
+        if (traceTokenSupplier == null) {
+            throw new NullPointerException("traceTokenSupplier is null");
+        }
+        this.file = Paths.get(filename).toAbsolutePath();
+        this.archivePattern = Pattern.compile(Pattern.quote(file.getFileName().toString()) + "-(\\d{4}-\\d{2}-\\d{2})\\.(\\d+)(?:\\.log\\.gz|\\.tmp)");
+        this.maxHistory = maxHistory;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.queueFullPolicy = queueFullPolicy;
+        this.buffer = new LogRecordBuffer(queueSize);
+        this.sampleThreshold = buffer.capacity() - buffer.capacity() / 4;
+        this.format = format;
+        this.traceTokenSupplier = traceTokenSupplier;
+        this.encoder = LogRecordEncoder.create(format);
 
-        triggeringPolicy.setContext(context);
-        triggeringPolicy.setTimeBasedRollingPolicy(rollingPolicy);
-        triggeringPolicy.setMaxFileSize(new FileSize(maxSizeInBytes));
+        long now = System.currentTimeMillis();
+        try {
+            openFile(now);
+        }
+        catch (IOException e) {
+            // logging must not prevent startup, so the file is opened again on the next write
+            reportError(format("Could not open log file [%s]", file), e, OPEN_FAILURE);
+            setFileDate(now);
+        }
 
-        fileAppender.setContext(context);
-        fileAppender.setFile(filename);
-        fileAppender.setAppend(true);
-        fileAppender.setBufferSize(BUFFER_SIZE_IN_BYTES);
-        fileAppender.setEncoder(new StringEncoder());
-        fileAppender.setRollingPolicy(rollingPolicy);
+        compressionExecutor = newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("log-compression-" + file.getFileName() + "-%s")
+                .setDaemon(true)
+                .build());
 
-        asyncAppender = new AsyncAppenderBase<>();
-        asyncAppender.setContext(context);
-        asyncAppender.addAppender(fileAppender);
+        recoverTempFiles();
 
-        rollingPolicy.start();
-        triggeringPolicy.start();
-        fileAppender.start();
-        asyncAppender.start();
+        writerThread = new Thread(this::runWriter, "log-writer-" + file.getFileName());
+        writerThread.setDaemon(true);
+        writerThread.start();
     }
 
     @Override
@@ -76,23 +156,33 @@ final class RollingFileHandler
         if (!isLoggable(record)) {
             return;
         }
-
-        String message;
-        try {
-            message = getFormatter().format(record);
+        if (closed) {
+            droppedRecords.increment();
+            return;
         }
-        catch (Exception e) {
-            // catch any exception to assure logging always works
-            reportError(null, e, FORMAT_FAILURE);
+
+        if (queueFullPolicy == SAMPLE &&
+                buffer.size() >= sampleThreshold &&
+                record.getLevel().intValue() < java.util.logging.Level.WARNING.intValue() &&
+                sampledRecords.getAndIncrement() % SAMPLE_RATE != 0) {
+            droppedRecords.increment();
             return;
         }
 
-        try {
-            asyncAppender.doAppend(message);
+        String threadName = Thread.currentThread().getName();
+        // the token is bound to the logging thread, so it cannot be looked up by the writer
+        String traceToken = (format == TEXT) ? null : traceTokenSupplier.get();
+        while (!buffer.offer(record, threadName, traceToken)) {
+            if (queueFullPolicy != BLOCK || closed) {
+                droppedRecords.increment();
+                return;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(PRODUCER_WAIT_NANOS);
         }
-        catch (Exception e) {
-            // catch any exception to assure logging always works
-            reportError(null, e, WRITE_FAILURE);
+
+        if (writerWaiting) {
+            LockSupport.unpark(writerThread);
         }
     }
 
@@ -102,61 +192,264 @@ final class RollingFileHandler
     }
 
     @Override
-    public void close()
+    public synchronized void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        // the writer drains the buffer before closing the file
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+            compressionExecutor.shutdown();
+            compressionExecutor.awaitTermination(10, SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDroppedRecordCount()
+    {
+        return droppedRecords.sum();
+    }
+
+    private void runWriter()
+    {
+        while (true) {
+            LogRecordBuffer.Entry entry = buffer.peek();
+            if (entry != null) {
+                try {
+                    write(entry);
+                }
+                catch (RuntimeException e) {
+                    // catch any exception to keep the writer running, since producers may be waiting for it
+                    reportError(null, e, WRITE_FAILURE);
+                }
+                finally {
+                    buffer.release();
+                }
+                continue;
+            }
+
+            // write the batch once the buffer is drained
+            try {
+                flushOutput();
+            }
+            catch (RuntimeException e) {
+                reportError(null, e, WRITE_FAILURE);
+            }
+
+            if (closed) {
+                if (buffer.isEmpty()) {
+                    break;
+                }
+                // a producer has claimed a slot but not yet published it
+                Thread.yield();
+                continue;
+            }
+
+            writerWaiting = true;
+            if (buffer.isEmpty()) {
+                LockSupport.parkNanos(this, WRITER_IDLE_NANOS);
+            }
+            writerWaiting = false;
+        }
+
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+        catch (IOException e) {
+            reportError(null, e, CLOSE_FAILURE);
+        }
+    }
+
+    private void write(LogRecordBuffer.Entry entry)
     {
+        long size = fileSize + output.size();
+        if (entry.getMillis() >= nextDayMillis || (size > 0 && size >= maxSizeInBytes)) {
+            roll(entry.getMillis());
+        }
+
         try {
-            asyncAppender.stop();
+            encoder.encode(entry, output);
         }
         catch (Exception e) {
             // catch any exception to assure logging always works
-            reportError(null, e, CLOSE_FAILURE);
+            reportError(null, e, FORMAT_FAILURE);
         }
     }
 
-    private static final class StringEncoder
-            extends EncoderBase<String>
+    private void flushOutput()
     {
-        private static final byte[] EMPTY_BYTES = new byte[0];
+        output.flush();
+    }
 
-        @Override
-        public byte[] headerBytes()
-        {
-            return EMPTY_BYTES;
+    private void writeToFile(ByteBuffer bytes)
+    {
+        try {
+            if (channel == null) {
+                openFile(System.currentTimeMillis());
+            }
+            while (bytes.hasRemaining()) {
+                fileSize += channel.write(bytes);
+            }
+        }
+        catch (IOException e) {
+            reportError(null, e, WRITE_FAILURE);
         }
+    }
+
+    private void roll(long millis)
+    {
+        flushOutput();
 
-        @Override
-        public byte[] encode(String event)
-        {
-            return event.getBytes(UTF_8);
+        LocalDate date = fileDate;
+        if (channel != null) {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                reportError(null, e, CLOSE_FAILURE);
+            }
+            channel = null;
         }
 
-        @Override
-        public byte[] footerBytes()
-        {
-            return EMPTY_BYTES;
+        try {
+            Path tempFile = file.resolveSibling(format("%s-%s.%s%s", file.getFileName(), date, nextArchiveIndex(date), TEMP_FILE_EXTENSION));
+            COMPRESSING_FILES.add(tempFile);
+            try {
+                Files.move(file, tempFile);
+            }
+            catch (IOException e) {
+                COMPRESSING_FILES.remove(tempFile);
+                throw e;
+            }
+            compressionExecutor.execute(() -> compress(tempFile, date));
+        }
+        catch (IOException e) {
+            reportError(format("Could not roll log file [%s]", file), e, WRITE_FAILURE);
+        }
+
+        try {
+            openFile(millis);
+        }
+        catch (IOException e) {
+            reportError(format("Could not open log file [%s]", file), e, OPEN_FAILURE);
         }
     }
 
-    private void recoverTempFiles(String logPath)
+    private void openFile(long millis)
+            throws IOException
     {
-        // Logback has a tendency to leave around temp files if it is interrupted.
-        // These .tmp files are log files that are about to be compressed.
-        // This method recovers them so that they aren't orphaned.
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, CREATE, WRITE, APPEND);
+        fileSize = channel.size();
 
-        File logPathFile = Paths.get(logPath).getParent().toFile();
-        File[] tempFiles = logPathFile.listFiles((dir, name) -> name.endsWith(TEMP_FILE_EXTENSION));
+        // an existing file belongs to the day it was last written
+        if (fileSize > 0) {
+            millis = Files.getLastModifiedTime(file).toMillis();
+        }
+        setFileDate(millis);
+        encoder.reset();
+    }
 
-        if (tempFiles == null) {
+    private void setFileDate(long millis)
+    {
+        fileDate = Instant.ofEpochMilli(millis).atZone(SYSTEM_ZONE).toLocalDate();
+        nextDayMillis = fileDate.plusDays(1).atStartOfDay(SYSTEM_ZONE).toInstant().toEpochMilli();
+    }
+
+    private int nextArchiveIndex(LocalDate date)
+            throws IOException
+    {
+        int index = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(file.getParent())) {
+            for (Path path : files) {
+                Matcher matcher = archivePattern.matcher(path.getFileName().toString());
+                if (matcher.matches() && matcher.group(1).equals(date.toString())) {
+                    index = max(index, Integer.parseInt(matcher.group(2)) + 1);
+                }
+            }
+        }
+        return index;
+    }
+
+    private void compress(Path tempFile, LocalDate date)
+    {
+        String name = tempFile.getFileName().toString();
+        Path compressedFile = tempFile.resolveSibling(name.substring(0, name.length() - TEMP_FILE_EXTENSION.length()) + COMPRESSED_FILE_EXTENSION);
+        try {
+            try (InputStream input = Files.newInputStream(tempFile);
+                    OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressedFile), 64 * 1024)) {
+                ByteStreams.copy(input, out);
+            }
+            Files.delete(tempFile);
+        }
+        catch (IOException e) {
+            reportError(format("Could not compress log file [%s]", tempFile), e, WRITE_FAILURE);
             return;
         }
+        finally {
+            COMPRESSING_FILES.remove(tempFile);
+        }
 
-        for (File tempFile : tempFiles) {
-            String newName = tempFile.getName().substring(0, tempFile.getName().length() - TEMP_FILE_EXTENSION.length());
-            File newFile = Paths.get(tempFile.getParent(), newName + LOG_FILE_EXTENSION).toFile();
+        deleteExpiredFiles(date);
+    }
 
-            if (!tempFile.renameTo(newFile)) {
-                reportError(format("Could not rename temp file [%s] to [%s]", tempFile, newFile), null, ErrorManager.OPEN_FAILURE);
+    private void deleteExpiredFiles(LocalDate currentDate)
+    {
+        if (maxHistory <= 0) {
+            return;
+        }
+        LocalDate oldestDate = currentDate.minusDays(maxHistory - 1);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(file.getParent())) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                Matcher matcher = archivePattern.matcher(name);
+                if (matcher.matches() && name.endsWith(COMPRESSED_FILE_EXTENSION) && LocalDate.parse(matcher.group(1)).isBefore(oldestDate)) {
+                    Files.deleteIfExists(path);
+                }
             }
         }
+        catch (IOException | RuntimeException e) {
+            reportError(format("Could not delete old log files for [%s]", file), e, WRITE_FAILURE);
+        }
+    }
+
+    private void recoverTempFiles()
+    {
+        // A rolled file is left uncompressed if the process stops while compressing it.
+        // The rolled files of this log are compressed, unless another handler in this
+        // process is still compressing them. Any other .tmp file, such as those left by
+        // older versions, is renamed to a .log file so that it isn't orphaned.
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(file.getParent(), "*" + TEMP_FILE_EXTENSION)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                Matcher matcher = archivePattern.matcher(name);
+                if (matcher.matches()) {
+                    if (COMPRESSING_FILES.add(path)) {
+                        LocalDate date = LocalDate.parse(matcher.group(1));
+                        compressionExecutor.execute(() -> compress(path, date));
+                    }
+                }
+                else if (!COMPRESSING_FILES.contains(path)) {
+                    Path logFile = path.resolveSibling(name.substring(0, name.length() - TEMP_FILE_EXTENSION.length()) + LOG_FILE_EXTENSION);
+                    try {
+                        Files.move(path, logFile);
+                    }
+                    catch (IOException e) {
+                        reportError(format("Could not rename temp file [%s] to [%s]", path, logFile), e, OPEN_FAILURE);
+                    }
+                }
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            reportError(format("Could not recover rolled log files for [%s]", file), e, OPEN_FAILURE);
+        }
     }
 }
@@ -53,26 +53,45 @@ class StaticFormatter
     @Override
     public String format(LogRecord record)
     {
-        ZonedDateTime timestamp = ZonedDateTime.ofInstant(Instant.ofEpochMilli(record.getMillis()), SYSTEM_ZONE);
+        StringBuilder builder = new StringBuilder();
+        format(builder, record.getMillis(), record.getLevel(), Thread.currentThread().getName(), record.getLoggerName(), record.getMessage(), record.getThrown());
+        return builder.toString();
+    }
 
-        StringWriter stringWriter = new StringWriter()
-                .append(TIMESTAMP_FORMATTER.format(timestamp))
-                .append('\t')
-                .append(Level.fromJulLevel(record.getLevel()).name())
+    /**
+     * Appends a formatted log entry to the builder. The thread name is passed in, since
+     * entries may be formatted on a different thread than the one that logged them.
+     */
+    public static void format(StringBuilder builder, long millis, java.util.logging.Level level, String threadName, String loggerName, String message, Throwable thrown)
+    {
+        formatTimestamp(builder, millis);
+        builder.append('\t')
+                .append(Level.fromJulLevel(level).name())
                 .append('\t')
-                .append(Thread.currentThread().getName())
+                .append(threadName)
                 .append('\t')
-                .append(record.getLoggerName())
+                .append(loggerName)
                 .append('\t')
-                .append(record.getMessage());
+                .append(message);
 
-        if (record.getThrown() != null) {
-            stringWriter.append('\n');
-            record.getThrown().printStackTrace(new PrintWriter(stringWriter));
-            stringWriter.append('\n');
+        if (thrown != null) {
+            builder.append('\n')
+                    .append(formatStackTrace(thrown))
+                    .append('\n');
         }
 
-        stringWriter.append('\n');
+        builder.append('\n');
+    }
+
+    static void formatTimestamp(StringBuilder builder, long millis)
+    {
+        TIMESTAMP_FORMATTER.formatTo(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), SYSTEM_ZONE), builder);
+    }
+
+    static String formatStackTrace(Throwable thrown)
+    {
+        StringWriter stringWriter = new StringWriter();
+        thrown.printStackTrace(new PrintWriter(stringWriter));
         return stringWriter.toString();
     }
 }
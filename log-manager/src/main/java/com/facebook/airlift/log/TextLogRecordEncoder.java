@@ -0,0 +1,22 @@
+package com.facebook.airlift.log;
+
+final class TextLogRecordEncoder
+        implements LogRecordEncoder
+{
+    private static final int MAX_RETAINED_LINE_LENGTH = 64 * 1024;
+
+    private final StringBuilder line = new StringBuilder();
+
+    @Override
+    public void encode(LogRecordBuffer.Entry entry, LogOutputBuffer output)
+    {
+        line.setLength(0);
+        entry.formatTo(line);
+        output.writeString(line);
+
+        if (line.capacity() > MAX_RETAINED_LINE_LENGTH) {
+            line.setLength(0);
+            line.trimToSize();
+        }
+    }
+}
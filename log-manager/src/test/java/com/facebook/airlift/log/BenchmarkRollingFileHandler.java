@@ -0,0 +1,92 @@
+package com.facebook.airlift.log;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogRecord;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+
+/**
+ * Measures log lines per second written by 32 concurrent loggers in each log file format.
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Threads(32)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class BenchmarkRollingFileHandler
+{
+    @State(Scope.Benchmark)
+    public static class Data
+    {
+        @Param({"BLOCK", "DROP"})
+        private QueueFullPolicy queueFullPolicy;
+
+        @Param({"TEXT", "JSON", "BINARY"})
+        private LogFormat format;
+
+        private Path directory;
+        private RollingFileHandler handler;
+
+        @Setup
+        public void setup()
+                throws IOException
+        {
+            directory = Files.createTempDirectory("log-benchmark");
+            handler = new RollingFileHandler(directory.resolve("benchmark.log").toString(), 1, 100 * 1024 * 1024, RollingFileHandler.DEFAULT_QUEUE_SIZE, queueFullPolicy, format, () -> "benchmark-token");
+        }
+
+        @TearDown
+        public void tearDown()
+                throws IOException
+        {
+            handler.close();
+            deleteRecursively(directory, ALLOW_INSECURE);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Message
+    {
+        private long sequence;
+    }
+
+    @Benchmark
+    public void benchmarkPublish(Data data, Message message)
+    {
+        LogRecord record = new LogRecord(java.util.logging.Level.INFO, "benchmark message number " + message.sequence++);
+        record.setLoggerName("com.facebook.airlift.log.BenchmarkRollingFileHandler");
+        data.handler.publish(record);
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkRollingFileHandler.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+}
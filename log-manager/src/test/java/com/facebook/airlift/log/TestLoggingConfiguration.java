@@ -16,10 +16,12 @@ package com.facebook.airlift.log;
 import com.facebook.airlift.configuration.testing.ConfigAssertions;
 import com.facebook.airlift.units.DataSize;
 import com.google.common.collect.ImmutableMap;
+import jakarta.validation.constraints.Min;
 import org.testng.annotations.Test;
 
 import java.util.Map;
 
+import static com.facebook.airlift.testing.ValidationAssertions.assertFailsValidation;
 import static com.facebook.airlift.units.DataSize.Unit.KILOBYTE;
 
 @SuppressWarnings("deprecation")
@@ -34,7 +36,10 @@ public class TestLoggingConfiguration
                 .setMaxSize(new DataSize(100, DataSize.Unit.MEGABYTE))
                 .setMaxSizeInBytes(new DataSize(100, DataSize.Unit.MEGABYTE).toBytes())
                 .setMaxHistory(30)
-                .setLevelsFile(null));
+                .setLevelsFile(null)
+                .setQueueSize(16384)
+                .setQueueFullPolicy(QueueFullPolicy.BLOCK)
+                .setFormat(LogFormat.TEXT));
     }
 
     @Test
@@ -47,6 +52,9 @@ public class TestLoggingConfiguration
                 .put("log.max-size-in-bytes", "1024")
                 .put("log.max-history", "3")
                 .put("log.levels-file", "/tmp/levels.txt")
+                .put("log.queue-size", "1024")
+                .put("log.queue-full-policy", "SAMPLE")
+                .put("log.format", "JSON")
                 .build();
 
         LoggingConfiguration expected = new LoggingConfiguration()
@@ -55,8 +63,17 @@ public class TestLoggingConfiguration
                 .setMaxSize(new DataSize(1, KILOBYTE))
                 .setMaxSizeInBytes(1024)
                 .setMaxHistory(3)
-                .setLevelsFile("/tmp/levels.txt");
+                .setLevelsFile("/tmp/levels.txt")
+                .setQueueSize(1024)
+                .setQueueFullPolicy(QueueFullPolicy.SAMPLE)
+                .setFormat(LogFormat.JSON);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
+
+    @Test
+    public void testValidations()
+    {
+        assertFailsValidation(new LoggingConfiguration().setQueueSize(0), "queueSize", "must be greater than or equal to 1", Min.class);
+    }
 }
@@ -0,0 +1,248 @@
+package com.facebook.airlift.log;
+
+import com.google.common.base.Splitter;
+import com.google.common.io.ByteStreams;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+import java.util.zip.GZIPInputStream;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.SEVERE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test(singleThreaded = true)
+public class TestRollingFileHandler
+{
+    private File tempDir;
+
+    @BeforeMethod
+    public void setup()
+            throws IOException
+    {
+        tempDir = Files.createTempDirectory("logging").toFile();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDir.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testWrite()
+            throws Exception
+    {
+        Path logFile = tempDir.toPath().resolve("test.log");
+        RollingFileHandler handler = new RollingFileHandler(logFile.toString(), 10, 1024 * 1024);
+        handler.publish(record(INFO, "hello \u00e9t\u00e9"));
+        handler.publish(record(SEVERE, "failure"));
+        handler.close();
+
+        List<String> lines = Files.readAllLines(logFile, UTF_8);
+        assertEquals(lines.size(), 2);
+        assertTrue(lines.get(0).endsWith("\tINFO\t" + Thread.currentThread().getName() + "\ttest\thello \u00e9t\u00e9"), lines.get(0));
+        assertTrue(lines.get(1).endsWith("\tERROR\t" + Thread.currentThread().getName() + "\ttest\tfailure"), lines.get(1));
+        assertEquals(handler.getDroppedRecordCount(), 0);
+    }
+
+    @Test
+    public void testRollAndCompress()
+            throws Exception
+    {
+        Path logFile = tempDir.toPath().resolve("test.log");
+        RollingFileHandler handler = new RollingFileHandler(logFile.toString(), 10, 1024, 16, QueueFullPolicy.BLOCK, LogFormat.TEXT, () -> null);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            int threadId = thread;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    handler.publish(record(INFO, "message " + threadId + " " + i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        handler.close();
+
+        int lines = Files.readAllLines(logFile, UTF_8).size();
+        int archives = 0;
+        for (File file : tempDir.listFiles()) {
+            if (file.getName().endsWith(".log.gz")) {
+                archives++;
+                try (InputStream input = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+                    lines += Splitter.on('\n').omitEmptyStrings().splitToList(new String(ByteStreams.toByteArray(input), UTF_8)).size();
+                }
+            }
+        }
+        assertTrue(archives > 0, "expected rolled files");
+        assertEquals(lines, 2000);
+        assertEquals(handler.getDroppedRecordCount(), 0);
+    }
+
+    @Test
+    public void testJsonFormat()
+            throws Exception
+    {
+        Path logFile = tempDir.toPath().resolve("test.log");
+        RollingFileHandler handler = new RollingFileHandler(logFile.toString(), 10, 1024 * 1024, 16, QueueFullPolicy.BLOCK, LogFormat.JSON, () -> "token");
+        handler.publish(record(INFO, "say \"hi\"\tthere"));
+        LogRecord error = record(SEVERE, "failure");
+        error.setThrown(new IllegalStateException("broken"));
+        handler.publish(error);
+        handler.close();
+
+        List<String> lines = Files.readAllLines(logFile, UTF_8);
+        assertEquals(lines.size(), 2);
+        String thread = Thread.currentThread().getName();
+        assertTrue(lines.get(0).startsWith("{\"timestamp\":\""), lines.get(0));
+        assertTrue(lines.get(0).endsWith("\",\"level\":\"INFO\",\"thread\":\"" + thread + "\",\"logger\":\"test\",\"traceToken\":\"token\",\"message\":\"say \\\"hi\\\"\\tthere\"}"), lines.get(0));
+        assertTrue(lines.get(1).contains("\"level\":\"ERROR\""), lines.get(1));
+        assertTrue(lines.get(1).contains("\"throwable\":\"java.lang.IllegalStateException: broken\\n\\tat "), lines.get(1));
+    }
+
+    @Test
+    public void testBinaryFormat()
+            throws Exception
+    {
+        Path logFile = tempDir.toPath().resolve("test.bin");
+        RollingFileHandler handler = new RollingFileHandler(logFile.toString(), 10, 1024 * 1024, 16, QueueFullPolicy.BLOCK, LogFormat.BINARY, () -> "token");
+        handler.publish(record(INFO, "first"));
+        handler.publish(record(INFO, "second"));
+        handler.close();
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (InputStream input = Files.newInputStream(logFile)) {
+            BinaryLogDecoder.decode(input, json);
+        }
+        List<String> lines = Splitter.on('\n').omitEmptyStrings().splitToList(new String(json.toByteArray(), UTF_8));
+        assertEquals(lines.size(), 2);
+        assertTrue(lines.get(0).endsWith(",\"level\":\"INFO\",\"thread\":\"" + Thread.currentThread().getName() + "\",\"logger\":\"test\",\"traceToken\":\"token\",\"message\":\"first\"}"), lines.get(0));
+        assertTrue(lines.get(1).endsWith(",\"message\":\"second\"}"), lines.get(1));
+    }
+
+    @Test
+    public void testBinaryInvalidLevel()
+    {
+        // a record with millis 0 and a level ordinal that does not exist
+        byte[] bytes = {BinaryLogRecordEncoder.RECORD, 0, 100};
+        IOException exception = expectThrows(IOException.class, () -> BinaryLogDecoder.decode(new ByteArrayInputStream(bytes), new ByteArrayOutputStream()));
+        assertEquals(exception.getMessage(), "Invalid log level 100 at offset 2");
+    }
+
+    @Test
+    public void testDropWhenFull()
+            throws Exception
+    {
+        Path logFile = tempDir.toPath().resolve("test.log");
+        RollingFileHandler handler = new RollingFileHandler(logFile.toString(), 10, 1024 * 1024 * 1024, 1, QueueFullPolicy.DROP, LogFormat.TEXT, () -> null);
+        for (int i = 0; i < 100_000; i++) {
+            handler.publish(record(INFO, "message " + i));
+        }
+        long dropped = handler.getDroppedRecordCount();
+        handler.close();
+
+        // every record is either written or dropped
+        assertTrue(dropped > 0);
+        assertEquals(handler.getDroppedRecordCount(), dropped);
+        assertEquals(Files.readAllLines(logFile, UTF_8).size() + dropped, 100_000);
+    }
+
+    @Test
+    public void testRecoverRolledFiles()
+            throws Exception
+    {
+        Path rolledFile = tempDir.toPath().resolve("test.log-2020-01-01.0.tmp");
+        Path otherFile = tempDir.toPath().resolve("other.log-2020-01-01.0.tmp");
+        Files.write(rolledFile, "rolled\n".getBytes(UTF_8));
+        Files.write(otherFile, "other\n".getBytes(UTF_8));
+
+        RollingFileHandler handler = new RollingFileHandler(tempDir.toPath().resolve("test.log").toString(), 0, 1024 * 1024);
+        handler.close();
+
+        // the rolled file of the log is compressed, and any other temp file is renamed to a log file
+        assertTrue(Files.notExists(rolledFile));
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(tempDir.toPath().resolve("test.log-2020-01-01.0.log.gz")))) {
+            assertEquals(new String(ByteStreams.toByteArray(input), UTF_8), "rolled\n");
+        }
+        assertTrue(Files.notExists(otherFile));
+        assertEquals(new String(Files.readAllBytes(tempDir.toPath().resolve("other.log-2020-01-01.0.log")), UTF_8), "other\n");
+    }
+
+    @Test
+    public void testFormatterIgnored()
+            throws Exception
+    {
+        Path logFile = tempDir.toPath().resolve("test.log");
+        RollingFileHandler handler = new RollingFileHandler(logFile.toString(), 10, 1024 * 1024);
+        Formatter formatter = new Formatter()
+        {
+            @Override
+            public String format(LogRecord record)
+            {
+                return "formatted\n";
+            }
+        };
+        handler.setFormatter(formatter);
+        assertSame(handler.getFormatter(), formatter);
+        handler.publish(record(INFO, "hello"));
+        handler.close();
+
+        List<String> lines = Files.readAllLines(logFile, UTF_8);
+        assertEquals(lines.size(), 1);
+        assertTrue(lines.get(0).endsWith("\tINFO\t" + Thread.currentThread().getName() + "\ttest\thello"), lines.get(0));
+    }
+
+    @Test
+    public void testOpenFailureReported()
+            throws Exception
+    {
+        // the parent of the log file is a regular file, so the log file cannot be created
+        Path parent = tempDir.toPath().resolve("parent");
+        Files.write(parent, new byte[0]);
+        List<Integer> errorCodes = new ArrayList<>();
+        RollingFileHandler handler = new RollingFileHandler(parent.resolve("test.log").toString(), 10, 1024 * 1024);
+        handler.setErrorManager(new ErrorManager()
+        {
+            @Override
+            public synchronized void error(String message, Exception exception, int code)
+            {
+                errorCodes.add(code);
+            }
+        });
+        handler.publish(record(INFO, "hello"));
+        handler.close();
+
+        assertTrue(errorCodes.contains(ErrorManager.WRITE_FAILURE), errorCodes.toString());
+    }
+
+    private static LogRecord record(java.util.logging.Level level, String message)
+    {
+        LogRecord record = new LogRecord(level, message);
+        record.setLoggerName("test");
+        return record;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.log;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Log record that formats its message the first time the message is requested.
+ * Handlers that filter the record never format it, and asynchronous handlers
+ * format it on their writer thread instead of the thread that logged it.
+ * <p>
+ * Since formatting is deferred, arguments that are modified after being logged
+ * may be formatted with their new value.
+ */
+public final class FormattedLogRecord
+        extends LogRecord
+{
+    private final String format;
+    private final Object[] args;
+    private volatile String message;
+
+    FormattedLogRecord(Level level, String format, Object[] args)
+    {
+        super(level, format);
+        this.format = format;
+        this.args = args;
+    }
+
+    @Override
+    public String getMessage()
+    {
+        String message = this.message;
+        if (message == null) {
+            message = formatMessage();
+            this.message = message;
+        }
+        return message;
+    }
+
+    @Override
+    public void setMessage(String message)
+    {
+        super.setMessage(message);
+        this.message = message;
+    }
+
+    private String formatMessage()
+    {
+        try {
+            return SimpleMessageFormat.format(format, args);
+        }
+        catch (RuntimeException e) {
+            // an argument failed to convert to a string
+            return "'" + format + "' (formatting failed: " + e + ")";
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.facebook.airlift.log;
 
 import java.util.IllegalFormatException;
+import java.util.logging.LogRecord;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
@@ -93,15 +94,37 @@ public class Logger
     public void debug(String format, Object... args)
     {
         if (logger.isLoggable(FINE)) {
-            String message;
-            try {
-                message = format(format, args);
-            }
-            catch (IllegalFormatException e) {
-                logger.log(SEVERE, illegalFormatMessageFor("DEBUG", format, args), e);
-                message = rawMessageFor(format, args);
-            }
-            logger.fine(message);
+            log(FINE, "DEBUG", null, format, args);
+        }
+    }
+
+    /**
+     * Logs a message at DEBUG level. Same as {@link #debug(String, Object...)} without the varargs array.
+     */
+    public void debug(String format, Object arg)
+    {
+        if (logger.isLoggable(FINE)) {
+            log(FINE, "DEBUG", null, format, new Object[] {arg});
+        }
+    }
+
+    /**
+     * Logs a message at DEBUG level. Same as {@link #debug(String, Object...)} without the varargs array.
+     */
+    public void debug(String format, Object arg1, Object arg2)
+    {
+        if (logger.isLoggable(FINE)) {
+            log(FINE, "DEBUG", null, format, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Logs a message at DEBUG level. Same as {@link #debug(String, Object...)} without the varargs array.
+     */
+    public void debug(String format, Object arg1, Object arg2, Object arg3)
+    {
+        if (logger.isLoggable(FINE)) {
+            log(FINE, "DEBUG", null, format, new Object[] {arg1, arg2, arg3});
         }
     }
 
@@ -122,15 +145,37 @@ public class Logger
     public void debug(Throwable exception, String format, Object... args)
     {
         if (logger.isLoggable(FINE)) {
-            String message;
-            try {
-                message = format(format, args);
-            }
-            catch (IllegalFormatException e) {
-                logger.log(SEVERE, illegalFormatMessageFor("DEBUG", format, args), e);
-                message = rawMessageFor(format, args);
-            }
-            logger.log(FINE, message, exception);
+            log(FINE, "DEBUG", exception, format, args);
+        }
+    }
+
+    /**
+     * Logs a message at DEBUG level. Same as {@link #debug(Throwable, String, Object...)} without the varargs array.
+     */
+    public void debug(Throwable exception, String format, Object arg)
+    {
+        if (logger.isLoggable(FINE)) {
+            log(FINE, "DEBUG", exception, format, new Object[] {arg});
+        }
+    }
+
+    /**
+     * Logs a message at DEBUG level. Same as {@link #debug(Throwable, String, Object...)} without the varargs array.
+     */
+    public void debug(Throwable exception, String format, Object arg1, Object arg2)
+    {
+        if (logger.isLoggable(FINE)) {
+            log(FINE, "DEBUG", exception, format, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Logs a message at DEBUG level. Same as {@link #debug(Throwable, String, Object...)} without the varargs array.
+     */
+    public void debug(Throwable exception, String format, Object arg1, Object arg2, Object arg3)
+    {
+        if (logger.isLoggable(FINE)) {
+            log(FINE, "DEBUG", exception, format, new Object[] {arg1, arg2, arg3});
         }
     }
 
@@ -160,15 +205,37 @@ public class Logger
     public void info(String format, Object... args)
     {
         if (logger.isLoggable(INFO)) {
-            String message;
-            try {
-                message = format(format, args);
-            }
-            catch (IllegalFormatException e) {
-                logger.log(SEVERE, illegalFormatMessageFor("INFO", format, args), e);
-                message = rawMessageFor(format, args);
-            }
-            logger.info(message);
+            log(INFO, "INFO", null, format, args);
+        }
+    }
+
+    /**
+     * Logs a message at INFO level. Same as {@link #info(String, Object...)} without the varargs array.
+     */
+    public void info(String format, Object arg)
+    {
+        if (logger.isLoggable(INFO)) {
+            log(INFO, "INFO", null, format, new Object[] {arg});
+        }
+    }
+
+    /**
+     * Logs a message at INFO level. Same as {@link #info(String, Object...)} without the varargs array.
+     */
+    public void info(String format, Object arg1, Object arg2)
+    {
+        if (logger.isLoggable(INFO)) {
+            log(INFO, "INFO", null, format, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Logs a message at INFO level. Same as {@link #info(String, Object...)} without the varargs array.
+     */
+    public void info(String format, Object arg1, Object arg2, Object arg3)
+    {
+        if (logger.isLoggable(INFO)) {
+            log(INFO, "INFO", null, format, new Object[] {arg1, arg2, arg3});
         }
     }
 
@@ -210,15 +277,37 @@ public class Logger
     public void warn(Throwable exception, String format, Object... args)
     {
         if (logger.isLoggable(WARNING)) {
-            String message;
-            try {
-                message = format(format, args);
-            }
-            catch (IllegalFormatException e) {
-                logger.log(SEVERE, illegalFormatMessageFor("WARN", format, args), e);
-                message = rawMessageFor(format, args);
-            }
-            logger.log(WARNING, message, exception);
+            log(WARNING, "WARN", exception, format, args);
+        }
+    }
+
+    /**
+     * Logs a message at WARN level. Same as {@link #warn(Throwable, String, Object...)} without the varargs array.
+     */
+    public void warn(Throwable exception, String format, Object arg)
+    {
+        if (logger.isLoggable(WARNING)) {
+            log(WARNING, "WARN", exception, format, new Object[] {arg});
+        }
+    }
+
+    /**
+     * Logs a message at WARN level. Same as {@link #warn(Throwable, String, Object...)} without the varargs array.
+     */
+    public void warn(Throwable exception, String format, Object arg1, Object arg2)
+    {
+        if (logger.isLoggable(WARNING)) {
+            log(WARNING, "WARN", exception, format, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Logs a message at WARN level. Same as {@link #warn(Throwable, String, Object...)} without the varargs array.
+     */
+    public void warn(Throwable exception, String format, Object arg1, Object arg2, Object arg3)
+    {
+        if (logger.isLoggable(WARNING)) {
+            log(WARNING, "WARN", exception, format, new Object[] {arg1, arg2, arg3});
         }
     }
 
@@ -237,7 +326,39 @@ public class Logger
      */
     public void warn(String format, Object... args)
     {
-        warn(null, format, args);
+        if (logger.isLoggable(WARNING)) {
+            log(WARNING, "WARN", null, format, args);
+        }
+    }
+
+    /**
+     * Logs a message at WARN level. Same as {@link #warn(String, Object...)} without the varargs array.
+     */
+    public void warn(String format, Object arg)
+    {
+        if (logger.isLoggable(WARNING)) {
+            log(WARNING, "WARN", null, format, new Object[] {arg});
+        }
+    }
+
+    /**
+     * Logs a message at WARN level. Same as {@link #warn(String, Object...)} without the varargs array.
+     */
+    public void warn(String format, Object arg1, Object arg2)
+    {
+        if (logger.isLoggable(WARNING)) {
+            log(WARNING, "WARN", null, format, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Logs a message at WARN level. Same as {@link #warn(String, Object...)} without the varargs array.
+     */
+    public void warn(String format, Object arg1, Object arg2, Object arg3)
+    {
+        if (logger.isLoggable(WARNING)) {
+            log(WARNING, "WARN", null, format, new Object[] {arg1, arg2, arg3});
+        }
     }
 
     /**
@@ -278,15 +399,37 @@ public class Logger
     public void error(Throwable exception, String format, Object... args)
     {
         if (logger.isLoggable(SEVERE)) {
-            String message;
-            try {
-                message = format(format, args);
-            }
-            catch (IllegalFormatException e) {
-                logger.log(SEVERE, illegalFormatMessageFor("ERROR", format, args), e);
-                message = rawMessageFor(format, args);
-            }
-            logger.log(SEVERE, message, exception);
+            log(SEVERE, "ERROR", exception, format, args);
+        }
+    }
+
+    /**
+     * Logs a message at ERROR level. Same as {@link #error(Throwable, String, Object...)} without the varargs array.
+     */
+    public void error(Throwable exception, String format, Object arg)
+    {
+        if (logger.isLoggable(SEVERE)) {
+            log(SEVERE, "ERROR", exception, format, new Object[] {arg});
+        }
+    }
+
+    /**
+     * Logs a message at ERROR level. Same as {@link #error(Throwable, String, Object...)} without the varargs array.
+     */
+    public void error(Throwable exception, String format, Object arg1, Object arg2)
+    {
+        if (logger.isLoggable(SEVERE)) {
+            log(SEVERE, "ERROR", exception, format, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Logs a message at ERROR level. Same as {@link #error(Throwable, String, Object...)} without the varargs array.
+     */
+    public void error(Throwable exception, String format, Object arg1, Object arg2, Object arg3)
+    {
+        if (logger.isLoggable(SEVERE)) {
+            log(SEVERE, "ERROR", exception, format, new Object[] {arg1, arg2, arg3});
         }
     }
 
@@ -322,7 +465,39 @@ public class Logger
      */
     public void error(String format, Object... args)
     {
-        error(null, format, args);
+        if (logger.isLoggable(SEVERE)) {
+            log(SEVERE, "ERROR", null, format, args);
+        }
+    }
+
+    /**
+     * Logs a message at ERROR level. Same as {@link #error(String, Object...)} without the varargs array.
+     */
+    public void error(String format, Object arg)
+    {
+        if (logger.isLoggable(SEVERE)) {
+            log(SEVERE, "ERROR", null, format, new Object[] {arg});
+        }
+    }
+
+    /**
+     * Logs a message at ERROR level. Same as {@link #error(String, Object...)} without the varargs array.
+     */
+    public void error(String format, Object arg1, Object arg2)
+    {
+        if (logger.isLoggable(SEVERE)) {
+            log(SEVERE, "ERROR", null, format, new Object[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * Logs a message at ERROR level. Same as {@link #error(String, Object...)} without the varargs array.
+     */
+    public void error(String format, Object arg1, Object arg2, Object arg3)
+    {
+        if (logger.isLoggable(SEVERE)) {
+            log(SEVERE, "ERROR", null, format, new Object[] {arg1, arg2, arg3});
+        }
     }
 
     public boolean isDebugEnabled()
@@ -335,6 +510,28 @@ public class Logger
         return logger.isLoggable(INFO);
     }
 
+    private void log(java.util.logging.Level level, String levelName, Throwable exception, String format, Object[] args)
+    {
+        // simple format strings are formatted when a handler requests the message
+        if (SimpleMessageFormat.isSupported(format, args)) {
+            LogRecord record = new FormattedLogRecord(level, format, args);
+            record.setLoggerName(logger.getName());
+            record.setThrown(exception);
+            logger.log(record);
+            return;
+        }
+
+        String message;
+        try {
+            message = format(format, args);
+        }
+        catch (IllegalFormatException e) {
+            logger.log(SEVERE, illegalFormatMessageFor(levelName, format, args), e);
+            message = rawMessageFor(format, args);
+        }
+        logger.log(level, message, exception);
+    }
+
     private String illegalFormatMessageFor(String level, String message, Object... args)
     {
         return format("Invalid format string while trying to log: %s '%s' %s", level, message, asList(args));
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.log;
+
+import java.util.Formattable;
+
+/**
+ * Formatter for the subset of {@link String#format} format strings that only
+ * contain {@code %s}, {@code %%} and {@code %n}. For those, the result is the same
+ * as {@code String.format}, without parsing the format string into a list of
+ * format specifiers on every call.
+ */
+final class SimpleMessageFormat
+{
+    private SimpleMessageFormat() {}
+
+    /**
+     * Returns true if the format string can be formatted with the arguments by this class.
+     */
+    public static boolean isSupported(String format, Object[] args)
+    {
+        if (args == null) {
+            return false;
+        }
+        int count = 0;
+        int length = format.length();
+        for (int i = 0; i < length; i++) {
+            if (format.charAt(i) != '%') {
+                continue;
+            }
+            i++;
+            if (i == length) {
+                return false;
+            }
+            char conversion = format.charAt(i);
+            if (conversion == 's') {
+                count++;
+            }
+            else if (conversion != '%' && conversion != 'n') {
+                return false;
+            }
+        }
+        if (count > args.length) {
+            return false;
+        }
+        for (Object arg : args) {
+            // formattable arguments may use the flags, width and precision
+            if (arg instanceof Formattable) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String format(String format, Object[] args)
+    {
+        StringBuilder builder = new StringBuilder(format.length() + 16 * args.length);
+        int argument = 0;
+        int start = 0;
+        int length = format.length();
+        for (int i = 0; i < length; i++) {
+            if (format.charAt(i) != '%') {
+                continue;
+            }
+            builder.append(format, start, i);
+            i++;
+            switch (format.charAt(i)) {
+                case 's':
+                    builder.append(args[argument++]);
+                    break;
+                case 'n':
+                    builder.append(System.lineSeparator());
+                    break;
+                default:
+                    builder.append('%');
+                    break;
+            }
+            start = i + 1;
+        }
+        builder.append(format, start, length);
+        return builder.toString();
+    }
+}
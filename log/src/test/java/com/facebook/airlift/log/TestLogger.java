@@ -129,6 +129,100 @@ public class TestLogger
         assertLog(Level.SEVERE, exception2.getMessage(), exception2);
     }
 
+    @Test
+    public void testDeferredFormat()
+    {
+        inner.setLevel(Level.INFO);
+        CountingObject value = new CountingObject();
+
+        logger.info("value %s, %s, %s%%", value, null, 3);
+        LogRecord record = handler.takeRecord();
+        assertTrue(record instanceof FormattedLogRecord);
+        assertEquals(value.toStringCalls, 0);
+
+        assertEquals(record.getMessage(), "value counting, null, 3%");
+        assertEquals(record.getMessage(), "value counting, null, 3%");
+        assertEquals(value.toStringCalls, 1);
+        assertNull(record.getThrown());
+    }
+
+    @Test
+    public void testFixedArityFormat()
+    {
+        Throwable exception = new Throwable();
+
+        logger.debug("a %s", 1);
+        assertLog(Level.FINE, "a 1");
+        logger.debug("a %s %s", 1, 2);
+        assertLog(Level.FINE, "a 1 2");
+        logger.debug(exception, "a %s %s %s", 1, 2, 3);
+        assertLog(Level.FINE, "a 1 2 3", exception);
+        logger.info("a %s", 1);
+        assertLog(Level.INFO, "a 1");
+        logger.info("a %s %s %s", 1, 2, 3);
+        assertLog(Level.INFO, "a 1 2 3");
+        logger.warn("a %s %s", 1, 2);
+        assertLog(Level.WARNING, "a 1 2");
+        logger.warn(exception, "a %s %s %s", 1, 2, 3);
+        assertLog(Level.WARNING, "a 1 2 3", exception);
+        logger.error("a %s %s %s", 1, 2, 3);
+        assertLog(Level.SEVERE, "a 1 2 3");
+        logger.error(exception, "a %s", 1);
+        assertLog(Level.SEVERE, "a 1", exception);
+    }
+
+    @Test
+    public void testArrayArgumentsAreSpread()
+    {
+        // an explicit Object[] is more specific than Object, so it binds to the varargs method
+        Throwable exception = new Throwable();
+        Object[] one = {1};
+        Object[] two = {1, 2};
+        Object[] three = {1, 2, 3};
+
+        logger.debug("a %s", one);
+        assertLog(Level.FINE, "a 1");
+        logger.debug(exception, "a %s %s", two);
+        assertLog(Level.FINE, "a 1 2", exception);
+        logger.info("a %s", one);
+        assertLog(Level.INFO, "a 1");
+        logger.info("a %s %s", two);
+        assertLog(Level.INFO, "a 1 2");
+        logger.warn("a %s %s", two);
+        assertLog(Level.WARNING, "a 1 2");
+        logger.warn(exception, "a %s", one);
+        assertLog(Level.WARNING, "a 1", exception);
+        logger.error("a %s %s", two);
+        assertLog(Level.SEVERE, "a 1 2");
+        logger.error(exception, "a %s", one);
+        assertLog(Level.SEVERE, "a 1", exception);
+        logger.error(exception, "a %s %s %s", three);
+        assertLog(Level.SEVERE, "a 1 2 3", exception);
+    }
+
+    @Test
+    public void testComplexFormatIsNotDeferred()
+    {
+        logger.info("%s took %.1f ms", "query", 1.25);
+        LogRecord record = handler.takeRecord();
+        assertFalse(record instanceof FormattedLogRecord);
+        assertEquals(record.getMessage(), String.format("%s took %.1f ms", "query", 1.25));
+    }
+
+    @Test
+    public void testFixedArityShortCircuit()
+    {
+        inner.setLevel(Level.OFF);
+        CountingObject value = new CountingObject();
+        logger.debug("%s", value);
+        logger.info("%s %s", value, value);
+        logger.warn(new Throwable(), "%s", value);
+        logger.warn("%s %s %s", value, value, value);
+        logger.error("%s", value);
+        logger.error(new Throwable(), "%s %s %s", value, value, value);
+        assertEquals(value.toStringCalls, 0);
+    }
+
     @Test
     public void testDebugShortCircuit()
     {
@@ -300,6 +394,18 @@ public class TestLogger
         return true;
     }
 
+    private static class CountingObject
+    {
+        private int toStringCalls;
+
+        @Override
+        public String toString()
+        {
+            toStringCalls++;
+            return "counting";
+        }
+    }
+
     private static class MockHandler
             extends Handler
     {
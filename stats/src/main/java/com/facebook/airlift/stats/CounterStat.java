@@ -19,27 +19,45 @@ import com.facebook.airlift.stats.DecayCounter.DecayCounterSnapshot;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.Beta;
+import com.google.common.base.Ticker;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 @Beta
 public class CounterStat
 {
-    private final AtomicLong count = new AtomicLong(0);
-    private final DecayCounter oneMinute = new DecayCounter(ExponentialDecay.oneMinute());
-    private final DecayCounter fiveMinute = new DecayCounter(ExponentialDecay.fiveMinutes());
-    private final DecayCounter fifteenMinute = new DecayCounter(ExponentialDecay.fifteenMinutes());
+    private final Ticker ticker;
+    private final LongAdder count = new LongAdder();
+    private final DecayCounter oneMinute;
+    private final DecayCounter fiveMinute;
+    private final DecayCounter fifteenMinute;
+
+    public CounterStat()
+    {
+        this(Ticker.systemTicker());
+    }
+
+    CounterStat(Ticker ticker)
+    {
+        this.ticker = requireNonNull(ticker, "ticker is null");
+        oneMinute = new DecayCounter(ExponentialDecay.oneMinute(), ticker);
+        fiveMinute = new DecayCounter(ExponentialDecay.fiveMinutes(), ticker);
+        fifteenMinute = new DecayCounter(ExponentialDecay.fifteenMinutes(), ticker);
+    }
 
     public void update(long count)
     {
-        oneMinute.add(count);
-        fiveMinute.add(count);
-        fifteenMinute.add(count);
-        this.count.addAndGet(count);
+        // the counters share the ticker, so it is only read once
+        long nowInSeconds = NANOSECONDS.toSeconds(ticker.read());
+        oneMinute.add(count, nowInSeconds);
+        fiveMinute.add(count, nowInSeconds);
+        fifteenMinute.add(count, nowInSeconds);
+        this.count.add(count);
     }
 
     public void merge(CounterStat counterStat)
@@ -48,7 +66,7 @@ public class CounterStat
         oneMinute.merge(counterStat.getOneMinute());
         fiveMinute.merge(counterStat.getFiveMinute());
         fifteenMinute.merge(counterStat.getFifteenMinute());
-        count.addAndGet(counterStat.getTotalCount());
+        count.add(counterStat.getTotalCount());
     }
 
     @Managed
@@ -57,7 +75,7 @@ public class CounterStat
         oneMinute.reset();
         fiveMinute.reset();
         fifteenMinute.reset();
-        count.set(0);
+        count.reset();
     }
 
     /**
@@ -69,13 +87,14 @@ public class CounterStat
         oneMinute.resetTo(counterStat.getOneMinute());
         fiveMinute.resetTo(counterStat.getFiveMinute());
         fifteenMinute.resetTo(counterStat.getFifteenMinute());
-        count.set(counterStat.getTotalCount());
+        count.reset();
+        count.add(counterStat.getTotalCount());
     }
 
     @Managed
     public long getTotalCount()
     {
-        return count.get();
+        return count.sum();
     }
 
     @Managed
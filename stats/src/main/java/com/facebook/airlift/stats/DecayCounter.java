@@ -6,6 +6,7 @@ import com.google.common.base.Ticker;
 import org.weakref.jmx.Managed;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -27,8 +28,7 @@ public class DecayCounter
     private final double alpha;
     private final Ticker ticker;
 
-    private long landmarkInSeconds;
-    private double count;
+    private volatile Landmark landmark;
 
     public DecayCounter(double alpha)
     {
@@ -39,51 +39,57 @@ public class DecayCounter
     {
         this.alpha = alpha;
         this.ticker = ticker;
-        landmarkInSeconds = getTickInSeconds();
+        landmark = new Landmark(getTickInSeconds(), 0, null, 0);
     }
 
-    public synchronized void add(long value)
+    public void add(long value)
     {
-        long nowInSeconds = getTickInSeconds();
+        add(value, getTickInSeconds());
+    }
 
-        if (nowInSeconds - landmarkInSeconds >= RESCALE_THRESHOLD_SECONDS) {
-            rescaleToNewLandmark(nowInSeconds);
+    /**
+     * Adds a value at a time read from a ticker equivalent to the ticker of this counter,
+     * so counters sharing a ticker only read it once.
+     */
+    void add(long value, long nowInSeconds)
+    {
+        Landmark current = landmark;
+        if (nowInSeconds - current.seconds >= RESCALE_THRESHOLD_SECONDS) {
+            current = rescaleToNewLandmark(nowInSeconds, false);
         }
-        count += value * weight(nowInSeconds, landmarkInSeconds);
+        current.add(value, nowInSeconds);
     }
 
-    public synchronized void merge(DecayCounter decayCounter)
+    public void merge(DecayCounter decayCounter)
     {
         requireNonNull(decayCounter, "decayCounter is null");
         checkArgument(decayCounter.alpha == alpha, "Expected decayCounter to have alpha %s, but was %s", alpha, decayCounter.alpha);
 
-        synchronized (decayCounter) {
-            // if the landmark this counter is behind the other counter
-            if (landmarkInSeconds < decayCounter.landmarkInSeconds) {
-                // rescale this counter to the other counter, and add
-                rescaleToNewLandmark(decayCounter.landmarkInSeconds);
-                count += decayCounter.count;
-            }
-            else {
-                // rescale the other counter and add
-                double otherRescaledCount = decayCounter.count / weight(landmarkInSeconds, decayCounter.landmarkInSeconds);
-                count += otherRescaledCount;
-            }
+        Landmark other = decayCounter.landmark;
+        Landmark current = landmark;
+        // if the landmark of this counter is behind the other counter, rescale this counter to the other counter
+        if (current.seconds < other.seconds) {
+            current = rescaleToNewLandmark(other.seconds, true);
         }
+        // rescale the other counter and add
+        current.count.add(other.getCount() / weight(current.seconds, other.seconds));
     }
 
-    private void rescaleToNewLandmark(long newLandMarkInSeconds)
+    private synchronized Landmark rescaleToNewLandmark(long newLandmarkInSeconds, boolean force)
     {
-        // rescale the count based on a new landmark to avoid numerical overflow issues
-        count = count / weight(newLandMarkInSeconds, landmarkInSeconds);
-        landmarkInSeconds = newLandMarkInSeconds;
+        Landmark current = landmark;
+        // another thread may have already moved the landmark
+        if (current.seconds >= newLandmarkInSeconds || (!force && newLandmarkInSeconds - current.seconds < RESCALE_THRESHOLD_SECONDS)) {
+            return current;
+        }
+        landmark = current.rescale(newLandmarkInSeconds);
+        return landmark;
     }
 
     @Managed
     public synchronized void reset()
     {
-        landmarkInSeconds = getTickInSeconds();
-        count = 0;
+        landmark = new Landmark(getTickInSeconds(), 0, null, 0);
     }
 
     /**
@@ -92,21 +98,20 @@ public class DecayCounter
     @Deprecated
     public synchronized void resetTo(DecayCounter counter)
     {
-        synchronized (counter) {
-            landmarkInSeconds = counter.landmarkInSeconds;
-            count = counter.count;
-        }
+        Landmark other = counter.landmark;
+        landmark = new Landmark(other.seconds, other.getCount(), null, 0);
     }
 
     @Managed
-    public synchronized double getCount()
+    public double getCount()
     {
         long nowInSeconds = getTickInSeconds();
-        return count / weight(nowInSeconds, landmarkInSeconds);
+        Landmark current = landmark;
+        return current.getCount() / weight(nowInSeconds, current.seconds);
     }
 
     @Managed
-    public synchronized double getRate()
+    public double getRate()
     {
         // The total time covered by this counter is equivalent to the integral of the weight function from 0 to Infinity,
         // which equals 1/alpha. The count per unit time is, therefore, count / (1/alpha)
@@ -142,6 +147,82 @@ public class DecayCounter
         return alpha;
     }
 
+    /**
+     * The count weighted relative to a landmark. Values are added to striped cells, so
+     * adds do not contend, and the weight is only computed once per second. When the
+     * landmark moves, the previous landmark is kept until the next move, so values
+     * added to it concurrently with the move are not lost.
+     */
+    private final class Landmark
+    {
+        private final long seconds;
+        private final double base;
+        private final DoubleAdder count = new DoubleAdder();
+
+        private volatile Landmark previous;
+        private final double previousSnapshot;
+
+        private volatile Weight cachedWeight;
+
+        private Landmark(long seconds, double base, Landmark previous, double previousSnapshot)
+        {
+            this.seconds = seconds;
+            this.base = base;
+            this.previous = previous;
+            this.previousSnapshot = previousSnapshot;
+            this.cachedWeight = new Weight(seconds, 1);
+        }
+
+        public void add(long value, long nowInSeconds)
+        {
+            Weight weight = cachedWeight;
+            if (weight.seconds != nowInSeconds) {
+                weight = new Weight(nowInSeconds, weight(nowInSeconds, seconds));
+                cachedWeight = weight;
+            }
+            count.add(value * weight.weight);
+        }
+
+        /**
+         * Returns the count weighted relative to this landmark.
+         */
+        public double getCount()
+        {
+            double total = base + count.sum();
+            Landmark previous = this.previous;
+            if (previous != null) {
+                // values added to the previous landmark after this landmark was created
+                total += (previous.count.sum() - previousSnapshot) / weight(seconds, previous.seconds);
+            }
+            return total;
+        }
+
+        public Landmark rescale(long newLandmarkInSeconds)
+        {
+            double snapshot = count.sum();
+            double total = base + snapshot;
+            Landmark previous = this.previous;
+            if (previous != null) {
+                total += (previous.count.sum() - previousSnapshot) / weight(seconds, previous.seconds);
+            }
+            // values added to the landmark before the previous one are lost from now on
+            this.previous = null;
+            return new Landmark(newLandmarkInSeconds, total / weight(newLandmarkInSeconds, seconds), this, snapshot);
+        }
+    }
+
+    private static final class Weight
+    {
+        private final long seconds;
+        private final double weight;
+
+        private Weight(long seconds, double weight)
+        {
+            this.seconds = seconds;
+            this.weight = weight;
+        }
+    }
+
     public static class DecayCounterSnapshot
     {
         private final double count;
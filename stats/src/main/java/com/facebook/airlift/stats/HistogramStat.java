@@ -0,0 +1,319 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import org.weakref.jmx.Managed;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Distribution of all values recorded since the stat was created or reset, backed by a
+ * {@link LogLinearHistogram}. Unlike {@link DistributionStat}, recording does not lock,
+ * and the values do not decay.
+ */
+public class HistogramStat
+{
+    private static final List<Double> SNAPSHOT_QUANTILES = ImmutableList.of(0.5, 0.75, 0.9, 0.95, 0.99, 0.999);
+
+    private final LogLinearHistogram histogram;
+
+    public HistogramStat()
+    {
+        this(LogLinearHistogram.DEFAULT_PRECISION);
+    }
+
+    public HistogramStat(int precision)
+    {
+        this.histogram = new LogLinearHistogram(precision);
+    }
+
+    public void add(long value)
+    {
+        histogram.add(value);
+    }
+
+    public void merge(HistogramStat other)
+    {
+        requireNonNull(other, "other is null");
+        histogram.merge(other.histogram);
+    }
+
+    /**
+     * Returns the histogram of this stat, which can be serialized and merged with the
+     * histograms of other stats.
+     */
+    public LogLinearHistogram getHistogram()
+    {
+        return histogram;
+    }
+
+    @Managed
+    public void reset()
+    {
+        histogram.reset();
+    }
+
+    @Managed
+    public double getMaxError()
+    {
+        return histogram.getMaxError();
+    }
+
+    @Managed
+    public long getCount()
+    {
+        return histogram.getCount();
+    }
+
+    @Managed
+    public double getMin()
+    {
+        return toDouble(histogram.getMin());
+    }
+
+    @Managed
+    public double getMax()
+    {
+        return toDouble(histogram.getMax());
+    }
+
+    @Managed
+    public double getAvg()
+    {
+        return histogram.getMean();
+    }
+
+    @Managed
+    public double getP50()
+    {
+        return toDouble(histogram.getQuantile(0.5));
+    }
+
+    @Managed
+    public double getP75()
+    {
+        return toDouble(histogram.getQuantile(0.75));
+    }
+
+    @Managed
+    public double getP90()
+    {
+        return toDouble(histogram.getQuantile(0.90));
+    }
+
+    @Managed
+    public double getP95()
+    {
+        return toDouble(histogram.getQuantile(0.95));
+    }
+
+    @Managed
+    public double getP99()
+    {
+        return toDouble(histogram.getQuantile(0.99));
+    }
+
+    @Managed
+    public double getP999()
+    {
+        return toDouble(histogram.getQuantile(0.999));
+    }
+
+    @Managed
+    public Map<Double, Double> getPercentiles()
+    {
+        List<Double> percentiles = new ArrayList<>(100);
+        for (int i = 0; i < 100; ++i) {
+            percentiles.add(i / 100.0);
+        }
+
+        List<Long> values = histogram.getQuantiles(percentiles);
+
+        Map<Double, Double> result = new LinkedHashMap<>(values.size());
+        for (int i = 0; i < percentiles.size(); ++i) {
+            result.put(percentiles.get(i), toDouble(values.get(i)));
+        }
+        return result;
+    }
+
+    public HistogramStatSnapshot snapshot()
+    {
+        // the quantiles are computed from a single copy of the buckets, so they are consistent
+        List<Long> quantiles = histogram.getQuantiles(SNAPSHOT_QUANTILES);
+        return new HistogramStatSnapshot(
+                getMaxError(),
+                getCount(),
+                getMin(),
+                getMax(),
+                getAvg(),
+                toDouble(quantiles.get(0)),
+                toDouble(quantiles.get(1)),
+                toDouble(quantiles.get(2)),
+                toDouble(quantiles.get(3)),
+                toDouble(quantiles.get(4)),
+                toDouble(quantiles.get(5)));
+    }
+
+    private static double toDouble(long value)
+    {
+        // the histogram is empty
+        if (value == Long.MAX_VALUE || value == Long.MIN_VALUE) {
+            return Double.NaN;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("histogram", histogram)
+                .toString();
+    }
+
+    public static class HistogramStatSnapshot
+    {
+        private final double maxError;
+        private final long count;
+        private final double min;
+        private final double max;
+        private final double avg;
+        private final double p50;
+        private final double p75;
+        private final double p90;
+        private final double p95;
+        private final double p99;
+        private final double p999;
+
+        @JsonCreator
+        public HistogramStatSnapshot(
+                @JsonProperty("maxError") double maxError,
+                @JsonProperty("count") long count,
+                @JsonProperty("min") double min,
+                @JsonProperty("max") double max,
+                @JsonProperty("avg") double avg,
+                @JsonProperty("p50") double p50,
+                @JsonProperty("p75") double p75,
+                @JsonProperty("p90") double p90,
+                @JsonProperty("p95") double p95,
+                @JsonProperty("p99") double p99,
+                @JsonProperty("p999") double p999)
+        {
+            this.maxError = maxError;
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.avg = avg;
+            this.p50 = p50;
+            this.p75 = p75;
+            this.p90 = p90;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+
+        @JsonProperty
+        public double getMaxError()
+        {
+            return maxError;
+        }
+
+        @JsonProperty
+        public long getCount()
+        {
+            return count;
+        }
+
+        @JsonProperty
+        public double getMin()
+        {
+            return min;
+        }
+
+        @JsonProperty
+        public double getMax()
+        {
+            return max;
+        }
+
+        @JsonProperty
+        public double getAvg()
+        {
+            return avg;
+        }
+
+        @JsonProperty
+        public double getP50()
+        {
+            return p50;
+        }
+
+        @JsonProperty
+        public double getP75()
+        {
+            return p75;
+        }
+
+        @JsonProperty
+        public double getP90()
+        {
+            return p90;
+        }
+
+        @JsonProperty
+        public double getP95()
+        {
+            return p95;
+        }
+
+        @JsonProperty
+        public double getP99()
+        {
+            return p99;
+        }
+
+        @JsonProperty
+        public double getP999()
+        {
+            return p999;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("maxError", maxError)
+                    .add("count", count)
+                    .add("min", min)
+                    .add("max", max)
+                    .add("avg", avg)
+                    .add("p50", p50)
+                    .add("p75", p75)
+                    .add("p90", p90)
+                    .add("p95", p95)
+                    .add("p99", p99)
+                    .add("p999", p999)
+                    .toString();
+        }
+    }
+}
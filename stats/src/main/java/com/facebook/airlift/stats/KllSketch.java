@@ -0,0 +1,436 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.facebook.airlift.concurrent.NotThreadSafe;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import io.airlift.slice.BasicSliceInput;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.SizeOf;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.addExact;
+import static java.lang.Math.multiplyExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implements the KLL sketch from https://arxiv.org/abs/1603.05346, a data structure for
+ * approximating quantiles with a size that depends only on {@code k}, and not on the number
+ * or the domain of the values added to it.
+ * <p>
+ * The sketch keeps a sample of the values in levels, where a value in level <em>h</em> stands
+ * for 2<sup>h</sup> values. When the sketch is full, the lowest full level is sorted, and every
+ * other value in it is promoted to the next level, so the total weight does not change. The
+ * capacity of a level shrinks geometrically with its distance from the top level, so the sketch
+ * holds fewer than {@code 3 * k} values plus a few for each level.
+ * <p>
+ * Merging appends the levels of the other sketch and compacts the result, so it costs time
+ * proportional to the size of the sketches. Unlike {@link QuantileDigest}, the error does not
+ * depend on the domain of the values, and the serialized size is bounded by {@code k}. The
+ * error is a fraction of the count, about 1.3% at a 99% confidence for the default {@code k}
+ * of 200; see {@link #getRankError()}.
+ */
+@NotThreadSafe
+public class KllSketch
+{
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_K = 8;
+    private static final int MAX_K = 1 << 16;
+    private static final int MIN_LEVEL_CAPACITY = 8;
+    private static final double LEVEL_CAPACITY_RATIO = 2.0 / 3.0;
+    private static final byte FORMAT = 0;
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(KllSketch.class).instanceSize();
+
+    private final int k;
+    private final BooleanSupplier randomBit;
+
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    // levels[h] holds sizes[h] values with a weight of 2^h each
+    private long[][] levels = new long[0][];
+    private int[] sizes = new int[0];
+    private int size;
+    private int capacity;
+
+    public KllSketch()
+    {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k)
+    {
+        this(k, KllSketch::nextRandomBit);
+    }
+
+    @VisibleForTesting
+    KllSketch(int k, Random random)
+    {
+        this(k, random::nextBoolean);
+    }
+
+    private KllSketch(int k, BooleanSupplier randomBit)
+    {
+        checkArgument(k >= MIN_K && k <= MAX_K, "k must be between %s and %s", MIN_K, MAX_K);
+        this.k = k;
+        this.randomBit = requireNonNull(randomBit, "randomBit is null");
+        ensureLevels(1);
+    }
+
+    public KllSketch(KllSketch other)
+    {
+        this(other.k, other.randomBit);
+        merge(other);
+    }
+
+    public KllSketch(Slice serialized)
+    {
+        SliceInput input = new BasicSliceInput(serialized);
+
+        byte format = input.readByte();
+        checkArgument(format == FORMAT, "Invalid format");
+        k = input.readInt();
+        checkArgument(k >= MIN_K && k <= MAX_K, "Invalid k");
+        randomBit = KllSketch::nextRandomBit;
+        count = input.readLong();
+        checkArgument(count >= 0, "Invalid count");
+        min = input.readLong();
+        max = input.readLong();
+
+        int numberOfLevels = input.readByte();
+        // the weight of a value in the top level must fit in a positive long
+        checkArgument(numberOfLevels >= 1 && numberOfLevels < Long.SIZE, "Invalid number of levels");
+        ensureLevels(numberOfLevels);
+
+        long weight = 0;
+        for (int level = 0; level < numberOfLevels; level++) {
+            int levelSize = input.readInt();
+            checkArgument(levelSize >= 0 && levelSize <= input.available() / SizeOf.SIZE_OF_LONG, "Invalid level size");
+            levels[level] = new long[levelSize];
+            for (int i = 0; i < levelSize; i++) {
+                levels[level][i] = input.readLong();
+            }
+            sizes[level] = levelSize;
+            size += levelSize;
+            try {
+                weight = addExact(weight, multiplyExact(levelSize, 1L << level));
+            }
+            catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Sketch is corrupted. Weight overflows", e);
+            }
+        }
+        checkArgument(weight == count, "Sketch is corrupted. Expected a weight of %s, but was %s", count, weight);
+    }
+
+    public int getK()
+    {
+        return k;
+    }
+
+    /**
+     * Approximate error of a quantile, as a fraction of the count, at a 99% confidence.
+     */
+    public double getRankError()
+    {
+        // empirical fit for a single quantile, from the reference implementation of the sketch
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    public void add(long value)
+    {
+        add(value, 1);
+    }
+
+    /**
+     * Adds a value with a weight, which is equivalent to adding the value {@code weight}
+     * times, but only takes a value for each bit set in the weight.
+     */
+    public void add(long value, long weight)
+    {
+        checkArgument(weight > 0, "weight must be > 0");
+
+        for (long bits = weight; bits != 0; bits &= bits - 1) {
+            append(Long.numberOfTrailingZeros(bits), value);
+        }
+        count += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        compress();
+    }
+
+    public void merge(KllSketch other)
+    {
+        checkArgument(other.k == k, "Expected sketch to have k of %s, but was %s", k, other.k);
+        if (other.count == 0) {
+            return;
+        }
+
+        ensureLevels(other.sizes.length);
+        for (int level = 0; level < other.sizes.length; level++) {
+            append(level, other.levels[level], other.sizes[level]);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+
+        compress();
+    }
+
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the smallest value added to this sketch, or {@code Long.MAX_VALUE} when the
+     * sketch is empty.
+     */
+    public long getMin()
+    {
+        return min;
+    }
+
+    /**
+     * Returns the largest value added to this sketch, or {@code Long.MIN_VALUE} when the
+     * sketch is empty.
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Gets the value at the specified quantile +/- the rank error. The quantile must be in the range [0, 1]
+     */
+    public long getQuantile(double quantile)
+    {
+        return getQuantiles(ImmutableList.of(quantile)).get(0);
+    }
+
+    /**
+     * Gets the values at the specified quantiles +/- the rank error, or {@code Long.MIN_VALUE}
+     * for each quantile when the sketch is empty.
+     * <p>
+     * The input list of quantile proportions must be sorted in increasing order, and each value must be in the range [0, 1]
+     */
+    public List<Long> getQuantiles(List<Double> quantiles)
+    {
+        checkArgument(Ordering.natural().isOrdered(quantiles), "quantiles must be sorted in increasing order");
+        for (double quantile : quantiles) {
+            checkArgument(quantile >= 0 && quantile <= 1, "quantile must be between [0,1]");
+        }
+
+        // merge the sorted levels into a single sorted sequence of values and their weights
+        long[] values = new long[size];
+        long[] weights = new long[size];
+        int length = 0;
+        for (int level = 0; level < sizes.length; level++) {
+            Arrays.sort(levels[level], 0, sizes[level]);
+            length = mergeSorted(values, weights, length, levels[level], sizes[level], 1L << level);
+        }
+
+        ImmutableList.Builder<Long> builder = ImmutableList.builderWithExpectedSize(quantiles.size());
+        int index = 0;
+        long sum = 0;
+        for (int i = 0; i < length && index < quantiles.size(); i++) {
+            sum += weights[i];
+            while (index < quantiles.size() && sum > quantiles.get(index) * count) {
+                builder.add(values[i]);
+                index++;
+            }
+        }
+
+        // the remaining quantiles correspond to the max known value
+        for (; index < quantiles.size(); index++) {
+            builder.add(max);
+        }
+        return builder.build();
+    }
+
+    public long estimatedInMemorySizeInBytes()
+    {
+        long result = INSTANCE_SIZE + SizeOf.sizeOf(sizes) + SizeOf.sizeOfObjectArray(levels.length);
+        for (long[] level : levels) {
+            result += SizeOf.sizeOf(level);
+        }
+        return result;
+    }
+
+    public int estimatedSerializedSizeInBytes()
+    {
+        return SizeOf.SIZE_OF_BYTE + // format
+                SizeOf.SIZE_OF_INT + // k
+                SizeOf.SIZE_OF_LONG + // count
+                SizeOf.SIZE_OF_LONG + // min
+                SizeOf.SIZE_OF_LONG + // max
+                SizeOf.SIZE_OF_BYTE + // number of levels
+                sizes.length * SizeOf.SIZE_OF_INT + // level sizes
+                size * SizeOf.SIZE_OF_LONG; // values
+    }
+
+    public Slice serialize()
+    {
+        SliceOutput output = new DynamicSliceOutput(estimatedSerializedSizeInBytes());
+
+        output.writeByte(FORMAT);
+        output.writeInt(k);
+        output.writeLong(count);
+        output.writeLong(min);
+        output.writeLong(max);
+        output.writeByte(sizes.length);
+        for (int level = 0; level < sizes.length; level++) {
+            output.writeInt(sizes[level]);
+            for (int i = 0; i < sizes[level]; i++) {
+                output.writeLong(levels[level][i]);
+            }
+        }
+
+        return output.slice();
+    }
+
+    private void append(int level, long value)
+    {
+        ensureLevels(level + 1);
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(levels[level].length * 2, MIN_LEVEL_CAPACITY));
+        }
+        levels[level][sizes[level]++] = value;
+        size++;
+    }
+
+    private void append(int level, long[] values, int length)
+    {
+        if (sizes[level] + length > levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], sizes[level] + length);
+        }
+        System.arraycopy(values, 0, levels[level], sizes[level], length);
+        sizes[level] += length;
+        size += length;
+    }
+
+    private void ensureLevels(int numberOfLevels)
+    {
+        if (numberOfLevels <= sizes.length) {
+            return;
+        }
+
+        int oldNumberOfLevels = sizes.length;
+        levels = Arrays.copyOf(levels, numberOfLevels);
+        sizes = Arrays.copyOf(sizes, numberOfLevels);
+        for (int level = oldNumberOfLevels; level < numberOfLevels; level++) {
+            levels[level] = new long[0];
+        }
+
+        // adding a level shrinks the capacity of the levels below it
+        capacity = 0;
+        for (int level = 0; level < numberOfLevels; level++) {
+            capacity += levelCapacity(level);
+        }
+    }
+
+    private int levelCapacity(int level)
+    {
+        int depth = sizes.length - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(LEVEL_CAPACITY_RATIO, depth)));
+    }
+
+    private void compress()
+    {
+        while (size > capacity) {
+            for (int level = 0; level < sizes.length; level++) {
+                if (sizes[level] >= levelCapacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int level)
+    {
+        long[] values = levels[level];
+        int length = sizes[level];
+        Arrays.sort(values, 0, length);
+
+        // with an odd number of values, the smallest one stays in this level
+        int start = length % 2;
+
+        // promote either the even or the odd values at random, so the error has no bias
+        int offset = randomBit.getAsBoolean() ? 1 : 0;
+
+        ensureLevels(level + 2);
+        for (int i = start + offset; i < length; i += 2) {
+            append(level + 1, values[i]);
+        }
+        size -= length - start;
+        sizes[level] = start;
+    }
+
+    private static boolean nextRandomBit()
+    {
+        return ThreadLocalRandom.current().nextBoolean();
+    }
+
+    /**
+     * Merges the sorted values of a level into the sorted values and weights, from the end,
+     * and returns the new length.
+     */
+    private static int mergeSorted(long[] values, long[] weights, int length, long[] levelValues, int levelLength, long weight)
+    {
+        int i = length - 1;
+        int j = levelLength - 1;
+        for (int out = length + levelLength - 1; j >= 0; out--) {
+            if (i >= 0 && values[i] > levelValues[j]) {
+                values[out] = values[i];
+                weights[out] = weights[i];
+                i--;
+            }
+            else {
+                values[out] = levelValues[j];
+                weights[out] = weight;
+                j--;
+            }
+        }
+        return length + levelLength;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("k", k)
+                .add("count", count)
+                .add("min", min)
+                .add("max", max)
+                .add("levels", sizes.length)
+                .add("size", size)
+                .toString();
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import com.google.errorprone.annotations.ThreadSafe;
+import io.airlift.slice.BasicSliceInput;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.SizeOf;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A histogram of non-negative values with a fixed number of buckets. Values below
+ * {@code 2^precision} have a bucket each, and every power of two above is split into
+ * {@code 2^precision} buckets of equal width, so the width of a bucket is at most
+ * {@code 2^-precision} of the values in it.
+ * <p>
+ * Recording a value is a single atomic increment, and histograms with the same precision
+ * merge without loss. Min, max, mean and quantiles are computed from the buckets, so
+ * they are only accurate to the width of a bucket.
+ */
+@ThreadSafe
+public class LogLinearHistogram
+{
+    public static final int DEFAULT_PRECISION = 6;
+    private static final int MAX_PRECISION = 10;
+    private static final byte FORMAT = 0;
+
+    private final int precision;
+    private final AtomicLongArray counts;
+
+    public LogLinearHistogram()
+    {
+        this(DEFAULT_PRECISION);
+    }
+
+    public LogLinearHistogram(int precision)
+    {
+        checkArgument(precision >= 1 && precision <= MAX_PRECISION, "precision must be between 1 and %s", MAX_PRECISION);
+        this.precision = precision;
+        this.counts = new AtomicLongArray((Long.SIZE - precision) << precision);
+    }
+
+    public LogLinearHistogram(LogLinearHistogram other)
+    {
+        this(other.precision);
+        merge(other);
+    }
+
+    public LogLinearHistogram(Slice serialized)
+    {
+        SliceInput input = new BasicSliceInput(serialized);
+
+        byte format = input.readByte();
+        checkArgument(format == FORMAT, "Invalid format");
+        precision = input.readByte();
+        checkArgument(precision >= 1 && precision <= MAX_PRECISION, "Invalid precision");
+        counts = new AtomicLongArray((Long.SIZE - precision) << precision);
+
+        int buckets = input.readInt();
+        for (int i = 0; i < buckets; i++) {
+            int bucket = input.readInt();
+            checkArgument(bucket >= 0 && bucket < counts.length(), "Invalid bucket");
+            counts.set(bucket, input.readLong());
+        }
+    }
+
+    public int getPrecision()
+    {
+        return precision;
+    }
+
+    /**
+     * Maximum error of a value computed from the buckets, relative to the value.
+     */
+    public double getMaxError()
+    {
+        return 1.0 / (1L << (precision + 1));
+    }
+
+    /**
+     * Adds a value to this histogram. Negative values are recorded as zero.
+     */
+    public void add(long value)
+    {
+        counts.incrementAndGet(bucket(value));
+    }
+
+    public void add(long value, long count)
+    {
+        checkArgument(count >= 0, "count is negative");
+        counts.addAndGet(bucket(value), count);
+    }
+
+    public void merge(LogLinearHistogram other)
+    {
+        checkArgument(other.precision == precision, "Expected histogram to have precision %s, but was %s", precision, other.precision);
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            long count = other.counts.get(bucket);
+            if (count != 0) {
+                counts.addAndGet(bucket, count);
+            }
+        }
+    }
+
+    public void reset()
+    {
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            counts.set(bucket, 0);
+        }
+    }
+
+    public long getCount()
+    {
+        long count = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            count += counts.get(bucket);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the lower bound of the lowest bucket with a value, or {@code Long.MAX_VALUE}
+     * when the histogram is empty.
+     */
+    public long getMin()
+    {
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            if (counts.get(bucket) != 0) {
+                return lowerBound(bucket);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the upper bound of the highest bucket with a value, or {@code Long.MIN_VALUE}
+     * when the histogram is empty.
+     */
+    public long getMax()
+    {
+        for (int bucket = counts.length() - 1; bucket >= 0; bucket--) {
+            if (counts.get(bucket) != 0) {
+                return upperBound(bucket);
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    public double getMean()
+    {
+        long count = 0;
+        double sum = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            long bucketCount = counts.get(bucket);
+            if (bucketCount != 0) {
+                count += bucketCount;
+                sum += bucketCount * (double) middle(bucket);
+            }
+        }
+        return sum / count;
+    }
+
+    public long getQuantile(double quantile)
+    {
+        return getQuantiles(ImmutableList.of(quantile)).get(0);
+    }
+
+    /**
+     * Returns the middle of the bucket of each quantile, or {@code Long.MIN_VALUE} for
+     * each quantile when the histogram is empty. The quantiles must be sorted.
+     */
+    public List<Long> getQuantiles(List<Double> quantiles)
+    {
+        checkArgument(Ordering.natural().isOrdered(quantiles), "quantiles must be sorted in increasing order");
+        for (double quantile : quantiles) {
+            checkArgument(quantile >= 0 && quantile <= 1, "quantile must be between [0,1]");
+        }
+
+        // copy the counts, so the quantiles are consistent with each other
+        long[] snapshot = new long[counts.length()];
+        long count = 0;
+        for (int bucket = 0; bucket < snapshot.length; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            count += snapshot[bucket];
+        }
+
+        ImmutableList.Builder<Long> builder = ImmutableList.builderWithExpectedSize(quantiles.size());
+        int index = 0;
+        long sum = 0;
+        long last = Long.MIN_VALUE;
+        for (int bucket = 0; bucket < snapshot.length && index < quantiles.size(); bucket++) {
+            if (snapshot[bucket] == 0) {
+                continue;
+            }
+            sum += snapshot[bucket];
+            last = middle(bucket);
+            while (index < quantiles.size() && sum > quantiles.get(index) * count) {
+                builder.add(last);
+                index++;
+            }
+        }
+        // the remaining quantiles are in the highest bucket
+        for (; index < quantiles.size(); index++) {
+            builder.add(last);
+        }
+        return builder.build();
+    }
+
+    public long estimatedInMemorySizeInBytes()
+    {
+        return SizeOf.SIZE_OF_LONG * (long) counts.length();
+    }
+
+    /**
+     * Serializes the buckets with a value, so the size depends on the range of the
+     * recorded values rather than the precision.
+     */
+    public Slice serialize()
+    {
+        int buckets = 0;
+        long[] snapshot = new long[counts.length()];
+        for (int bucket = 0; bucket < snapshot.length; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            if (snapshot[bucket] != 0) {
+                buckets++;
+            }
+        }
+
+        SliceOutput output = new DynamicSliceOutput(SizeOf.SIZE_OF_BYTE + SizeOf.SIZE_OF_BYTE + SizeOf.SIZE_OF_INT + buckets * (SizeOf.SIZE_OF_INT + SizeOf.SIZE_OF_LONG));
+        output.writeByte(FORMAT);
+        output.writeByte(precision);
+        output.writeInt(buckets);
+        for (int bucket = 0; bucket < snapshot.length; bucket++) {
+            if (snapshot[bucket] != 0) {
+                output.writeInt(bucket);
+                output.writeLong(snapshot[bucket]);
+            }
+        }
+        return output.slice();
+    }
+
+    int bucket(long value)
+    {
+        if (value < (1L << precision)) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int shift = exponent - precision;
+        return ((shift + 1) << precision) + (int) ((value >>> shift) - (1L << precision));
+    }
+
+    long lowerBound(int bucket)
+    {
+        int block = bucket >>> precision;
+        if (block == 0) {
+            return bucket;
+        }
+        long subBucket = bucket & ((1L << precision) - 1);
+        return ((1L << precision) + subBucket) << (block - 1);
+    }
+
+    long upperBound(int bucket)
+    {
+        int block = bucket >>> precision;
+        if (block == 0) {
+            return bucket;
+        }
+        return lowerBound(bucket) + (1L << (block - 1)) - 1;
+    }
+
+    private long middle(int bucket)
+    {
+        long lowerBound = lowerBound(bucket);
+        return lowerBound + (upperBound(bucket) - lowerBound) / 2;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("precision", precision)
+                .add("count", getCount())
+                .add("min", getMin())
+                .add("max", getMax())
+                .toString();
+    }
+}
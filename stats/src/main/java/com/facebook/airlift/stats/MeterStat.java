@@ -19,20 +19,50 @@ import org.weakref.jmx.Managed;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Deprecated
 public class MeterStat
 {
     private final AtomicLong sum = new AtomicLong(0);
-    private final ExponentiallyDecayingSample sample = new ExponentiallyDecayingSample(1028, 0.015);
+    private final ExponentiallyDecayingSample sample;
+    private final LogLinearHistogram histogram;
     private final DecayCounter oneMinute = new DecayCounter(ExponentialDecay.oneMinute());
     private final DecayCounter fiveMinute = new DecayCounter(ExponentialDecay.fiveMinutes());
     private final DecayCounter fifteenMinute = new DecayCounter(ExponentialDecay.fifteenMinutes());
 
+    public MeterStat()
+    {
+        this(false);
+    }
+
+    /**
+     * When {@code histogram} is set, the values are recorded in a {@link LogLinearHistogram}
+     * rather than an exponentially decaying sample, so updates do not lock or box. The
+     * min, max, mean and percentiles then cover all values, rather than a sample biased
+     * towards recent values.
+     */
+    public MeterStat(boolean histogram)
+    {
+        if (histogram) {
+            this.sample = null;
+            this.histogram = new LogLinearHistogram();
+        }
+        else {
+            this.sample = new ExponentiallyDecayingSample(1028, 0.015);
+            this.histogram = null;
+        }
+    }
+
     public void update(long value)
     {
-        sample.update(value);
+        if (histogram != null) {
+            histogram.add(value);
+        }
+        else {
+            sample.update(value);
+        }
         oneMinute.add(value);
         fiveMinute.add(value);
         fifteenMinute.add(value);
@@ -48,18 +78,36 @@ public class MeterStat
     @Managed
     public long getMin()
     {
+        if (histogram != null) {
+            long min = histogram.getMin();
+            if (min == Long.MAX_VALUE) {
+                // same as the sample
+                throw new NoSuchElementException();
+            }
+            return min;
+        }
         return Collections.min(sample.values());
     }
 
     @Managed
     public long getMax()
     {
+        if (histogram != null) {
+            long max = histogram.getMax();
+            if (max == Long.MIN_VALUE) {
+                throw new NoSuchElementException();
+            }
+            return max;
+        }
         return Collections.max(sample.values());
     }
 
     @Managed
     public double getMean()
     {
+        if (histogram != null) {
+            return histogram.getMean();
+        }
         List<Long> values = sample.values();
 
         long sum = 0;
@@ -96,24 +144,32 @@ public class MeterStat
     @Managed(description = "50th Percentile Measurement")
     public double getTP50()
     {
-        return sample.percentiles(0.5)[0];
+        return percentile(0.5);
     }
 
     @Managed(description = "90th Percentile Measurement")
     public double getTP90()
     {
-        return sample.percentiles(0.9)[0];
+        return percentile(0.9);
     }
 
     @Managed(description = "99th Percentile Measurement")
     public double getTP99()
     {
-        return sample.percentiles(0.99)[0];
+        return percentile(0.99);
     }
 
     @Managed(description = "99.9th Percentile Measurement")
     public double getTP999()
     {
-        return sample.percentiles(0.999)[0];
+        return percentile(0.999);
+    }
+
+    private double percentile(double percentile)
+    {
+        if (histogram != null) {
+            return histogram.getQuantile(percentile);
+        }
+        return sample.percentiles(percentile)[0];
     }
 }
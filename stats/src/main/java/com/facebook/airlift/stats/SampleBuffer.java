@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.errorprone.annotations.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Collects samples without locking and hands them to a consumer in batches. A batch
+ * only holds samples recorded in the same second, so the consumer can weight a batch
+ * by its age. A batch is consumed when it is full, when a sample is recorded in a later
+ * second, or when the buffer is flushed. Batches are consumed by the thread that
+ * completes them, so the consumer may be called concurrently for different batches.
+ */
+@ThreadSafe
+final class SampleBuffer
+{
+    @VisibleForTesting
+    static final int BATCH_SIZE = 64;
+
+    private final BatchConsumer consumer;
+    private final Ticker ticker;
+    private final AtomicReference<Batch> current;
+
+    public SampleBuffer(BatchConsumer consumer)
+    {
+        this(consumer, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    SampleBuffer(BatchConsumer consumer, Ticker ticker)
+    {
+        this.consumer = requireNonNull(consumer, "consumer is null");
+        this.ticker = requireNonNull(ticker, "ticker is null");
+        this.current = new AtomicReference<>(new Batch(getTickInSeconds()));
+    }
+
+    public void add(long value)
+    {
+        long second = getTickInSeconds();
+        while (true) {
+            Batch batch = current.get();
+            // a thread that read the clock before the batch was started records into it anyway
+            if (second <= batch.second) {
+                int index = batch.reserved.getAndIncrement();
+                if (index < BATCH_SIZE) {
+                    batch.values[index] = value;
+                    if (batch.completed.incrementAndGet() == BATCH_SIZE) {
+                        consume(batch);
+                    }
+                    return;
+                }
+            }
+            if (current.compareAndSet(batch, new Batch(Math.max(second, batch.second)))) {
+                close(batch);
+            }
+        }
+    }
+
+    /**
+     * Consumes the samples recorded so far. Samples that are being recorded concurrently
+     * are consumed later, by the thread recording them.
+     */
+    public void flush()
+    {
+        Batch batch = current.get();
+        if (batch.reserved.get() == 0) {
+            return;
+        }
+        close(current.getAndSet(new Batch(getTickInSeconds())));
+    }
+
+    private void close(Batch batch)
+    {
+        // later writers see a full batch, and move on to the current batch
+        int reserved = Math.min(batch.reserved.getAndSet(BATCH_SIZE), BATCH_SIZE);
+        int unused = BATCH_SIZE - reserved;
+        if (unused == 0) {
+            // the last writer consumes the batch
+            return;
+        }
+        batch.size = reserved;
+        if (batch.completed.addAndGet(unused) == BATCH_SIZE) {
+            consume(batch);
+        }
+    }
+
+    private void consume(Batch batch)
+    {
+        if (batch.size > 0) {
+            consumer.accept(batch.values, batch.size, getTickInSeconds() - batch.second);
+        }
+    }
+
+    private long getTickInSeconds()
+    {
+        return NANOSECONDS.toSeconds(ticker.read());
+    }
+
+    interface BatchConsumer
+    {
+        void accept(long[] values, int count, long ageInSeconds);
+    }
+
+    private static final class Batch
+    {
+        private final long second;
+        private final long[] values = new long[BATCH_SIZE];
+        private final AtomicInteger reserved = new AtomicInteger();
+        // a value is visible to the thread that completes the batch, as it is written before the increment
+        private final AtomicInteger completed = new AtomicInteger();
+        private volatile int size = BATCH_SIZE;
+
+        private Batch(long second)
+        {
+            this.second = second;
+        }
+    }
+}
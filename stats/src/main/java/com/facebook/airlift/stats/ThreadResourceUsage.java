@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.google.common.annotations.Beta;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * CPU time used and bytes allocated by the current thread since {@link #start()}. The
+ * values must be read on the thread that started the measurement, and are zero when
+ * the JVM does not support or has disabled the measurement; callers that record the
+ * values should check {@link #isCpuTimeSupported()} and {@link #isAllocatedBytesSupported()}.
+ */
+@Beta
+public final class ThreadResourceUsage
+{
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_ENABLED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = getAllocationMXBean();
+
+    private final Thread thread;
+    private final long cpuStartTime;
+    private final long allocatedStartBytes;
+
+    private ThreadResourceUsage()
+    {
+        this.thread = Thread.currentThread();
+        this.cpuStartTime = currentThreadCpuTime();
+        this.allocatedStartBytes = currentThreadAllocatedBytes();
+    }
+
+    public static ThreadResourceUsage start()
+    {
+        return new ThreadResourceUsage();
+    }
+
+    public static boolean isCpuTimeSupported()
+    {
+        return CPU_TIME_ENABLED;
+    }
+
+    public static boolean isAllocatedBytesSupported()
+    {
+        return ALLOCATION_MX_BEAN != null;
+    }
+
+    public long getCpuTimeNanos()
+    {
+        checkState(Thread.currentThread() == thread, "CPU time must be read on the thread that started the measurement");
+        return elapsed(cpuStartTime, currentThreadCpuTime());
+    }
+
+    public long getAllocatedBytes()
+    {
+        checkState(Thread.currentThread() == thread, "Allocated bytes must be read on the thread that started the measurement");
+        return elapsed(allocatedStartBytes, currentThreadAllocatedBytes());
+    }
+
+    private static long elapsed(long start, long end)
+    {
+        // negative values mean the measurement is not available
+        if (start < 0 || end < 0) {
+            return 0;
+        }
+        return Math.max(end - start, 0);
+    }
+
+    private static long currentThreadCpuTime()
+    {
+        if (!CPU_TIME_ENABLED) {
+            return -1;
+        }
+        return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+
+    private static long currentThreadAllocatedBytes()
+    {
+        if (ALLOCATION_MX_BEAN == null) {
+            return -1;
+        }
+        return ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationMXBean()
+    {
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        return bean;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("thread", thread.getName())
+                .add("cpuStartTime", cpuStartTime)
+                .add("allocatedStartBytes", allocatedStartBytes)
+                .toString();
+    }
+}
@@ -24,6 +24,7 @@ public class TimeDistribution
     @GuardedBy("this")
     private final DecayCounter total;
     private final TimeUnit unit;
+    private final SampleBuffer buffer;
 
     public TimeDistribution()
     {
@@ -32,11 +33,7 @@ public class TimeDistribution
 
     public TimeDistribution(TimeUnit unit)
     {
-        requireNonNull(unit, "unit is null");
-
-        digest = new QuantileDigest(MAX_ERROR);
-        total = new DecayCounter(0);
-        this.unit = unit;
+        this(0, unit);
     }
 
     public TimeDistribution(double alpha)
@@ -45,12 +42,22 @@ public class TimeDistribution
     }
 
     public TimeDistribution(double alpha, TimeUnit unit)
+    {
+        this(alpha, unit, null);
+    }
+
+    /**
+     * Creates a distribution that is recorded through a buffer shared with other
+     * distributions. The buffer is flushed before the distribution is read.
+     */
+    TimeDistribution(double alpha, TimeUnit unit, SampleBuffer buffer)
     {
         requireNonNull(unit, "unit is null");
 
         digest = new QuantileDigest(MAX_ERROR, alpha);
         total = new DecayCounter(alpha);
         this.unit = unit;
+        this.buffer = buffer;
     }
 
     public synchronized void add(long value)
@@ -59,64 +66,109 @@ public class TimeDistribution
         total.add(value);
     }
 
+    /**
+     * Adds values that were recorded {@code ageInSeconds} ago, so they decay as if they
+     * were added when they were recorded.
+     */
+    synchronized void add(long[] values, int count, long ageInSeconds)
+    {
+        double weight = Math.exp(-digest.getAlpha() * ageInSeconds);
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            digest.add(values[i], weight);
+            sum += values[i];
+        }
+        total.add(Math.round(sum * weight));
+    }
+
     @Managed
-    public synchronized double getMaxError()
+    public double getMaxError()
     {
-        return digest.getConfidenceFactor();
+        flush();
+        synchronized (this) {
+            return digest.getConfidenceFactor();
+        }
     }
 
     @Managed
-    public synchronized double getCount()
+    public double getCount()
     {
-        return digest.getCount();
+        flush();
+        synchronized (this) {
+            return digest.getCount();
+        }
     }
 
     @Managed
-    public synchronized double getP50()
+    public double getP50()
     {
-        return convertToUnit(digest.getQuantile(0.5));
+        flush();
+        synchronized (this) {
+            return convertToUnit(digest.getQuantile(0.5));
+        }
     }
 
     @Managed
-    public synchronized double getP75()
+    public double getP75()
     {
-        return convertToUnit(digest.getQuantile(0.75));
+        flush();
+        synchronized (this) {
+            return convertToUnit(digest.getQuantile(0.75));
+        }
     }
 
     @Managed
-    public synchronized double getP90()
+    public double getP90()
     {
-        return convertToUnit(digest.getQuantile(0.90));
+        flush();
+        synchronized (this) {
+            return convertToUnit(digest.getQuantile(0.90));
+        }
     }
 
     @Managed
-    public synchronized double getP95()
+    public double getP95()
     {
-        return convertToUnit(digest.getQuantile(0.95));
+        flush();
+        synchronized (this) {
+            return convertToUnit(digest.getQuantile(0.95));
+        }
     }
 
     @Managed
-    public synchronized double getP99()
+    public double getP99()
     {
-        return convertToUnit(digest.getQuantile(0.99));
+        flush();
+        synchronized (this) {
+            return convertToUnit(digest.getQuantile(0.99));
+        }
     }
 
     @Managed
-    public synchronized double getMin()
+    public double getMin()
     {
-        return convertToUnit(digest.getMin());
+        flush();
+        synchronized (this) {
+            return convertToUnit(digest.getMin());
+        }
     }
 
     @Managed
-    public synchronized double getMax()
+    public double getMax()
     {
-        return convertToUnit(digest.getMax());
+        flush();
+        synchronized (this) {
+            return convertToUnit(digest.getMax());
+        }
     }
 
     @Managed
-    public synchronized double getAvg()
+    public double getAvg()
     {
-        return convertToUnit(total.getCount()) / getCount();
+        flush();
+        synchronized (this) {
+            return convertToUnit(total.getCount()) / digest.getCount();
+        }
     }
 
     @Managed
@@ -134,6 +186,7 @@ public class TimeDistribution
         }
 
         List<Long> values;
+        flush();
         synchronized (this) {
             values = digest.getQuantiles(percentiles);
         }
@@ -146,6 +199,13 @@ public class TimeDistribution
         return result;
     }
 
+    private void flush()
+    {
+        if (buffer != null) {
+            buffer.flush();
+        }
+    }
+
     private double convertToUnit(long nanos)
     {
         if (nanos == Long.MAX_VALUE || nanos == Long.MIN_VALUE) {
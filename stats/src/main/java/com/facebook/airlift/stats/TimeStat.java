@@ -28,8 +28,14 @@ import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 
+/**
+ * Records each sample once into a lock-free buffer shared by all of the distributions.
+ * The buffered samples are added to the distributions in batches, either by the thread
+ * that fills a batch or when a distribution is read.
+ */
 public class TimeStat
 {
+    private final SampleBuffer buffer;
     private final TimeDistribution oneMinute;
     private final TimeDistribution fiveMinutes;
     private final TimeDistribution fifteenMinutes;
@@ -54,10 +60,11 @@ public class TimeStat
     public TimeStat(Ticker ticker, TimeUnit unit)
     {
         this.ticker = ticker;
-        oneMinute = new TimeDistribution(ExponentialDecay.oneMinute(), unit);
-        fiveMinutes = new TimeDistribution(ExponentialDecay.fiveMinutes(), unit);
-        fifteenMinutes = new TimeDistribution(ExponentialDecay.fifteenMinutes(), unit);
-        allTime = new TimeDistribution(unit);
+        buffer = new SampleBuffer(this::add);
+        oneMinute = new TimeDistribution(ExponentialDecay.oneMinute(), unit, buffer);
+        fiveMinutes = new TimeDistribution(ExponentialDecay.fiveMinutes(), unit, buffer);
+        fifteenMinutes = new TimeDistribution(ExponentialDecay.fifteenMinutes(), unit, buffer);
+        allTime = new TimeDistribution(0, unit, buffer);
     }
 
     public void add(double value, TimeUnit timeUnit)
@@ -72,10 +79,15 @@ public class TimeStat
 
     private void add(long value)
     {
-        oneMinute.add(value);
-        fiveMinutes.add(value);
-        fifteenMinutes.add(value);
-        allTime.add(value);
+        buffer.add(value);
+    }
+
+    private void add(long[] values, int count, long ageInSeconds)
+    {
+        oneMinute.add(values, count, ageInSeconds);
+        fiveMinutes.add(values, count, ageInSeconds);
+        fifteenMinutes.add(values, count, ageInSeconds);
+        allTime.add(values, count, ageInSeconds);
     }
 
     public <T> T time(Callable<T> callable)
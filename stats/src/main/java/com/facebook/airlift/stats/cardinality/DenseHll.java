@@ -20,6 +20,7 @@ import io.airlift.slice.BasicSliceInput;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.SizeOf;
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.util.Arrays;
@@ -49,6 +50,22 @@ final class DenseHll
     private static final int DENSE_INSTANCE_SIZE = ClassLayout.parseClass(DenseHll.class).instanceSize();
     private static final int OVERFLOW_GROW_INCREMENT = 5;
 
+    // deltas are merged a long at a time, with the buckets in the high and low nibbles
+    // of each byte spread into byte lanes
+    private static final long LOW_NIBBLES = 0x0F0F_0F0F_0F0F_0F0FL;
+    private static final long LANE_HIGH_BITS = 0x8080_8080_8080_8080L;
+    private static final long LANE_ONES = 0x0101_0101_0101_0101L;
+    private static final long NIBBLE_ONES = 0x1111_1111_1111_1111L;
+
+    // sum of 2^-delta for the two buckets of each byte, in units of 2^-MAX_DELTA so it is exact
+    private static final int[] SLOT_WEIGHTS = new int[1 << Byte.SIZE];
+
+    static {
+        for (int slot = 0; slot < SLOT_WEIGHTS.length; slot++) {
+            SLOT_WEIGHTS[slot] = (1 << (MAX_DELTA - (slot >>> BITS_PER_BUCKET))) + (1 << (MAX_DELTA - (slot & BUCKET_MASK)));
+        }
+    }
+
     private final byte indexBitLength;
     private byte baseline;
     private int baselineCount;
@@ -172,10 +189,15 @@ final class DenseHll
             return Math.round(linearCounting(baselineCount, numberOfBuckets));
         }
 
-        double sum = 0;
-        for (int i = 0; i < numberOfBuckets; i++) {
-            int value = getValue(i);
-            sum += 1.0 / (1L << value);
+        long weight = 0;
+        for (byte slot : deltas) {
+            weight += SLOT_WEIGHTS[slot & 0xFF];
+        }
+        double sum = Math.scalb((double) weight, -(baseline + MAX_DELTA));
+
+        // buckets with an overflow were counted with a value of baseline + MAX_DELTA
+        for (int i = 0; i < overflows; i++) {
+            sum += Math.scalb(1.0, -(baseline + MAX_DELTA + overflowValues[i])) - Math.scalb(1.0, -(baseline + MAX_DELTA));
         }
 
         double estimate = (alpha(indexBitLength) * numberOfBuckets * numberOfBuckets) / sum;
@@ -429,54 +451,41 @@ final class DenseHll
                     numberOfBuckets(other.indexBitLength)));
         }
 
-        int newBaseline = Math.max(this.baseline, other.baseline);
-        int baselineCount = 0;
-
-        int bucket = 0;
-        for (int i = 0; i < deltas.length; i++) {
-            int newSlot = 0;
-
-            byte slot1 = deltas[i];
-            byte slot2 = other.deltas[i];
-
-            for (int shift = 4; shift >= 0; shift -= 4) {
-                int delta1 = (slot1 >>> shift) & 0b1111;
-                int delta2 = (slot2 >>> shift) & 0b1111;
-
-                int value1 = this.baseline + delta1;
-                int value2 = other.baseline + delta2;
-
-                int overflowEntry = -1;
-                if (delta1 == MAX_DELTA) {
-                    overflowEntry = findOverflowEntry(bucket);
-                    if (overflowEntry != -1) {
-                        value1 += overflowValues[overflowEntry];
-                    }
-                }
-
-                if (delta2 == MAX_DELTA) {
-                    value2 += other.getOverflow(bucket);
-                }
-
-                int newValue = Math.max(value1, value2);
-                int newDelta = newValue - newBaseline;
-
-                if (newDelta == 0) {
-                    baselineCount++;
-                }
+        // merge the deltas as if the overflows were zero, and insert the overflows afterwards
+        int[] oldOverflowBuckets = Arrays.copyOf(overflowBuckets, overflows);
+        byte[] oldOverflowValues = Arrays.copyOf(overflowValues, overflows);
+        int oldBaseline = this.baseline;
+        this.overflows = 0;
 
-                newDelta = updateOverflow(bucket, overflowEntry, newDelta);
-
-                newSlot <<= 4;
-                newSlot |= newDelta;
-                bucket++;
-            }
-
-            this.deltas[i] = (byte) newSlot;
+        int newBaseline = Math.max(this.baseline, other.baseline);
+        long rebase1 = Math.min(newBaseline - this.baseline, MAX_DELTA) * LANE_ONES;
+        long rebase2 = Math.min(newBaseline - other.baseline, MAX_DELTA) * LANE_ONES;
+
+        // the buckets of a long are merged independently, so the byte order of the slices does not matter
+        Slice slots1 = Slices.wrappedBuffer(deltas);
+        Slice slots2 = Slices.wrappedBuffer(other.deltas);
+        int nonZeroDeltas = 0;
+        int i = 0;
+        for (; i + Long.BYTES <= deltas.length; i += Long.BYTES) {
+            long slots = mergeSlots(slots1.getLong(i), slots2.getLong(i), rebase1, rebase2);
+            slots1.setLong(i, slots);
+            nonZeroDeltas += nonZeroNibbles(slots);
+        }
+        for (; i < deltas.length; i++) {
+            long slot = mergeSlots(deltas[i] & 0xFF, other.deltas[i] & 0xFF, rebase1, rebase2);
+            deltas[i] = (byte) slot;
+            nonZeroDeltas += nonZeroNibbles(slot);
         }
 
         this.baseline = (byte) newBaseline;
-        this.baselineCount = baselineCount;
+        this.baselineCount = numberOfBuckets(indexBitLength) - nonZeroDeltas;
+
+        for (int j = 0; j < oldOverflowBuckets.length; j++) {
+            insert(oldOverflowBuckets[j], oldBaseline + MAX_DELTA + oldOverflowValues[j]);
+        }
+        for (int j = 0; j < other.overflows; j++) {
+            insert(other.overflowBuckets[j], other.baseline + MAX_DELTA + other.overflowValues[j]);
+        }
 
         // all baseline values in one of the HLLs lost to the values
         // in the other HLL, so we need to adjust the final baseline
@@ -502,6 +511,49 @@ final class DenseHll
         return this;
     }
 
+    /**
+     * Merges the deltas of 16 buckets, after subtracting the difference to the new
+     * baseline from each side. Deltas with an overflow are merged as MAX_DELTA.
+     */
+    private static long mergeSlots(long slots1, long slots2, long rebase1, long rebase2)
+    {
+        long high = max(subtract((slots1 >>> BITS_PER_BUCKET) & LOW_NIBBLES, rebase1), subtract((slots2 >>> BITS_PER_BUCKET) & LOW_NIBBLES, rebase2));
+        long low = max(subtract(slots1 & LOW_NIBBLES, rebase1), subtract(slots2 & LOW_NIBBLES, rebase2));
+        return (high << BITS_PER_BUCKET) | low;
+    }
+
+    /**
+     * Per byte lane max(x - y, 0), for lanes between 0 and MAX_DELTA.
+     */
+    private static long subtract(long x, long y)
+    {
+        long difference = (x | LANE_HIGH_BITS) - y;
+        return difference & laneMask(difference) & LOW_NIBBLES;
+    }
+
+    /**
+     * Per byte lane max(x, y), for lanes between 0 and MAX_DELTA.
+     */
+    private static long max(long x, long y)
+    {
+        long greaterOrEqual = laneMask((x | LANE_HIGH_BITS) - y);
+        return (x & greaterOrEqual) | (y & ~greaterOrEqual);
+    }
+
+    /**
+     * Sets every byte lane of a difference computed from {@code (x | LANE_HIGH_BITS) - y}
+     * to all ones if it did not borrow, or to zero if it did.
+     */
+    private static long laneMask(long difference)
+    {
+        return ((difference & LANE_HIGH_BITS) >>> 7) * 0xFF;
+    }
+
+    private static int nonZeroNibbles(long slots)
+    {
+        return Long.bitCount((slots | (slots >>> 1) | (slots >>> 2) | (slots >>> 3)) & NIBBLE_ONES);
+    }
+
     private int findOverflowEntry(int bucket)
     {
         for (int i = 0; i < overflows; i++) {
@@ -522,38 +574,11 @@ final class DenseHll
         return 0;
     }
 
-    private int updateOverflow(int bucket, int overflowEntry, int delta)
-    {
-        if (delta > MAX_DELTA) {
-            if (overflowEntry != -1) {
-                // update existing overflow
-                setOverflow(overflowEntry, (byte) (delta - MAX_DELTA));
-            }
-            else {
-                addOverflow(bucket, (byte) (delta - MAX_DELTA));
-            }
-            delta = MAX_DELTA;
-        }
-        else if (overflowEntry != -1) {
-            removeOverflow(overflowEntry);
-        }
-
-        return delta;
-    }
-
     private void setOverflow(int overflowEntry, byte overflow)
     {
         overflowValues[overflowEntry] = overflow;
     }
 
-    private void removeOverflow(int overflowEntry)
-    {
-        // remove existing overflow
-        overflowBuckets[overflowEntry] = overflowBuckets[overflows - 1];
-        overflowValues[overflowEntry] = overflowValues[overflows - 1];
-        overflows--;
-    }
-
     private void addOverflow(int bucket, byte overflow)
     {
         // add new delta
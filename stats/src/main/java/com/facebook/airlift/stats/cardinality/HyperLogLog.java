@@ -21,11 +21,14 @@ import org.openjdk.jol.info.ClassLayout;
 import static com.facebook.airlift.stats.cardinality.Utils.indexBitLength;
 import static com.facebook.airlift.stats.cardinality.Utils.numberOfBuckets;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 
 public class HyperLogLog
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(HyperLogLog.class).instanceSize();
     private static final int MAX_NUMBER_OF_BUCKETS = 65536;
+    private static final int BATCH_SIZE = 1024;
+    private static final int MIN_SPARSE_BATCH_SIZE = 64;
     private HllInstance instance;
 
     private HyperLogLog(HllInstance instance)
@@ -79,6 +82,51 @@ public class HyperLogLog
         }
     }
 
+    /**
+     * Adds {@code length} values starting at {@code offset}. This is equivalent to calling
+     * {@link #add(long)} for each value, but hashes the values in batches and inserts them
+     * with {@link #addHashes(long[], int, int)}.
+     */
+    public void addAll(long[] values, int offset, int length)
+    {
+        checkPositionIndexes(offset, offset + length, values.length);
+
+        long[] hashes = new long[Math.min(length, BATCH_SIZE)];
+        for (int position = offset; position < offset + length; position += hashes.length) {
+            int batch = Math.min(hashes.length, offset + length - position);
+            for (int i = 0; i < batch; i++) {
+                hashes[i] = Murmur3Hash128.hash64(values[position + i]);
+            }
+            addHashes(hashes, 0, batch);
+        }
+    }
+
+    /**
+     * Adds {@code length} hashes starting at {@code offset}. This is equivalent to calling
+     * {@link #addHash(long)} for each hash, except that while the instance is sparse, the
+     * hashes are sorted and merged in batches, and the check for converting to dense is
+     * done once per batch. A batch ends about where the instance would go dense, so the
+     * remaining hashes go straight to the dense instance.
+     */
+    public void addHashes(long[] hashes, int offset, int length)
+    {
+        checkPositionIndexes(offset, offset + length, hashes.length);
+
+        int end = offset + length;
+        int position = offset;
+        while (position < end && instance instanceof SparseHll) {
+            SparseHll sparse = (SparseHll) instance;
+            int batch = Math.min(end - position, Math.max(sparse.entriesBeforeDense() + 1, MIN_SPARSE_BATCH_SIZE));
+            sparse.insertHashes(hashes, position, batch);
+            instance = makeDenseIfNecessary(sparse);
+            position += batch;
+        }
+
+        for (; position < end; position++) {
+            instance.insertHash(hashes[position]);
+        }
+    }
+
     public void mergeWith(HyperLogLog other)
     {
         if (instance instanceof SparseHll && other.instance instanceof SparseHll) {
@@ -117,6 +117,45 @@ final class SparseHll
         }
     }
 
+    /**
+     * Inserts a batch of hashes. The entries of the batch are sorted and merged with the
+     * existing entries once, instead of being inserted one at a time.
+     */
+    public void insertHashes(long[] hashes, int offset, int length)
+    {
+        int[] batch = new int[length];
+        for (int i = 0; i < length; i++) {
+            // flip the sign bit, so the entries sort by unsigned bucket index, and then by value
+            batch[i] = encode(hashes[offset + i]) ^ Integer.MIN_VALUE;
+        }
+        Arrays.sort(batch);
+
+        // keep the last entry of each bucket, which has the highest value
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int entry = batch[i] ^ Integer.MIN_VALUE;
+            if (count > 0 && decodeBucketIndex(batch[count - 1]) == decodeBucketIndex(entry)) {
+                batch[count - 1] = entry;
+            }
+            else {
+                batch[count++] = entry;
+            }
+        }
+
+        entries = mergeEntries(entries, numberOfEntries, batch, count);
+        numberOfEntries = (short) entries.length;
+    }
+
+    /**
+     * Returns the number of entries that can be added before this instance takes more
+     * memory than a dense instance.
+     */
+    public int entriesBeforeDense()
+    {
+        long maxEntries = (DenseHll.estimatedInMemorySize(indexBitLength) - SPARSE_INSTANCE_SIZE - SizeOf.sizeOfIntArray(0)) / SizeOf.SIZE_OF_INT;
+        return toIntExact(Math.max(maxEntries - numberOfEntries, 0));
+    }
+
     private int encode(long hash)
     {
         return encode(computeIndex(hash, EXTENDED_PREFIX_BITS), numberOfLeadingZeros(hash, EXTENDED_PREFIX_BITS));
@@ -144,7 +183,7 @@ final class SparseHll
 
     public void mergeWith(SparseHll other)
     {
-        entries = mergeEntries(other);
+        entries = mergeEntries(entries, numberOfEntries, other.entries, other.numberOfEntries);
         numberOfEntries = (short) entries.length;
     }
 
@@ -230,37 +269,37 @@ final class SparseHll
         return -(low + 1); // not found... return insertion point
     }
 
-    private int[] mergeEntries(SparseHll other)
+    private static int[] mergeEntries(int[] leftEntries, int leftCount, int[] rightEntries, int rightCount)
     {
-        int[] result = new int[numberOfEntries + other.numberOfEntries];
+        int[] result = new int[leftCount + rightCount];
         int leftIndex = 0;
         int rightIndex = 0;
 
         int index = 0;
-        while (leftIndex < numberOfEntries && rightIndex < other.numberOfEntries) {
-            int left = decodeBucketIndex(entries[leftIndex]);
-            int right = decodeBucketIndex(other.entries[rightIndex]);
+        while (leftIndex < leftCount && rightIndex < rightCount) {
+            int left = decodeBucketIndex(leftEntries[leftIndex]);
+            int right = decodeBucketIndex(rightEntries[rightIndex]);
 
             if (left < right) {
-                result[index++] = entries[leftIndex++];
+                result[index++] = leftEntries[leftIndex++];
             }
             else if (left > right) {
-                result[index++] = other.entries[rightIndex++];
+                result[index++] = rightEntries[rightIndex++];
             }
             else {
-                int value = Math.max(decodeBucketValue(entries[leftIndex]), decodeBucketValue(other.entries[rightIndex]));
+                int value = Math.max(decodeBucketValue(leftEntries[leftIndex]), decodeBucketValue(rightEntries[rightIndex]));
                 result[index++] = encode(left, value);
                 leftIndex++;
                 rightIndex++;
             }
         }
 
-        while (leftIndex < numberOfEntries) {
-            result[index++] = entries[leftIndex++];
+        while (leftIndex < leftCount) {
+            result[index++] = leftEntries[leftIndex++];
         }
 
-        while (rightIndex < other.numberOfEntries) {
-            result[index++] = other.entries[rightIndex++];
+        while (rightIndex < rightCount) {
+            result[index++] = rightEntries[rightIndex++];
         }
 
         return Arrays.copyOf(result, index);
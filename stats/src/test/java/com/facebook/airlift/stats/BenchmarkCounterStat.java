@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Increments per second of a shared counter. Run with different thread counts to compare
+ * the scaling of the decay counters with a plain atomic counter.
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BenchmarkCounterStat
+{
+    @State(Scope.Benchmark)
+    public static class Counters
+    {
+        private final CounterStat counterStat = new CounterStat();
+        private final DecayCounter decayCounter = new DecayCounter(ExponentialDecay.oneMinute());
+        private final AtomicLong atomicLong = new AtomicLong();
+    }
+
+    @Benchmark
+    public void benchmarkCounterStat(Counters counters)
+    {
+        counters.counterStat.update(1);
+    }
+
+    @Benchmark
+    public void benchmarkDecayCounter(Counters counters)
+    {
+        counters.decayCounter.add(1);
+    }
+
+    @Benchmark
+    public long benchmarkAtomicLong(Counters counters)
+    {
+        return counters.atomicLong.incrementAndGet();
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        for (int threads : new int[] {1, 4, 16, 64}) {
+            Options options = new OptionsBuilder()
+                    .verbosity(VerboseMode.NORMAL)
+                    .threads(threads)
+                    .include(".*" + BenchmarkCounterStat.class.getSimpleName() + ".*")
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sketch with a {@link QuantileDigest} on the data of {@link BenchmarkQuantileDigest}.
+ * The serialized sizes and rank errors of both are printed before the benchmarks run.
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class BenchmarkKllSketch
+{
+    private static final int NUMBER_OF_ENTRIES = 10_000;
+    private static final double MAX_ERROR = 0.01;
+    // about the rank error of a digest with MAX_ERROR on this data, in a quarter of the size
+    private static final int K = 1000;
+    private static final List<Double> QUANTILES = ImmutableList.of(0.01, 0.05, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99);
+
+    @State(Scope.Thread)
+    public static class Data
+    {
+        private long[] values1;
+        private long[] values2;
+
+        @Setup
+        public void setup()
+        {
+            values1 = makeValues(NUMBER_OF_ENTRIES);
+            values2 = makeValues(NUMBER_OF_ENTRIES);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Sketches
+    {
+        private KllSketch sketch1;
+        private KllSketch sketch2;
+        private Slice serializedSketch;
+        private QuantileDigest digest1;
+        private QuantileDigest digest2;
+        private Slice serializedDigest;
+
+        @Setup
+        public void setup(Data data)
+        {
+            sketch1 = makeSketch(data.values1);
+            sketch2 = makeSketch(data.values2);
+            serializedSketch = sketch1.serialize();
+            digest1 = makeDigest(data.values1);
+            digest2 = makeDigest(data.values2);
+            serializedDigest = digest1.serialize();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_ENTRIES)
+    public KllSketch benchmarkInsertsSketch(Data data)
+    {
+        return makeSketch(data.values1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_ENTRIES)
+    public QuantileDigest benchmarkInsertsDigest(Data data)
+    {
+        return makeDigest(data.values1);
+    }
+
+    @Benchmark
+    public KllSketch benchmarkMergeSketch(Sketches data)
+    {
+        KllSketch merged = new KllSketch(data.sketch1);
+        merged.merge(data.sketch2);
+        return merged;
+    }
+
+    @Benchmark
+    public QuantileDigest benchmarkMergeDigest(Sketches data)
+    {
+        QuantileDigest merged = new QuantileDigest(data.digest1);
+        merged.merge(data.digest2);
+        return merged;
+    }
+
+    @Benchmark
+    public KllSketch benchmarkMergeSerializedSketch(Sketches data)
+    {
+        KllSketch merged = new KllSketch(data.serializedSketch);
+        merged.merge(new KllSketch(data.serializedSketch));
+        return merged;
+    }
+
+    @Benchmark
+    public QuantileDigest benchmarkMergeSerializedDigest(Sketches data)
+    {
+        QuantileDigest merged = new QuantileDigest(data.serializedDigest);
+        merged.merge(new QuantileDigest(data.serializedDigest));
+        return merged;
+    }
+
+    @Benchmark
+    public Slice benchmarkSerializeSketch(Sketches data)
+    {
+        return data.sketch1.serialize();
+    }
+
+    @Benchmark
+    public Slice benchmarkSerializeDigest(Sketches data)
+    {
+        return data.digest1.serialize();
+    }
+
+    @Benchmark
+    public List<Long> benchmarkQuantilesSketch(Sketches data)
+    {
+        return data.sketch1.getQuantiles(QUANTILES);
+    }
+
+    @Benchmark
+    public List<Long> benchmarkQuantilesDigest(Sketches data)
+    {
+        return data.digest1.getQuantiles(QUANTILES);
+    }
+
+    private static long[] makeValues(int size)
+    {
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            // generate values from a large domain but not many distinct values
+            long value = Math.abs((long) (ThreadLocalRandom.current().nextGaussian() * 1_000_000_000));
+            values[i] = (value / 1_000_000) * 1_000_000;
+        }
+
+        return values;
+    }
+
+    private static KllSketch makeSketch(long[] values)
+    {
+        KllSketch sketch = new KllSketch(K);
+        for (long value : values) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+
+    private static QuantileDigest makeDigest(long[] values)
+    {
+        QuantileDigest digest = new QuantileDigest(MAX_ERROR);
+        for (long value : values) {
+            digest.add(value);
+        }
+        return digest;
+    }
+
+    private static void printAccuracy()
+    {
+        long[] values = makeValues(NUMBER_OF_ENTRIES);
+        QuantileDigest digest = makeDigest(values);
+        KllSketch sketch = makeSketch(values);
+        KllSketch defaultSketch = new KllSketch();
+        for (long value : values) {
+            defaultSketch.add(value);
+        }
+
+        Arrays.sort(values);
+        System.out.printf("QuantileDigest(%s): %s bytes, max rank error %.4f%n", MAX_ERROR, digest.serialize().length(), maxRankError(values, digest.getQuantiles(QUANTILES)));
+        System.out.printf("KllSketch(%s): %s bytes, max rank error %.4f%n", K, sketch.serialize().length(), maxRankError(values, sketch.getQuantiles(QUANTILES)));
+        System.out.printf("KllSketch(%s): %s bytes, max rank error %.4f%n", KllSketch.DEFAULT_K, defaultSketch.serialize().length(), maxRankError(values, defaultSketch.getQuantiles(QUANTILES)));
+    }
+
+    private static double maxRankError(long[] sortedValues, List<Long> quantileValues)
+    {
+        double maxError = 0;
+        for (int i = 0; i < QUANTILES.size(); i++) {
+            // the values repeat, so use the closest rank of the value to the quantile
+            long value = quantileValues.get(i);
+            double target = QUANTILES.get(i) * sortedValues.length;
+            int low = lowerBound(sortedValues, value);
+            int high = lowerBound(sortedValues, value + 1);
+            double rank = Math.max(low, Math.min(high, target));
+            maxError = Math.max(maxError, Math.abs(rank - target) / sortedValues.length);
+        }
+        return maxError;
+    }
+
+    private static int lowerBound(long[] sortedValues, long value)
+    {
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedValues[middle] < value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        printAccuracy();
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkKllSketch.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Compares recording into a {@link TimeStat} with recording into one {@link TimeDistribution}
+ * per window, which is how {@code TimeStat} recorded samples before the shared buffer.
+ * Run with different thread counts to compare the scaling under contention.
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BenchmarkTimeStat
+{
+    private static final int VALUES = 1024;
+
+    @State(Scope.Thread)
+    public static class Data
+    {
+        private final long[] values = new long[VALUES];
+        private int index;
+
+        @Setup
+        public void setup()
+        {
+            for (int i = 0; i < VALUES; i++) {
+                // latencies between 10us and 100ms
+                values[i] = ThreadLocalRandom.current().nextLong(10_000, 100_000_000);
+            }
+        }
+
+        private long next()
+        {
+            index = (index + 1) & (VALUES - 1);
+            return values[index];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stats
+    {
+        private final TimeStat timeStat = new TimeStat();
+
+        private final TimeDistribution oneMinute = new TimeDistribution(ExponentialDecay.oneMinute());
+        private final TimeDistribution fiveMinutes = new TimeDistribution(ExponentialDecay.fiveMinutes());
+        private final TimeDistribution fifteenMinutes = new TimeDistribution(ExponentialDecay.fifteenMinutes());
+        private final TimeDistribution allTime = new TimeDistribution();
+    }
+
+    @Benchmark
+    public void benchmarkTimeStat(Stats stats, Data data)
+    {
+        stats.timeStat.add(data.next(), NANOSECONDS);
+    }
+
+    @Benchmark
+    public void benchmarkTimeDistributions(Stats stats, Data data)
+    {
+        long value = data.next();
+        stats.oneMinute.add(value);
+        stats.fiveMinutes.add(value);
+        stats.fifteenMinutes.add(value);
+        stats.allTime.add(value);
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        for (int threads : new int[] {1, 4, 16}) {
+            Options options = new OptionsBuilder()
+                    .verbosity(VerboseMode.NORMAL)
+                    .threads(threads)
+                    .include(".*" + BenchmarkTimeStat.class.getSimpleName() + ".*")
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
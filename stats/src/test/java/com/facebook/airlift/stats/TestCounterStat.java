@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.facebook.airlift.stats.CounterStat.CounterStatSnapshot;
+import com.facebook.airlift.testing.TestingTicker;
+import org.testng.annotations.Test;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+public class TestCounterStat
+{
+    @Test
+    public void testUpdate()
+    {
+        TestingTicker ticker = new TestingTicker();
+        CounterStat stat = new CounterStat(ticker);
+        stat.update(3);
+        ticker.increment(1, MINUTES);
+        stat.update(2);
+
+        assertEquals(stat.getTotalCount(), 5);
+        assertEquals(stat.getOneMinute().getCount(), 2 + 3 / Math.E, 1e-9);
+        assertEquals(stat.getFiveMinute().getCount(), 2 + 3 / Math.exp(0.2), 1e-9);
+        assertEquals(stat.getFifteenMinute().getCount(), 2 + 3 / Math.exp(1.0 / 15), 1e-9);
+
+        CounterStatSnapshot snapshot = stat.snapshot();
+        assertEquals(snapshot.getTotalCount(), 5);
+        assertEquals(snapshot.getOneMinute().getCount(), 2 + 3 / Math.E, 1e-9);
+    }
+
+    @Test
+    public void testMergeAndReset()
+    {
+        TestingTicker ticker = new TestingTicker();
+        CounterStat stat = new CounterStat(ticker);
+        stat.update(3);
+
+        CounterStat other = new CounterStat(ticker);
+        other.update(4);
+        stat.merge(other);
+        assertEquals(stat.getTotalCount(), 7);
+        assertEquals(stat.getOneMinute().getCount(), 7, 1e-9);
+
+        other.resetTo(stat);
+        assertEquals(other.getTotalCount(), 7);
+        assertEquals(other.getFifteenMinute().getCount(), 7, 1e-9);
+
+        stat.reset();
+        assertEquals(stat.getTotalCount(), 0);
+        assertEquals(stat.getOneMinute().getCount(), 0.0);
+    }
+}
@@ -3,8 +3,15 @@ package com.facebook.airlift.stats;
 import com.facebook.airlift.testing.TestingTicker;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 public class TestDecayCounter
@@ -34,4 +41,85 @@ public class TestDecayCounter
         double expected = 2 + 1 / Math.E;
         assertTrue(Math.abs(counter.getCount() - expected) < 1e-9);
     }
+
+    @Test
+    public void testMerge()
+    {
+        TestingTicker ticker = new TestingTicker();
+
+        DecayCounter counter = new DecayCounter(ExponentialDecay.oneMinute(), ticker);
+        counter.add(1);
+        ticker.increment(1, TimeUnit.MINUTES);
+
+        // the other counter has a later landmark
+        DecayCounter other = new DecayCounter(ExponentialDecay.oneMinute(), ticker);
+        other.add(2);
+        counter.merge(other);
+
+        double expected = 2 + 1 / Math.E;
+        assertTrue(Math.abs(counter.getCount() - expected) < 1e-9);
+        assertTrue(Math.abs(other.getCount() - 2) < 1e-9);
+
+        // merging into a counter with a later landmark
+        other.merge(new DecayCounter(ExponentialDecay.oneMinute(), new TestingTicker()));
+        assertTrue(Math.abs(other.getCount() - 2) < 1e-9);
+
+        ticker.increment(1, TimeUnit.MINUTES);
+        assertTrue(Math.abs(counter.getCount() - expected / Math.E) < 1e-9);
+    }
+
+    @Test
+    public void testResetTo()
+    {
+        TestingTicker ticker = new TestingTicker();
+
+        DecayCounter counter = new DecayCounter(ExponentialDecay.oneMinute(), ticker);
+        counter.add(1);
+        ticker.increment(2, TimeUnit.MINUTES);
+        counter.add(2);
+
+        DecayCounter copy = new DecayCounter(ExponentialDecay.oneMinute(), ticker);
+        copy.add(10);
+        copy.resetTo(counter);
+        assertTrue(Math.abs(copy.getCount() - counter.getCount()) < 1e-9);
+
+        copy.reset();
+        assertEquals(copy.getCount(), 0.0);
+    }
+
+    @Test
+    public void testConcurrentAdds()
+            throws Exception
+    {
+        int threads = 8;
+        int adds = 100_000;
+
+        TestingTicker ticker = new TestingTicker();
+        // no decay, so the count is exact regardless of the time of each add
+        DecayCounter counter = new DecayCounter(ExponentialDecay.computeAlpha(0.999_999_999, 1_000_000), ticker);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < adds; i++) {
+                        counter.add(1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(counter.getCount(), (double) threads * adds, 1e-3);
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.facebook.airlift.stats.HistogramStat.HistogramStatSnapshot;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestHistogramStat
+{
+    @Test
+    public void testBasic()
+    {
+        HistogramStat stat = new HistogramStat();
+        for (long value = 1; value <= 1000; value++) {
+            stat.add(value);
+        }
+
+        assertEquals(stat.getCount(), 1000);
+        assertEquals(stat.getMin(), 1.0);
+        assertEquals(stat.getMax(), 1000.0, 1000 * 2 * stat.getMaxError());
+        assertEquals(stat.getAvg(), 500.5, 500.5 * stat.getMaxError());
+        assertEquals(stat.getP50(), 500.0, 500 * 2 * stat.getMaxError());
+        assertEquals(stat.getP99(), 990.0, 990 * 2 * stat.getMaxError());
+
+        HistogramStatSnapshot snapshot = stat.snapshot();
+        assertEquals(snapshot.getCount(), 1000);
+        assertEquals(snapshot.getP50(), stat.getP50());
+        assertEquals(snapshot.getP999(), stat.getP999());
+        assertEquals(stat.getPercentiles().size(), 100);
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        HistogramStat stat = new HistogramStat();
+        assertEquals(stat.getCount(), 0);
+        assertTrue(Double.isNaN(stat.getMin()));
+        assertTrue(Double.isNaN(stat.getMax()));
+        assertTrue(Double.isNaN(stat.getAvg()));
+        assertTrue(Double.isNaN(stat.getP50()));
+    }
+
+    @Test
+    public void testMergeAndReset()
+    {
+        HistogramStat stat = new HistogramStat();
+        stat.add(10);
+        HistogramStat other = new HistogramStat();
+        other.add(20);
+
+        stat.merge(other);
+        assertEquals(stat.getCount(), 2);
+        assertEquals(stat.getMax(), 20.0);
+
+        stat.reset();
+        assertEquals(stat.getCount(), 0);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testMeterStat()
+    {
+        MeterStat meter = new MeterStat(true);
+        for (long value = 1; value <= 100; value++) {
+            meter.update(value);
+        }
+        assertEquals(meter.getSum(), 5050);
+        assertEquals(meter.getMin(), 1);
+        assertEquals(meter.getMax(), 100, 2);
+        assertEquals(meter.getTP50(), 50, 1);
+        assertEquals(meter.getMean(), 50.5, 1);
+    }
+}
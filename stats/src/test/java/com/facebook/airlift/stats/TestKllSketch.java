@@ -0,0 +1,190 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.facebook.airlift.stats.KllSketch.DEFAULT_K;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class TestKllSketch
+{
+    private static final List<Double> QUANTILES = ImmutableList.of(0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99);
+
+    @Test
+    public void testSmall()
+    {
+        // the sketch is exact until it is full
+        KllSketch sketch = new KllSketch();
+        for (long value = 1; value <= 100; value++) {
+            sketch.add(value);
+        }
+
+        assertEquals(sketch.getCount(), 100);
+        assertEquals(sketch.getMin(), 1);
+        assertEquals(sketch.getMax(), 100);
+        assertEquals(sketch.getQuantiles(ImmutableList.of(0.0, 0.5, 0.9, 1.0)), ImmutableList.of(1L, 51L, 91L, 100L));
+    }
+
+    @Test
+    public void testQuantiles()
+    {
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        KllSketch sketch = new KllSketch(DEFAULT_K, new Random(1));
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (random.nextGaussian() * 1_000_000_000);
+            sketch.add(values[i]);
+        }
+
+        assertEquals(sketch.getCount(), values.length);
+        assertQuantiles(sketch, values);
+    }
+
+    @Test
+    public void testMerge()
+    {
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        Random compactionRandom = new Random(1);
+        KllSketch merged = new KllSketch(DEFAULT_K, compactionRandom);
+        for (int part = 0; part < 100; part++) {
+            KllSketch sketch = new KllSketch(DEFAULT_K, compactionRandom);
+            for (int i = 0; i < 1000; i++) {
+                long value = random.nextInt(1_000_000);
+                values[part * 1000 + i] = value;
+                sketch.add(value);
+            }
+            merged.merge(sketch);
+        }
+
+        assertEquals(merged.getCount(), values.length);
+        assertEquals(merged.getMin(), Arrays.stream(values).min().getAsLong());
+        assertEquals(merged.getMax(), Arrays.stream(values).max().getAsLong());
+        assertQuantiles(merged, values);
+
+        // the size is bounded, no matter how many sketches were merged
+        assertTrue(merged.estimatedSerializedSizeInBytes() < 3 * merged.getK() * Long.BYTES + 1000);
+    }
+
+    @Test
+    public void testWeights()
+    {
+        KllSketch sketch = new KllSketch();
+        sketch.add(10, 1000);
+        sketch.add(20, 3000);
+
+        assertEquals(sketch.getCount(), 4000);
+        assertEquals(sketch.getQuantiles(ImmutableList.of(0.2, 0.3, 0.9)), ImmutableList.of(10L, 20L, 20L));
+
+        // one value for each bit of the weights, 6 for 1000 and 7 for 3000, in 12 levels
+        assertEquals(sketch.estimatedSerializedSizeInBytes(), 30 + 12 * Integer.BYTES + 13 * Long.BYTES);
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        KllSketch sketch = new KllSketch();
+        assertEquals(sketch.getCount(), 0);
+        assertEquals(sketch.getMin(), Long.MAX_VALUE);
+        assertEquals(sketch.getMax(), Long.MIN_VALUE);
+        assertEquals(sketch.getQuantiles(ImmutableList.of(0.5, 0.9)), ImmutableList.of(Long.MIN_VALUE, Long.MIN_VALUE));
+
+        sketch.merge(new KllSketch());
+        assertEquals(sketch.getCount(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMergeDifferentK()
+    {
+        new KllSketch(100).merge(new KllSketch(200));
+    }
+
+    @Test
+    public void testSerialization()
+    {
+        KllSketch sketch = new KllSketch(50, new Random(1));
+        for (long value = -10_000; value < 10_000; value++) {
+            sketch.add(value);
+        }
+
+        KllSketch deserialized = new KllSketch(sketch.serialize());
+        assertEquals(deserialized.getK(), 50);
+        assertEquals(deserialized.getCount(), sketch.getCount());
+        assertEquals(deserialized.getMin(), -10_000);
+        assertEquals(deserialized.getMax(), 9_999);
+        assertEquals(deserialized.getQuantiles(QUANTILES), sketch.getQuantiles(QUANTILES));
+        assertEquals(deserialized.serialize(), sketch.serialize());
+        assertEquals(sketch.serialize().length(), sketch.estimatedSerializedSizeInBytes());
+    }
+
+    @Test
+    public void testCopy()
+    {
+        KllSketch sketch = new KllSketch(DEFAULT_K, new Random(1));
+        for (long value = 0; value < 10_000; value++) {
+            sketch.add(value);
+        }
+
+        KllSketch copy = new KllSketch(sketch);
+        assertEquals(copy.getCount(), sketch.getCount());
+        assertEquals(copy.getQuantiles(QUANTILES), sketch.getQuantiles(QUANTILES));
+    }
+
+    @Test
+    public void testCorruptWeight()
+    {
+        // four values at the top level have a weight of 2^64, which wraps to the count of zero
+        int numberOfLevels = Long.SIZE - 1;
+        DynamicSliceOutput output = new DynamicSliceOutput(0);
+        output.writeByte(0);
+        output.writeInt(DEFAULT_K);
+        output.writeLong(0);
+        output.writeLong(1);
+        output.writeLong(2);
+        output.writeByte(numberOfLevels);
+        for (int level = 0; level < numberOfLevels - 1; level++) {
+            output.writeInt(0);
+        }
+        output.writeInt(4);
+        for (int i = 0; i < 4; i++) {
+            output.writeLong(i);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(output.slice()));
+    }
+
+    private static void assertQuantiles(KllSketch sketch, long[] values)
+    {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        List<Long> quantiles = sketch.getQuantiles(QUANTILES);
+        for (int i = 0; i < QUANTILES.size(); i++) {
+            // rank of the value returned for the quantile
+            int rank = Arrays.binarySearch(sorted, quantiles.get(i));
+            assertTrue(rank >= 0, "value was not added to the sketch");
+            double error = Math.abs((double) rank / sorted.length - QUANTILES.get(i));
+            assertTrue(error <= 2 * sketch.getRankError(), "quantile " + QUANTILES.get(i) + " has error " + error);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestLogLinearHistogram
+{
+    @Test
+    public void testBuckets()
+    {
+        LogLinearHistogram histogram = new LogLinearHistogram(3);
+
+        // values below 2^precision have a bucket each
+        for (long value = 0; value < 8; value++) {
+            assertEquals(histogram.bucket(value), (int) value);
+            assertEquals(histogram.lowerBound((int) value), value);
+            assertEquals(histogram.upperBound((int) value), value);
+        }
+
+        // 8..15 are still exact, and 16..31 are split into buckets of two
+        assertEquals(histogram.bucket(8), 8);
+        assertEquals(histogram.bucket(15), 15);
+        assertEquals(histogram.bucket(16), 16);
+        assertEquals(histogram.bucket(17), 16);
+        assertEquals(histogram.bucket(18), 17);
+        assertEquals(histogram.lowerBound(17), 18);
+        assertEquals(histogram.upperBound(17), 19);
+
+        assertEquals(histogram.bucket(-1), 0);
+        int last = histogram.bucket(Long.MAX_VALUE);
+        assertEquals(last, ((Long.SIZE - 3) << 3) - 1);
+        assertEquals(histogram.upperBound(last), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testBucketBounds()
+    {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            int bucket = histogram.bucket(value);
+            assertTrue(histogram.lowerBound(bucket) <= value && value <= histogram.upperBound(bucket), "value " + value + " bucket " + bucket);
+
+            // buckets are adjacent
+            if (bucket > 0) {
+                assertEquals(histogram.upperBound(bucket - 1) + 1, histogram.lowerBound(bucket));
+            }
+        }
+    }
+
+    @Test
+    public void testQuantiles()
+    {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        List<Long> values = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long value = (long) Math.abs(random.nextGaussian() * 1_000_000_000);
+            values.add(value);
+            histogram.add(value);
+        }
+        Collections.sort(values);
+
+        assertEquals(histogram.getCount(), values.size());
+        assertEquals(histogram.getMin(), values.get(0), values.get(0) * 0.02);
+        assertEquals(histogram.getMax(), values.get(values.size() - 1), values.get(values.size() - 1) * 0.02);
+        double mean = values.stream().mapToLong(Long::longValue).average().getAsDouble();
+        assertEquals(histogram.getMean(), mean, mean * histogram.getMaxError());
+
+        for (double quantile : ImmutableList.of(0.5, 0.9, 0.99, 0.999)) {
+            long expected = values.get((int) (quantile * values.size()));
+            assertEquals(histogram.getQuantile(quantile), expected, expected * 2 * histogram.getMaxError());
+        }
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getMin(), Long.MAX_VALUE);
+        assertEquals(histogram.getMax(), Long.MIN_VALUE);
+        assertEquals(histogram.getQuantiles(ImmutableList.of(0.5, 0.9)), ImmutableList.of(Long.MIN_VALUE, Long.MIN_VALUE));
+        assertTrue(Double.isNaN(histogram.getMean()));
+    }
+
+    @Test
+    public void testMerge()
+    {
+        LogLinearHistogram first = new LogLinearHistogram();
+        LogLinearHistogram second = new LogLinearHistogram();
+        LogLinearHistogram all = new LogLinearHistogram();
+        for (long value = 0; value < 10_000; value++) {
+            (value % 3 == 0 ? first : second).add(value * 1000);
+            all.add(value * 1000);
+        }
+
+        LogLinearHistogram merged = new LogLinearHistogram(first);
+        merged.merge(second);
+        assertEquals(merged.serialize(), all.serialize());
+        assertEquals(merged.getQuantiles(ImmutableList.of(0.1, 0.5, 0.9)), all.getQuantiles(ImmutableList.of(0.1, 0.5, 0.9)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMergeDifferentPrecision()
+    {
+        new LogLinearHistogram(5).merge(new LogLinearHistogram(6));
+    }
+
+    @Test
+    public void testSerialization()
+    {
+        LogLinearHistogram histogram = new LogLinearHistogram(4);
+        histogram.add(0);
+        histogram.add(7, 3);
+        histogram.add(1_000_000);
+        histogram.add(Long.MAX_VALUE);
+
+        LogLinearHistogram deserialized = new LogLinearHistogram(histogram.serialize());
+        assertEquals(deserialized.getPrecision(), 4);
+        assertEquals(deserialized.getCount(), 6);
+        assertEquals(deserialized.serialize(), histogram.serialize());
+
+        // only the buckets with a value are serialized
+        assertEquals(histogram.serialize().length(), 1 + 1 + 4 + 4 * (4 + 8));
+    }
+
+    @Test
+    public void testReset()
+    {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.add(10);
+        histogram.reset();
+        assertEquals(histogram.getCount(), 0);
+    }
+}
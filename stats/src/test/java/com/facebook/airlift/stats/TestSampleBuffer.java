@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import com.facebook.airlift.testing.TestingTicker;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static com.facebook.airlift.stats.SampleBuffer.BATCH_SIZE;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestSampleBuffer
+{
+    @Test
+    public void testFullBatch()
+    {
+        List<List<Long>> batches = new ArrayList<>();
+        SampleBuffer buffer = new SampleBuffer((values, count, age) -> batches.add(toList(values, count)), new TestingTicker());
+
+        for (long i = 0; i < BATCH_SIZE - 1; i++) {
+            buffer.add(i);
+        }
+        assertTrue(batches.isEmpty());
+
+        buffer.add(BATCH_SIZE - 1);
+        assertEquals(batches, ImmutableList.of(LongStream.range(0, BATCH_SIZE).boxed().collect(toImmutableList())));
+    }
+
+    @Test
+    public void testFlush()
+    {
+        List<List<Long>> batches = new ArrayList<>();
+        SampleBuffer buffer = new SampleBuffer((values, count, age) -> batches.add(toList(values, count)), new TestingTicker());
+
+        // an empty buffer is not consumed
+        buffer.flush();
+        assertTrue(batches.isEmpty());
+
+        buffer.add(1);
+        buffer.add(2);
+        buffer.flush();
+        assertEquals(batches, ImmutableList.of(ImmutableList.of(1L, 2L)));
+
+        buffer.add(3);
+        buffer.flush();
+        assertEquals(batches, ImmutableList.of(ImmutableList.of(1L, 2L), ImmutableList.of(3L)));
+    }
+
+    @Test
+    public void testAge()
+    {
+        TestingTicker ticker = new TestingTicker();
+        List<Long> ages = new ArrayList<>();
+        List<List<Long>> batches = new ArrayList<>();
+        SampleBuffer buffer = new SampleBuffer((values, count, age) -> {
+            batches.add(toList(values, count));
+            ages.add(age);
+        }, ticker);
+
+        buffer.add(1);
+        ticker.increment(10, SECONDS);
+
+        // a sample in a later second completes the batch
+        buffer.add(2);
+        assertEquals(batches, ImmutableList.of(ImmutableList.of(1L)));
+        assertEquals(ages, ImmutableList.of(10L));
+
+        ticker.increment(5, SECONDS);
+        buffer.flush();
+        assertEquals(batches, ImmutableList.of(ImmutableList.of(1L), ImmutableList.of(2L)));
+        assertEquals(ages, ImmutableList.of(10L, 5L));
+    }
+
+    @Test
+    public void testConcurrentAdds()
+            throws Exception
+    {
+        int threads = 8;
+        int samples = 100_000;
+
+        AtomicLong count = new AtomicLong();
+        AtomicLong sum = new AtomicLong();
+        SampleBuffer buffer = new SampleBuffer((values, batchCount, age) -> {
+            count.addAndGet(batchCount);
+            for (int i = 0; i < batchCount; i++) {
+                sum.addAndGet(values[i]);
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < samples; i++) {
+                        buffer.add(1);
+                    }
+                    return null;
+                }));
+            }
+            // flush concurrently with the writers
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < samples; i++) {
+                    buffer.flush();
+                }
+                return null;
+            }));
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        buffer.flush();
+        assertEquals(count.get(), (long) threads * samples);
+        assertEquals(sum.get(), (long) threads * samples);
+    }
+
+    private static List<Long> toList(long[] values, int count)
+    {
+        List<Long> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(values[i]);
+        }
+        return list;
+    }
+}
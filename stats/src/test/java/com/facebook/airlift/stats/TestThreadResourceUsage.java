@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.airlift.stats;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class TestThreadResourceUsage
+{
+    private static volatile Object sink;
+
+    @Test
+    public void testAllocatedBytes()
+    {
+        ThreadResourceUsage usage = ThreadResourceUsage.start();
+        for (int i = 0; i < 1000; i++) {
+            sink = new byte[1024];
+        }
+        assertTrue(usage.getAllocatedBytes() >= 1024 * 1000);
+        assertTrue(usage.getCpuTimeNanos() >= 0);
+    }
+
+    @Test
+    public void testOtherThread()
+            throws Exception
+    {
+        ThreadResourceUsage usage = ThreadResourceUsage.start();
+        CompletableFuture<Void> future = CompletableFuture.runAsync(usage::getCpuTimeNanos);
+        ExecutionException exception = expectThrows(ExecutionException.class, future::get);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+}
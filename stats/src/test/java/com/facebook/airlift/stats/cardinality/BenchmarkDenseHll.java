@@ -66,6 +66,18 @@ public class BenchmarkDenseHll
         return data.base.mergeWith(data.toMerge);
     }
 
+    @Benchmark
+    public DenseHll benchmarkMergeWithLargeDense(MergeWithLargeDenseData data)
+    {
+        return data.base.mergeWith(data.toMerge);
+    }
+
+    @Benchmark
+    public long benchmarkCardinality(CardinalityData data)
+    {
+        return data.instance.cardinality();
+    }
+
     @State(Scope.Thread)
     public static class InsertData
     {
@@ -126,6 +138,41 @@ public class BenchmarkDenseHll
         }
     }
 
+    @State(Scope.Thread)
+    public static class MergeWithLargeDenseData
+    {
+        public DenseHll base;
+        public DenseHll toMerge;
+
+        @Setup(Level.Iteration)
+        public void initialize()
+        {
+            // both have a baseline above zero and overflows, and a different
+            // maximum per bucket, so the merge goes through all of the buckets
+            base = new DenseHll(12);
+            toMerge = new DenseHll(12);
+            for (int i = 0; i < LARGE_CARDINALITY; i++) {
+                base.insertHash(ThreadLocalRandom.current().nextLong());
+                toMerge.insertHash(ThreadLocalRandom.current().nextLong());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CardinalityData
+    {
+        public DenseHll instance;
+
+        @Setup(Level.Iteration)
+        public void initialize()
+        {
+            instance = new DenseHll(12);
+            for (int i = 0; i < LARGE_CARDINALITY; i++) {
+                instance.insertHash(ThreadLocalRandom.current().nextLong());
+            }
+        }
+    }
+
     public static void main(String[] args)
             throws RunnerException
     {
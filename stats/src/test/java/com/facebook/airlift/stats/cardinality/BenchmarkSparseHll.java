@@ -48,18 +48,53 @@ public class BenchmarkSparseHll
         return data.instance;
     }
 
+    @Benchmark
+    public SparseHll benchmarkInsertBatch(Data data)
+    {
+        data.batchInstance.insertHashes(data.hashes, 0, data.hashes.length);
+
+        return data.batchInstance;
+    }
+
+    @Benchmark
+    public HyperLogLog benchmarkAdd(Data data)
+    {
+        HyperLogLog hll = HyperLogLog.newInstance(2048);
+        for (long value : data.values) {
+            hll.add(value);
+        }
+
+        return hll;
+    }
+
+    @Benchmark
+    public HyperLogLog benchmarkAddAll(Data data)
+    {
+        HyperLogLog hll = HyperLogLog.newInstance(2048);
+        hll.addAll(data.values, 0, data.values.length);
+
+        return hll;
+    }
+
     @State(Scope.Thread)
     public static class Data
     {
         public SparseHll instance = new SparseHll(11);
+        public SparseHll batchInstance = new SparseHll(11);
         public long[] hashes = new long[500];
 
+        // enough distinct values for the HyperLogLog to go dense
+        public long[] values = new long[1000];
+
         @Setup(Level.Iteration)
         public void initialize()
         {
             for (int i = 0; i < hashes.length; i++) {
                 hashes[i] = ThreadLocalRandom.current().nextLong();
             }
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ThreadLocalRandom.current().nextLong();
+            }
         }
     }
 
@@ -17,10 +17,14 @@ import io.airlift.slice.XxHash64;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static com.facebook.airlift.stats.cardinality.TestUtils.createHashForBucket;
 import static com.facebook.airlift.stats.cardinality.TestUtils.sequence;
+import static com.facebook.airlift.stats.cardinality.Utils.alpha;
+import static com.facebook.airlift.stats.cardinality.Utils.linearCounting;
 import static com.facebook.airlift.stats.cardinality.Utils.numberOfBuckets;
 import static io.airlift.slice.testing.SliceAssertions.assertSlicesEqual;
 import static org.testng.Assert.assertEquals;
@@ -161,6 +165,124 @@ public class TestDenseHll
         verifyMerge(prefixBitLength, sequence(0, 2_000_000), sequence(0, 2_000_000));
     }
 
+    @Test
+    public void testRandomMerges()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int indexBitLength = 4 + random.nextInt(13);
+            int[] buckets1 = randomBuckets(random, indexBitLength);
+            int[] buckets2 = randomBuckets(random, indexBitLength);
+
+            int[] expected = new int[buckets1.length];
+            for (int bucket = 0; bucket < expected.length; bucket++) {
+                expected[bucket] = Math.max(buckets1[bucket], buckets2[bucket]);
+            }
+
+            DenseHll hll1 = createHll(indexBitLength, buckets1);
+            DenseHll hll2 = createHll(indexBitLength, buckets2);
+            assertCardinality(hll1, buckets1);
+            assertCardinality(hll2, buckets2);
+
+            hll1.mergeWith(hll2);
+            hll1.verify();
+
+            for (int bucket = 0; bucket < expected.length; bucket++) {
+                assertEquals(hll1.getValue(bucket), expected[bucket]);
+            }
+            assertCardinality(hll1, expected);
+
+            // a merged HLL serializes like one built from the merged buckets
+            assertSlicesEqual(hll1.serialize(), createHll(indexBitLength, expected).serialize());
+        }
+    }
+
+    /**
+     * Returns bucket values above a random baseline, spread wide enough that some buckets
+     * overflow, or mostly empty buckets so the estimate uses linear counting.
+     */
+    private static int[] randomBuckets(Random random, int indexBitLength)
+    {
+        int[] buckets = new int[numberOfBuckets(indexBitLength)];
+        if (random.nextInt(4) == 0) {
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                buckets[bucket] = random.nextBoolean() ? 0 : 1 + random.nextInt(15);
+            }
+            return buckets;
+        }
+
+        // baselines differ by more than the largest delta between some pairs of HLLs
+        int baseline = random.nextInt(25);
+        int spread = 1 + random.nextInt(16);
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            if (random.nextInt(256) == 0) {
+                buckets[bucket] = baseline + 16 + random.nextInt(10);
+            }
+            else {
+                buckets[bucket] = baseline + random.nextInt(spread);
+            }
+        }
+        return buckets;
+    }
+
+    private static DenseHll createHll(int indexBitLength, int[] buckets)
+    {
+        DenseHll hll = new DenseHll(indexBitLength);
+
+        // raise the baseline one step at a time first, so only the buckets far above it need overflow entries
+        int baseline = Arrays.stream(buckets).min().getAsInt();
+        for (int value = 1; value <= baseline; value++) {
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                hll.insert(bucket, value);
+            }
+        }
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            hll.insert(bucket, buckets[bucket]);
+        }
+        hll.verify();
+        return hll;
+    }
+
+    /**
+     * Compares the estimate with one computed directly from the bucket values.
+     */
+    private static void assertCardinality(DenseHll hll, int[] buckets)
+    {
+        int numberOfBuckets = buckets.length;
+        int zeros = 0;
+        double sum = 0;
+        for (int value : buckets) {
+            if (value == 0) {
+                zeros++;
+            }
+            sum += Math.scalb(1.0, -value);
+        }
+
+        if (zeros > 0.4 * numberOfBuckets) {
+            assertEquals(hll.cardinality(), Math.round(linearCounting(zeros, numberOfBuckets)));
+            return;
+        }
+
+        double estimate = (alpha(hll.getIndexBitLength()) * numberOfBuckets * numberOfBuckets) / sum;
+        double[] estimates = BiasCorrection.RAW_ESTIMATES[hll.getIndexBitLength() - 4];
+        double[] biases = BiasCorrection.BIAS[hll.getIndexBitLength() - 4];
+        if (estimate >= estimates[0] && estimate <= estimates[estimates.length - 1]) {
+            int position = Arrays.binarySearch(estimates, estimate);
+            if (position >= 0) {
+                estimate -= biases[position];
+            }
+            else {
+                int insertionPoint = -(position + 1);
+                double x0 = estimates[insertionPoint - 1];
+                double x1 = estimates[insertionPoint];
+                estimate -= (((estimate - x0) * (biases[insertionPoint] - biases[insertionPoint - 1])) / (x1 - x0)) + biases[insertionPoint - 1];
+            }
+        }
+
+        // the sums may differ in the last bits when the values span more than a double's precision
+        assertEquals(hll.cardinality(), estimate, Math.max(1, estimate * 1.0e-12));
+    }
+
     private static void verifyMerge(int prefixBitLength, List<Long> one, List<Long> two)
     {
         DenseHll hll1 = new DenseHll(prefixBitLength);
@@ -128,6 +128,39 @@ public class TestHyperLogLog
         assertEquals(hll1.serialize(), expected.serialize());
     }
 
+    @Test
+    public void testAddAll()
+    {
+        // stays sparse
+        verifyAddAll(sequence(0, 100));
+
+        // goes dense within a batch, and after several batches
+        verifyAddAll(sequence(0, 1000));
+        verifyAddAll(sequence(0, 20000));
+    }
+
+    private void verifyAddAll(List<Long> sequence)
+    {
+        HyperLogLog hll = HyperLogLog.newInstance(2048);
+        HyperLogLog expected = HyperLogLog.newInstance(2048);
+
+        long[] values = new long[sequence.size() + 1];
+        for (int i = 0; i < sequence.size(); i++) {
+            values[i + 1] = sequence.get(i);
+            expected.add(sequence.get(i));
+        }
+
+        hll.addAll(values, 1, sequence.size());
+        hll.verify();
+
+        // the batch can go dense at a slightly different point than adding one at a time,
+        // but the buckets are the same
+        hll.makeDense();
+        expected.makeDense();
+        assertEquals(hll.cardinality(), expected.cardinality());
+        assertSlicesEqual(hll.serialize(), expected.serialize());
+    }
+
     @Test
     public void testRoundtrip()
             throws Exception
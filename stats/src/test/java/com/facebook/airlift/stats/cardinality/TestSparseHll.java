@@ -77,6 +77,23 @@ public class TestSparseHll
         verifyToDense(prefixBitLength, ImmutableList.of(224L, 271L));
     }
 
+    @Test(dataProvider = "bits")
+    public void testInsertHashes(int prefixBitLength)
+    {
+        verifyInsertHashes(prefixBitLength, ImmutableList.of(), sequence(0, 100));
+        verifyInsertHashes(prefixBitLength, sequence(0, 100), sequence(50, 150));
+
+        // the same values many times
+        verifyInsertHashes(prefixBitLength, sequence(0, 10), ImmutableList.<Long>builder()
+                .addAll(sequence(0, 100))
+                .addAll(sequence(0, 100))
+                .addAll(sequence(0, 100))
+                .build());
+
+        // multiple overflows (some with same index)
+        verifyInsertHashes(prefixBitLength, ImmutableList.of(29678L, 54004L), ImmutableList.of(64034L, 20591L, 56987L));
+    }
+
     @Test
     public void testRetainedSize()
     {
@@ -124,6 +141,32 @@ public class TestSparseHll
         assertSlicesEqual(hll1.serialize(), expected.serialize());
     }
 
+    private static void verifyInsertHashes(int prefixBitLength, List<Long> existing, List<Long> values)
+    {
+        SparseHll sparse = new SparseHll(prefixBitLength);
+        SparseHll expected = new SparseHll(prefixBitLength);
+
+        for (long value : existing) {
+            long hash = Murmur3Hash128.hash64(value);
+            sparse.insertHash(hash);
+            expected.insertHash(hash);
+        }
+
+        // pad the hashes, so the batch starts at an offset
+        long[] hashes = new long[values.size() + 2];
+        for (int i = 0; i < values.size(); i++) {
+            long hash = Murmur3Hash128.hash64(values.get(i));
+            hashes[i + 1] = hash;
+            expected.insertHash(hash);
+        }
+
+        sparse.insertHashes(hashes, 1, values.size());
+        sparse.verify();
+
+        assertEquals(sparse.cardinality(), expected.cardinality());
+        assertSlicesEqual(sparse.serialize(), expected.serialize());
+    }
+
     private static void verifyToDense(int prefixBitLength, List<Long> values)
     {
         DenseHll expected = new DenseHll(prefixBitLength);